@@ -0,0 +1,58 @@
+package com.mara.zoic.annohttp.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 将对单个对象的调用合并为对批量方法的调用（类似 DataLoader）。
+ * <p>被注解的方法只能有一个参数，即要查询的键；在 {@link #windowMillis()} 内（或者凑够 {@link #maxBatchSize()} 个不同的键时）
+ * 收集到的所有键会被合并，调用一次同一个服务接口中名为 {@link #method()} 的批量方法，再按照键把结果分发给各个调用者。相同的键只会查询一次。</p>
+ * <p>批量方法只能有一个参数，类型可以是 String（键以逗号连接，适用于 <code>/users?ids=1,2,3</code> 形式的接口）、List、Set、Collection 或者数组；
+ * 返回值可以是 Map（按照键取值）、Collection 或者数组（按照 {@link #resultKey()} 取键，没有设定时按照顺序一一对应）。
+ * 批量结果中找不到的键得到null。</p>
+ * <p>被注解的方法的返回类型为 {@link java.util.concurrent.CompletableFuture} 时立即返回，否则阻塞等待结果，最多等待 {@link #timeoutMillis()}
+ * （调用线程存在上下文截止时间 {@link com.mara.zoic.annohttp.http.Deadline#current()} 时不超过剩余的预算）。在 annohttp 的后台线程上阻塞调用时，
+ * 当前批次直接在该线程上执行，不再等待时间窗口。批量调用失败时同一批的所有调用都会失败。</p>
+ * <pre>
+ * &#64;Batched(method = "getUsers", resultKey = "id")
+ * CompletableFuture&lt;User&gt; getUser(Long id);
+ *
+ * &#64;Request(uri = "/users")
+ * List&lt;User&gt; getUsers(&#64;Query("ids") String ids);
+ * </pre>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see com.mara.zoic.annohttp.http.batch.RequestBatcher
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Batched {
+
+    /**
+     * 批量方法的名称，必须在同一个服务接口中并且只有一个参数。
+     */
+    String method();
+
+    /**
+     * 从批量结果的元素中取得键的 SpEL 表达式，以元素为根对象，也可以用 <code>#result</code> 引用元素，例如 <code>id</code> 或者 <code>['id']</code>。
+     * <p>键按照字符串形式比较，因此 Integer 与 Long 的键可以匹配。批量方法返回 Map 时不需要设定。</p>
+     */
+    String resultKey() default "";
+
+    /**
+     * 收集调用的时间窗口（毫秒），从一批中的第一个调用开始计算，默认是10。
+     */
+    long windowMillis() default 10L;
+
+    /**
+     * 一批最多包含的不同的键的数量，达到时立即发起批量调用，默认是100。
+     */
+    int maxBatchSize() default 100;
+
+    /**
+     * 阻塞调用时等待结果的最长时间（毫秒），默认是30000。超时时抛出 {@link com.mara.zoic.annohttp.http.exception.RequestFailedException}，
+     * 上下文截止时间先到期时抛出 {@link com.mara.zoic.annohttp.http.exception.DeadlineExceededException}。
+     */
+    long timeoutMillis() default 30000L;
+}
@@ -0,0 +1,65 @@
+package com.mara.zoic.annohttp.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 为一个annohttp服务接口启用自适应并发限制。
+ * <p>annohttp 会根据观察到的响应时间（RTT）动态调整允许同时进行的请求数：响应时间稳定时逐步放宽上限，响应时间上升（下游开始排队）时收紧上限，
+ * 请求失败（IO异常、超时）时快速回退。超出上限的请求会在获取连接之前排队等待或者直接被拒绝
+ * （{@link com.mara.zoic.annohttp.http.exception.ConcurrencyLimitExceededException}），不会占用连接池。</p>
+ * <p>限制器的实时状态（当前上限、进行中的请求数、排队数）可以通过 {@link com.mara.zoic.annohttp.http.limit.ConcurrencyLimiters} 获得。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see com.mara.zoic.annohttp.http.limit.AdaptiveConcurrencyLimiter
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConcurrencyLimit {
+
+    /**
+     * 限制的范围。
+     */
+    enum Scope {
+        /**
+         * 整个服务接口共享一个限制器。
+         */
+        SERVICE,
+        /**
+         * 每个目标地址（scheme + host + port）一个限制器，同一个目标地址的所有服务共享。
+         */
+        HOST
+    }
+
+    /**
+     * 限制的范围，默认是 {@link Scope#SERVICE}。
+     */
+    Scope scope() default Scope.SERVICE;
+
+    /**
+     * 初始的并发上限，默认是20。
+     */
+    int initialLimit() default 20;
+
+    /**
+     * 并发上限的最小值，默认是1。
+     */
+    int minLimit() default 1;
+
+    /**
+     * 并发上限的最大值，默认是200。
+     */
+    int maxLimit() default 200;
+
+    /**
+     * 超出上限时最多排队等待的请求数。默认是0，即超出上限时直接拒绝。
+     */
+    int maxQueueSize() default 0;
+
+    /**
+     * 排队等待的最长时间（毫秒），超时后拒绝。默认是1000。
+     */
+    long maxQueueWaitMillis() default 1000L;
+}
@@ -0,0 +1,28 @@
+package com.mara.zoic.annohttp.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 设定返回 {@link com.mara.zoic.annohttp.http.sse.SseStream} 的方法的重连行为。没有此注解时使用默认值。
+ * <p>连接断开（包括服务端正常结束响应）后，等待 {@link #retryMillis()} 再以 <code>Last-Event-ID</code> 重新连接；
+ * 服务端可以通过事件中的 <code>retry</code> 字段修改等待时间。响应状态码不是200，或者内容类型不是 <code>text/event-stream</code> 时不会重连。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see com.mara.zoic.annohttp.http.sse.SseStream
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface EventStream {
+
+    /**
+     * 重连前等待的毫秒数，默认是3000。
+     */
+    long retryMillis() default 3000L;
+
+    /**
+     * 连续重连的最大次数，收到事件后重新计数。-1代表不限制，0代表不重连。默认是-1。
+     */
+    int maxRetries() default -1;
+}
@@ -0,0 +1,34 @@
+package com.mara.zoic.annohttp.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 声明一个annohttp服务接口使用 HTTP/2 发起请求。
+ * <p>标注此注解后，该接口下的所有请求都将通过 httpclient5 的 HTTP/2 异步客户端发送：明文（http）使用 h2c prior-knowledge，
+ * 加密（https）通过 ALPN 协商 h2。同一个目标地址的请求会复用少量的连接，以多路复用的方式并发传输，而不是每个请求独占一个连接。</p>
+ * <p>请求体转换、响应体转换、{@link com.mara.zoic.annohttp.lifecycle.AnnoHttpLifecycle} 以及
+ * {@link com.mara.zoic.annohttp.http.visitor.ResponseVisitor} 等处理流程与 HTTP/1.1 完全一致，响应体仍然以流的形式提供。</p>
+ * <p>注意：</p>
+ * <ul>
+ *     <li>目标服务必须支持 HTTP/2（明文时需要支持 h2c prior-knowledge），否则请求会失败，不会降级为 HTTP/1.1。</li>
+ *     <li>使用了代理（{@link Request#proxy()}）或者自定义了 HttpClient（{@link com.mara.zoic.annohttp.http.PreparingRequest#customHttpClient}）的请求仍然使用 HTTP/1.1。</li>
+ *     <li>HTTP/2 客户端不会自动解压缩响应体。</li>
+ * </ul>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Http2 {
+
+    /**
+     * 针对同一个目标地址（scheme + host + port）最多同时进行的请求（流）数量。
+     * <p>超出时新的请求将等待，等待时间不超过 {@link Request#connectionRequestTimeoutInSeconds()}。
+     * 服务端通过 SETTINGS_MAX_CONCURRENT_STREAMS 声明的上限同样会被遵守，两者取较小者。</p>
+     * <p>默认是100。</p>
+     */
+    int maxConcurrentStreams() default 100;
+}
@@ -262,4 +262,26 @@ public @interface Request {
      * 那么 {@link #responseContentType()} 将会被使用。</p>
      */
     boolean preferUsingResponseContentType() default true;
+
+    /**
+     * 是否与服务端协商使用二进制格式的响应体。
+     * <p>设定为true并且没有指定 Accept 请求头时，annohttp 会附加 Accept 请求头，依次优先 Smile（application/x-jackson-smile）、
+     * CBOR（application/cbor）以及 JSON。只有类路径上存在对应依赖（jackson-dataformat-smile、jackson-dataformat-cbor）的格式才会被列出。</p>
+     * <p>服务端支持时将以二进制格式传输响应体并由对应的转换器解析，不支持时仍然按照响应的 Content-Type 进行转换。</p>
+     * <p>默认是false。</p>
+     */
+    boolean acceptBinary() default false;
+
+    /**
+     * 使用 SpEl 计算请求的路由键，SpEl 可以返回任意对象，取其 toString() 的值，返回null代表没有路由键。
+     * <p>路由键用于一致性哈希路由（{@link com.mara.zoic.annohttp.http.loadbalance.ConsistentHashBaseUriProvider}），
+     * 相同路由键的请求会被发往同一个节点。只需要使用单个参数作为路由键时，可以直接在参数上标注 {@link RoutingKey}。</p>
+     */
+    String routingKeySpel() default "";
+
+    /**
+     * 将请求剩余的时间预算（毫秒）发送给下游时使用的请求头名称，比如 "X-Request-Timeout-Ms"。
+     * <p>只有请求存在截止时间（{@link com.mara.zoic.annohttp.http.Deadline}）时才会发送。默认是空字符串，即不发送。</p>
+     */
+    String deadlineHeader() default "";
 }
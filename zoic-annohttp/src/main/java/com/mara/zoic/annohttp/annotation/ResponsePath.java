@@ -0,0 +1,24 @@
+package com.mara.zoic.annohttp.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 声明只转换响应体中的某一部分（子树）。
+ * <p>很多接口会把真正需要的数据包装在外层结构中，比如 {@code {"meta": {...}, "data": {"items": [...]}}}。标注此注解后，
+ * 转换器会使用流式解析跳过路径之外的所有内容，只把路径指向的子树转换为方法的返回类型，外层结构不会被构造出来。</p>
+ * <p>路径可以是 JSON Pointer（以“/”开头，如 {@code /data/items}），也可以是简单路径（如 {@code data.items}、{@code data.items[0].name}，
+ * 可以以“$.”开头）。路径不存在时返回null。</p>
+ * <p>当返回类型是 {@link java.util.stream.Stream} 或者 {@link java.util.Iterator} 时，路径应当指向一个数组，数组元素会被逐个解析返回，
+ * 此时应当在使用完毕后关闭 Stream（或者将 Iterator 遍历完），以便释放连接。</p>
+ * <p>适用于 JSON、YAML、Smile 以及 CBOR 格式的响应体。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ResponsePath {
+    String value();
+}
@@ -0,0 +1,32 @@
+package com.mara.zoic.annohttp.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 限制响应体的大小，可以标注在服务接口或者请求方法上，方法上的设定优先。未设定的项使用
+ * {@link com.mara.zoic.annohttp.http.ResponseSizeLimits} 中的全局设定。
+ * <p>响应体在被读取到内存中（转换为 String、byte[]、JSON 对象等）时，超过 {@link #maxInMemoryBytes()} 的部分会被转存到临时文件，
+ * 转换器从文件（映射内存或者输入流）读取，读取完毕后删除文件；超过 {@link #maxBytes()} 时立即中止请求（连接被关闭而不是读完后归还），
+ * 并抛出 {@link com.mara.zoic.annohttp.http.exception.ResponseTooLargeException}。响应头中的 Content-Length 已经超过上限时，不会读取任何响应体。</p>
+ * <p>返回 {@link com.mara.zoic.annohttp.http.sse.SseStream} 的方法不受限制。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see com.mara.zoic.annohttp.http.ResponseSizeLimits
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ResponseSizeLimit {
+
+    /**
+     * 在内存中缓冲的响应体的最大字节数，超出时转存到临时文件。0代表不转存，负数代表使用上一级（服务接口、全局）的设定。
+     */
+    long maxInMemoryBytes() default -1L;
+
+    /**
+     * 响应体的最大字节数，超出时中止请求。0代表不限制，负数代表使用上一级（服务接口、全局）的设定。
+     */
+    long maxBytes() default -1L;
+}
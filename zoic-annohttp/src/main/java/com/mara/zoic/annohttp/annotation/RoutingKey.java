@@ -0,0 +1,19 @@
+package com.mara.zoic.annohttp.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 声明一个方法参数作为请求的路由键。
+ * <p>路由键用于一致性哈希路由（{@link com.mara.zoic.annohttp.http.loadbalance.ConsistentHashBaseUriProvider}），
+ * 相同路由键的请求会被发往同一个节点。参数可以是任意类型，取其 {@link Object#toString()} 的值，null代表没有路由键。</p>
+ * <p>需要根据多个参数计算路由键时，请使用 {@link Request#routingKeySpel()}。两者只能使用其中一种。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface RoutingKey {
+}
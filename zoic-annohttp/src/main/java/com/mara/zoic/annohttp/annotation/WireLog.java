@@ -0,0 +1,50 @@
+package com.mara.zoic.annohttp.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 为一个annohttp服务接口启用抽样的报文（wire）记录。
+ * <p>被抽中的请求会记录请求行、请求头、请求体以及状态行、响应头、响应体，请求体与响应体最多记录 {@link #maxBodyBytes()} 个字节。
+ * 记录先被放入一个无锁的环形缓冲区，再由后台线程交给 {@link com.mara.zoic.annohttp.http.wirelog.WireLogSink} 处理，
+ * 请求线程不会因为输出日志而阻塞；缓冲区已满时新的记录会被丢弃。</p>
+ * <p>未被抽中的请求只有一次随机数的开销，因此可以在生产环境中以较低的抽样率长期开启。</p>
+ * <p>响应体在被读取的同时记录，记录在响应体读取完毕或者关闭后才会提交。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see com.mara.zoic.annohttp.http.wirelog.WireLogger
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface WireLog {
+
+    /**
+     * 抽样率，取值范围 [0, 1]，默认是1，即全部记录。
+     */
+    double sampleRate() default 1D;
+
+    /**
+     * 请求体与响应体各自最多记录的字节数，超出部分会被截断。0代表不记录请求体与响应体。
+     * <p>默认是4096。</p>
+     */
+    int maxBodyBytes() default 4096;
+
+    /**
+     * 需要隐去值的请求头与响应头（不区分大小写）。
+     */
+    String[] redactHeaders() default {"Authorization", "Proxy-Authorization", "Cookie", "Set-Cookie"};
+
+    /**
+     * 需要隐去值的查询参数。
+     */
+    String[] redactQueries() default {};
+
+    /**
+     * 需要隐去的请求体与响应体内容（正则表达式）。表达式中存在分组时只隐去第一个分组，否则隐去整个匹配的内容。
+     * <p>比如 <code>"password"\s*:\s*"([^"]*)"</code> 会隐去 JSON 中 password 字段的值。</p>
+     * <p>报文体被截断时，截断处不完整的匹配（比如只剩下 <code>"password": "p@s</code>）从其开始的位置起全部隐去。</p>
+     */
+    String[] redactBodyPatterns() default {};
+}
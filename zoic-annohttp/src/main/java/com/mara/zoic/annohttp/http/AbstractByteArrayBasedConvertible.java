@@ -3,7 +3,6 @@ package com.mara.zoic.annohttp.http;
 
 import com.mara.zoic.annohttp.http.exception.ConversionException;
 import org.apache.hc.core5.http.ClassicHttpResponse;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
 
 import java.util.Arrays;
 
@@ -20,7 +19,7 @@ public abstract class AbstractByteArrayBasedConvertible implements Convertible {
     protected AbstractByteArrayBasedConvertible(ClassicHttpResponse httpResponse) {
         
         try {
-            bytes = EntityUtils.toByteArray(httpResponse.getEntity());
+            bytes = EntityBufferPool.toByteArray(httpResponse.getEntity());
         } catch (Exception e) {
             throw new ConversionException("Cannot convert response body to bytes", e);
         }
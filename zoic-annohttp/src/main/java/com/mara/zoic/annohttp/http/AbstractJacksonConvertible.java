@@ -1,40 +1,89 @@
 package com.mara.zoic.annohttp.http;
 
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.mara.zoic.annohttp.http.exception.ConversionException;
 import com.mara.zoic.annohttp.http.serialization.TypeRef;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
-public abstract class AbstractJacksonConvertible extends AbstractStringBasedConvertible {
+/**
+ * 基于 Jackson 的可转换对象。
+ * <p>响应体只会被读取为一份字节数组，之后直接从字节数组解析，不再额外构造一份字符串。</p>
+ * <p>字节数组只会被解析（分词）一次，解析出来的记号缓存在 {@link TokenBuffer} 中，之后的每一次转换都重放缓存的记号，不再重新解析。
+ * 记号保留了数值的原文，因此数值（比如 {@link java.math.BigDecimal}）的精度与类型的强制转换规则与直接解析完全一致。</p>
+ * <p>只需要转换一次并且内容较大时，请使用 {@link AbstractJacksonStreamingConvertible}。</p>
+ */
+public abstract class AbstractJacksonConvertible extends AbstractByteArrayBasedConvertible {
 
-    protected AbstractJacksonConvertible(ClassicHttpResponse httpResponse, String charset) {
-        super(httpResponse, charset);
-    }
+    private static final String DEFAULT_CHARSET = "UTF-8";
+
+    protected final Charset charset;
 
     protected ObjectMapper objectMapper;
 
+    private volatile JsonNode tree;
+
+    private volatile TokenBuffer tokens;
+
+    protected AbstractJacksonConvertible(ClassicHttpResponse httpResponse, String charset) {
+        super(httpResponse);
+        String finalCharset = charset == null ? DEFAULT_CHARSET : charset;
+        try {
+            this.charset = Charset.forName(finalCharset);
+        } catch (Exception e) {
+            throw new ConversionException("Cannot convert bytes to String with charset '" + finalCharset + "'", e);
+        }
+    }
+
     /**
-     * 直接返回该对象的JSON字符串形式。
-     * @return JSON字符串
+     * 直接返回该对象的字符串形式（比如JSON字符串）。
+     * @return 字符串
      */
     @Override
     public String toString() {
-        return objectString;
+        return bytes == null ? null : new String(bytes, charset);
+    }
+
+    /**
+     * 获得解析后的树。树只会解析一次，之后都返回缓存的实例。
+     * @return 树；如果响应体不存在，那么返回null
+     */
+    public JsonNode toTree() {
+        if (bytes == null) {
+            return null;
+        }
+        JsonNode node = tree;
+        if (node == null) {
+            try {
+                try (JsonParser parser = tokens().asParser()) {
+                    node = objectMapper.readTree(parser);
+                }
+            } catch (IOException e) {
+                throw new ConversionException("Cannot parse response body to tree", e);
+            }
+            tree = node;
+        }
+        return node;
     }
 
     @Override
     public <T> T toBean(Class<T> clazz) {
         Objects.requireNonNull(clazz);
-        try {
-            return objectString == null ? null : objectMapper.readValue(objectString, clazz);
-        } catch (JsonProcessingException e) {
-            throw new ConversionException("Cannot convert response string '" + objectString + "' to class '" + clazz + "'", e);
-        }
+        return read(clazz, clazz.toString());
     }
 
     @Override
@@ -47,13 +96,7 @@ public abstract class AbstractJacksonConvertible extends AbstractStringBasedConv
         Objects.requireNonNull(mapClass);
         Objects.requireNonNull(keyClass);
         Objects.requireNonNull(valueClass);
-        Objects.requireNonNull(keyClass);
-        Objects.requireNonNull(valueClass);
-        try {
-            return objectString == null ? null : objectMapper.readValue(objectString, objectMapper.getTypeFactory().constructMapType(mapClass, keyClass, valueClass));
-        } catch (JsonProcessingException e) {
-            throw new ConversionException("Cannot convert response string '" + objectString + "' to Map", e);
-        }
+        return read(objectMapper.getTypeFactory().constructMapType(mapClass, keyClass, valueClass), "Map");
     }
 
     @Override
@@ -65,11 +108,7 @@ public abstract class AbstractJacksonConvertible extends AbstractStringBasedConv
     public <T> List<T> toList(@SuppressWarnings("rawtypes") Class<? extends List> listClass, Class<T> elementClass) {
         Objects.requireNonNull(listClass);
         Objects.requireNonNull(elementClass);
-        try {
-            return objectString == null ? null : objectMapper.readValue(objectString, objectMapper.getTypeFactory().constructCollectionType(listClass, elementClass));
-        } catch (JsonProcessingException e) {
-            throw new ConversionException("Cannot convert response string '" + objectString + "' to List", e);
-        }
+        return read(objectMapper.getTypeFactory().constructCollectionType(listClass, elementClass), "List");
     }
 
     @Override
@@ -84,34 +123,70 @@ public abstract class AbstractJacksonConvertible extends AbstractStringBasedConv
         Objects.requireNonNull(mapClass);
         Objects.requireNonNull(keyClass);
         Objects.requireNonNull(valueClass);
-        try {
-            return objectString == null ? null : objectMapper.readValue(objectString, objectMapper.getTypeFactory()
-                    .constructCollectionType(listClass, objectMapper.getTypeFactory().constructMapType(mapClass, keyClass, valueClass)));
-        } catch (JsonProcessingException e) {
-            throw new ConversionException("Cannot convert response string '" + objectString + "' to ListMap", e);
-        }
+        JavaType mapType = objectMapper.getTypeFactory().constructMapType(mapClass, keyClass, valueClass);
+        return read(objectMapper.getTypeFactory().constructCollectionType(listClass, mapType), "ListMap");
     }
 
     @Override
     public <T> T toCollection(@SuppressWarnings("rawtypes") Class<? extends Collection> collectionClass, Class<?> elementClass) {
         Objects.requireNonNull(collectionClass);
         Objects.requireNonNull(elementClass);
-        try {
-            return objectString == null ? null : objectMapper.readValue(objectString, objectMapper.getTypeFactory()
-                    .constructCollectionType(collectionClass, elementClass));
-        } catch (JsonProcessingException e) {
-            throw new ConversionException("Cannot convert response string '" + objectString + "' to Collection", e);
-        }
+        return read(objectMapper.getTypeFactory().constructCollectionType(collectionClass, elementClass), "Collection");
     }
 
     @Override
     public <T> T toSpecified(TypeRef<T> typeRef) {
         Objects.requireNonNull(typeRef);
-        JavaType javaType = objectMapper.constructType(typeRef.getType());
-        try {
-            return objectString == null ? null : objectMapper.readValue(objectString, javaType);
-        } catch (JsonProcessingException e) {
-            throw new ConversionException("Cannot convert response string '" + objectString + "' to '" + typeRef.getType() + "'", e);
+        return read(typeRef.getType(), "'" + typeRef.getType() + "'");
+    }
+
+    /**
+     * 将内容转换为指定的类型。
+     *
+     * @param type   目标类型
+     * @param target 目标类型的描述，用于异常信息
+     * @return 转换后的对象；如果响应体不存在，那么返回null
+     * @param <T> 目标类型
+     */
+    protected <T> T read(Type type, String target) {
+        if (bytes == null) {
+            return null;
         }
+        ObjectReader reader = JacksonComponentHolder.getReader(objectMapper, type);
+        try (JsonParser parser = tokens().asParser()) {
+            return reader.readValue(parser);
+        } catch (ConversionException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ConversionException("Cannot convert response body to " + target, e);
+        }
+    }
+
+    /**
+     * 获得缓存的记号，第一次调用时解析字节数组。
+     *
+     * @return 记号
+     * @throws IOException 解析失败
+     */
+    private TokenBuffer tokens() throws IOException {
+        TokenBuffer buffer = tokens;
+        if (buffer == null) {
+            try (JsonParser parser = isUtf8() ? objectMapper.createParser(bytes) : objectMapper.createParser(newReader())) {
+                buffer = new TokenBuffer(parser);
+                if (parser.nextToken() != null) {
+                    buffer.copyCurrentStructure(parser);
+                }
+            }
+            tokens = buffer;
+        }
+        return buffer;
+    }
+
+    private boolean isUtf8() {
+        return StandardCharsets.UTF_8.equals(charset);
+    }
+
+    private Reader newReader() {
+        return new InputStreamReader(new ByteArrayInputStream(bytes), charset);
     }
 }
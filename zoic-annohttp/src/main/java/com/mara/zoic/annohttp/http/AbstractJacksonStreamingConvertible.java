@@ -0,0 +1,132 @@
+package com.mara.zoic.annohttp.http;
+
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mara.zoic.annohttp.http.exception.ConversionException;
+import com.mara.zoic.annohttp.http.serialization.TypeRef;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 基于 Jackson 的流式可转换对象。
+ * <p>直接从响应流中解析，不会缓冲整个响应体，适合内容较大并且只需要转换一次的场景。</p>
+ * <p>注意：此对象只能转换一次，转换完成后响应流即被关闭，再次转换将会抛出 {@link IllegalStateException}。需要多次转换时请使用 {@link AbstractJacksonConvertible}。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public abstract class AbstractJacksonStreamingConvertible extends AbstractStreamBasedConvertible {
+
+    private static final String DEFAULT_CHARSET = "UTF-8";
+
+    protected final Charset charset;
+
+    protected ObjectMapper objectMapper;
+
+    private boolean consumed;
+
+    protected AbstractJacksonStreamingConvertible(ClassicHttpResponse httpResponse, String charset) {
+        super(httpResponse);
+        this.charset = Charset.forName(charset == null ? DEFAULT_CHARSET : charset);
+    }
+
+    @Override
+    public <T> T toBean(Class<T> clazz) {
+        Objects.requireNonNull(clazz);
+        return read(clazz, clazz.toString());
+    }
+
+    @Override
+    public <K, V> Map<K, V> toMap(Class<K> keyClass, Class<V> valueClass) {
+        return toMap(HashMap.class, keyClass, valueClass);
+    }
+
+    @Override
+    public <K, V> Map<K, V> toMap(@SuppressWarnings("rawtypes") Class<? extends Map> mapClass, Class<K> keyClass, Class<V> valueClass) {
+        Objects.requireNonNull(mapClass);
+        Objects.requireNonNull(keyClass);
+        Objects.requireNonNull(valueClass);
+        return read(objectMapper.getTypeFactory().constructMapType(mapClass, keyClass, valueClass), "Map");
+    }
+
+    @Override
+    public <T> List<T> toList(Class<T> elementClass) {
+        return toList(ArrayList.class, elementClass);
+    }
+
+    @Override
+    public <T> List<T> toList(@SuppressWarnings("rawtypes") Class<? extends List> listClass, Class<T> elementClass) {
+        Objects.requireNonNull(listClass);
+        Objects.requireNonNull(elementClass);
+        return read(objectMapper.getTypeFactory().constructCollectionType(listClass, elementClass), "List");
+    }
+
+    @Override
+    public <K, V> List<Map<K, V>> toListMap(Class<K> keyClass, Class<V> valueClass) {
+        return toListMap(List.class, Map.class, keyClass, valueClass);
+    }
+
+    @Override
+    public <K, V> List<Map<K, V>> toListMap(@SuppressWarnings("rawtypes") Class<? extends List> listClass,
+                                            @SuppressWarnings("rawtypes") Class<? extends Map> mapClass, Class<K> keyClass, Class<V> valueClass) {
+        Objects.requireNonNull(listClass);
+        Objects.requireNonNull(mapClass);
+        Objects.requireNonNull(keyClass);
+        Objects.requireNonNull(valueClass);
+        JavaType mapType = objectMapper.getTypeFactory().constructMapType(mapClass, keyClass, valueClass);
+        return read(objectMapper.getTypeFactory().constructCollectionType(listClass, mapType), "ListMap");
+    }
+
+    @Override
+    public <T> T toCollection(@SuppressWarnings("rawtypes") Class<? extends Collection> collectionClass, Class<?> elementClass) {
+        Objects.requireNonNull(collectionClass);
+        Objects.requireNonNull(elementClass);
+        return read(objectMapper.getTypeFactory().constructCollectionType(collectionClass, elementClass), "Collection");
+    }
+
+    @Override
+    public <T> T toSpecified(TypeRef<T> typeRef) {
+        Objects.requireNonNull(typeRef);
+        return read(typeRef.getType(), "'" + typeRef.getType() + "'");
+    }
+
+    /**
+     * 从响应流中直接解析为指定的类型，解析完成后关闭响应流。
+     *
+     * @param type   目标类型
+     * @param target 目标类型的描述，用于异常信息
+     * @return 转换后的对象；如果响应体不存在，那么返回null
+     * @param <T> 目标类型
+     */
+    protected synchronized <T> T read(Type type, String target) {
+        if (consumed) {
+            throw new IllegalStateException("Streaming convertible can be converted only once, the response stream has been consumed");
+        }
+        consumed = true;
+        if (inputStream == null) {
+            return null;
+        }
+        ObjectReader reader = JacksonComponentHolder.getReader(objectMapper, type);
+        try {
+            return StandardCharsets.UTF_8.equals(charset)
+                    ? reader.readValue(inputStream)
+                    : reader.readValue(new InputStreamReader(inputStream, charset));
+        } catch (Exception e) {
+            throw new ConversionException("Cannot convert response stream to " + target, e);
+        } finally {
+            try {
+                close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+}
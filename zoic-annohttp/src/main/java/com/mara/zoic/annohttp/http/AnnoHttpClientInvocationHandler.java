@@ -1,18 +1,40 @@
 package com.mara.zoic.annohttp.http;
 
+import com.mara.zoic.annohttp.annotation.Batched;
+import com.mara.zoic.annohttp.annotation.ConcurrencyLimit;
+import com.mara.zoic.annohttp.annotation.EventStream;
+import com.mara.zoic.annohttp.annotation.Http2;
 import com.mara.zoic.annohttp.annotation.Request;
+import com.mara.zoic.annohttp.annotation.WireLog;
+import com.mara.zoic.annohttp.http.batch.RequestBatcher;
+import com.mara.zoic.annohttp.http.exception.DeadlineExceededException;
+import com.mara.zoic.annohttp.http.exception.RequestFailedException;
+import com.mara.zoic.annohttp.http.sse.SseStream;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.http.HttpHeaders;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
 public class AnnoHttpClientInvocationHandler implements InvocationHandler {
 
     protected String baseUri;
     protected Function<HttpClientMetadata, String> baseUriProvider;
+    /**
+     * 此服务实例的 {@link Batched} 方法的合并器。
+     */
+    private final Map<Method, RequestBatcher> batchers = new ConcurrentHashMap<>();
 
     AnnoHttpClientInvocationHandler(String baseUri) {
         this.baseUri = baseUri;
@@ -25,6 +47,10 @@ public class AnnoHttpClientInvocationHandler implements InvocationHandler {
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) {
 
+        if (method.isAnnotationPresent(Batched.class)) {
+            return invokeBatched(proxy, method, args);
+        }
+
         Class<?> returnType = method.getReturnType();
         Type genericType = method.getGenericReturnType();
         Request requestAnno = method.getAnnotation(Request.class);
@@ -37,6 +63,9 @@ public class AnnoHttpClientInvocationHandler implements InvocationHandler {
         metadata.requestMethod = method;
         metadata.requestArguments = args == null ? new Object[0] : Arrays.copyOf(args, args.length);
         metadata.requestAnnotation = requestAnno;
+        metadata.http2Annotation = metadata.serviceClientClass.getAnnotation(Http2.class);
+        metadata.concurrencyLimitAnnotation = metadata.serviceClientClass.getAnnotation(ConcurrencyLimit.class);
+        metadata.wireLogAnnotation = metadata.serviceClientClass.getAnnotation(WireLog.class);
         metadata.connectionRequestTimeoutInSeconds = requestAnno.connectionRequestTimeoutInSeconds();
         metadata.responseTimeoutInSeconds = requestAnno.responseTimeoout();
         if (PreparingRequest.class.isAssignableFrom(returnType)) {
@@ -49,6 +78,11 @@ public class AnnoHttpClientInvocationHandler implements InvocationHandler {
         } else {
             metadata.requestMethodReturnActualType = genericType;
         }
+
+        if (returnType == SseStream.class) {
+            // 事件流在订阅时才发起请求，每次（重新）连接使用一个新的请求
+            return newEventStream(metadata, method, args, genericType);
+        }
     	
     	PreparingRequest<?> preparingRequest = new PreparingRequestImpl<>(metadata, method, args, baseUri, baseUriProvider);
 
@@ -66,4 +100,57 @@ public class AnnoHttpClientInvocationHandler implements InvocationHandler {
             return preparingRequest.request();
         }
     }
+
+    private Object invokeBatched(Object proxy, Method method, Object[] args) {
+        RequestBatcher batcher = batchers.computeIfAbsent(method, m -> RequestBatcher.create(proxy, m));
+        if (CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
+            return batcher.submit(args[0]);
+        }
+        // 调用者本身就在后台线程上时直接执行当前批次，否则线程池已满时调用者会等待排在自己之后的批次
+        CompletableFuture<Object> future = batcher.submit(args[0], AnnoHttpExecutors.isWorkerThread());
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(method.getAnnotation(Batched.class).timeoutMillis());
+        Deadline deadline = Deadline.current();
+        boolean deadlineFirst = deadline != null && deadline.remainingNanos() < timeoutNanos;
+        try {
+            return future.get(deadlineFirst ? deadline.remainingNanos() : timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new RequestFailedException("Batched request failed for method " + method.getName(), e.getCause());
+        } catch (TimeoutException e) {
+            if (deadlineFirst) {
+                throw new DeadlineExceededException("Deadline exceeded while waiting for batched method " + method.getName(), e);
+            }
+            throw new RequestFailedException("Batched request timed out for method " + method.getName(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestFailedException("Interrupted while waiting for batched method " + method.getName(), e);
+        }
+    }
+
+    private SseStream<?> newEventStream(AnnoHttpClientMetadata metadata, Method method, Object[] args, Type genericType) {
+        Type dataType = genericType instanceof ParameterizedType parameterizedType ? parameterizedType.getActualTypeArguments()[0] : String.class;
+        return new SseStream<>(dataType, method.getAnnotation(EventStream.class), (lastEventId, abortHandle) -> {
+            PreparingRequest<?> preparingRequest = new PreparingRequestImpl<>(metadata, method, args, baseUri, baseUriProvider) {
+                @Override
+                protected void processAdditionalParameters(HttpClientMetadata metadata, HttpUriRequestBase httpUriRequest,
+                                                           RequestConfig.Builder requestConfigBuilder) {
+                    // 请求发出之前交出中止句柄，取消订阅时直接中止连接
+                    abortHandle.accept(httpUriRequest);
+                }
+            };
+            preparingRequest.customRequestHeaders(headers -> {
+                if (headers.stream().noneMatch(e -> HttpHeaders.ACCEPT.equalsIgnoreCase(e.getName()))) {
+                    headers.add(new CoverableNameValuePair(HttpHeaders.ACCEPT, "text/event-stream"));
+                }
+                headers.add(new CoverableNameValuePair(HttpHeaders.CACHE_CONTROL, "no-cache"));
+                if (lastEventId != null) {
+                    headers.removeIf(e -> "Last-Event-ID".equalsIgnoreCase(e.getName()));
+                    headers.add(new CoverableNameValuePair("Last-Event-ID", lastEventId));
+                }
+            });
+            return preparingRequest.requestClassically();
+        });
+    }
 }
@@ -1,18 +1,26 @@
 package com.mara.zoic.annohttp.http;
 
 
+import com.mara.zoic.annohttp.annotation.ConcurrencyLimit;
+import com.mara.zoic.annohttp.annotation.Http2;
 import com.mara.zoic.annohttp.annotation.Request;
+import com.mara.zoic.annohttp.annotation.RoutingKey;
+import com.mara.zoic.annohttp.annotation.WireLog;
 import com.mara.zoic.annohttp.http.request.converter.RequestBodyConverter;
 import com.mara.zoic.annohttp.http.request.converter.RequestBodyConverterCache;
 import com.mara.zoic.annohttp.http.response.converter.ResponseConverter;
 import com.mara.zoic.annohttp.http.response.converter.ResponseConverterCache;
+import com.mara.zoic.annohttp.http.spel.SpelUtils;
 import com.mara.zoic.annohttp.http.visitor.ResponseVisitor;
 import com.mara.zoic.annohttp.http.visitor.ResponseVisitorCache;
 import org.apache.hc.core5.http.ContentType;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 针对于AnnoHttpClient（注解驱动的HTTP客户端）的客户端元数据实现类。
@@ -25,12 +33,23 @@ public class AnnoHttpClientMetadata implements HttpClientMetadata {
     Object serviceClient;
     Class<?> requestMethodReturnClass;
     Request requestAnnotation;
+    Http2 http2Annotation;
+    ConcurrencyLimit concurrencyLimitAnnotation;
+    WireLog wireLogAnnotation;
     Method requestMethod;
     Object[] requestArguments;
     Type requestMethodReturnActualType;
     int responseTimeoutInSeconds = 180;
     int connectionRequestTimeoutInSeconds = 60;
 
+    /**
+     * 请求方法中标注了 {@link RoutingKey} 的参数的位置，-1代表不存在。
+     */
+    private static final Map<Method, Integer> ROUTING_KEY_PARAMETER_INDEXES = new ConcurrentHashMap<>();
+
+    private boolean routingKeyResolved;
+    private String routingKey;
+
     @Override
     public Class<?> getServiceClientClass() {
         return serviceClientClass;
@@ -46,6 +65,21 @@ public class AnnoHttpClientMetadata implements HttpClientMetadata {
         return requestAnnotation;
     }
 
+    @Override
+    public Http2 getHttp2Annotation() {
+        return http2Annotation;
+    }
+
+    @Override
+    public ConcurrencyLimit getConcurrencyLimitAnnotation() {
+        return concurrencyLimitAnnotation;
+    }
+
+    @Override
+    public WireLog getWireLogAnnotation() {
+        return wireLogAnnotation;
+    }
+
     @Override
     public Method getRequestMethod() {
         return requestMethod;
@@ -106,4 +140,41 @@ public class AnnoHttpClientMetadata implements HttpClientMetadata {
         return Charset.forName(getRequestAnnotation().responseCharset());
     }
 
+    @Override
+    public String getRoutingKey() {
+        if (!routingKeyResolved) {
+            routingKey = resolveRoutingKey();
+            routingKeyResolved = true;
+        }
+        return routingKey;
+    }
+
+    private String resolveRoutingKey() {
+        int index = ROUTING_KEY_PARAMETER_INDEXES.computeIfAbsent(requestMethod, AnnoHttpClientMetadata::findRoutingKeyParameterIndex);
+        String routingKeySpel = requestAnnotation.routingKeySpel();
+        if (index >= 0 && !routingKeySpel.isBlank()) {
+            throw new IllegalArgumentException("Only can use one of @RoutingKey/@Request.routingKeySpel()");
+        }
+        Object key = null;
+        if (index >= 0) {
+            key = requestArguments[index];
+        } else if (!routingKeySpel.isBlank()) {
+            key = SpelUtils.executeSpel(routingKeySpel, requestArguments, Object.class);
+        }
+        return key == null ? null : key.toString();
+    }
+
+    private static int findRoutingKeyParameterIndex(Method method) {
+        int index = -1;
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].isAnnotationPresent(RoutingKey.class)) {
+                if (index >= 0) {
+                    throw new IllegalArgumentException("Only one parameter can be decorated by @RoutingKey in method '" + method + "'");
+                }
+                index = i;
+            }
+        }
+        return index;
+    }
 }
@@ -8,6 +8,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import com.mara.zoic.annohttp.annotation.Request;
+import com.mara.zoic.annohttp.http.interceptor.AnnoHttpInterceptor;
+import com.mara.zoic.annohttp.http.interceptor.AnnoHttpInterceptors;
 import com.mara.zoic.annohttp.http.protocol.ProtocolHandler;
 import com.mara.zoic.annohttp.http.protocol.ProtocolHandlerMapping;
 import com.mara.zoic.annohttp.http.request.converter.AutoRequestBodyConverter;
@@ -116,6 +118,15 @@ public final class AnnoHttpClients {
 	public static void addAnnoHttpLifecycleInstances(AnnoHttpLifecycle... annoHttpLifecycles) {
 		AnnoHttpLifecycleInstancesCahce.addAnnoHttpLifecycleInstances(annoHttpLifecycles);
 	}
+
+    /**
+     * 添加拦截器。
+     * @param annoHttpInterceptors 拦截器。存在多个拦截器时按照添加的顺序由外向内执行
+     * @see AnnoHttpInterceptors
+     */
+    public static void addInterceptors(AnnoHttpInterceptor... annoHttpInterceptors) {
+        AnnoHttpInterceptors.add(annoHttpInterceptors);
+    }
 	
 	private static void executeLifecycleBeforeCreatingMethod(Class<?> clazz) {
 		for (AnnoHttpLifecycle lifecycle : AnnoHttpLifecycleInstancesCahce.getAnnoHttpLifecycleInstances()) {
@@ -0,0 +1,127 @@
+package com.mara.zoic.annohttp.http;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * annohttp 在后台执行任务时使用的执行器，分为两类：
+ * <ul>
+ *     <li>短任务（合并后的批量请求、扇出请求等）：默认是线程数有上限的守护线程池，线程空闲 60 秒后退出，超出上限的任务排队等待；</li>
+ *     <li>长期占用线程的事件流订阅：订阅在其整个生命周期内（读取、等待订阅者请求、重连前的等待）占用一个线程，
+ *     因此默认每个订阅使用单独的守护线程，不占用短任务的线程池，大量的订阅不会使批量请求与扇出请求无法执行。</li>
+ * </ul>
+ * <p>两者都可以替换为用户提供的执行器。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class AnnoHttpExecutors {
+
+    /**
+     * 短任务线程池的默认最大线程数。
+     */
+    public static final int DEFAULT_MAX_THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    private static final Executor DEFAULT_EXECUTOR;
+
+    private static final Executor DEFAULT_SUBSCRIPTION_EXECUTOR;
+
+    private static volatile Executor executor;
+
+    private static volatile Executor subscriptionExecutor;
+
+    /**
+     * 当前线程是否正在执行通过 {@link #execute(Runnable)} 提交的短任务。
+     */
+    private static final ThreadLocal<Boolean> WORKER = new ThreadLocal<>();
+
+    static {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(DEFAULT_MAX_THREADS, DEFAULT_MAX_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreadFactory("annohttp-worker-"));
+        pool.allowCoreThreadTimeOut(true);
+        DEFAULT_EXECUTOR = pool;
+        executor = pool;
+        // 不排队，每个订阅直接交给一个（新的或者空闲的）线程
+        DEFAULT_SUBSCRIPTION_EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), daemonThreadFactory("annohttp-sse-"));
+        subscriptionExecutor = DEFAULT_SUBSCRIPTION_EXECUTOR;
+    }
+
+    private AnnoHttpExecutors() {
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 获得执行短任务的执行器。
+     *
+     * @return 执行器
+     */
+    public static Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * 设定执行短任务的执行器，之后提交的任务在其上执行。由调用者负责执行器的生命周期。
+     *
+     * @param executor 执行器；为null时恢复默认的线程池
+     */
+    public static void setExecutor(Executor executor) {
+        AnnoHttpExecutors.executor = executor == null ? DEFAULT_EXECUTOR : executor;
+    }
+
+    /**
+     * 在执行短任务的执行器上执行任务。执行期间 {@link #isWorkerThread()} 返回true。
+     *
+     * @param task 任务
+     */
+    public static void execute(Runnable task) {
+        executor.execute(() -> {
+            WORKER.set(Boolean.TRUE);
+            try {
+                task.run();
+            } finally {
+                WORKER.remove();
+            }
+        });
+    }
+
+    /**
+     * 判断当前线程是否正在执行短任务。短任务中不应当阻塞等待另一个短任务，线程池已满时后者排在前者之后，两者会互相等待。
+     *
+     * @return 是则返回true
+     */
+    public static boolean isWorkerThread() {
+        return WORKER.get() != null;
+    }
+
+    /**
+     * 获得执行事件流订阅的执行器。
+     *
+     * @return 执行器
+     */
+    public static Executor getSubscriptionExecutor() {
+        return subscriptionExecutor;
+    }
+
+    /**
+     * 设定执行事件流订阅的执行器。每个订阅在其整个生命周期内占用执行器的一个线程，有上限的执行器应当能够容纳同时存在的全部订阅。
+     *
+     * @param subscriptionExecutor 执行器；为null时恢复默认（每个订阅使用单独的线程）
+     */
+    public static void setSubscriptionExecutor(Executor subscriptionExecutor) {
+        AnnoHttpExecutors.subscriptionExecutor = subscriptionExecutor == null ? DEFAULT_SUBSCRIPTION_EXECUTOR : subscriptionExecutor;
+    }
+}
@@ -14,4 +14,6 @@ public interface Converter {
     String CONTENT_TYPE_APPLICATION_YML = "application/yml";
     String CONTENT_TYPE_TEXT_YAML = "text/yaml";
     String CONTENT_TYPE_TEXT_YML = "text/yml";
+    String CONTENT_TYPE_APPLICATION_SMILE = "application/x-jackson-smile";
+    String CONTENT_TYPE_APPLICATION_CBOR = "application/cbor";
 }
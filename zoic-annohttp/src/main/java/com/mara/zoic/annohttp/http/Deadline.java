@@ -0,0 +1,190 @@
+package com.mara.zoic.annohttp.http;
+
+import com.mara.zoic.annohttp.http.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 请求的截止时间，即整个请求的总时间预算（毫秒精度）。
+ * <p>截止时间涵盖从开始发送请求到响应转换完成的全部阶段：等待并发许可、等待连接池中的连接、建立连接、等待响应以及转换响应体。
+ * 各个阶段的超时设定（{@link com.mara.zoic.annohttp.annotation.Request#connectionRequestTimeoutInSeconds()} 等）仍然有效，
+ * 但是不会超过剩余的预算；预算耗尽时请求会被中止并抛出 {@link DeadlineExceededException}。</p>
+ * <p>为请求设定截止时间的方式有三种，同时存在时以最早的截止时间为准：</p>
+ * <ul>
+ *     <li>请求方法中类型为 {@link Deadline} 的参数；</li>
+ *     <li>在调用请求方法的线程上通过 {@link #call(Deadline, Supplier)} 或者 {@link #run(Deadline, Runnable)} 设定的上下文截止时间，
+ *     适合为一段业务逻辑中的所有请求设定共同的预算；</li>
+ *     <li>{@link PreparingRequest#withDeadline(Deadline)}。</li>
+ * </ul>
+ * <p>设定 {@link com.mara.zoic.annohttp.annotation.Request#deadlineHeader()} 后，剩余的预算（毫秒）会以请求头的形式发送给下游。</p>
+ * <p>此类是不可变的。截止时间基于 {@link System#nanoTime()}，不受系统时钟调整的影响。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class Deadline implements Comparable<Deadline> {
+
+    private static final ThreadLocal<Deadline> CONTEXT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 创建一个从现在开始，经过指定毫秒数后到期的截止时间。
+     *
+     * @param millis 毫秒数，不能为负数
+     * @return 截止时间
+     */
+    public static Deadline afterMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Deadline budget cannot be negative: " + millis);
+        }
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * 创建一个从现在开始，经过指定时长后到期的截止时间。
+     *
+     * @param duration 时长，不能为负数
+     * @return 截止时间
+     */
+    public static Deadline after(Duration duration) {
+        Objects.requireNonNull(duration);
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Deadline budget cannot be negative: " + duration);
+        }
+        return new Deadline(System.nanoTime() + duration.toNanos());
+    }
+
+    /**
+     * 获得当前线程上下文中的截止时间。
+     *
+     * @return 截止时间；不存在时返回null
+     */
+    public static Deadline current() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * 在指定的截止时间下执行。执行期间在当前线程上创建的请求都受此截止时间约束；如果外层已经存在更早的截止时间，那么外层的仍然有效。
+     *
+     * @param deadline 截止时间
+     * @param supplier 要执行的逻辑
+     * @return 逻辑的返回值
+     * @param <R> 返回值类型
+     */
+    public static <R> R call(Deadline deadline, Supplier<R> supplier) {
+        Objects.requireNonNull(deadline);
+        Deadline previous = CONTEXT.get();
+        CONTEXT.set(earliest(previous, deadline));
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                CONTEXT.remove();
+            } else {
+                CONTEXT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 在指定的截止时间下执行。
+     *
+     * @param deadline 截止时间
+     * @param runnable 要执行的逻辑
+     * @see #call(Deadline, Supplier)
+     */
+    public static void run(Deadline deadline, Runnable runnable) {
+        call(deadline, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * 返回两者中较早的截止时间，任意一个可以是null。
+     *
+     * @param a 截止时间
+     * @param b 截止时间
+     * @return 较早的截止时间；两者都是null时返回null
+     */
+    public static Deadline earliest(Deadline a, Deadline b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * 获得剩余的时间。
+     *
+     * @param unit 时间单位
+     * @return 剩余的时间，已经到期时返回0
+     */
+    public long remaining(TimeUnit unit) {
+        return unit.convert(remainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 获得剩余的毫秒数。
+     *
+     * @return 剩余的毫秒数，已经到期时返回0
+     */
+    public long remainingMillis() {
+        return remaining(TimeUnit.MILLISECONDS);
+    }
+
+    long remainingNanos() {
+        return Math.max(0L, deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * 是否已经到期。
+     *
+     * @return 到期时返回true
+     */
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * 如果已经到期，抛出 {@link DeadlineExceededException}。
+     *
+     * @param phase 当前所处的阶段，用于异常信息
+     */
+    public void checkNotExpired(String phase) {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded before " + phase);
+        }
+    }
+
+    @Override
+    public int compareTo(Deadline o) {
+        return Long.compare(deadlineNanos - o.deadlineNanos, 0L);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Deadline d && d.deadlineNanos == deadlineNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(deadlineNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + remainingMillis() + "ms}";
+    }
+}
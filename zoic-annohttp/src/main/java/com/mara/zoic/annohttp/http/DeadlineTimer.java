@@ -0,0 +1,39 @@
+package com.mara.zoic.annohttp.http;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在截止时间到期时中止请求的定时器。所有请求共享一个守护线程，请求正常结束后定时任务被立即移除。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+final class DeadlineTimer {
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER;
+
+    static {
+        SCHEDULER = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "annohttp-deadline-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    private DeadlineTimer() {
+    }
+
+    /**
+     * 在截止时间到期时执行中止动作。
+     *
+     * @param deadline 截止时间
+     * @param abort    中止动作，在定时器线程上执行，应当足够轻量
+     * @return 定时任务，请求结束后应当取消
+     */
+    static ScheduledFuture<?> schedule(Deadline deadline, Runnable abort) {
+        return SCHEDULER.schedule(abort, deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,290 @@
+package com.mara.zoic.annohttp.http;
+
+import org.apache.hc.core5.http.HttpEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 读取响应体时使用的共享缓冲区池。
+ * <p>{@link org.apache.hc.core5.http.io.entity.EntityUtils#toByteArray(HttpEntity)} 每次都会新建缓冲区并在增长时反复复制，
+ * 对于高并发、小响应体的场景会产生大量的短生命周期对象。这里按照大小分级（4KB ~ 256KB）缓存缓冲区，各级别的缓冲区数量有上限，
+ * 池中保留的内存总量不会超过 {@link #MAX_RETAINED_BYTES}。超过最大级别的缓冲区不会被缓存。</p>
+ * <p>响应中存在 Content-Length 时，将按照其大小直接分配缓冲区，不需要增长。</p>
+ * <p>响应体是 {@link SizeLimitedEntity} 时，超过其 {@link SizeLimitedEntity#getMaxInMemoryBytes()} 的响应体会被转存到临时文件（{@link SpilledContent}），
+ * 不会在堆中分配超大的缓冲区。</p>
+ * <p>此类是线程安全的，缓冲区的借出与归还都是无锁的。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class EntityBufferPool {
+
+    private static final int MIN_SIZE_SHIFT = 12;
+
+    private static final int SIZE_CLASSES = 7;
+
+    /**
+     * 可以被缓存的最大缓冲区大小。
+     */
+    public static final int MAX_POOLED_SIZE = 1 << (MIN_SIZE_SHIFT + SIZE_CLASSES - 1);
+
+    /**
+     * 池中保留的内存总量的上限。
+     */
+    public static final long MAX_RETAINED_BYTES = 8L * 1024 * 1024;
+
+    private static final int MAX_SLOTS_PER_CLASS = 64;
+
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final AtomicReferenceArray<?>[] POOLS = new AtomicReferenceArray<?>[SIZE_CLASSES];
+
+    static {
+        long bytesPerClass = MAX_RETAINED_BYTES / SIZE_CLASSES;
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            long slots = bytesPerClass / (1L << (MIN_SIZE_SHIFT + i));
+            POOLS[i] = new AtomicReferenceArray<byte[]>((int) Math.max(1, Math.min(MAX_SLOTS_PER_CLASS, slots)));
+        }
+    }
+
+    private EntityBufferPool() {
+    }
+
+    /**
+     * 缓冲区的使用者。缓冲区在使用完毕后将被归还到池中，因此使用者不能在方法之外持有它。
+     *
+     * @param <R> 结果类型
+     */
+    @FunctionalInterface
+    public interface BufferReader<R> {
+
+        /**
+         * 使用缓冲区。
+         *
+         * @param buffer 缓冲区，有效内容为 [0, length)
+         * @param length 有效内容的长度
+         * @return 结果
+         * @throws IOException 处理失败
+         */
+        R read(byte[] buffer, int length) throws IOException;
+    }
+
+    /**
+     * 被转存到临时文件的响应体的使用者。临时文件在使用完毕后将被删除，因此使用者不能在方法之外持有它。
+     *
+     * @param <R> 结果类型
+     */
+    @FunctionalInterface
+    public interface SpilledReader<R> {
+
+        /**
+         * 使用转存的响应体。
+         *
+         * @param content 转存的响应体
+         * @return 结果
+         * @throws IOException 处理失败
+         */
+        R read(SpilledContent content) throws IOException;
+    }
+
+    /**
+     * 将响应体完整读取到池化的缓冲区中，然后交给使用者处理。读取完毕后关闭响应流。
+     * <p>响应体被转存到临时文件时，将其完整读取为字节数组后交给使用者。</p>
+     *
+     * @param entity 响应体，可以是null
+     * @param reader 缓冲区的使用者
+     * @return 使用者的结果；如果响应体或者响应流不存在，那么返回null
+     * @param <R> 结果类型
+     * @throws IOException 读取失败
+     */
+    public static <R> R read(HttpEntity entity, BufferReader<R> reader) throws IOException {
+        return read(entity, reader, content -> {
+            byte[] bytes = content.toByteArray();
+            return reader.read(bytes, bytes.length);
+        });
+    }
+
+    /**
+     * 将响应体完整读取到池化的缓冲区中，然后交给使用者处理；响应体超过 {@link SizeLimitedEntity#getMaxInMemoryBytes()} 时，
+     * 转存到临时文件后交给另一个使用者处理。读取完毕后关闭响应流并删除临时文件。
+     *
+     * @param entity        响应体，可以是null
+     * @param reader        缓冲区的使用者
+     * @param spilledReader 转存的响应体的使用者
+     * @return 使用者的结果；如果响应体或者响应流不存在，那么返回null
+     * @param <R> 结果类型
+     * @throws IOException 读取失败
+     */
+    public static <R> R read(HttpEntity entity, BufferReader<R> reader, SpilledReader<R> spilledReader) throws IOException {
+        if (entity == null) {
+            return null;
+        }
+        long threshold = LeasedHttpEntity.unwrap(entity) instanceof SizeLimitedEntity limited ? limited.getMaxInMemoryBytes() : Long.MAX_VALUE;
+        try (InputStream inputStream = entity.getContent()) {
+            if (inputStream == null) {
+                return null;
+            }
+            if (entity.getContentLength() > threshold) {
+                // 已知超过阈值，不经过内存直接转存
+                try (SpilledContent content = SpilledContent.spill(EMPTY, 0, -1, inputStream)) {
+                    return spilledReader.read(content);
+                }
+            }
+            byte[] buffer = borrow(initialSize(entity));
+            try {
+                int length = 0;
+                while (true) {
+                    int limit = (int) Math.min(buffer.length, threshold);
+                    if (length == limit) {
+                        // 缓冲区已满（比如恰好等于 Content-Length），先确认是否已经读完，避免无意义的增长
+                        int b = inputStream.read();
+                        if (b < 0) {
+                            break;
+                        }
+                        if (length >= threshold) {
+                            // 超过阈值，已经读取的部分连同剩余的部分一起转存
+                            try (SpilledContent content = SpilledContent.spill(buffer, length, b, inputStream)) {
+                                return spilledReader.read(content);
+                            }
+                        }
+                        buffer = grow(buffer, length);
+                        buffer[length++] = (byte) b;
+                        continue;
+                    }
+                    int n = inputStream.read(buffer, length, limit - length);
+                    if (n < 0) {
+                        break;
+                    }
+                    length += n;
+                }
+                return reader.read(buffer, length);
+            } finally {
+                release(buffer);
+            }
+        }
+    }
+
+    /**
+     * 将响应体读取为字节数组，可以替代 {@link org.apache.hc.core5.http.io.entity.EntityUtils#toByteArray(HttpEntity)}。
+     *
+     * @param entity 响应体，可以是null
+     * @return 字节数组；如果响应体或者响应流不存在，那么返回null
+     * @throws IOException 读取失败
+     */
+    public static byte[] toByteArray(HttpEntity entity) throws IOException {
+        // 超过池化大小的缓冲区是按照 Content-Length 精确分配的，并且不会被归还，可以直接返回
+        return read(entity, (buffer, length) -> length == buffer.length && length > MAX_POOLED_SIZE ? buffer : Arrays.copyOf(buffer, length),
+                SpilledContent::toByteArray);
+    }
+
+    /**
+     * 将响应体读取为字符串，直接从池化的缓冲区（或者转存的临时文件映射的内存）解码，不会产生中间的字节数组。
+     *
+     * @param entity  响应体，可以是null
+     * @param charset 字符编码
+     * @return 字符串；如果响应体或者响应流不存在，那么返回null
+     * @throws IOException 读取失败
+     */
+    public static String toString(HttpEntity entity, Charset charset) throws IOException {
+        return read(entity, (buffer, length) -> new String(buffer, 0, length, charset), content -> content.toString(charset));
+    }
+
+    /**
+     * 获得当前池中保留的内存总量。
+     *
+     * @return 字节数
+     */
+    public static long getRetainedBytes() {
+        long retained = 0;
+        for (AtomicReferenceArray<?> pool : POOLS) {
+            for (int i = 0; i < pool.length(); i++) {
+                Object buffer = pool.get(i);
+                if (buffer != null) {
+                    retained += ((byte[]) buffer).length;
+                }
+            }
+        }
+        return retained;
+    }
+
+    private static int initialSize(HttpEntity entity) throws IOException {
+        long contentLength = entity.getContentLength();
+        if (contentLength > MAX_ARRAY_SIZE) {
+            throw new IOException("Response body is too large to be buffered in memory: " + contentLength);
+        }
+        // 长度为0时仍然分配最小的缓冲区，以便确认流是否真的结束
+        return contentLength < 0 ? DEFAULT_BUFFER_SIZE : Math.max(1, (int) contentLength);
+    }
+
+    private static byte[] grow(byte[] buffer, int length) throws IOException {
+        if (buffer.length >= MAX_ARRAY_SIZE) {
+            throw new IOException("Response body is too large to be buffered in memory");
+        }
+        byte[] bigger = borrow((int) Math.min(MAX_ARRAY_SIZE, (long) buffer.length << 1));
+        System.arraycopy(buffer, 0, bigger, 0, length);
+        release(buffer);
+        return bigger;
+    }
+
+    /**
+     * 借出一个至少为指定大小的缓冲区。超过 {@link #MAX_POOLED_SIZE} 的按照实际大小分配，不经过池。
+     */
+    static byte[] borrow(int size) {
+        if (size > MAX_POOLED_SIZE) {
+            return new byte[size];
+        }
+        int sizeClass = sizeClass(size);
+        @SuppressWarnings("unchecked")
+        AtomicReferenceArray<byte[]> pool = (AtomicReferenceArray<byte[]>) POOLS[sizeClass];
+        int start = startIndex(pool.length());
+        for (int i = 0; i < pool.length(); i++) {
+            int index = (start + i) % pool.length();
+            if (pool.get(index) != null) {
+                byte[] buffer = pool.getAndSet(index, null);
+                if (buffer != null) {
+                    return buffer;
+                }
+            }
+        }
+        return new byte[1 << (MIN_SIZE_SHIFT + sizeClass)];
+    }
+
+    /**
+     * 归还缓冲区。只有大小恰好是某个级别的缓冲区才会被缓存，池满时直接丢弃。
+     */
+    static void release(byte[] buffer) {
+        int size = buffer.length;
+        if (size > MAX_POOLED_SIZE || size < (1 << MIN_SIZE_SHIFT) || Integer.bitCount(size) != 1) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        AtomicReferenceArray<byte[]> pool = (AtomicReferenceArray<byte[]>) POOLS[sizeClass(size)];
+        int start = startIndex(pool.length());
+        for (int i = 0; i < pool.length(); i++) {
+            int index = (start + i) % pool.length();
+            if (pool.get(index) == null && pool.compareAndSet(index, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    private static int sizeClass(int size) {
+        if (size <= (1 << MIN_SIZE_SHIFT)) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SIZE_SHIFT;
+    }
+
+    private static int startIndex(int length) {
+        // 不同线程从不同的位置开始查找，减少竞争
+        return (int) (Thread.currentThread().getId() % length);
+    }
+}
@@ -0,0 +1,280 @@
+package com.mara.zoic.annohttp.http;
+
+import com.mara.zoic.annohttp.annotation.Http2;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.CancellableDependency;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.*;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.entity.BasicAsyncEntityProducer;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicEntityProducer;
+import org.apache.hc.core5.http.nio.support.classic.ContentInputStream;
+import org.apache.hc.core5.http.nio.support.classic.SharedInputBuffer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 通过共享的 HTTP/2 异步客户端执行已经构建好的经典（classic）请求，并将结果适配为 {@link ClassicHttpResponse}。
+ * <p>响应头到达后立即返回，响应体通过有界的共享缓冲区以 {@link java.io.InputStream} 的形式提供，读取速度同时作为 HTTP/2 的流量控制，
+ * 因此后续的转换流程与 HTTP/1.1 没有区别。</p>
+ * <p>每个目标地址同时进行的流的数量受 {@link Http2#maxConcurrentStreams()} 限制，流在响应体完整接收或者失败后释放。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+final class Http2Transport {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 小于此大小的可重复请求体将被直接读取为字节数组发送，更大的或者不可重复的请求体将在单独的线程中以流的形式写出。
+     */
+    private static final int MAX_BUFFERED_REQUEST_BODY_SIZE = 64 * 1024;
+
+    /**
+     * 每个目标地址的可用流，没有正在使用或者等待的请求时移除，因此不会随着访问过的地址无限增长。
+     */
+    private static final Map<String, StreamPermits> STREAM_PERMITS = new ConcurrentHashMap<>();
+
+    private Http2Transport() {
+    }
+
+    /**
+     * 执行请求，在响应头到达后返回。
+     *
+     * @param request                 请求（请求体取自其中的实体）
+     * @param requestConfig           请求配置
+     * @param http2                   HTTP/2 设定
+     * @param streamTimeoutMillis     等待可用流的最长时间（毫秒），小于0时一直等待
+     * @return 响应，响应体是尚未读取的流
+     * @throws IOException 请求失败
+     */
+    static ClassicHttpResponse execute(ClassicHttpRequest request, RequestConfig requestConfig, Http2 http2, long streamTimeoutMillis) throws IOException {
+        URI uri;
+        try {
+            uri = request.getUri();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Illegal uri: " + request.getRequestUri(), e);
+        }
+        String endpoint = uri.getScheme() + "://" + uri.getRawAuthority();
+        String permitsKey = http2.maxConcurrentStreams() + "|" + endpoint;
+        StreamPermits permits = StreamPermits.retain(permitsKey, Math.max(1, http2.maxConcurrentStreams()));
+        try {
+            acquire(permits.semaphore, endpoint, streamTimeoutMillis);
+        } catch (IOException e) {
+            StreamPermits.unretain(permitsKey);
+            throw e;
+        }
+
+        StreamingResponseConsumer responseConsumer = new StreamingResponseConsumer(permitsKey, permits);
+        Future<ClassicHttpResponse> future;
+        try {
+            BasicHttpRequest head = new BasicHttpRequest(request.getMethod(), uri);
+            head.setHeaders(request.getHeaders());
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(requestConfig);
+            future = HttpComponentHolder.getHttp2ClientInstance().execute(
+                    new BasicRequestProducer(head, toEntityProducer(request.getEntity())), responseConsumer, null, context, null);
+            if (request instanceof CancellableDependency cancellableDependency) {
+                // 使中止经典请求（比如截止时间到期）同样能够取消 HTTP/2 流
+                Future<ClassicHttpResponse> f = future;
+                cancellableDependency.setDependency(() -> f.cancel(true));
+            }
+        } catch (IOException | RuntimeException e) {
+            responseConsumer.releasePermit();
+            throw e;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for HTTP/2 response from " + endpoint);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ioe ? ioe : new IOException("HTTP/2 request to " + endpoint + " failed", cause);
+        } catch (CancellationException e) {
+            throw new IOException("HTTP/2 request to " + endpoint + " was cancelled", e);
+        }
+    }
+
+    private static void acquire(Semaphore permits, String endpoint, long timeoutMillis) throws IOException {
+        try {
+            if (timeoutMillis < 0) {
+                permits.acquire();
+            } else if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException("No HTTP/2 stream available for " + endpoint + " within " + timeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for HTTP/2 stream of " + endpoint);
+        }
+    }
+
+    private static AsyncEntityProducer toEntityProducer(HttpEntity entity) throws IOException {
+        if (entity == null) {
+            return null;
+        }
+        ContentType contentType = ContentType.parseLenient(entity.getContentType());
+        long contentLength = entity.getContentLength();
+        if (entity.isRepeatable() && contentLength >= 0 && contentLength <= MAX_BUFFERED_REQUEST_BODY_SIZE) {
+            return new BasicAsyncEntityProducer(EntityUtils.toByteArray(entity), contentType);
+        }
+        return new AbstractClassicEntityProducer(BUFFER_SIZE, contentType, HttpComponentHolder.getHttp2BodyWriterInstance()) {
+            @Override
+            protected void produceData(ContentType contentType, OutputStream outputStream) throws IOException {
+                entity.writeTo(outputStream);
+            }
+        };
+    }
+
+    /**
+     * 一个目标地址的可用流以及正在使用或者等待它们的请求数。
+     */
+    private static final class StreamPermits {
+
+        private final Semaphore semaphore;
+
+        /**
+         * 正在使用或者等待的请求数，只在 {@link ConcurrentHashMap#compute} 中修改。
+         */
+        private int users;
+
+        private StreamPermits(int maxConcurrentStreams) {
+            this.semaphore = new Semaphore(maxConcurrentStreams);
+        }
+
+        static StreamPermits retain(String key, int maxConcurrentStreams) {
+            return STREAM_PERMITS.compute(key, (k, permits) -> {
+                StreamPermits retained = permits == null ? new StreamPermits(maxConcurrentStreams) : permits;
+                retained.users++;
+                return retained;
+            });
+        }
+
+        static void unretain(String key) {
+            STREAM_PERMITS.computeIfPresent(key, (k, permits) -> --permits.users == 0 ? null : permits);
+        }
+    }
+
+    /**
+     * 将异步的响应适配为经典的响应：响应头到达时即完成，响应体写入共享缓冲区，由调用方线程以流的形式读取。
+     */
+    private static final class StreamingResponseConsumer implements AsyncResponseConsumer<ClassicHttpResponse> {
+
+        private final SharedInputBuffer buffer = new SharedInputBuffer(BUFFER_SIZE);
+
+        private final String permitsKey;
+
+        private final StreamPermits permits;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private volatile Exception failure;
+
+        StreamingResponseConsumer(String permitsKey, StreamPermits permits) {
+            this.permitsKey = permitsKey;
+            this.permits = permits;
+        }
+
+        @Override
+        public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+                                    FutureCallback<ClassicHttpResponse> resultCallback) {
+            BasicClassicHttpResponse classicResponse = new BasicClassicHttpResponse(response.getCode(), response.getReasonPhrase());
+            classicResponse.setVersion(response.getVersion() == null ? HttpVersion.HTTP_2 : response.getVersion());
+            classicResponse.setHeaders(response.getHeaders());
+            if (entityDetails != null) {
+                classicResponse.setEntity(new InputStreamEntity(new ResponseInputStream(), entityDetails.getContentLength(),
+                        ContentType.parseLenient(entityDetails.getContentType()), entityDetails.getContentEncoding()));
+            }
+            if (resultCallback != null) {
+                resultCallback.completed(classicResponse);
+            }
+        }
+
+        @Override
+        public void informationResponse(HttpResponse response, HttpContext context) {
+        }
+
+        @Override
+        public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+            buffer.updateCapacity(capacityChannel);
+        }
+
+        @Override
+        public void consume(ByteBuffer src) {
+            buffer.fill(src);
+        }
+
+        @Override
+        public void streamEnd(List<? extends Header> trailers) {
+            buffer.markEndStream();
+            releasePermit();
+        }
+
+        @Override
+        public void failed(Exception cause) {
+            failure = cause;
+            buffer.abort();
+            releasePermit();
+        }
+
+        @Override
+        public void releaseResources() {
+            releasePermit();
+        }
+
+        void releasePermit() {
+            if (released.compareAndSet(false, true)) {
+                permits.semaphore.release();
+                StreamPermits.unretain(permitsKey);
+            }
+        }
+
+        /**
+         * 流在中途失败时，读取到的结束标记需要转换为异常，否则调用方会把残缺的内容当作完整的响应体。
+         */
+        private final class ResponseInputStream extends ContentInputStream {
+
+            ResponseInputStream() {
+                super(buffer);
+            }
+
+            @Override
+            public int read() throws IOException {
+                return checkFailure(super.read());
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return checkFailure(super.read(b, off, len));
+            }
+
+            private int checkFailure(int n) throws IOException {
+                Exception cause = failure;
+                if (n == -1 && cause != null) {
+                    throw cause instanceof IOException ioe ? ioe : new IOException("HTTP/2 stream failed", cause);
+                }
+                return n;
+            }
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.mara.zoic.annohttp.http;
 
+import com.mara.zoic.annohttp.http.pool.ConnectionPoolMonitor;
+import com.mara.zoic.annohttp.http.protocol.UnixDomainSocketFactory;
+import com.mara.zoic.annohttp.http.protocol.UnixProtocolHandler;
 import com.mara.zoic.annohttp.http.proxy.HttpConnectionSocketFactory;
 import com.mara.zoic.annohttp.http.proxy.HttpsConnectionSocketFactory;
+import com.mara.zoic.annohttp.http.proxy.ProxyAwareConnectionManager;
 import com.mara.zoic.annohttp.http.proxy.RequestRoutePlanner;
+import com.mara.zoic.annohttp.http.tls.TlsSettings;
+import com.mara.zoic.annohttp.http.tls.TlsSupport;
+import com.mara.zoic.annohttp.http.trace.TracingExecChainHandler;
 import org.apache.hc.client5.http.auth.StandardAuthScheme;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
-import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
 import org.apache.hc.core5.http.config.Registry;
 import org.apache.hc.core5.http.config.RegistryBuilder;
-import org.apache.hc.core5.ssl.SSLContextBuilder;
 import org.apache.hc.core5.util.TimeValue;
 
 import java.net.ProxySelector;
@@ -26,31 +32,40 @@ import java.util.concurrent.TimeUnit;
  */
 public class HttpClientBuilderEnhancer {
 
+	/**
+	 * 增强HttpClientBuilder，设定一些参数。TLS 使用默认的设置 {@link TlsSettings#defaults()}。
+	 * @param clientBuilder {@link HttpClientBuilder} 对象
+	 * @return
+	 */
+	public static HttpClientBuilder enhance(HttpClientBuilder clientBuilder) {
+        return enhance(clientBuilder, TlsSettings.defaults());
+	}
+
 	/**
 	 * 增强HttpClientBuilder，设定一些参数。
 	 * @param clientBuilder {@link HttpClientBuilder} 对象
+	 * @param tlsSettings TLS 设置
 	 * @return
 	 */
     @SuppressWarnings("deprecation")
-	public static HttpClientBuilder enhance(HttpClientBuilder clientBuilder) {
-        HttpsConnectionSocketFactory sslsf;
-        try {
-            SSLContextBuilder builder;
-            builder = new SSLContextBuilder();
-            // 全部信任 不做身份鉴定
-            builder.loadTrustMaterial(null, (chain, authType) -> true);
-            sslsf = new HttpsConnectionSocketFactory(builder.build(), new String[]{"SSLv3", "TLSv1", "TLSv1.2"}, null, NoopHostnameVerifier.INSTANCE);
-        } catch (Exception e) {
-            throw new RuntimeException("Cannot create http client", e);
-        }
+	public static HttpClientBuilder enhance(HttpClientBuilder clientBuilder, TlsSettings tlsSettings) {
+        HttpsConnectionSocketFactory sslsf = TlsSupport.socketFactory(tlsSettings);
         Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
                 .register("http", new HttpConnectionSocketFactory())
                 .register("https", sslsf)
+                .register(UnixProtocolHandler.SCHEME, new UnixDomainSocketFactory())
                 .build();
-        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry, null, null, TimeValue.of(15, TimeUnit.SECONDS));
+        ProxyAwareConnectionManager connectionManager = new ProxyAwareConnectionManager(socketFactoryRegistry, null, null, TimeValue.of(15, TimeUnit.SECONDS));
         connectionManager.setMaxTotal(20);
         connectionManager.setDefaultMaxPerRoute(2);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setValidateAfterInactivity(TimeValue.ofSeconds(ConnectionPoolMonitor.DEFAULT_VALIDATE_AFTER_INACTIVITY_SECONDS))
+                .build());
+        // 定时清理过期与空闲的连接，避免安静一段时间后的请求拿到已经被服务端关闭的连接
+        ConnectionPoolMonitor.monitor("default", connectionManager, TimeValue.ofSeconds(ConnectionPoolMonitor.DEFAULT_EVICTION_INTERVAL_SECONDS),
+                TimeValue.ofSeconds(ConnectionPoolMonitor.DEFAULT_MAX_IDLE_SECONDS));
         clientBuilder
+                .addExecInterceptorBefore(ChainElement.CONNECT.name(), TracingExecChainHandler.NAME, new TracingExecChainHandler())
                 .setRoutePlanner(new RequestRoutePlanner(ProxySelector.getDefault()))
                 .setConnectionManager(connectionManager)
                 .setDefaultRequestConfig(RequestConfig.custom()
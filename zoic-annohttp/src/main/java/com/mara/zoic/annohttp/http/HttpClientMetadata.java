@@ -1,7 +1,11 @@
 package com.mara.zoic.annohttp.http;
 
 
+import com.mara.zoic.annohttp.annotation.ConcurrencyLimit;
+import com.mara.zoic.annohttp.annotation.Http2;
 import com.mara.zoic.annohttp.annotation.Request;
+import com.mara.zoic.annohttp.annotation.RoutingKey;
+import com.mara.zoic.annohttp.annotation.WireLog;
 import com.mara.zoic.annohttp.http.request.converter.RequestBodyConverter;
 import com.mara.zoic.annohttp.http.response.converter.ResponseConverter;
 import com.mara.zoic.annohttp.http.visitor.ResponseVisitor;
@@ -117,4 +121,42 @@ public interface HttpClientMetadata {
     default Object[] getRequestMethodArguments() {
         return null;
     }
+
+    /**
+     * 获得标注在客户端接口上的 {@link Http2} 实例。
+     *
+     * @return {@link Http2} 实例；如果未启用 HTTP/2，那么返回null
+     */
+    default Http2 getHttp2Annotation() {
+        return null;
+    }
+
+    /**
+     * 获得标注在客户端接口上的 {@link ConcurrencyLimit} 实例。
+     *
+     * @return {@link ConcurrencyLimit} 实例；如果未启用并发限制，那么返回null
+     */
+    default ConcurrencyLimit getConcurrencyLimitAnnotation() {
+        return null;
+    }
+
+    /**
+     * 获得标注在客户端接口上的 {@link WireLog} 实例。
+     *
+     * @return {@link WireLog} 实例；如果未启用报文记录，那么返回null
+     */
+    default WireLog getWireLogAnnotation() {
+        return null;
+    }
+
+    /**
+     * 获得请求的路由键。
+     *
+     * @return 路由键；如果没有设定，那么返回null
+     * @see RoutingKey
+     * @see Request#routingKeySpel()
+     */
+    default String getRoutingKey() {
+        return null;
+    }
 }
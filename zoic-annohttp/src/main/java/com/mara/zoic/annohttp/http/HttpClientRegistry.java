@@ -0,0 +1,184 @@
+package com.mara.zoic.annohttp.http;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.core5.io.CloseMode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 自定义 HttpClient（{@link PreparingRequest#customHttpClient}）的注册表。
+ * <p>以建造者提供器实例或者名称为键缓存由其建造的 {@link CloseableHttpClient}，使用同一个提供器（或者同一个名称）的请求共享同一个客户端及其连接池，
+ * 而不是每次请求都建造一个新的客户端。</p>
+ * <p>客户端按引用计数管理：请求开始时租用，请求结束时归还；返回 InputStream、ClassicHttpResponse 等由用户读取响应体的请求在响应体关闭时才归还。
+ * 没有请求在使用、并且空闲超过 {@link #getIdleTimeout()} 的客户端会被后台线程关闭并移出注册表，之后再使用同一个键时会重新建造。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class HttpClientRegistry {
+
+    /**
+     * 默认的空闲超时时间。
+     */
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final long SWEEP_INTERVAL_SECONDS = 10;
+
+    private static final Map<Object, Entry> CLIENTS = new ConcurrentHashMap<>();
+
+    private static final ScheduledThreadPoolExecutor SWEEPER;
+
+    private static volatile long idleTimeoutNanos = DEFAULT_IDLE_TIMEOUT.toNanos();
+
+    static {
+        SWEEPER = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "annohttp-client-registry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        SWEEPER.scheduleWithFixedDelay(HttpClientRegistry::evictIdle, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private HttpClientRegistry() {
+    }
+
+    /**
+     * 租用客户端，引用计数加一。键尚未注册时使用建造者提供器建造新的客户端。
+     *
+     * @param key                       键，建造者提供器实例（按照实例区分）或者名称
+     * @param httpClientBuilderSupplier 建造者提供器，只在需要建造新的客户端时调用
+     * @return 共享的客户端，使用完毕后必须调用 {@link #release(Object)} 归还
+     */
+    public static CloseableHttpClient acquire(Object key, Supplier<HttpClientBuilder> httpClientBuilderSupplier) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        return CLIENTS.compute(key, (k, entry) -> {
+            if (entry == null) {
+                HttpClientBuilder builder = httpClientBuilderSupplier == null ? null : httpClientBuilderSupplier.get();
+                if (builder == null) {
+                    throw new IllegalArgumentException("httpClientBuilderSupplier must return an non-null HttpClientBuilder instance");
+                }
+                entry = new Entry(builder, builder.build());
+            }
+            entry.references++;
+            return entry;
+        }).client;
+    }
+
+    /**
+     * 归还客户端，引用计数减一。
+     *
+     * @param key 租用时使用的键
+     */
+    public static void release(Object key) {
+        CLIENTS.computeIfPresent(key, (k, entry) -> {
+            if (entry.references > 0 && --entry.references == 0) {
+                entry.idleSinceNanos = System.nanoTime();
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * 获得建造了指定客户端的建造者。
+     *
+     * @param key 键
+     * @return 建造者；键未注册时返回null
+     */
+    public static HttpClientBuilder getBuilder(Object key) {
+        Entry entry = CLIENTS.get(key);
+        return entry == null ? null : entry.builder;
+    }
+
+    /**
+     * 获得当前的引用计数。
+     *
+     * @param key 键
+     * @return 引用计数；键未注册时返回-1
+     */
+    public static int getReferences(Object key) {
+        Entry entry = CLIENTS.get(key);
+        return entry == null ? -1 : entry.references;
+    }
+
+    /**
+     * 获得注册的客户端数量。
+     */
+    public static int size() {
+        return CLIENTS.size();
+    }
+
+    public static Duration getIdleTimeout() {
+        return Duration.ofNanos(idleTimeoutNanos);
+    }
+
+    /**
+     * 设定空闲超时时间。后台线程每 10 秒检查一次，因此实际关闭的时间可能稍晚。
+     *
+     * @param idleTimeout 空闲超时时间，不能为负数
+     */
+    public static void setIdleTimeout(Duration idleTimeout) {
+        if (idleTimeout == null || idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("Idle timeout cannot be null or negative");
+        }
+        idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * 立即关闭所有空闲超时的客户端。
+     *
+     * @return 关闭的客户端数量
+     */
+    public static int evictIdle() {
+        long now = System.nanoTime();
+        long timeout = idleTimeoutNanos;
+        List<CloseableHttpClient> evicted = new ArrayList<>();
+        for (Object key : CLIENTS.keySet()) {
+            CLIENTS.computeIfPresent(key, (k, entry) -> {
+                if (entry.references == 0 && now - entry.idleSinceNanos >= timeout) {
+                    evicted.add(entry.client);
+                    return null;
+                }
+                return entry;
+            });
+        }
+        // 在锁外关闭，避免阻塞同一个键的租用
+        evicted.forEach(client -> client.close(CloseMode.GRACEFUL));
+        return evicted.size();
+    }
+
+    /**
+     * 关闭并移除所有的客户端，不论是否仍在使用，通常在应用退出时调用。
+     */
+    public static void closeAll() {
+        for (Object key : CLIENTS.keySet()) {
+            Entry entry = CLIENTS.remove(key);
+            if (entry != null) {
+                entry.client.close(CloseMode.GRACEFUL);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final HttpClientBuilder builder;
+        private final CloseableHttpClient client;
+        // 只在 CLIENTS 的 compute 系列方法中修改
+        private volatile int references;
+        private volatile long idleSinceNanos = System.nanoTime();
+
+        private Entry(HttpClientBuilder builder, CloseableHttpClient client) {
+            this.builder = builder;
+            this.client = client;
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package com.mara.zoic.annohttp.http;
 
+import com.mara.zoic.annohttp.http.tls.TlsSettings;
+import com.mara.zoic.annohttp.http.tls.TlsSupport;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.io.CloseMode;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class HttpComponentHolder {
 
     private static volatile HttpClientBuilder httpClientBuilder;
     private static volatile CloseableHttpClient httpClient;
+    private static volatile CloseableHttpAsyncClient http2Client;
+    private static volatile ThreadPoolExecutor http2BodyWriter;
+    private static volatile TlsSettings http2TlsSettings = TlsSettings.defaults();
 
     private static final Object HTTP_CLIENT_BUILDER_LOCK = new Object();
     private static final Object HTTP_CLIENT_LOCK = new Object();
+    private static final Object HTTP2_CLIENT_LOCK = new Object();
 
     public static HttpClientBuilder getHttpClientBuilderInstance() {
         if (httpClientBuilder == null) {
@@ -32,4 +48,64 @@ public final class HttpComponentHolder {
         }
         return httpClient;
     }
+
+    /**
+     * 设定 HTTP/2 客户端的 TLS 设置，默认与经典客户端相同，即 {@link TlsSettings#defaults()}。
+     * <p>只对之后创建的客户端生效，应当在首次发送 HTTP/2 请求之前设定。</p>
+     *
+     * @param tlsSettings TLS 设置
+     */
+    public static void setHttp2TlsSettings(TlsSettings tlsSettings) {
+        if (tlsSettings == null) {
+            throw new IllegalArgumentException("TLS settings cannot be null");
+        }
+        http2TlsSettings = tlsSettings;
+    }
+
+    /**
+     * 获得共享的 HTTP/2 异步客户端（已启动）。明文使用 h2c prior-knowledge，加密使用 ALPN 协商，每个目标地址复用同一个连接。
+     * <p>TLS 与经典客户端使用相同的 SSLContext、协议、加密套件与主机名校验，参见 {@link #setHttp2TlsSettings(TlsSettings)}。
+     * 客户端以及写出请求体的线程池在 JVM 退出时关闭。</p>
+     *
+     * @return HTTP/2 客户端
+     */
+    public static CloseableHttpAsyncClient getHttp2ClientInstance() {
+        if (http2Client == null) {
+            synchronized (HTTP2_CLIENT_LOCK) {
+                if (http2Client == null) {
+                    CloseableHttpAsyncClient client = H2AsyncClientBuilder.create()
+                            .setH2Config(H2Config.custom().setPushEnabled(false).build())
+                            .setTlsStrategy(TlsSupport.tlsStrategy(http2TlsSettings))
+                            .build();
+                    client.start();
+                    // 流式的请求体由单独的线程写出，线程数有上限，超出的排队等待
+                    AtomicInteger threadNumber = new AtomicInteger();
+                    ThreadPoolExecutor bodyWriter = new ThreadPoolExecutor(AnnoHttpExecutors.DEFAULT_MAX_THREADS, AnnoHttpExecutors.DEFAULT_MAX_THREADS,
+                            60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                        Thread thread = new Thread(r, "annohttp-h2-body-writer-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    bodyWriter.allowCoreThreadTimeOut(true);
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        client.close(CloseMode.GRACEFUL);
+                        bodyWriter.shutdownNow();
+                    }, "annohttp-h2-shutdown"));
+                    http2BodyWriter = bodyWriter;
+                    http2Client = client;
+                }
+            }
+        }
+        return http2Client;
+    }
+
+    /**
+     * 获得 HTTP/2 客户端写出流式请求体使用的线程池，与客户端一同创建并在 JVM 退出时关闭。
+     *
+     * @return 线程池
+     */
+    static Executor getHttp2BodyWriterInstance() {
+        getHttp2ClientInstance();
+        return http2BodyWriter;
+    }
 }
@@ -1,24 +1,55 @@
 package com.mara.zoic.annohttp.http;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.cfg.MapperBuilder;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 
+import java.lang.reflect.Type;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class JacksonComponentHolder {
 
-    private static final ConcurrentHashMap<String, JsonMapper> OBJECT_MAPPER_CACHE = new ConcurrentHashMap<>();
-    private static final ConcurrentHashMap<String, XmlMapper> XML_MAPPER_CACHE = new ConcurrentHashMap<>();
-    private static final ConcurrentHashMap<String, YAMLMapper> YAML_MAPPER_CACHE = new ConcurrentHashMap<>();
+    /**
+     * 4个开关共有16种组合，每种组合对应数组中的一个槽位，参见 {@link #slot(boolean, boolean, boolean, boolean)}。
+     */
+    private static final int MAPPER_SLOTS = 16;
+
+    /**
+     * 每个Mapper最多缓存的 {@link ObjectReader}/{@link ObjectWriter} 数量，超出后不再缓存，避免动态生成的类型撑爆缓存。
+     */
+    private static final int MAX_CACHED_TYPES_PER_MAPPER = 1024;
+
+    private static final AtomicReferenceArray<JsonMapper> OBJECT_MAPPER_CACHE = new AtomicReferenceArray<>(MAPPER_SLOTS);
+    private static final AtomicReferenceArray<XmlMapper> XML_MAPPER_CACHE = new AtomicReferenceArray<>(MAPPER_SLOTS);
+    private static final AtomicReferenceArray<YAMLMapper> YAML_MAPPER_CACHE = new AtomicReferenceArray<>(MAPPER_SLOTS);
+
+    private static final ConcurrentHashMap<ObjectMapper, ConcurrentHashMap<Type, ObjectReader>> READER_CACHE = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<ObjectMapper, ConcurrentHashMap<Type, ObjectWriter>> WRITER_CACHE = new ConcurrentHashMap<>();
 
     private static final JacksonCapitalizePropertyNamingStrategy NAMING_STRATEGY = new JacksonCapitalizePropertyNamingStrategy();
 
+    /**
+     * 类路径上是否存在 jackson-dataformat-smile。
+     */
+    public static final boolean SMILE_PRESENT = isPresent("com.fasterxml.jackson.dataformat.smile.databind.SmileMapper");
+
+    /**
+     * 类路径上是否存在 jackson-dataformat-cbor。
+     */
+    public static final boolean CBOR_PRESENT = isPresent("com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper");
+
     /**
      * 获得ObjectMapper的单例。有如下参数的4个设置，设置相同的将获得相同的ObjectMapper。
      *
@@ -29,17 +60,13 @@ public class JacksonComponentHolder {
      * @return {@link JsonMapper} 实例
      */
     public static JsonMapper getJsonMapper(boolean ignoreCase, boolean ignoreUnknownField, boolean ignoreNullProperty, boolean capitalizeFieldName) {
-        String key = ignoreCase + "|" + ignoreUnknownField + "|" + ignoreNullProperty + "|" + capitalizeFieldName;
-        return OBJECT_MAPPER_CACHE.compute(key, (k, v) -> {
-            try {
-                if (v == null) {
-                    return buildAndSetObjectMapper(JsonMapper.builder(), ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName);
-                }
-                return v;
-            } catch (Exception e) {
-                throw new RuntimeException("Cannot get or create JsonMapper for key: " + key, e);
-            }
-        });
+        int slot = slot(ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName);
+        JsonMapper mapper = OBJECT_MAPPER_CACHE.get(slot);
+        if (mapper == null) {
+            OBJECT_MAPPER_CACHE.compareAndSet(slot, null, buildAndSetObjectMapper(JsonMapper.builder(), ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName));
+            mapper = OBJECT_MAPPER_CACHE.get(slot);
+        }
+        return mapper;
     }
 
     /**
@@ -52,17 +79,13 @@ public class JacksonComponentHolder {
      * @return {@link XmlMapper} 实例
      */
     public static XmlMapper getXmlMapper(boolean ignoreCase, boolean ignoreUnknownField, boolean ignoreNullProperty, boolean capitalizeFieldName) {
-        String key = ignoreCase + "|" + ignoreUnknownField + "|" + ignoreNullProperty + "|" + capitalizeFieldName;
-        return XML_MAPPER_CACHE.compute(key, (k, v) -> {
-            try {
-                if (v == null) {
-                    return buildAndSetObjectMapper(XmlMapper.builder(), ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName);
-                }
-                return v;
-            } catch (Exception e) {
-                throw new RuntimeException("Cannot get or create XmlMapper for key: " + key, e);
-            }
-        });
+        int slot = slot(ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName);
+        XmlMapper mapper = XML_MAPPER_CACHE.get(slot);
+        if (mapper == null) {
+            XML_MAPPER_CACHE.compareAndSet(slot, null, buildAndSetObjectMapper(XmlMapper.builder(), ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName));
+            mapper = XML_MAPPER_CACHE.get(slot);
+        }
+        return mapper;
     }
 
     /**
@@ -75,17 +98,142 @@ public class JacksonComponentHolder {
      * @return {@link YAMLMapper} 实例
      */
     public static YAMLMapper getYamlMapper(boolean ignoreCase, boolean ignoreUnknownField, boolean ignoreNullProperty, boolean capitalizeFieldName) {
-        String key = ignoreCase + "|" + ignoreUnknownField + "|" + ignoreNullProperty + "|" + capitalizeFieldName;
-        return YAML_MAPPER_CACHE.compute(key, (k, v) -> {
-            try {
-                if (v == null) {
-                    return buildAndSetObjectMapper(YAMLMapper.builder(), ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName);
+        int slot = slot(ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName);
+        YAMLMapper mapper = YAML_MAPPER_CACHE.get(slot);
+        if (mapper == null) {
+            YAML_MAPPER_CACHE.compareAndSet(slot, null, buildAndSetObjectMapper(YAMLMapper.builder(), ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName));
+            mapper = YAML_MAPPER_CACHE.get(slot);
+        }
+        return mapper;
+    }
+
+    /**
+     * 获得SmileMapper的单例。有如下参数的4个设置，设置相同的将获得相同的SmileMapper。
+     * <p>需要类路径上存在 jackson-dataformat-smile。</p>
+     *
+     * @param ignoreCase          忽略大小写（反序列化）
+     * @param ignoreUnknownField  允许未知的字段出现（反序列化）
+     * @param ignoreNullProperty  忽略值为NULL的字段（序列化）
+     * @param capitalizeFieldName 字段首字母大写 （序列化）
+     * @return {@link SmileMapper} 实例
+     */
+    public static SmileMapper getSmileMapper(boolean ignoreCase, boolean ignoreUnknownField, boolean ignoreNullProperty, boolean capitalizeFieldName) {
+        if (!SMILE_PRESENT) {
+            throw new IllegalStateException("Cannot find jackson-dataformat-smile in classpath, please add it to your dependencies");
+        }
+        return SmileMapperHolder.get(ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName);
+    }
+
+    /**
+     * 获得CBORMapper的单例。有如下参数的4个设置，设置相同的将获得相同的CBORMapper。
+     * <p>需要类路径上存在 jackson-dataformat-cbor。</p>
+     *
+     * @param ignoreCase          忽略大小写（反序列化）
+     * @param ignoreUnknownField  允许未知的字段出现（反序列化）
+     * @param ignoreNullProperty  忽略值为NULL的字段（序列化）
+     * @param capitalizeFieldName 字段首字母大写 （序列化）
+     * @return {@link CBORMapper} 实例
+     */
+    public static CBORMapper getCborMapper(boolean ignoreCase, boolean ignoreUnknownField, boolean ignoreNullProperty, boolean capitalizeFieldName) {
+        if (!CBOR_PRESENT) {
+            throw new IllegalStateException("Cannot find jackson-dataformat-cbor in classpath, please add it to your dependencies");
+        }
+        return CborMapperHolder.get(ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName);
+    }
+
+    /**
+     * 获得指定Mapper针对指定类型预先构建好的 {@link ObjectReader}。
+     * <p>{@link ObjectReader} 是线程安全且不可变的，缓存后每次反序列化都不需要再次解析类型。</p>
+     *
+     * @param mapper Mapper
+     * @param type   目标类型，可以是 {@link Class}、{@link java.lang.reflect.ParameterizedType} 或者 {@link JavaType}
+     * @return {@link ObjectReader} 实例
+     */
+    public static ObjectReader getReader(ObjectMapper mapper, Type type) {
+        ConcurrentHashMap<Type, ObjectReader> readers = READER_CACHE.get(mapper);
+        if (readers == null) {
+            readers = READER_CACHE.computeIfAbsent(mapper, k -> new ConcurrentHashMap<>());
+        }
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            reader = mapper.readerFor(type instanceof JavaType javaType ? javaType : mapper.constructType(type));
+            if (readers.size() < MAX_CACHED_TYPES_PER_MAPPER) {
+                ObjectReader existing = readers.putIfAbsent(type, reader);
+                if (existing != null) {
+                    reader = existing;
+                }
+            }
+        }
+        return reader;
+    }
+
+    /**
+     * 获得指定Mapper针对指定类型预先构建好的 {@link ObjectWriter}。
+     * <p>{@link ObjectWriter} 是线程安全且不可变的，缓存后每次序列化都不需要再次查找序列化器。</p>
+     *
+     * @param mapper Mapper
+     * @param type   对象类型，一般是对象的运行时类型
+     * @return {@link ObjectWriter} 实例
+     */
+    public static ObjectWriter getWriter(ObjectMapper mapper, Type type) {
+        ConcurrentHashMap<Type, ObjectWriter> writers = WRITER_CACHE.get(mapper);
+        if (writers == null) {
+            writers = WRITER_CACHE.computeIfAbsent(mapper, k -> new ConcurrentHashMap<>());
+        }
+        ObjectWriter writer = writers.get(type);
+        if (writer == null) {
+            writer = mapper.writerFor(type instanceof JavaType javaType ? javaType : mapper.constructType(type));
+            if (writers.size() < MAX_CACHED_TYPES_PER_MAPPER) {
+                ObjectWriter existing = writers.putIfAbsent(type, writer);
+                if (existing != null) {
+                    writer = existing;
                 }
-                return v;
-            } catch (Exception e) {
-                throw new RuntimeException("Cannot get or create YAMLMapper for key: " + key, e);
             }
-        });
+        }
+        return writer;
+    }
+
+    /**
+     * 序列化对象为字符串，使用对象的运行时类型查找 {@link ObjectWriter}。
+     *
+     * @param mapper Mapper
+     * @param source 对象，可以是null
+     * @return 字符串
+     * @throws JsonProcessingException 序列化失败
+     */
+    public static String writeValueAsString(ObjectMapper mapper, Object source) throws JsonProcessingException {
+        if (source == null) {
+            return mapper.writeValueAsString(null);
+        }
+        return getWriter(mapper, source.getClass()).writeValueAsString(source);
+    }
+
+    /**
+     * 序列化对象为字节数组，使用对象的运行时类型查找 {@link ObjectWriter}。二进制格式（Smile、CBOR）应当使用此方法。
+     *
+     * @param mapper Mapper
+     * @param source 对象，可以是null
+     * @return 字节数组
+     * @throws JsonProcessingException 序列化失败
+     */
+    public static byte[] writeValueAsBytes(ObjectMapper mapper, Object source) throws JsonProcessingException {
+        if (source == null) {
+            return mapper.writeValueAsBytes(null);
+        }
+        return getWriter(mapper, source.getClass()).writeValueAsBytes(source);
+    }
+
+    private static boolean isPresent(String className) {
+        try {
+            Class.forName(className, false, JacksonComponentHolder.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static int slot(boolean ignoreCase, boolean ignoreUnknownField, boolean ignoreNullProperty, boolean capitalizeFieldName) {
+        return (ignoreCase ? 8 : 0) | (ignoreUnknownField ? 4 : 0) | (ignoreNullProperty ? 2 : 0) | (capitalizeFieldName ? 1 : 0);
     }
 
     /**
@@ -124,4 +272,37 @@ public class JacksonComponentHolder {
 
         return mapperBuilder.build();
     }
+
+    /**
+     * 可选格式的Mapper放在单独的类中，只有真正用到时才会加载，类路径上没有对应依赖时不会影响其他格式的使用。
+     */
+    private static final class SmileMapperHolder {
+
+        private static final AtomicReferenceArray<SmileMapper> CACHE = new AtomicReferenceArray<>(MAPPER_SLOTS);
+
+        static SmileMapper get(boolean ignoreCase, boolean ignoreUnknownField, boolean ignoreNullProperty, boolean capitalizeFieldName) {
+            int slot = slot(ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName);
+            SmileMapper mapper = CACHE.get(slot);
+            if (mapper == null) {
+                CACHE.compareAndSet(slot, null, buildAndSetObjectMapper(SmileMapper.builder(), ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName));
+                mapper = CACHE.get(slot);
+            }
+            return mapper;
+        }
+    }
+
+    private static final class CborMapperHolder {
+
+        private static final AtomicReferenceArray<CBORMapper> CACHE = new AtomicReferenceArray<>(MAPPER_SLOTS);
+
+        static CBORMapper get(boolean ignoreCase, boolean ignoreUnknownField, boolean ignoreNullProperty, boolean capitalizeFieldName) {
+            int slot = slot(ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName);
+            CBORMapper mapper = CACHE.get(slot);
+            if (mapper == null) {
+                CACHE.compareAndSet(slot, null, buildAndSetObjectMapper(CBORMapper.builder(), ignoreCase, ignoreUnknownField, ignoreNullProperty, capitalizeFieldName));
+                mapper = CACHE.get(slot);
+            }
+            return mapper;
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package com.mara.zoic.annohttp.http;
+
+import org.apache.hc.core5.http.ClassicHttpResponse;
+
+public class JsonStreamingConvertible extends AbstractJacksonStreamingConvertible {
+
+    protected JsonStreamingConvertible(ClassicHttpResponse httpResponse, String charset) {
+        super(httpResponse, charset);
+        this.objectMapper = JacksonComponentHolder.getJsonMapper(false, true, true, false);
+    }
+}
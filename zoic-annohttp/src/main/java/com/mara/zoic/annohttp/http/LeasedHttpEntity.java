@@ -0,0 +1,93 @@
+package com.mara.zoic.annohttp.http;
+
+import com.mara.zoic.annohttp.http.protocol.ObjectEntity;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 持有自定义 HttpClient 租约（{@link HttpClientRegistry}）或者并发限制许可的响应体。
+ * <p>响应体被关闭、通过 {@link #getContent()} 得到的流被关闭或者响应体被写出之后归还租约，因此返回 InputStream、ClassicHttpResponse
+ * 等由用户读取响应体的请求在读取期间仍然持有租约，客户端不会因为空闲而被关闭；同理，读取期间的请求仍然计入并发数。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+final class LeasedHttpEntity extends HttpEntityWrapper {
+
+    private final HttpEntity wrappedEntity;
+    private final Runnable release;
+
+    private LeasedHttpEntity(HttpEntity wrappedEntity, Runnable release) {
+        super(wrappedEntity);
+        this.wrappedEntity = wrappedEntity;
+        this.release = release;
+    }
+
+    /**
+     * 由响应体持有租约。
+     *
+     * @param httpResponse 响应
+     * @param release      归还租约，可能被调用多次
+     * @return 响应体持有了租约时返回true；没有响应体或者响应体不占用连接时返回false
+     */
+    static boolean wrap(ClassicHttpResponse httpResponse, Runnable release) {
+        HttpEntity entity = httpResponse.getEntity();
+        if (entity == null || entity instanceof ObjectEntity) {
+            return false;
+        }
+        httpResponse.setEntity(new LeasedHttpEntity(entity, release));
+        return true;
+    }
+
+    /**
+     * 获得被包装的响应体。
+     *
+     * @param entity 响应体
+     * @return 被包装的响应体；如果不是 {@link LeasedHttpEntity}，那么返回其本身
+     */
+    static HttpEntity unwrap(HttpEntity entity) {
+        return entity instanceof LeasedHttpEntity leased ? leased.wrappedEntity : entity;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        InputStream content = super.getContent();
+        if (content == null) {
+            return null;
+        }
+        return new FilterInputStream(content) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    release.run();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        try {
+            super.writeTo(outStream);
+        } finally {
+            release.run();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            release.run();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.apache.hc.core5.http.io.entity.EntityUtils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.nio.charset.Charset;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Optional;
@@ -126,11 +127,7 @@ public record OperableHttpResponse(ClassicHttpResponse httpResponse) implements
     @Override
     public String asSequenceToString(String charset) {
         try {
-            byte[] bytes = EntityUtils.toByteArray(httpResponse.getEntity());
-            if (bytes == null) {
-                return null;
-            }
-            return new String(bytes, charset);
+            return EntityBufferPool.toString(httpResponse.getEntity(), Charset.forName(charset));
         } catch (Exception e) {
             throw new ConversionException("Response body cannot convert to String whit charset '" + charset + "'", e);
         }
@@ -139,7 +136,7 @@ public record OperableHttpResponse(ClassicHttpResponse httpResponse) implements
     @Override
     public byte[] asSequenceToBytes() {
         try {
-            return EntityUtils.toByteArray(httpResponse.getEntity());
+            return EntityBufferPool.toByteArray(httpResponse.getEntity());
         } catch (IOException e) {
             throw new ConversionException("Response body cannot convert to byte[]", e);
         }
@@ -188,6 +185,11 @@ public record OperableHttpResponse(ClassicHttpResponse httpResponse) implements
         return new JsonConvertible(httpResponse, DEFAULT_CHARSET);
     }
 
+    @Override
+    public Convertible asJsonStreamingConvertible() {
+        return new JsonStreamingConvertible(httpResponse, DEFAULT_CHARSET);
+    }
+
     @Override
     public Convertible asYamlConvertible() {
         return new YamlConvertible(httpResponse, DEFAULT_CHARSET);
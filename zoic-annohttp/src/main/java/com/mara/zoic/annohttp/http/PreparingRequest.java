@@ -54,8 +54,10 @@ public sealed interface PreparingRequest<T> permits PreparingRequestImpl {
     String DEFAULT_OBJECT_FIELD_NAME = "Object";
 
     /**
-     * 自定义HttpClient相关的配置。需要用户自己提供一个HttpClientBuilder实例。在配置完成后将以用户提供的建造者生产新HttpClient发起请求。</p>
-     * <p>为了性能，annohttp采用单例的HttpClient发起所有相关的请求，但此方法会打破规则使用用户定义好的HttpClientBuilder生成新的HttpClient发起请求。</p>
+     * 自定义HttpClient相关的配置。需要用户自己提供一个HttpClientBuilder实例。在配置完成后将以用户提供的建造者生产的HttpClient发起请求。</p>
+     * <p>为了性能，annohttp采用单例的HttpClient发起所有相关的请求，但此方法会打破规则使用用户定义好的HttpClientBuilder生成的HttpClient发起请求。
+     * 生成的HttpClient按照提供器实例缓存在 {@link HttpClientRegistry} 中，使用同一个提供器实例的请求共享同一个连接池，提供器只在需要建造新的HttpClient时调用。
+     * 注意捕获了局部变量的 lambda 每次求值都是新的实例，此时每次请求都会建造新的HttpClient，请将提供器保存为常量，或者使用 {@link #customHttpClient(String, Supplier)}。</p>
      * <p style="color: red">特别注意：一般情况下不推荐使用此方法，除非有annohttp不能解决的特殊需求。<b>使用此方法后会导致内置的代理支持出现问题，用户需要自行处理，如果确实需要保持代理的正确性，请参见 {@link HttpClientBuilderEnhancer#enhance(HttpClientBuilder)} 方法的源码，或者直接调用此方法（与你的目的不冲突的话）。</b></p>
      * <p>和 Spring 进行相关集成的时候，因为某些配置是应用于内置的 HttpClientBuilder 上，因此使用此方法自定义 HttpClient 可能会导致书写在 Spring 配置文件中的某些配置失效。</p>
      *
@@ -64,6 +66,16 @@ public sealed interface PreparingRequest<T> permits PreparingRequestImpl {
      */
     PreparingRequest<T> customHttpClient(Supplier<HttpClientBuilder> httpClientBuilderSupplier);
 
+    /**
+     * 使用具名的自定义HttpClient。同一个名称的请求共享同一个HttpClient（缓存在 {@link HttpClientRegistry} 中），
+     * 提供器只在该名称尚未注册（或者已经因空闲被关闭）时调用。其余的注意事项同 {@link #customHttpClient(Supplier)}。
+     *
+     * @param name                      名称
+     * @param httpClientBuilderSupplier HttpClient建造者提供器。
+     * @return {@link PreparingRequest} 本身
+     */
+    PreparingRequest<T> customHttpClient(String name, Supplier<HttpClientBuilder> httpClientBuilderSupplier);
+
     /**
      * 自定义请求头。
      *
@@ -133,6 +145,24 @@ public sealed interface PreparingRequest<T> permits PreparingRequestImpl {
      */
     PreparingRequest<T> customRequestConfig(Consumer<RequestConfig.Builder> requestConfigBuilderConsumer);
 
+    /**
+     * 为请求设定截止时间（总时间预算）。如果请求已经存在更早的截止时间（来自方法参数或者线程上下文），那么更早的仍然有效。
+     * <p>无论截止时间在发送之前、排队等待期间、请求进行中还是转换响应期间到期，调用者得到的都是未经包装的
+     * {@link com.mara.zoic.annohttp.http.exception.DeadlineExceededException}。</p>
+     *
+     * @param deadline 截止时间
+     * @return {@link PreparingRequest} 本身
+     * @see Deadline
+     */
+    PreparingRequest<T> withDeadline(Deadline deadline);
+
+    /**
+     * 取消请求，可以从任意线程调用。尚未发送的请求不再发送；正在进行的请求（包括正在读取的响应体）被立即中止，
+     * 连接被关闭而不是读完响应体后归还到连接池。请求的调用者会得到 {@link RequestFailedException} 或者 {@link ConversionException}。
+     * <p>进程内传输（mem://）的请求只能在发送之前取消。</p>
+     */
+    void cancel();
+
     /**
      * 同步请求并返回响应。直接将响应转换为用户定义在返回值中的形式。
      * <p>此方法可能会抛出三种类型的异常，但它们都是运行时异常，用户可以选择性处理。</p>
@@ -2,25 +2,43 @@ package com.mara.zoic.annohttp.http;
 
 
 import com.mara.zoic.annohttp.annotation.*;
+import com.mara.zoic.annohttp.http.exception.ConcurrencyLimitExceededException;
+import com.mara.zoic.annohttp.http.exception.DeadlineExceededException;
 import com.mara.zoic.annohttp.http.exception.NoApplicableResponseBodyConverterException;
 import com.mara.zoic.annohttp.http.exception.RequestFailedException;
+import com.mara.zoic.annohttp.http.exception.ResponseTooLargeException;
 import com.mara.zoic.annohttp.http.exception.UnexpectedResponseException;
+import com.mara.zoic.annohttp.http.interceptor.AnnoHttpInterceptors;
+import com.mara.zoic.annohttp.http.limit.AdaptiveConcurrencyLimiter;
+import com.mara.zoic.annohttp.http.limit.ConcurrencyLimiters;
+import com.mara.zoic.annohttp.http.loadbalance.LoadBalanceFeedback;
 import com.mara.zoic.annohttp.http.protocol.ProtocolHandler;
+import com.mara.zoic.annohttp.http.protocol.ObjectEntity;
 import com.mara.zoic.annohttp.http.protocol.ProtocolHandlerMapping;
+import com.mara.zoic.annohttp.http.protocol.Transport;
 import com.mara.zoic.annohttp.http.proxy.HttpClientProxyContext;
 import com.mara.zoic.annohttp.http.proxy.RequestProxy;
 import com.mara.zoic.annohttp.http.request.converter.AutoRequestBodyConverter;
 import com.mara.zoic.annohttp.http.request.converter.MapRequestBodyConverter;
 import com.mara.zoic.annohttp.http.request.converter.RequestBodyConverterCache;
 import com.mara.zoic.annohttp.http.response.converter.AutoResponseConverter;
+import com.mara.zoic.annohttp.http.response.converter.ClaimedEntity;
 import com.mara.zoic.annohttp.http.response.converter.ResponseConverter;
 import com.mara.zoic.annohttp.http.response.converter.ResponseConverterCache;
 import com.mara.zoic.annohttp.http.spel.SpelUtils;
+import com.mara.zoic.annohttp.http.sse.SseStream;
+import com.mara.zoic.annohttp.http.trace.Span;
+import com.mara.zoic.annohttp.http.trace.SpanPhase;
+import com.mara.zoic.annohttp.http.trace.TraceContext;
+import com.mara.zoic.annohttp.http.trace.Tracer;
+import com.mara.zoic.annohttp.http.trace.Tracing;
 import com.mara.zoic.annohttp.http.visitor.ResponseVisitor;
+import com.mara.zoic.annohttp.http.wirelog.WireCapture;
 import com.mara.zoic.annohttp.lifecycle.AnnoHttpLifecycle;
 import com.mara.zoic.annohttp.testsup.PreparingRequestContainer;
 import org.apache.hc.client5.http.classic.methods.*;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.core5.http.Header;
@@ -28,13 +46,14 @@ import org.apache.hc.core5.http.*;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.message.BasicHeader;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
-import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.expression.EvaluationContext;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
@@ -44,17 +63,24 @@ import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PreparingRequestImpl.class);
 
+    /**
+     * 开启 {@link Request#acceptBinary()} 时附加的 Accept 请求头，只包含类路径上存在的二进制格式。
+     */
+    static final String BINARY_ACCEPT_HEADER_VALUE = buildBinaryAcceptHeaderValue();
+
     /**
      * Spel的上下文。
      * <p>为了节省资源，真正发起请求的时候才创建。</p>
@@ -77,6 +103,10 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
 
     protected String baseUri;
     protected Function<HttpClientMetadata, String> baseUriProvider;
+    /**
+     * 由 {@link #baseUriProvider} 提供的、本次请求实际使用的 baseUri。用于向 {@link LoadBalanceFeedback} 反馈请求结果。
+     */
+    protected String providedBaseUri;
 
 
 
@@ -94,10 +124,27 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
     protected HttpClientMetadata metadata;
 
     protected HttpClientBuilder userHttpClientBuilder;
+    /**
+     * 自定义 HttpClient 在 {@link HttpClientRegistry} 中的键，没有自定义时是null。
+     */
+    protected Object userHttpClientKey;
+    protected Supplier<HttpClientBuilder> userHttpClientBuilderSupplier;
     protected RequestConfig.Builder requestConfigBuilder = RequestConfig.custom();
 
-    protected volatile CloseableHttpClient httpClient;
-    protected static final Object HTTP_CLIENT_LOCK = new Object();
+    /**
+     * 请求的截止时间（总时间预算），可以是null。
+     */
+    protected Deadline deadline;
+    /**
+     * 正在进行的请求，{@link #cancel()} 时中止它们。
+     */
+    private final Set<Invocation> invocations = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    /**
+     * 本次请求的协议处理器，在发送请求前确定。
+     */
+    protected ProtocolHandler protocolHandler;
 
     PreparingRequestImpl(HttpClientMetadata metadata, Method method, Object[] args, String baseUri, Function<HttpClientMetadata, String> baseUriProvider) {
 
@@ -149,6 +196,9 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         /*    8 处理FormField */
         processAndGenerateFormFields();
 
+        /*    9 处理截止时间 */
+        processDeadline();
+
         /* Test Support Code */
         processTestSupport();
     }
@@ -167,6 +217,16 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         }
     }
 
+    private void processDeadline() {
+        // 线程上下文与方法参数中的截止时间同时存在时，以较早的为准
+        deadline = Deadline.current();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getType() == Deadline.class) {
+                deadline = Deadline.earliest(deadline, (Deadline) args[i]);
+            }
+        }
+    }
+
     private void processAndGenerateFormFields() {
         boolean bodyExisted = findAnnotation(parameters, Body.class);
         formFields = new LinkedHashMap<>();
@@ -346,6 +406,7 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         String finalBaseUri = baseUri;
         if (baseUriProvider != null) {
             finalBaseUri = baseUriProvider.apply(metadata);
+            providedBaseUri = finalBaseUri;
         }
         if (finalBaseUri != null && !finalBaseUri.isBlank()) {
             uri = concatUri(finalBaseUri, computedUri);
@@ -368,15 +429,28 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
     @Override
     public PreparingRequest<T> customHttpClient(Supplier<HttpClientBuilder> httpClientBuilderSupplier) {
         if (httpClientBuilderSupplier != null) {
-            HttpClientBuilder userHttpClientBuilder = httpClientBuilderSupplier.get();
-            if (userHttpClientBuilder == null) {
-                throw new IllegalArgumentException("httpClientBuilderSupplier must return an non-null HttpClientBuilder instance");
-            }
-            this.userHttpClientBuilder = userHttpClientBuilder;
+            // 以提供器本身为键，提供器只在客户端尚未建造（或者已经因空闲被关闭）时调用
+            this.userHttpClientBuilder = null;
+            this.userHttpClientKey = httpClientBuilderSupplier;
+            this.userHttpClientBuilderSupplier = httpClientBuilderSupplier;
         }
         return this;
     }
 
+    @Override
+    public PreparingRequest<T> customHttpClient(String name, Supplier<HttpClientBuilder> httpClientBuilderSupplier) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Name cannot be null or empty");
+        }
+        if (httpClientBuilderSupplier == null) {
+            throw new IllegalArgumentException("httpClientBuilderSupplier cannot be null");
+        }
+        this.userHttpClientBuilder = null;
+        this.userHttpClientKey = name;
+        this.userHttpClientBuilderSupplier = httpClientBuilderSupplier;
+        return this;
+    }
+
     @Override
     public PreparingRequest<T> customRequestHeaders(Consumer<List<CoverableNameValuePair>> headerConsumer) {
         if (headerConsumer != null) {
@@ -495,7 +569,22 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
             if (!annoContentType.isBlank()) {
                 headers.add(new CoverableNameValuePair(HttpHeaders.CONTENT_TYPE, annoContentType, headerCoverable));
             }
+            // 4.5 处理二进制格式协商，用户自行指定了Accept时不做处理
+            if (requestAnno.acceptBinary() && headers.stream().noneMatch(e -> HttpHeaders.ACCEPT.equalsIgnoreCase(e.getName()))) {
+                headers.add(new CoverableNameValuePair(HttpHeaders.ACCEPT, BINARY_ACCEPT_HEADER_VALUE, true));
+            }
+        }
+    }
+
+    private static String buildBinaryAcceptHeaderValue() {
+        StringBuilder sb = new StringBuilder();
+        if (JacksonComponentHolder.SMILE_PRESENT) {
+            sb.append(Converter.CONTENT_TYPE_APPLICATION_SMILE).append(", ");
         }
+        if (JacksonComponentHolder.CBOR_PRESENT) {
+            sb.append(Converter.CONTENT_TYPE_APPLICATION_CBOR).append(";q=0.9, ");
+        }
+        return sb.append(ContentType.APPLICATION_JSON.getMimeType()).append(";q=0.8, */*;q=0.1").toString();
     }
 
     protected void processContentTypeAnnotation(List<CoverableNameValuePair> existingHeaders, Method method, Request requestAnno) {
@@ -652,7 +741,7 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
                         if (value == null || value.isEmpty()) {
                             throw new IllegalArgumentException("PathVar's value cannot be null or empty");
                         }
-                        pathVarsMap.put(key, value);
+                        pathVars.put(key, value);
                     }
                 }
             }
@@ -675,19 +764,38 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         return this;
     }
 
+    @Override
+    public PreparingRequest<T> withDeadline(Deadline deadline) {
+        this.deadline = Deadline.earliest(this.deadline, deadline);
+        return this;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        invocations.forEach(Invocation::cancel);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public T request() {
     	executeLifecycleBeforeRequestingMethod();
+        Invocation invocation = new Invocation();
         ClassicHttpResponse httpResponse;
         try {
-            httpResponse = executeRequest();
+            httpResponse = executeRequest(invocation);
+        } catch (ResponseTooLargeException | DeadlineExceededException e) {
+            finishRequest(invocation, e);
+            throw e;
         } catch (Exception e) {
+            finishRequest(invocation, e);
             throw new RequestFailedException("Request Failed for uri " + uri, e);
         }
 
         // 从这里开始便有了 httpResponse，出现任何异常应当释放 HttpResponse 里面的 Entity 所占用的资源
         Type userExpectedType = metadata.getRequestMethodActualType();
+        boolean converted = false;
+        Throwable failure = null;
         try {
             Charset computedResponseCharset;
             ContentType computedResponseContentType;
@@ -727,16 +835,49 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
             	responseConverter = ResponseConverterCache.AUTO_RESPONSE_CONVERTER;
             }
             executeLifecycleAfterRequestedMethod(httpResponse, responseConverter);
-            return (T) responseConverter.convert(httpResponse, metadata, computedResponseContentType, computedResponseCharset);
+            Object result;
+            if (converterClass == AutoResponseConverter.class && httpResponse.getEntity() instanceof ObjectEntity objectEntity
+                    && userExpectedType instanceof Class<?> clazz && clazz.isInstance(objectEntity.getObject())) {
+                // 进程内传输直接携带了对象，返回类型可以直接接收时不经过序列化。泛型类型无法校验类型参数，用户指定了转换器时以转换器为准，这两种情况都经过转换
+                result = objectEntity.getObject();
+            } else {
+                result = responseConverter.convert(httpResponse, metadata, computedResponseContentType, computedResponseCharset);
+            }
+            converted = true;
+            if (invocation.span != null) {
+                invocation.span.event(SpanPhase.CONVERT);
+            }
+            return (T) result;
+        } catch (RuntimeException e) {
+            failure = e;
+            // 转换过程中截止时间到期，响应体的读取被定时器中止
+            if (deadline != null && deadline.isExpired() && !(e instanceof DeadlineExceededException)) {
+                failure = new DeadlineExceededException("Deadline exceeded while converting response of uri " + uri, e);
+                throw (DeadlineExceededException) failure;
+            }
+            // 转换器通常会包装读取时的异常，这里还原为超出大小限制的异常
+            if (e.getCause() instanceof ResponseTooLargeException tooLarge) {
+                failure = tooLarge;
+                throw tooLarge;
+            }
+            throw e;
         } finally {
             // 出现或者不出现异常，视返回体的类型决定是否关闭资源
-            // 目前只有两种类型的返回不能关闭资源 1) InputStream  2) ClassicHttpResponse
+            // 目前只有三种类型的返回不能关闭资源 1) InputStream  2) ClassicHttpResponse  3) 转换器接管了响应体的惰性结果（比如逐个返回数组元素的 Stream/Iterator）
+            // 这三种情况下自定义 HttpClient 的租约在响应体关闭时归还
             if (userExpectedType instanceof @SuppressWarnings("rawtypes")Class clazz && (InputStream.class.isAssignableFrom(clazz) || ClassicHttpResponse.class.isAssignableFrom(clazz))) {
                 // 不消费Entity
                 LOGGER.warn("Using type '" + userExpectedType + "' as return type, you should close the HttpEntity/InputStream by yourself");
+                invocation.handOverLease();
+            } else if (converted && ClaimedEntity.isClaimed(httpResponse.getEntity())) {
+                // 由转换结果在遍历完成或者关闭时释放
+                invocation.handOverLease();
+            } else if (httpResponse.getEntity() instanceof ObjectEntity) {
+                // 进程内的实体不占用连接，消费它只会白白序列化所携带的对象
             } else {
                 EntityUtils.consumeQuietly(httpResponse.getEntity());
             }
+            finishRequest(invocation, failure);
         }
     }
 
@@ -753,8 +894,17 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         requestAsync(executorService).thenAccept(resultConsumer);
     }
 
+    /**
+     * 获得发送请求使用的 HttpClient。自定义的 HttpClient 不会被租用，空闲超时之后可能被 {@link HttpClientRegistry} 关闭。
+     *
+     * @return HttpClient
+     */
     public CloseableHttpClient getHttpClient() {
-        buildHttpClient();
+        if (userHttpClientKey == null) {
+            return HttpComponentHolder.getHttpClientInstance();
+        }
+        CloseableHttpClient httpClient = HttpClientRegistry.acquire(userHttpClientKey, userHttpClientBuilderSupplier);
+        HttpClientRegistry.release(userHttpClientKey);
         return httpClient;
     }
 
@@ -765,6 +915,10 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
             if (userUri == null || userUri.isBlank()) {
                 throw new IllegalArgumentException("Uri cannot be null or empty");
             }
+            if (!userUri.equals(uri)) {
+                // 请求不再发往提供器选择的节点
+                providedBaseUri = null;
+            }
             uri = userUri;
         }
         return this;
@@ -824,7 +978,18 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
 
     @Override
     public ClassicHttpResponse requestClassically() throws RequestFailedException {
-        return executeRequest();
+        // 响应体交由用户处理，截止时间与跨度只覆盖到响应头到达为止
+        Invocation invocation = new Invocation();
+        ClassicHttpResponse httpResponse;
+        try {
+            httpResponse = executeRequest(invocation);
+        } catch (RuntimeException e) {
+            finishRequest(invocation, e);
+            throw e;
+        }
+        invocation.handOverLease();
+        finishRequest(invocation, null);
+        return httpResponse;
     }
 
     @Override
@@ -839,7 +1004,17 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
 
     @Override
     public OperableHttpResponse requestOperable() {
-        return new OperableHttpResponse(executeRequest());
+        Invocation invocation = new Invocation();
+        ClassicHttpResponse httpResponse;
+        try {
+            httpResponse = executeRequest(invocation);
+        } catch (RuntimeException e) {
+            finishRequest(invocation, e);
+            throw e;
+        }
+        invocation.handOverLease();
+        finishRequest(invocation, null);
+        return new OperableHttpResponse(httpResponse);
     }
 
     @Override
@@ -853,17 +1028,18 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         requestOperableAsync(executorService).thenAccept(resultConsumer);
     }
 
-    protected void buildHttpClient() {
-        if (httpClient == null) {
-            synchronized (HTTP_CLIENT_LOCK) {
-                if (httpClient == null) {
-                    if (userHttpClientBuilder != null) {
-                        httpClient = userHttpClientBuilder.build();
-                    } else {
-                        httpClient = HttpComponentHolder.getHttpClientInstance();
-                    }
-                }
-            }
+    /**
+     * 确定本次请求使用的 HttpClient。自定义的 HttpClient 从 {@link HttpClientRegistry} 租用，由 {@link Invocation#releaseHttpClient()} 归还。
+     *
+     * @param invocation 本次请求
+     */
+    protected void buildHttpClient(Invocation invocation) {
+        if (userHttpClientKey != null) {
+            invocation.httpClient = HttpClientRegistry.acquire(userHttpClientKey, userHttpClientBuilderSupplier);
+            invocation.leaseKey = userHttpClientKey;
+            userHttpClientBuilder = HttpClientRegistry.getBuilder(userHttpClientKey);
+        } else {
+            invocation.httpClient = HttpComponentHolder.getHttpClientInstance();
         }
     }
 
@@ -874,33 +1050,17 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
      */
     protected HttpUriRequestBase generateRawRequest() {
 
-        String computedUri = uri;
-
-        // 处理路径参数，必须完全匹配，要区分大小写
-        if (pathVars != null) {
-            for (Map.Entry<String, String> en : pathVars.entrySet()) {
-                computedUri = computedUri.replace("{" + en.getKey() + "}", en.getValue());
-            }
+        if (uri == null || uri.trim().isBlank()) {
+            throw new IllegalArgumentException("Illegal uri: " + uri);
         }
 
-        // 处理查询参数
+        // 处理路径参数（必须完全匹配，要区分大小写）与查询参数，模板只会被编译一次
+        String computedUri = UriTemplate.compile(uri).expand(pathVars, queries);
         URI realUri;
-        if (queries != null) {
-            List<NameValuePair> params = queries
-                    .stream()
-                    .map(e -> new BasicNameValuePair(e.getName(), e.getValue()))
-                    .collect(Collectors.toList());
-            try {
-                realUri = new URIBuilder(computedUri).addParameters(params).build();
-            } catch (URISyntaxException e) {
-                throw new IllegalArgumentException("Cannot attach query parameters: " + queries + " to uri " + computedUri, e);
-            }
-        } else {
-            realUri = URI.create(computedUri);
-        }
-
-        if (uri == null || uri.trim().isBlank()) {
-            throw new IllegalArgumentException("Illegal uri: " + uri);
+        try {
+            realUri = new URI(computedUri);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Illegal uri: " + computedUri + ", path variables: " + pathVars + ", query parameters: " + queries, e);
         }
 
         // 处理Method
@@ -930,7 +1090,7 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
 
     protected void executeProtocolHandler() {
         String protocol = uri.substring(0, uri.indexOf("://")).trim().toLowerCase();
-        ProtocolHandler protocolHandler = ProtocolHandlerMapping.getHandler(protocol);
+        protocolHandler = ProtocolHandlerMapping.getHandler(protocol);
         protocolHandler.handle(metadata, this);
     }
 
@@ -993,7 +1153,7 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         }
         int responseTimeout = metadata.getResponseTimeoutInSeconds();
         if (responseTimeout != -1) {
-            requestConfigBuilder.setResponseTimeout(requestTimeout, TimeUnit.SECONDS);
+            requestConfigBuilder.setResponseTimeout(responseTimeout, TimeUnit.SECONDS);
         }
 
         // 处理disableRedirects
@@ -1002,6 +1162,54 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         }
     }
 
+    /**
+     * 构建请求配置。存在截止时间时，等待连接、建立连接与等待响应的超时都不超过剩余的预算。
+     *
+     * @return 请求配置
+     */
+    @SuppressWarnings("deprecation")
+    protected RequestConfig buildRequestConfig() {
+        RequestConfig requestConfig = requestConfigBuilder.build();
+        if (deadline == null) {
+            return requestConfig;
+        }
+        long remainingMillis = Math.max(1L, deadline.remainingMillis());
+        return RequestConfig.copy(requestConfig)
+                .setConnectionRequestTimeout(capTimeout(requestConfig.getConnectionRequestTimeout(), remainingMillis), TimeUnit.MILLISECONDS)
+                .setConnectTimeout(capTimeout(requestConfig.getConnectTimeout(), remainingMillis), TimeUnit.MILLISECONDS)
+                .setResponseTimeout(capTimeout(requestConfig.getResponseTimeout(), remainingMillis), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private static long capTimeout(Timeout timeout, long remainingMillis) {
+        if (timeout == null || timeout.isDisabled()) {
+            return remainingMillis;
+        }
+        return Math.min(timeout.toMilliseconds(), remainingMillis);
+    }
+
+    /**
+     * 请求结束（包括响应转换）后取消截止时间的定时任务并结束跨度。
+     *
+     * @param invocation 本次请求
+     * @param failure    失败的原因，成功时是null
+     */
+    private void finishRequest(Invocation invocation, Throwable failure) {
+        invocations.remove(invocation);
+        if (!invocation.leaseHandedOver) {
+            invocation.releaseHttpClient();
+        }
+        if (!invocation.permitHandedOver) {
+            invocation.releasePermit();
+        }
+        if (invocation.deadlineTimer != null) {
+            invocation.deadlineTimer.cancel(false);
+        }
+        if (invocation.span != null) {
+            invocation.span.end(invocation.responseCode, failure);
+        }
+    }
+
     protected void processAdditionalParameters(HttpClientMetadata metadata,
                                                HttpUriRequestBase httpUriRequest, RequestConfig.Builder requestConfigBuilder) {
 
@@ -1010,9 +1218,14 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
     /**
      * 执行请求并获得返回。
      *
+     * @param invocation 本次请求
      * @return {@link ClassicHttpResponse} 实例
      */
-    protected ClassicHttpResponse executeRequest() {
+    protected ClassicHttpResponse executeRequest(Invocation invocation) {
+        invocations.add(invocation);
+        if (deadline != null) {
+            deadline.checkNotExpired("sending request to " + uri);
+        }
         // 生成空白请求
         HttpUriRequestBase httpUriRequest = generateRawRequest();
         // 处理协议
@@ -1026,28 +1239,295 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         // 处理额外的参数（用户可写的）
         processAdditionalParameters(metadata, httpUriRequest, requestConfigBuilder);
         // 建立HttpClient
-        buildHttpClient();
+        buildHttpClient(invocation);
+        invocation.requestConfig = buildRequestConfig();
+        if (deadline != null) {
+            // 只有存在截止时间时才覆盖客户端的默认配置，其余情况保持原有的行为
+            httpUriRequest.setConfig(invocation.requestConfig);
+            String deadlineHeader = requestAnno.deadlineHeader();
+            if (!deadlineHeader.isBlank()) {
+                httpUriRequest.setHeader(deadlineHeader, String.valueOf(deadline.remainingMillis()));
+            }
+            invocation.deadlineTimer = DeadlineTimer.schedule(deadline, invocation::cancel);
+        }
+        invocation.exchangingRequest = httpUriRequest;
         ClassicHttpResponse httpResponse = null;
         Exception requestException = null;
-        // 处理代理
         try {
-            if (requestProxy != null) {
+            // 没有注册拦截器时直接发送，不创建拦截器链
+            httpResponse = AnnoHttpInterceptors.isEmpty() ? exchange(invocation, httpUriRequest)
+                    : AnnoHttpInterceptors.proceed(metadata, httpUriRequest, request -> exchange(invocation, request));
+            invocation.responseCode = httpResponse.getCode();
+        } catch (IOException e) {
+            requestException = deadline != null && deadline.isExpired()
+                    ? new DeadlineExceededException("Deadline exceeded while requesting uri " + uri, e) : e;
+        }
+
+        try {
+            // 处理visitor
+            executeResponseVisitor(invocation.httpClient, httpResponse, requestException);
+
+            // 处理successCondition，只有在注解驱动的HTTP客户端下才存在处理successCondition的判定
+            processSuccessCondition(httpResponse);
+
+            // 限制响应体的大小，超出上限时中止请求而不是读完响应体
+            ResponseSizeLimits.apply(httpResponse, metadata, invocation.exchangingRequest);
+        } catch (RuntimeException e) {
+            // 响应不会再交给调用者，释放连接
+            if (httpResponse != null) {
+                closeQuietly(httpResponse);
+            }
+            throw e;
+        }
+
+        // 响应体可能在请求结束之后才被读取，由响应体持有租约
+        if (invocation.leaseKey != null) {
+            invocation.leaseHeldByEntity = LeasedHttpEntity.wrap(httpResponse, invocation::releaseHttpClient);
+        }
+        return httpResponse;
+    }
+
+    /**
+     * 发送请求（拦截器链的末端）。拦截器可以多次调用，每次调用分别经过并发限制、报文记录与负载均衡的反馈。
+     *
+     * @param invocation     本次请求
+     * @param httpUriRequest 请求
+     * @return 响应
+     * @throws IOException 请求失败
+     */
+    private ClassicHttpResponse exchange(Invocation invocation, HttpUriRequestBase httpUriRequest) throws IOException {
+        invocation.exchangingRequest = httpUriRequest;
+        // 先记录请求再检查，与 cancel() 的顺序相反，因此两者并发时请求总会被中止
+        if (cancelled) {
+            throw new InterruptedIOException("Request cancelled");
+        }
+        if (deadline != null && httpUriRequest.getConfig() == null) {
+            // 拦截器替换了请求
+            httpUriRequest.setConfig(invocation.requestConfig);
+        }
+        ClassicHttpResponse httpResponse = null;
+        Exception requestException = null;
+        LoadBalanceFeedback feedback = null;
+        WireCapture wireCapture = null;
+        // 并发限制在获取连接之前进行，超出限制的请求不会占用连接池；获得许可之后的任何失败都必须经过 finally 归还许可
+        AdaptiveConcurrencyLimiter limiter = getConcurrencyLimiter(httpUriRequest);
+        if (limiter != null) {
+            try {
+                limiter.acquire(deadline == null ? -1L : deadline.remainingNanos());
+            } catch (ConcurrencyLimitExceededException e) {
+                // 排队等待的时间受截止时间限制，等待期间到期时以截止时间为准
+                if (deadline != null && deadline.isExpired()) {
+                    throw new DeadlineExceededException("Deadline exceeded while waiting for concurrency limiter of uri " + uri, e);
+                }
+                throw e;
+            }
+        }
+        long startNanos = System.nanoTime();
+        Span span = invocation.span;
+        try {
+            // 追踪，没有安装追踪器时不产生任何对象；拦截器多次发送时共用一个跨度
+            Tracer tracer = Tracing.getTracer();
+            if (tracer != null) {
+                if (span == null) {
+                    span = tracer.startSpan(metadata, httpUriRequest);
+                    invocation.span = span;
+                }
+                TraceContext traceContext = span.getContext();
+                if (traceContext != null) {
+                    httpUriRequest.setHeader(TraceContext.TRACEPARENT, traceContext.toTraceparent());
+                    if (traceContext.getTraceState() != null) {
+                        httpUriRequest.setHeader(TraceContext.TRACESTATE, traceContext.getTraceState());
+                    }
+                }
+            }
+            // 报文记录，未被抽中时为null
+            WireCapture sampled = WireCapture.sample(metadata);
+            if (sampled != null) {
+                sampled.onRequest(httpUriRequest);
+                wireCapture = sampled;
+            }
+            startNanos = System.nanoTime();
+            if (providedBaseUri != null && baseUriProvider instanceof LoadBalanceFeedback f) {
+                f.onRequestStarted(providedBaseUri);
+                feedback = f;
+            }
+            // 处理代理
+            Http2 http2 = metadata.getHttp2Annotation();
+            Transport transport = protocolHandler.transport();
+            // 协议指定的目标主机（比如 unix:// 的套接字文件），此时代理与 HTTP/2 不适用
+            HttpHost target = transport == null ? protocolHandler.target(httpUriRequest) : null;
+            if (transport != null) {
+                // 协议自带传输层（比如进程内的 mem://），不经过 HttpClient
+                httpResponse = transport.execute(httpUriRequest, metadata);
+            } else if (http2 != null && requestProxy == null && userHttpClientKey == null && target == null) {
+                // HTTP/2：经由共享的多路复用客户端发送，响应被适配为经典响应，后续流程不变
+                // 等待可用流的时间与等待连接相同，存在截止时间时不超过剩余的预算
+                Timeout streamTimeout = invocation.requestConfig.getConnectionRequestTimeout();
+                httpResponse = Http2Transport.execute(httpUriRequest, invocation.requestConfig, http2,
+                        streamTimeout == null || streamTimeout.isDisabled() ? -1L : streamTimeout.toMilliseconds());
+            } else if (requestProxy != null && target == null) {
                 // Must use executeOpen() to ensure a non-closed response entity(other execute methods will close the response entity automatically)
-                httpResponse = httpClient.executeOpen(null, httpUriRequest, new HttpClientProxyContext(requestProxy));
+                HttpClientProxyContext context = new HttpClientProxyContext(requestProxy);
+                if (span != null) {
+                    context.setAttribute(Tracing.SPAN_ATTRIBUTE, span);
+                }
+                httpResponse = invocation.httpClient.executeOpen(target, httpUriRequest, context);
             } else {
-                httpResponse = httpClient.executeOpen(null, httpUriRequest, null);
+                HttpClientContext context = null;
+                if (span != null) {
+                    context = HttpClientContext.create();
+                    context.setAttribute(Tracing.SPAN_ATTRIBUTE, span);
+                }
+                httpResponse = invocation.httpClient.executeOpen(target, httpUriRequest, context);
             }
-        } catch (IOException e) {
+            if (span != null) {
+                span.event(SpanPhase.TTFB);
+            }
+            return httpResponse;
+        } catch (IOException | RuntimeException e) {
             requestException = e;
+            throw e;
+        } finally {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (limiter != null) {
+                if (httpResponse != null && metadata.getRequestMethodReturnClass() != SseStream.class) {
+                    // 读取响应体期间请求仍在进行，许可在响应体关闭（或者请求结束）时归还，往返时间也计算到那时；事件流长期存在，不计入
+                    long sentNanos = startNanos;
+                    AtomicBoolean released = new AtomicBoolean();
+                    Runnable release = () -> {
+                        if (released.compareAndSet(false, true)) {
+                            limiter.release(System.nanoTime() - sentNanos, false);
+                        }
+                    };
+                    if (LeasedHttpEntity.wrap(httpResponse, release)) {
+                        invocation.permitRelease = release;
+                    } else {
+                        release.run();
+                    }
+                } else {
+                    limiter.release(elapsedNanos, httpResponse == null);
+                }
+            }
+            if (feedback != null) {
+                feedback.onRequestCompleted(providedBaseUri, elapsedNanos,
+                        httpResponse != null && httpResponse.getCode() < HttpStatus.SC_SERVER_ERROR);
+            }
+            if (wireCapture != null) {
+                if (httpResponse != null) {
+                    wireCapture.onResponse(httpResponse, elapsedNanos);
+                } else {
+                    wireCapture.onFailure(requestException, elapsedNanos);
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(ClassicHttpResponse httpResponse) {
+        try {
+            httpResponse.close();
+        } catch (IOException ignored) {
+            // 连接已经不可用
         }
+    }
 
-        // 处理visitor
-        executeResponseVisitor(httpResponse, requestException);
+    /**
+     * {@link #request()} 等方法的一次调用的状态。同一个实例可能被多次或者并发地请求，每次请求的状态互不影响。
+     */
+    protected static final class Invocation {
+
+        /**
+         * 本次请求的跨度，没有安装追踪器时是null。拦截器多次发送时共用一个跨度。
+         */
+        private Span span;
+        private int responseCode = -1;
+        /**
+         * 截止时间到期时中止请求的定时任务，请求结束（包括响应转换）后取消。
+         */
+        private ScheduledFuture<?> deadlineTimer;
+        /**
+         * 发送请求时使用的请求配置，在发送前确定，拦截器替换的请求也使用它。
+         */
+        private RequestConfig requestConfig;
+        /**
+         * 最后一次发送的请求，截止时间到期或者响应体超出大小限制时中止它。拦截器可能替换请求，因此不一定是最初生成的请求。
+         */
+        private volatile HttpUriRequestBase exchangingRequest;
+        private CloseableHttpClient httpClient;
+        /**
+         * 租用的自定义 HttpClient 在 {@link HttpClientRegistry} 中的键，没有租用时是null。
+         */
+        private Object leaseKey;
+        private final AtomicBoolean leaseReleased = new AtomicBoolean();
+        /**
+         * 响应体是否持有租约（{@link LeasedHttpEntity}），关闭响应体时归还。
+         */
+        private boolean leaseHeldByEntity;
+        /**
+         * 响应体交给了用户或者被转换结果接管，租约在响应体关闭时归还，而不是在请求结束时。
+         */
+        private boolean leaseHandedOver;
+        /**
+         * 响应体持有的并发限制许可（{@link LeasedHttpEntity}）的归还操作，可以调用多次；没有时是null。
+         */
+        private volatile Runnable permitRelease;
+        /**
+         * 响应体交给了用户或者被转换结果接管，许可在响应体关闭时归还，而不是在请求结束时。
+         */
+        private boolean permitHandedOver;
+
+        /**
+         * 归还租用的自定义 HttpClient，多次调用时只归还一次。
+         */
+        private void releaseHttpClient() {
+            if (leaseKey != null && leaseReleased.compareAndSet(false, true)) {
+                HttpClientRegistry.release(leaseKey);
+            }
+        }
 
-        // 处理successCondition，只有在注解驱动的HTTP客户端下才存在处理successCondition的判定
-        processSuccessCondition(httpResponse);
+        /**
+         * 归还响应体持有的并发限制许可。
+         */
+        private void releasePermit() {
+            Runnable release = permitRelease;
+            if (release != null) {
+                release.run();
+            }
+        }
 
-        return httpResponse;
+        /**
+         * 响应体在请求结束之后才被读取，由响应体持有的租约与并发限制许可在其关闭时归还，请求结束时不归还。
+         */
+        private void handOverLease() {
+            leaseHandedOver = leaseHeldByEntity;
+            permitHandedOver = permitRelease != null;
+        }
+
+        /**
+         * 中止正在发送的请求，由截止时间的定时任务以及 {@link #cancel()} 调用。
+         */
+        private void cancel() {
+            HttpUriRequestBase current = exchangingRequest;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    /**
+     * 获得本次请求适用的并发限制器。
+     *
+     * @param httpUriRequest 请求
+     * @return 并发限制器；如果服务没有启用并发限制，那么返回null
+     */
+    protected AdaptiveConcurrencyLimiter getConcurrencyLimiter(HttpUriRequestBase httpUriRequest) {
+        ConcurrencyLimit concurrencyLimit = metadata.getConcurrencyLimitAnnotation();
+        if (concurrencyLimit == null) {
+            return null;
+        }
+        String key = concurrencyLimit.scope() == ConcurrencyLimit.Scope.HOST
+                ? httpUriRequest.getScheme() + "://" + httpUriRequest.getAuthority()
+                : metadata.getServiceClientClass().getName();
+        return ConcurrencyLimiters.getOrCreate(key, concurrencyLimit);
     }
 
     protected void processSuccessCondition(ClassicHttpResponse httpResponse) {
@@ -1068,7 +1548,7 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         }
     }
 
-    protected void executeResponseVisitor(ClassicHttpResponse httpResponse, Exception requestException) {
+    protected void executeResponseVisitor(CloseableHttpClient httpClient, ClassicHttpResponse httpResponse, Exception requestException) {
         ResponseVisitor responseVisitor = metadata.getResponseVisitor();
         try {
             responseVisitor.visit(userHttpClientBuilder == null ? HttpComponentHolder.getHttpClientBuilderInstance() : userHttpClientBuilder, httpClient, this, httpResponse, requestException);
@@ -1076,6 +1556,9 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
             throw new RuntimeException("Something wrong with ResponseVisitor '" + responseVisitor + "'", e);
         }
 
+        if (requestException instanceof RuntimeException e) {
+            throw e;
+        }
         if (requestException != null) {
             throw new RuntimeException(requestException);
         }
@@ -1147,7 +1630,8 @@ non-sealed class PreparingRequestImpl<T> implements PreparingRequest<T> {
         if (queryName.isEmpty()) {
             throw new IllegalArgumentException("Query name '" + queryName + "' is invalid in query string '" + stringStyledQuery + "'");
         }
-        return new CoverableNameValuePair(queryName, queryValue, queryCoverable);
+        // 注解中的查询参数是静态的，编码结果可以缓存
+        return UriTemplate.staticQuery(stringStyledQuery, queryName, queryValue, queryCoverable);
     }
 
     private NameValuePair getPathVarFromStringStyled(String pathVar) {
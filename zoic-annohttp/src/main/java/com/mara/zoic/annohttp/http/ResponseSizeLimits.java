@@ -0,0 +1,132 @@
+package com.mara.zoic.annohttp.http;
+
+import com.mara.zoic.annohttp.annotation.ResponseSizeLimit;
+import com.mara.zoic.annohttp.http.exception.ResponseTooLargeException;
+import com.mara.zoic.annohttp.http.protocol.ObjectEntity;
+import com.mara.zoic.annohttp.http.sse.SseStream;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+/**
+ * 响应体大小限制的全局设定，以及将限制应用到响应上的入口。参见 {@link ResponseSizeLimit}。
+ * <p>设定的优先级为：请求方法上的 {@link ResponseSizeLimit}、服务接口上的 {@link ResponseSizeLimit}、全局设定。
+ * 默认情况下超过 {@link #DEFAULT_MAX_IN_MEMORY_BYTES} 的响应体会被转存到临时文件，响应体的大小不受限制。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class ResponseSizeLimits {
+
+    /**
+     * 默认的在内存中缓冲的响应体的最大字节数（32MB）。
+     */
+    public static final long DEFAULT_MAX_IN_MEMORY_BYTES = 32L * 1024 * 1024;
+
+    private static volatile long maxInMemoryBytes = DEFAULT_MAX_IN_MEMORY_BYTES;
+
+    private static volatile long maxBytes = 0L;
+
+    private ResponseSizeLimits() {
+    }
+
+    /**
+     * 获得全局的在内存中缓冲的响应体的最大字节数。
+     *
+     * @return 字节数，0代表不转存
+     */
+    public static long getMaxInMemoryBytes() {
+        return maxInMemoryBytes;
+    }
+
+    /**
+     * 设置全局的在内存中缓冲的响应体的最大字节数，超出时转存到临时文件。
+     *
+     * @param maxInMemoryBytes 字节数，0代表不转存
+     */
+    public static void setMaxInMemoryBytes(long maxInMemoryBytes) {
+        if (maxInMemoryBytes < 0) {
+            throw new IllegalArgumentException("Max in-memory bytes cannot be negative");
+        }
+        ResponseSizeLimits.maxInMemoryBytes = maxInMemoryBytes;
+    }
+
+    /**
+     * 获得全局的响应体的最大字节数。
+     *
+     * @return 字节数，0代表不限制
+     */
+    public static long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 设置全局的响应体的最大字节数，超出时中止请求。
+     *
+     * @param maxBytes 字节数，0代表不限制
+     */
+    public static void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Max bytes cannot be negative");
+        }
+        ResponseSizeLimits.maxBytes = maxBytes;
+    }
+
+    /**
+     * 将适用的限制应用到响应上：响应体被替换为 {@link SizeLimitedEntity}，Content-Length 已经超过上限时立即中止请求。
+     * <p>进程内传输的响应（{@link ObjectEntity}）与事件流不受限制。</p>
+     *
+     * @param response    响应
+     * @param metadata    客户端元数据
+     * @param abortHandle 中止请求的句柄
+     * @throws ResponseTooLargeException Content-Length 超过上限
+     */
+    public static void apply(ClassicHttpResponse response, HttpClientMetadata metadata, Cancellable abortHandle) {
+        HttpEntity entity = response.getEntity();
+        if (entity == null || entity instanceof ObjectEntity || metadata.getRequestMethodReturnClass() == SseStream.class) {
+            return;
+        }
+        long inMemory = resolve(metadata, true);
+        long max = resolve(metadata, false);
+        if (inMemory == 0 && max == 0) {
+            return;
+        }
+        long threshold = inMemory == 0 ? Long.MAX_VALUE : inMemory;
+        long limit = max == 0 ? Long.MAX_VALUE : max;
+        long contentLength = entity.getContentLength();
+        if (contentLength > limit) {
+            // 不读取响应体，直接关闭连接
+            abortHandle.cancel();
+            try {
+                response.close();
+            } catch (IOException ignored) {
+                // 连接已经中止
+            }
+            throw new ResponseTooLargeException("Response body of " + contentLength + " bytes exceeds the limit of " + limit + " bytes");
+        }
+        response.setEntity(new SizeLimitedEntity(entity, threshold, limit, abortHandle));
+    }
+
+    private static long resolve(HttpClientMetadata metadata, boolean inMemory) {
+        Method method = metadata.getRequestMethod();
+        long value = method == null ? -1L : valueOf(method.getAnnotation(ResponseSizeLimit.class), inMemory);
+        if (value < 0) {
+            Class<?> serviceClientClass = metadata.getServiceClientClass();
+            value = serviceClientClass == null ? -1L : valueOf(serviceClientClass.getAnnotation(ResponseSizeLimit.class), inMemory);
+        }
+        if (value < 0) {
+            value = inMemory ? maxInMemoryBytes : maxBytes;
+        }
+        return value;
+    }
+
+    private static long valueOf(ResponseSizeLimit responseSizeLimit, boolean inMemory) {
+        if (responseSizeLimit == null) {
+            return -1L;
+        }
+        return inMemory ? responseSizeLimit.maxInMemoryBytes() : responseSizeLimit.maxBytes();
+    }
+}
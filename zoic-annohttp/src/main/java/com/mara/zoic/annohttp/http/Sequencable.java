@@ -60,10 +60,20 @@ public interface Sequencable extends Closeable {
 
     /**
      * 当做 JSON 内容的可转换对象返回。
+     * <p>响应体只会被读取一次，之后的多次转换都直接从缓冲的字节数组解析。</p>
      * @return JSON内容的可转换对象
      */
     Convertible asJsonConvertible();
 
+    /**
+     * 当做 JSON 内容的流式可转换对象返回。
+     * <p>直接从响应流中解析，不缓冲整个响应体，但是只能转换一次。默认的实现退化为 {@link #asJsonConvertible()}。</p>
+     * @return JSON内容的流式可转换对象
+     */
+    default Convertible asJsonStreamingConvertible() {
+        return asJsonConvertible();
+    }
+
     /**
      * 当做 YAML 内容的可转换对象返回。
      * @return YAML内容的可转换对象
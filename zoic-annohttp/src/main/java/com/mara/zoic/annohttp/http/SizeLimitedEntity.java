@@ -0,0 +1,144 @@
+package com.mara.zoic.annohttp.http;
+
+import com.mara.zoic.annohttp.http.exception.ResponseTooLargeException;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 受大小限制的响应体，由 {@link ResponseSizeLimits#apply} 创建。
+ * <p>读取的字节数超过上限时立即中止请求并抛出 {@link ResponseTooLargeException}，不会为了复用连接而读完剩余的响应体。
+ * {@link EntityBufferPool} 在缓冲此类响应体时，超过 {@link #getMaxInMemoryBytes()} 的部分会被转存到临时文件（参见 {@link SpilledContent}）。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class SizeLimitedEntity extends HttpEntityWrapper {
+
+    private final long maxInMemoryBytes;
+
+    private final long maxBytes;
+
+    private final Cancellable abortHandle;
+
+    private InputStream content;
+
+    /**
+     * 创建受限制的响应体。
+     *
+     * @param wrappedEntity    原始的响应体
+     * @param maxInMemoryBytes 在内存中缓冲的最大字节数，{@link Long#MAX_VALUE} 代表不转存
+     * @param maxBytes         最大字节数，{@link Long#MAX_VALUE} 代表不限制
+     * @param abortHandle      超出上限时用于中止请求的句柄
+     */
+    public SizeLimitedEntity(HttpEntity wrappedEntity, long maxInMemoryBytes, long maxBytes, Cancellable abortHandle) {
+        super(wrappedEntity);
+        if (maxInMemoryBytes <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Size limits must be positive");
+        }
+        this.maxInMemoryBytes = maxInMemoryBytes;
+        this.maxBytes = maxBytes;
+        this.abortHandle = abortHandle;
+    }
+
+    /**
+     * 获得在内存中缓冲的最大字节数。
+     *
+     * @return 字节数，{@link Long#MAX_VALUE} 代表不转存
+     */
+    public long getMaxInMemoryBytes() {
+        return maxInMemoryBytes;
+    }
+
+    /**
+     * 获得最大字节数。
+     *
+     * @return 字节数，{@link Long#MAX_VALUE} 代表不限制
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        // 可重复读取的实体每次返回新的流，分别计数
+        if (content == null || isRepeatable()) {
+            InputStream in = super.getContent();
+            content = in == null || maxBytes == Long.MAX_VALUE ? in : new LimitedInputStream(in);
+        }
+        return content;
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        try (InputStream in = getContent()) {
+            if (in != null) {
+                in.transferTo(outStream);
+            }
+        }
+    }
+
+    private final class LimitedInputStream extends FilterInputStream {
+
+        private long count;
+
+        private boolean aborted;
+
+        LimitedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                count(skipped);
+            }
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } catch (IOException e) {
+                // 请求已经中止，关闭时读完剩余响应体的尝试必然失败
+                if (!aborted) {
+                    throw e;
+                }
+            }
+        }
+
+        private void count(long n) {
+            count += n;
+            if (count > maxBytes) {
+                aborted = true;
+                abortHandle.cancel();
+                throw new ResponseTooLargeException("Response body exceeds the limit of " + maxBytes + " bytes");
+            }
+        }
+    }
+}
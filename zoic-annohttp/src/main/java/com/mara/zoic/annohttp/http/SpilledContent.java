@@ -0,0 +1,206 @@
+package com.mara.zoic.annohttp.http;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 被转存到临时文件的响应体，由 {@link EntityBufferPool} 在响应体超过 {@link SizeLimitedEntity#getMaxInMemoryBytes()} 时创建，
+ * 在读取完毕后关闭并删除文件，因此使用者不能在读取的回调之外持有它（以及它返回的流与映射的内存）。
+ * <p>{@link #map()} 将文件映射到内存，内容不占用堆；{@link #openStream()} 适用于可以流式解析的转换器。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class SpilledContent implements Closeable {
+
+    private static final String PREFIX = "annohttp-";
+
+    private static final String SUFFIX = ".body";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final LongAdder SPILLED_TOTAL = new LongAdder();
+
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final long length;
+
+    private boolean closed;
+
+    private SpilledContent(Path file, FileChannel channel, long length) {
+        this.file = file;
+        this.channel = channel;
+        this.length = length;
+    }
+
+    /**
+     * 将已经读取的部分与剩余的流写入临时文件。
+     *
+     * @param head       已经读取的部分
+     * @param headLength 已经读取的部分的长度
+     * @param nextByte   紧接着已经读取的部分的一个字节，-1代表没有
+     * @param rest       剩余的流
+     * @return 转存的响应体
+     * @throws IOException 写入失败
+     */
+    static SpilledContent spill(byte[] head, int headLength, int nextByte, InputStream rest) throws IOException {
+        Path file = Files.createTempFile(PREFIX, SUFFIX);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long length = write(channel, head, headLength);
+            byte[] buffer = EntityBufferPool.borrow(COPY_BUFFER_SIZE);
+            try {
+                if (nextByte >= 0) {
+                    buffer[0] = (byte) nextByte;
+                    length += write(channel, buffer, 1);
+                }
+                int n;
+                while ((n = rest.read(buffer)) >= 0) {
+                    length += write(channel, buffer, n);
+                }
+            } finally {
+                EntityBufferPool.release(buffer);
+            }
+            SPILLED_TOTAL.increment();
+            ACTIVE.incrementAndGet();
+            return new SpilledContent(file, channel, length);
+        } catch (IOException | RuntimeException e) {
+            delete(file, channel);
+            throw e;
+        }
+    }
+
+    /**
+     * 获得响应体的长度。
+     *
+     * @return 字节数
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * 打开一个新的输入流，从头读取响应体。
+     *
+     * @return 输入流
+     * @throws IOException 打开失败
+     */
+    public InputStream openStream() throws IOException {
+        return new BufferedInputStream(Files.newInputStream(file), COPY_BUFFER_SIZE);
+    }
+
+    /**
+     * 将响应体映射到内存。
+     *
+     * @return 只读的缓冲区
+     * @throws IOException 映射失败，或者响应体超过了2GB
+     */
+    public ByteBuffer map() throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Spilled response body is too large to be mapped: " + length);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+    }
+
+    /**
+     * 将响应体读取为字节数组，数组按照响应体的长度一次分配。
+     *
+     * @return 字节数组
+     * @throws IOException 读取失败，或者响应体超过了数组的最大长度
+     */
+    public byte[] toByteArray() throws IOException {
+        if (length > MAX_ARRAY_SIZE) {
+            throw new IOException("Spilled response body is too large to be read into memory: " + length);
+        }
+        byte[] bytes = new byte[(int) length];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IOException("Spilled response body is truncated");
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 将响应体解码为字符串，直接从映射的内存解码，不经过中间的字节数组。
+     *
+     * @param charset 字符编码
+     * @return 字符串
+     * @throws IOException 读取失败
+     */
+    public String toString(Charset charset) throws IOException {
+        return charset.decode(map()).toString();
+    }
+
+    /**
+     * 关闭并删除临时文件。
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            ACTIVE.decrementAndGet();
+            delete(file, channel);
+        }
+    }
+
+    /**
+     * 获得从启动以来被转存的响应体的数量。
+     *
+     * @return 数量
+     */
+    public static long getSpilledCount() {
+        return SPILLED_TOTAL.sum();
+    }
+
+    /**
+     * 获得当前存在的临时文件的数量。
+     *
+     * @return 数量
+     */
+    public static int getActiveCount() {
+        return ACTIVE.get();
+    }
+
+    private static int write(FileChannel channel, byte[] bytes, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return length;
+    }
+
+    private static void delete(Path file, FileChannel channel) {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ignored) {
+            // 仍然尝试删除
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // 映射的内存尚未被回收时部分平台（Windows）不允许删除
+            file.toFile().deleteOnExit();
+        }
+    }
+}
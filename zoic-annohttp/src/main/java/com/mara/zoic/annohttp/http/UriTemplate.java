@@ -0,0 +1,338 @@
+package com.mara.zoic.annohttp.http;
+
+import org.apache.hc.core5.http.NameValuePair;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 编译后的URI模板。
+ * <p>模板只会被解析一次，拆分为字面量片段与路径参数（{name}）片段并缓存。生成最终的URI时在一次遍历中写入预先估算好大小的 {@link StringBuilder}，
+ * 路径参数按照它在URI中所处的位置进行百分号编码：</p>
+ * <ul>
+ *     <li>协议与主机部分：不编码，原样替换（允许使用路径参数指定主机或者端口）</li>
+ *     <li>路径部分：按照路径段（segment）编码，“/”也会被编码</li>
+ *     <li>查询部分：按照查询参数值编码，“&amp;”、“=”、“+”都会被编码</li>
+ *     <li>片段部分：按照片段编码</li>
+ * </ul>
+ * <p>为了兼容已经自行编码过的值，合法的“%XX”不会被再次编码。</p>
+ * <p>查询参数的编码规则与 {@link org.apache.hc.core5.net.URIBuilder} 保持一致：除了非保留字符以外全部编码，空格编码为“+”。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+final class UriTemplate {
+
+    private static final int MAX_CACHED_TEMPLATES = 1024;
+
+    private static final ConcurrentHashMap<String, UriTemplate> TEMPLATE_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 静态查询参数（比如 {@link com.mara.zoic.annohttp.annotation.Request#queries()}）编码后的缓存，键是原始的“name=value”。
+     */
+    private static final ConcurrentHashMap<String, String> STATIC_QUERY_CACHE = new ConcurrentHashMap<>();
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final BitSet UNRESERVED = new BitSet(128);
+    private static final BitSet PATH_SEGMENT_SAFE = new BitSet(128);
+    private static final BitSet QUERY_SAFE = new BitSet(128);
+    private static final BitSet FRAGMENT_SAFE = new BitSet(128);
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            UNRESERVED.set(c);
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            UNRESERVED.set(c);
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            UNRESERVED.set(c);
+        }
+        for (char c : "-._~".toCharArray()) {
+            UNRESERVED.set(c);
+        }
+        // pchar = unreserved / pct-encoded / sub-delims / ":" / "@"
+        PATH_SEGMENT_SAFE.or(UNRESERVED);
+        for (char c : "!$&'()*+,;=:@".toCharArray()) {
+            PATH_SEGMENT_SAFE.set(c);
+        }
+        // 查询参数值中不能出现分隔参数的字符
+        QUERY_SAFE.or(UNRESERVED);
+        for (char c : "!$'()*,;:@/?".toCharArray()) {
+            QUERY_SAFE.set(c);
+        }
+        FRAGMENT_SAFE.or(PATH_SEGMENT_SAFE);
+        FRAGMENT_SAFE.set('/');
+        FRAGMENT_SAFE.set('?');
+    }
+
+    private enum Part {
+        AUTHORITY, PATH, QUERY, FRAGMENT
+    }
+
+    /**
+     * 模板片段。name为null代表字面量。
+     */
+    private record Segment(String literal, String name, Part part) {
+    }
+
+    private final Segment[] segments;
+
+    /**
+     * 片段部分的第一个模板片段的下标，追加的查询参数必须写在它之前；没有片段部分时等于 segments.length。
+     */
+    private final int fragmentIndex;
+
+    private final boolean hasQuery;
+
+    /**
+     * 查询部分是否以“?”或者“&amp;”结尾，此时追加查询参数不需要再写入分隔符。
+     */
+    private final boolean queryOpen;
+
+    private final int literalLength;
+
+    private UriTemplate(Segment[] segments, int fragmentIndex, boolean hasQuery, boolean queryOpen, int literalLength) {
+        this.segments = segments;
+        this.fragmentIndex = fragmentIndex;
+        this.hasQuery = hasQuery;
+        this.queryOpen = queryOpen;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * 编译模板。相同的模板只会被编译一次。
+     *
+     * @param template 模板
+     * @return 编译后的模板
+     */
+    static UriTemplate compile(String template) {
+        UriTemplate uriTemplate = TEMPLATE_CACHE.get(template);
+        if (uriTemplate == null) {
+            uriTemplate = parse(template);
+            // 动态生成的URI（比如 @Uri 或者 uriSpel）可能各不相同，超出上限后不再缓存
+            if (TEMPLATE_CACHE.size() < MAX_CACHED_TEMPLATES) {
+                TEMPLATE_CACHE.putIfAbsent(template, uriTemplate);
+            }
+        }
+        return uriTemplate;
+    }
+
+    private static UriTemplate parse(String template) {
+        List<Segment> segments = new ArrayList<>();
+        int schemeEnd = template.indexOf("://");
+        Part part = schemeEnd < 0 ? Part.PATH : Part.AUTHORITY;
+        int authorityStart = schemeEnd < 0 ? 0 : schemeEnd + 3;
+        int fragmentIndex = -1;
+        boolean hasQuery = false;
+        int literalLength = 0;
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '{') {
+                int end = template.indexOf('}', i + 1);
+                if (end > i + 1) {
+                    if (!literal.isEmpty()) {
+                        segments.add(new Segment(literal.toString(), null, part));
+                        literalLength += literal.length();
+                        literal.setLength(0);
+                    }
+                    segments.add(new Segment(null, template.substring(i + 1, end), part));
+                    i = end;
+                    continue;
+                }
+            }
+            Part newPart = part;
+            if (part == Part.AUTHORITY && i >= authorityStart && (c == '/' || c == '?' || c == '#')) {
+                newPart = c == '/' ? Part.PATH : c == '?' ? Part.QUERY : Part.FRAGMENT;
+            } else if (part == Part.PATH && (c == '?' || c == '#')) {
+                newPart = c == '?' ? Part.QUERY : Part.FRAGMENT;
+            } else if (part == Part.QUERY && c == '#') {
+                newPart = Part.FRAGMENT;
+            }
+            if (newPart != part) {
+                if (!literal.isEmpty()) {
+                    segments.add(new Segment(literal.toString(), null, part));
+                    literalLength += literal.length();
+                    literal.setLength(0);
+                }
+                if (newPart == Part.QUERY) {
+                    hasQuery = true;
+                } else if (newPart == Part.FRAGMENT) {
+                    fragmentIndex = segments.size();
+                }
+                part = newPart;
+            }
+            literal.append(c);
+        }
+        if (!literal.isEmpty()) {
+            segments.add(new Segment(literal.toString(), null, part));
+            literalLength += literal.length();
+        }
+        if (fragmentIndex < 0) {
+            fragmentIndex = segments.size();
+        }
+        boolean queryOpen = false;
+        if (hasQuery && fragmentIndex > 0) {
+            Segment last = segments.get(fragmentIndex - 1);
+            queryOpen = last.name == null && (last.literal.endsWith("?") || last.literal.endsWith("&"));
+        }
+        return new UriTemplate(segments.toArray(new Segment[0]), fragmentIndex, hasQuery, queryOpen, literalLength);
+    }
+
+    /**
+     * 生成最终的URI字符串。
+     *
+     * @param pathVars 路径参数，可以是null。模板中存在但是这里没有给出的路径参数将原样保留
+     * @param queries  需要追加的查询参数，可以是null
+     * @return URI字符串
+     */
+    String expand(Map<String, String> pathVars, List<? extends NameValuePair> queries) {
+        int capacity = literalLength;
+        if (pathVars != null) {
+            for (Segment segment : segments) {
+                if (segment.name != null) {
+                    String value = pathVars.get(segment.name);
+                    capacity += value == null ? segment.name.length() + 2 : value.length();
+                }
+            }
+        }
+        int queryCount = queries == null ? 0 : queries.size();
+        if (queryCount > 0) {
+            for (NameValuePair query : queries) {
+                capacity += query.getName().length() + (query.getValue() == null ? 0 : query.getValue().length()) + 2;
+            }
+        }
+        // 编码会让长度增加，这里预留一些空间
+        StringBuilder sb = new StringBuilder(capacity + (capacity >> 3));
+        for (int i = 0; i < fragmentIndex; i++) {
+            appendSegment(sb, segments[i], pathVars);
+        }
+        if (queryCount > 0) {
+            boolean first = true;
+            for (NameValuePair query : queries) {
+                if (first) {
+                    if (!hasQuery) {
+                        sb.append('?');
+                    } else if (!queryOpen) {
+                        sb.append('&');
+                    }
+                    first = false;
+                } else {
+                    sb.append('&');
+                }
+                if (query instanceof PreEncodedQueryPair preEncodedQueryPair) {
+                    sb.append(preEncodedQueryPair.encoded);
+                } else {
+                    appendQueryPair(sb, query.getName(), query.getValue());
+                }
+            }
+        }
+        for (int i = fragmentIndex; i < segments.length; i++) {
+            appendSegment(sb, segments[i], pathVars);
+        }
+        return sb.toString();
+    }
+
+    private static void appendSegment(StringBuilder sb, Segment segment, Map<String, String> pathVars) {
+        if (segment.name == null) {
+            sb.append(segment.literal);
+            return;
+        }
+        String value = pathVars == null ? null : pathVars.get(segment.name);
+        if (value == null) {
+            sb.append('{').append(segment.name).append('}');
+            return;
+        }
+        switch (segment.part) {
+            case AUTHORITY -> sb.append(value);
+            case PATH -> encode(sb, value, PATH_SEGMENT_SAFE, true, false);
+            case QUERY -> encode(sb, value, QUERY_SAFE, true, false);
+            case FRAGMENT -> encode(sb, value, FRAGMENT_SAFE, true, false);
+        }
+    }
+
+    /**
+     * 创建静态的查询参数，编码结果会被缓存。只应当用于取值范围有限的查询参数（比如注解中定义的查询参数）。
+     *
+     * @param raw       原始的“name=value”字符串，作为缓存的键
+     * @param name      名称
+     * @param value     值
+     * @param coverable 是否可被覆盖
+     * @return 查询参数
+     */
+    static CoverableNameValuePair staticQuery(String raw, String name, String value, boolean coverable) {
+        String encoded = STATIC_QUERY_CACHE.get(raw);
+        if (encoded == null) {
+            StringBuilder sb = new StringBuilder(raw.length() + 8);
+            appendQueryPair(sb, name, value);
+            encoded = sb.toString();
+            STATIC_QUERY_CACHE.putIfAbsent(raw, encoded);
+        }
+        return new PreEncodedQueryPair(name, value, coverable, encoded);
+    }
+
+    private static void appendQueryPair(StringBuilder sb, String name, String value) {
+        encode(sb, name, UNRESERVED, false, true);
+        if (value != null) {
+            sb.append('=');
+            encode(sb, value, UNRESERVED, false, true);
+        }
+    }
+
+    private static void encode(StringBuilder sb, String value, BitSet safe, boolean keepPercentEncoded, boolean blankAsPlus) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                if (safe.get(c)) {
+                    sb.append(c);
+                } else if (c == ' ' && blankAsPlus) {
+                    sb.append('+');
+                } else if (c == '%' && keepPercentEncoded && i + 2 < length && isHex(value.charAt(i + 1)) && isHex(value.charAt(i + 2))) {
+                    sb.append(c);
+                } else {
+                    appendEscaped(sb, c);
+                }
+            } else {
+                // 非ASCII字符按照UTF-8编码，注意代理对
+                int end = i + 1;
+                if (Character.isHighSurrogate(c) && end < length && Character.isLowSurrogate(value.charAt(end))) {
+                    end++;
+                }
+                for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    appendEscaped(sb, b & 0xFF);
+                }
+                i = end - 1;
+            }
+        }
+    }
+
+    private static void appendEscaped(StringBuilder sb, int b) {
+        sb.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    /**
+     * 预先编码好的查询参数。
+     */
+    static final class PreEncodedQueryPair extends CoverableNameValuePair {
+
+        private static final long serialVersionUID = 7913786527351940471L;
+
+        private final String encoded;
+
+        PreEncodedQueryPair(String name, String value, boolean coverable, String encoded) {
+            super(name, value, coverable);
+            this.encoded = encoded;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.mara.zoic.annohttp.http.batch;
+
+import com.mara.zoic.annohttp.annotation.Batched;
+import com.mara.zoic.annohttp.http.AnnoHttpExecutors;
+import com.mara.zoic.annohttp.http.PreparingRequest;
+import com.mara.zoic.annohttp.http.spel.SpelUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 将对单个键的调用按照时间窗口合并为对批量方法的调用，参见 {@link Batched}。
+ * <p>每个服务实例的每个 {@link Batched} 方法一个实例。时间窗口由共享的守护线程计时，批量调用在 {@link AnnoHttpExecutors} 的执行器中执行，
+ * 因此调用者（特别是返回 {@link CompletableFuture} 的调用者）不会被其他调用者的批量请求阻塞。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class RequestBatcher {
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER;
+
+    static {
+        SCHEDULER = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "annohttp-batch-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final Object serviceClient;
+    private final Method batchMethod;
+    private final Class<?> batchParameterType;
+    private final Expression resultKey;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    /**
+     * 当前批次中的键与等待的调用者，相同的键只查询一次。
+     */
+    private Map<Object, List<CompletableFuture<Object>>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> windowTimer;
+
+    private RequestBatcher(Object serviceClient, Method batchMethod, Expression resultKey, long windowNanos, int maxBatchSize) {
+        this.serviceClient = serviceClient;
+        this.batchMethod = batchMethod;
+        this.batchParameterType = batchMethod.getParameterTypes()[0];
+        this.resultKey = resultKey;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * 按照方法上的 {@link Batched} 创建合并器。
+     *
+     * @param serviceClient 服务实例（由 {@link com.mara.zoic.annohttp.http.AnnoHttpClients} 创建的代理对象），批量方法在其上调用
+     * @param method        被 {@link Batched} 注解的方法
+     * @return 合并器
+     */
+    public static RequestBatcher create(Object serviceClient, Method method) {
+        Batched batched = method.getAnnotation(Batched.class);
+        if (batched == null) {
+            throw new IllegalArgumentException("Method '" + method + "' is not annotated with @Batched");
+        }
+        if (method.getParameterCount() != 1) {
+            throw new IllegalArgumentException("@Batched method '" + method + "' must have exactly one parameter (the key)");
+        }
+        if (batched.windowMillis() < 0 || batched.maxBatchSize() < 1 || batched.timeoutMillis() < 1) {
+            throw new IllegalArgumentException("@Batched.windowMillis() must not be negative, @Batched.maxBatchSize() and @Batched.timeoutMillis() must be positive");
+        }
+        List<Method> candidates = Arrays.stream(method.getDeclaringClass().getMethods())
+                .filter(m -> m.getName().equals(batched.method()) && m.getParameterCount() == 1 && !m.isAnnotationPresent(Batched.class))
+                .toList();
+        if (candidates.size() != 1) {
+            throw new IllegalArgumentException("Cannot find exactly one batch method named '" + batched.method()
+                    + "' with one parameter in " + method.getDeclaringClass());
+        }
+        Method batchMethod = candidates.get(0);
+        Class<?> parameterType = batchMethod.getParameterTypes()[0];
+        if (parameterType != String.class && !parameterType.isArray() && !parameterType.isAssignableFrom(ArrayList.class)
+                && !parameterType.isAssignableFrom(LinkedHashSet.class)) {
+            throw new IllegalArgumentException("Parameter of batch method '" + batchMethod + "' must be a String, List, Set, Collection or an array");
+        }
+        Expression resultKey = batched.resultKey().isBlank() ? null : SpelUtils.parseSpel(batched.resultKey());
+        return new RequestBatcher(serviceClient, batchMethod, resultKey, TimeUnit.MILLISECONDS.toNanos(batched.windowMillis()), batched.maxBatchSize());
+    }
+
+    /**
+     * 提交一个键，在所在的批次完成后得到结果。
+     *
+     * @param key 键
+     * @return 结果
+     */
+    public CompletableFuture<Object> submit(Object key) {
+        return submit(key, false);
+    }
+
+    /**
+     * 提交一个键，在所在的批次完成后得到结果。
+     *
+     * @param key    键
+     * @param inline 是否立即在当前线程上执行当前批次（包括此前提交的键），而不是等待时间窗口结束后在后台执行
+     * @return 结果；inline 为true时已经完成
+     */
+    public CompletableFuture<Object> submit(Object key, boolean inline) {
+        if (key == null) {
+            throw new IllegalArgumentException("Batch key cannot be null");
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Map<Object, List<CompletableFuture<Object>>> fullBatch = null;
+        synchronized (lock) {
+            pending.computeIfAbsent(key, k -> new ArrayList<>(1)).add(future);
+            if (inline || pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (windowTimer == null) {
+                windowTimer = SCHEDULER.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (inline) {
+            execute(fullBatch);
+        } else if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return future;
+    }
+
+    /**
+     * 立即发起当前批次的批量调用，不再等待时间窗口结束。
+     */
+    public void flush() {
+        Map<Object, List<CompletableFuture<Object>>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(Map<Object, List<CompletableFuture<Object>>> batch) {
+        try {
+            AnnoHttpExecutors.execute(() -> execute(batch));
+        } catch (RuntimeException e) {
+            // 用户提供的执行器拒绝了任务
+            failAll(batch, e);
+        }
+    }
+
+    private Map<Object, List<CompletableFuture<Object>>> takePending() {
+        if (windowTimer != null) {
+            windowTimer.cancel(false);
+            windowTimer = null;
+        }
+        Map<Object, List<CompletableFuture<Object>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void execute(Map<Object, List<CompletableFuture<Object>>> batch) {
+        try {
+            // 直接交给代理的调用处理器，不经过反射调用，因此服务接口不需要是 public 的
+            Object result = Proxy.getInvocationHandler(serviceClient).invoke(serviceClient, batchMethod, new Object[]{toArgument(batch.keySet())});
+            if (result instanceof PreparingRequest<?> preparingRequest) {
+                result = preparingRequest.request();
+            }
+            distribute(batch, result);
+        } catch (Throwable e) {
+            failAll(batch, e);
+        }
+    }
+
+    private Object toArgument(Set<Object> keys) {
+        if (batchParameterType == String.class) {
+            return keys.stream().map(String::valueOf).collect(Collectors.joining(","));
+        }
+        if (batchParameterType.isArray()) {
+            Object array = Array.newInstance(batchParameterType.getComponentType(), keys.size());
+            int i = 0;
+            for (Object key : keys) {
+                Array.set(array, i++, key);
+            }
+            return array;
+        }
+        return batchParameterType.isAssignableFrom(ArrayList.class) ? new ArrayList<>(keys) : new LinkedHashSet<>(keys);
+    }
+
+    private void distribute(Map<Object, List<CompletableFuture<Object>>> batch, Object result) {
+        if (result == null) {
+            batch.values().forEach(futures -> futures.forEach(f -> f.complete(null)));
+            return;
+        }
+        if (result instanceof Map<?, ?> map) {
+            // JSON 对象的键总是字符串，因此找不到时再按照字符串形式查找
+            batch.forEach((key, futures) -> {
+                Object value = map.containsKey(key) ? map.get(key) : map.get(String.valueOf(key));
+                futures.forEach(f -> f.complete(value));
+            });
+            return;
+        }
+        List<Object> elements = toList(result);
+        if (resultKey == null) {
+            if (elements.size() != batch.size()) {
+                throw new IllegalStateException("Batch method '" + batchMethod.getName() + "' returned " + elements.size()
+                        + " elements for " + batch.size() + " keys, set @Batched.resultKey() to match them by key");
+            }
+            Iterator<Object> iterator = elements.iterator();
+            batch.values().forEach(futures -> {
+                Object value = iterator.next();
+                futures.forEach(f -> f.complete(value));
+            });
+            return;
+        }
+        Map<String, Object> byKey = new HashMap<>(elements.size() * 2);
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        for (Object element : elements) {
+            if (element != null) {
+                context.setRootObject(element);
+                context.setVariable("result", element);
+                byKey.putIfAbsent(String.valueOf(resultKey.getValue(context)), element);
+            }
+        }
+        batch.forEach((key, futures) -> {
+            Object value = byKey.get(String.valueOf(key));
+            futures.forEach(f -> f.complete(value));
+        });
+    }
+
+    private List<Object> toList(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+        if (result.getClass().isArray()) {
+            int length = Array.getLength(result);
+            List<Object> list = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                list.add(Array.get(result, i));
+            }
+            return list;
+        }
+        throw new IllegalStateException("Batch method '" + batchMethod.getName() + "' must return a Map, a Collection or an array, but got "
+                + result.getClass().getName());
+    }
+
+    private static void failAll(Map<Object, List<CompletableFuture<Object>>> batch, Throwable cause) {
+        batch.values().forEach(futures -> futures.forEach(f -> f.completeExceptionally(cause)));
+    }
+}
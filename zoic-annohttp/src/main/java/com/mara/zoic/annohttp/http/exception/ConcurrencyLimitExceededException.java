@@ -0,0 +1,31 @@
+package com.mara.zoic.annohttp.http.exception;
+
+import java.io.Serial;
+
+/**
+ * 请求因为超出并发限制而被拒绝时抛出。此时请求尚未发出。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = -4719532287094367170L;
+
+    public ConcurrencyLimitExceededException() {
+        super();
+    }
+
+    public ConcurrencyLimitExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+
+    public ConcurrencyLimitExceededException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,31 @@
+package com.mara.zoic.annohttp.http.exception;
+
+import java.io.Serial;
+
+/**
+ * 请求的截止时间（{@link com.mara.zoic.annohttp.http.Deadline}）已过时抛出。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 6250935581417021094L;
+
+    public DeadlineExceededException() {
+        super();
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(Throwable cause) {
+        super(cause);
+    }
+}
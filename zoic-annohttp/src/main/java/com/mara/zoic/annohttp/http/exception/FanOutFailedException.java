@@ -0,0 +1,37 @@
+package com.mara.zoic.annohttp.http.exception;
+
+import com.mara.zoic.annohttp.http.fanout.FanOutResult;
+
+import java.io.Serial;
+
+/**
+ * 扇出请求成功的数量没有达到完成策略的要求时抛出，各个目标的结果与失败原因可以从 {@link #getResult()} 获得。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see com.mara.zoic.annohttp.http.fanout.ScatterGather
+ */
+public class FanOutFailedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 6057308215994171249L;
+
+    private final transient FanOutResult<?> result;
+
+    public FanOutFailedException(String message, FanOutResult<?> result) {
+        super(message);
+        this.result = result;
+        if (result != null) {
+            result.getFailures().values().forEach(this::addSuppressed);
+        }
+    }
+
+    /**
+     * 获得扇出请求的聚合结果。
+     *
+     * @return 聚合结果
+     */
+    public FanOutResult<?> getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mara.zoic.annohttp.http.exception;
+
+import java.io.Serial;
+
+/**
+ * 响应体超过了 {@link com.mara.zoic.annohttp.annotation.ResponseSizeLimit#maxBytes()} 时抛出。此时请求已经被中止，连接不会被复用。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class ResponseTooLargeException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 3318502671204869513L;
+
+    public ResponseTooLargeException() {
+        super();
+    }
+
+    public ResponseTooLargeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ResponseTooLargeException(String message) {
+        super(message);
+    }
+
+    public ResponseTooLargeException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,76 @@
+package com.mara.zoic.annohttp.http.fanout;
+
+/**
+ * 扇出请求的完成策略，参见 {@link ScatterGather}。
+ * <p>除了 {@link #all()} 之外，成功的数量达到要求后立即完成，其余仍在进行的请求被取消；
+ * 剩余的请求即使全部成功也无法达到要求时立即以失败完成。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class FanOutPolicy {
+
+    private static final FanOutPolicy ALL = new FanOutPolicy(0);
+
+    private static final FanOutPolicy FIRST_SUCCESS = new FanOutPolicy(1);
+
+    private final int requiredSuccesses;
+
+    private FanOutPolicy(int requiredSuccesses) {
+        this.requiredSuccesses = requiredSuccesses;
+    }
+
+    /**
+     * 等待所有请求完成（成功或者失败），总是视为满足。
+     *
+     * @return 策略
+     */
+    public static FanOutPolicy all() {
+        return ALL;
+    }
+
+    /**
+     * 第一个成功的请求胜出，其余的请求被取消。
+     *
+     * @return 策略
+     */
+    public static FanOutPolicy firstSuccess() {
+        return FIRST_SUCCESS;
+    }
+
+    /**
+     * 至少 k 个请求成功（k-of-n），达到后其余的请求被取消。
+     *
+     * @param k 需要成功的数量，必须为正数并且不超过目标的数量
+     * @return 策略
+     */
+    public static FanOutPolicy quorum(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Quorum must be positive");
+        }
+        return k == 1 ? FIRST_SUCCESS : new FanOutPolicy(k);
+    }
+
+    /**
+     * 获得需要成功的数量。
+     *
+     * @return 数量，0代表等待所有请求完成
+     */
+    public int getRequiredSuccesses() {
+        return requiredSuccesses;
+    }
+
+    /**
+     * 是否等待所有请求完成。
+     *
+     * @return 是否等待所有请求完成
+     */
+    public boolean isAll() {
+        return requiredSuccesses == 0;
+    }
+
+    @Override
+    public String toString() {
+        return isAll() ? "FanOutPolicy{all}" : "FanOutPolicy{quorum=" + requiredSuccesses + "}";
+    }
+}
@@ -0,0 +1,104 @@
+package com.mara.zoic.annohttp.http.fanout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 扇出请求的聚合结果，以目标的 baseUri 区分。
+ *
+ * @param <T> 单个请求的结果类型
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class FanOutResult<T> {
+
+    private final FanOutPolicy policy;
+    private final Map<String, T> successes;
+    private final Map<String, Throwable> failures;
+    private final List<String> cancelled;
+    private final boolean satisfied;
+
+    FanOutResult(FanOutPolicy policy, Map<String, T> successes, Map<String, Throwable> failures, List<String> cancelled, boolean satisfied) {
+        this.policy = policy;
+        this.successes = Collections.unmodifiableMap(successes);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.cancelled = Collections.unmodifiableList(cancelled);
+        this.satisfied = satisfied;
+    }
+
+    /**
+     * 获得完成策略。
+     *
+     * @return 完成策略
+     */
+    public FanOutPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * 获得成功的请求的结果。
+     *
+     * @return baseUri 与结果，按照完成的顺序排列
+     */
+    public Map<String, T> getSuccesses() {
+        return successes;
+    }
+
+    /**
+     * 获得成功的请求的结果。
+     *
+     * @return 结果，按照完成的顺序排列
+     */
+    public List<T> getResults() {
+        return new ArrayList<>(successes.values());
+    }
+
+    /**
+     * 获得第一个成功的请求的结果。
+     *
+     * @return 结果；没有成功的请求时返回null
+     */
+    public T getFirst() {
+        return successes.isEmpty() ? null : successes.values().iterator().next();
+    }
+
+    /**
+     * 获得失败的请求的原因。
+     *
+     * @return baseUri 与失败的原因，按照完成的顺序排列
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * 获得在完成之前仍在进行、因此被取消的请求。
+     *
+     * @return baseUri
+     */
+    public List<String> getCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 是否满足完成策略。
+     *
+     * @return 是否满足
+     */
+    public boolean isSatisfied() {
+        return satisfied;
+    }
+
+    @Override
+    public String toString() {
+        return "FanOutResult{" +
+                "policy=" + policy +
+                ", successes=" + successes.keySet() +
+                ", failures=" + failures.keySet() +
+                ", cancelled=" + cancelled +
+                ", satisfied=" + satisfied +
+                '}';
+    }
+}
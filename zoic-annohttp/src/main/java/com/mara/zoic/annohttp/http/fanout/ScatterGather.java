@@ -0,0 +1,244 @@
+package com.mara.zoic.annohttp.http.fanout;
+
+import com.mara.zoic.annohttp.http.AnnoHttpClients;
+import com.mara.zoic.annohttp.http.AnnoHttpExecutors;
+import com.mara.zoic.annohttp.http.PreparingRequest;
+import com.mara.zoic.annohttp.http.exception.FanOutFailedException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * 扇出（scatter-gather）请求：将同一个服务方法的调用同时发往多个目标（分片、区域等），按照 {@link FanOutPolicy} 聚合结果。
+ * <pre>
+ * FanOutResult&lt;User&gt; result = ScatterGather.execute(UserService.class, List.of("http://shard-a", "http://shard-b"),
+ *         service -&gt; service.getUser(id), FanOutPolicy.firstSuccess());
+ * </pre>
+ * <p>服务方法的返回类型必须是 {@link PreparingRequest}，每个目标使用一个以其为 baseUri 创建的服务实例，服务实例按照服务接口与 baseUri 缓存，
+ * 多次扇出不会重复创建（也不会重复触发 {@link com.mara.zoic.annohttp.lifecycle.AnnoHttpLifecycle} 的创建回调）。
+ * 请求在 {@link AnnoHttpExecutors} 的执行器中并发执行。策略得到满足（或者已经不可能满足）时，仍在进行的请求通过 {@link PreparingRequest#cancel()} 被立即中止，
+ * 连接被关闭而不是读完响应体；结束之后才到达的、不会交给调用者的结果如果是 {@link AutoCloseable}（比如 InputStream、ClassicHttpResponse），那么被关闭。
+ * 取消 {@link #executeAsync} 返回的 {@link CompletableFuture} 会中止所有仍在进行的请求。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class ScatterGather {
+
+    /**
+     * 服务接口 -&gt; baseUri -&gt; 服务实例
+     */
+    private static final Map<Class<?>, Map<String, Object>> SERVICES = new ConcurrentHashMap<>();
+
+    private ScatterGather() {
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S> S getService(Class<S> serviceClass, String baseUri) {
+        return (S) SERVICES.computeIfAbsent(serviceClass, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(baseUri, k -> AnnoHttpClients.create(serviceClass, baseUri));
+    }
+
+    /**
+     * 同步执行扇出请求。
+     *
+     * @param serviceClass 服务接口
+     * @param baseUris     目标的 baseUri，重复的会被忽略
+     * @param invocation   在服务实例上调用服务方法
+     * @param policy       完成策略
+     * @return 聚合结果
+     * @param <S> 服务接口类型
+     * @param <T> 单个请求的结果类型
+     * @throws FanOutFailedException 成功的数量没有达到策略的要求
+     */
+    public static <S, T> FanOutResult<T> execute(Class<S> serviceClass, Collection<String> baseUris,
+                                                 Function<S, PreparingRequest<T>> invocation, FanOutPolicy policy) {
+        CompletableFuture<FanOutResult<T>> future = executeAsync(serviceClass, baseUris, invocation, policy);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for fan-out requests");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 异步执行扇出请求。
+     *
+     * @param serviceClass 服务接口
+     * @param baseUris     目标的 baseUri，重复的会被忽略
+     * @param invocation   在服务实例上调用服务方法
+     * @param policy       完成策略
+     * @return 聚合结果；成功的数量没有达到策略的要求时以 {@link FanOutFailedException} 完成
+     * @param <S> 服务接口类型
+     * @param <T> 单个请求的结果类型
+     */
+    public static <S, T> CompletableFuture<FanOutResult<T>> executeAsync(Class<S> serviceClass, Collection<String> baseUris,
+                                                                         Function<S, PreparingRequest<T>> invocation, FanOutPolicy policy) {
+        if (serviceClass == null || invocation == null || policy == null) {
+            throw new IllegalArgumentException("Service class, invocation and policy cannot be null");
+        }
+        Set<String> targets = baseUris == null ? Set.of() : new LinkedHashSet<>(baseUris);
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Base uris cannot be empty");
+        }
+        if (policy.getRequiredSuccesses() > targets.size()) {
+            throw new IllegalArgumentException("Quorum " + policy.getRequiredSuccesses() + " exceeds the number of base uris " + targets.size());
+        }
+        FanOut<T> fanOut = new FanOut<>(policy, targets.size());
+        for (String baseUri : targets) {
+            PreparingRequest<T> request;
+            try {
+                request = invocation.apply(getService(serviceClass, baseUri));
+                if (request == null) {
+                    throw new IllegalStateException("Invocation returned null, the service method must return PreparingRequest");
+                }
+            } catch (RuntimeException e) {
+                fanOut.onFailure(baseUri, e);
+                continue;
+            }
+            fanOut.start(baseUri, request);
+        }
+        return fanOut.promise;
+    }
+
+    private static final class FanOut<T> {
+
+        private final FanOutPolicy policy;
+        private final int total;
+        private final CompletableFuture<FanOutResult<T>> promise = new CompletableFuture<>();
+        /**
+         * 仍在进行的请求，完成时移除。
+         */
+        private final Map<String, PreparingRequest<T>> inFlight = new LinkedHashMap<>();
+        private final Map<String, T> successes = new LinkedHashMap<>();
+        private final Map<String, Throwable> failures = new LinkedHashMap<>();
+        private boolean done;
+
+        private FanOut(FanOutPolicy policy, int total) {
+            this.policy = policy;
+            this.total = total;
+            // 调用者取消时中止所有仍在进行的请求
+            promise.whenComplete((result, e) -> {
+                if (promise.isCancelled()) {
+                    finish(false);
+                }
+            });
+        }
+
+        private void start(String baseUri, PreparingRequest<T> request) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                inFlight.put(baseUri, request);
+            }
+            try {
+                AnnoHttpExecutors.execute(() -> {
+                    T result;
+                    try {
+                        result = request.request();
+                    } catch (Throwable e) {
+                        onFailure(baseUri, e);
+                        return;
+                    }
+                    onSuccess(baseUri, result);
+                });
+            } catch (RuntimeException e) {
+                onFailure(baseUri, e);
+            }
+        }
+
+        private void onSuccess(String baseUri, T result) {
+            boolean complete;
+            synchronized (this) {
+                if (done) {
+                    // 结果不会再交给调用者，释放它占用的资源（比如连接）
+                    closeQuietly(result);
+                    return;
+                }
+                inFlight.remove(baseUri);
+                successes.put(baseUri, result);
+                complete = (!policy.isAll() && successes.size() >= policy.getRequiredSuccesses()) || isAllCompleted();
+            }
+            if (complete) {
+                finish(true);
+            }
+        }
+
+        private void onFailure(String baseUri, Throwable cause) {
+            boolean complete;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                inFlight.remove(baseUri);
+                failures.put(baseUri, cause);
+                // 剩余的请求全部成功也无法满足时提前结束
+                complete = (!policy.isAll() && total - failures.size() < policy.getRequiredSuccesses()) || isAllCompleted();
+            }
+            if (complete) {
+                finish(true);
+            }
+        }
+
+        private boolean isAllCompleted() {
+            return successes.size() + failures.size() == total;
+        }
+
+        private void finish(boolean publish) {
+            List<PreparingRequest<T>> toCancel;
+            FanOutResult<T> result;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                toCancel = new ArrayList<>(inFlight.values());
+                boolean satisfied = policy.isAll() || successes.size() >= policy.getRequiredSuccesses();
+                result = new FanOutResult<>(policy, new LinkedHashMap<>(successes), new LinkedHashMap<>(failures),
+                        new ArrayList<>(inFlight.keySet()), satisfied);
+                inFlight.clear();
+            }
+            // 在锁之外中止，被中止的请求的失败不再被记录
+            toCancel.forEach(PreparingRequest::cancel);
+            if (!publish) {
+                // 调用者已经取消，已经得到的结果同样不会再交给调用者
+                result.getResults().forEach(FanOut::closeQuietly);
+                return;
+            }
+            if (result.isSatisfied()) {
+                promise.complete(result);
+            } else {
+                promise.completeExceptionally(new FanOutFailedException("Only " + result.getSuccesses().size() + " of " + total
+                        + " fan-out requests succeeded, " + policy.getRequiredSuccesses() + " required", result));
+            }
+        }
+
+        private static void closeQuietly(Object result) {
+            if (result instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ignored) {
+                    // 结果已经被丢弃
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.mara.zoic.annohttp.http.interceptor;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * annohttp 请求的拦截器，包裹在请求的发送（连接、传输）之外，可以修改或者替换请求、重复发送请求、替换响应，
+ * 也可以不调用 {@link Chain#proceed(HttpUriRequestBase)} 而直接返回一个合成的响应（比如缓存命中或者模拟），此时不会发生任何网络交互。
+ * <p>需要使用 {@link AnnoHttpInterceptors#add(AnnoHttpInterceptor...)} 注册，多个拦截器按照注册的顺序由外向内执行。
+ * 与 {@link com.mara.zoic.annohttp.lifecycle.AnnoHttpLifecycle} 不同，拦截器返回的响应会继续经过
+ * {@link com.mara.zoic.annohttp.http.visitor.ResponseVisitor}、successCondition 以及响应体转换。</p>
+ * <pre>
+ * AnnoHttpInterceptors.add(chain -&gt; {
+ *     ClassicHttpResponse response = chain.proceed(chain.getRequest());
+ *     if (response.getCode() == 401) {
+ *         response.close();
+ *         chain.getRequest().setHeader("Authorization", refreshToken());
+ *         response = chain.proceed(chain.getRequest());
+ *     }
+ *     return response;
+ * });
+ * </pre>
+ * <p>合成的响应可以使用 {@link com.mara.zoic.annohttp.http.protocol.MemTransport#objectResponse(int, Object)} 创建。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+@FunctionalInterface
+public interface AnnoHttpInterceptor {
+
+    /**
+     * 拦截请求。
+     *
+     * @param chain 拦截器链
+     * @return 响应，不能是null
+     * @throws IOException 请求失败
+     */
+    ClassicHttpResponse intercept(Chain chain) throws IOException;
+
+    /**
+     * 拦截器链。
+     */
+    interface Chain {
+
+        /**
+         * 获得客户端元数据，可以用于只拦截特定的服务或者方法。
+         *
+         * @return 客户端元数据
+         */
+        HttpClientMetadata getMetadata();
+
+        /**
+         * 获得当前的请求，请求头、请求体等均已填充。
+         *
+         * @return 请求
+         */
+        HttpUriRequestBase getRequest();
+
+        /**
+         * 将请求交给下一个拦截器，最后一个拦截器之后发送请求。可以多次调用（比如重试），调用者负责关闭不再使用的响应。
+         *
+         * @param request 请求，可以是 {@link #getRequest()} 或者一个新的请求
+         * @return 响应
+         * @throws IOException 请求失败
+         */
+        ClassicHttpResponse proceed(HttpUriRequestBase request) throws IOException;
+    }
+}
@@ -0,0 +1,167 @@
+package com.mara.zoic.annohttp.http.interceptor;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 全局的拦截器注册表，参见 {@link AnnoHttpInterceptor}。
+ * <p>拦截器保存在写时复制的数组中，读取没有锁；没有注册任何拦截器时请求直接发送，不会创建拦截器链。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class AnnoHttpInterceptors {
+
+    private static final AnnoHttpInterceptor[] EMPTY = new AnnoHttpInterceptor[0];
+
+    private static volatile AnnoHttpInterceptor[] interceptors = EMPTY;
+
+    private AnnoHttpInterceptors() {
+    }
+
+    /**
+     * 发送请求（拦截器链的末端）。
+     */
+    @FunctionalInterface
+    public interface Exchange {
+
+        /**
+         * 发送请求。
+         *
+         * @param request 请求
+         * @return 响应
+         * @throws IOException 请求失败
+         */
+        ClassicHttpResponse exchange(HttpUriRequestBase request) throws IOException;
+    }
+
+    /**
+     * 添加拦截器，追加在已有的拦截器之后（更靠近网络）。
+     *
+     * @param annoHttpInterceptors 拦截器
+     */
+    public static synchronized void add(AnnoHttpInterceptor... annoHttpInterceptors) {
+        if (annoHttpInterceptors == null || annoHttpInterceptors.length == 0) {
+            return;
+        }
+        for (AnnoHttpInterceptor interceptor : annoHttpInterceptors) {
+            if (interceptor == null) {
+                throw new IllegalArgumentException("Interceptor cannot be null");
+            }
+        }
+        AnnoHttpInterceptor[] current = interceptors;
+        AnnoHttpInterceptor[] updated = Arrays.copyOf(current, current.length + annoHttpInterceptors.length);
+        System.arraycopy(annoHttpInterceptors, 0, updated, current.length, annoHttpInterceptors.length);
+        interceptors = updated;
+    }
+
+    /**
+     * 移除拦截器。
+     *
+     * @param interceptor 拦截器
+     * @return 是否存在并被移除
+     */
+    public static synchronized boolean remove(AnnoHttpInterceptor interceptor) {
+        AnnoHttpInterceptor[] current = interceptors;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == interceptor) {
+                AnnoHttpInterceptor[] updated = new AnnoHttpInterceptor[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                interceptors = updated.length == 0 ? EMPTY : updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 移除所有拦截器。
+     */
+    public static synchronized void clear() {
+        interceptors = EMPTY;
+    }
+
+    /**
+     * 获得所有拦截器。
+     *
+     * @return 按照执行顺序排列的拦截器的快照
+     */
+    public static List<AnnoHttpInterceptor> getAll() {
+        return List.of(interceptors);
+    }
+
+    /**
+     * 是否没有注册任何拦截器。
+     *
+     * @return 没有时返回true
+     */
+    public static boolean isEmpty() {
+        return interceptors.length == 0;
+    }
+
+    /**
+     * 经过所有拦截器发送请求。
+     *
+     * @param metadata 客户端元数据
+     * @param request  请求
+     * @param exchange 最后一个拦截器之后发送请求
+     * @return 响应
+     * @throws IOException 请求失败
+     */
+    public static ClassicHttpResponse proceed(HttpClientMetadata metadata, HttpUriRequestBase request, Exchange exchange) throws IOException {
+        AnnoHttpInterceptor[] current = interceptors;
+        if (current.length == 0) {
+            return exchange.exchange(request);
+        }
+        return new RealChain(current, 0, metadata, request, exchange).proceed(request);
+    }
+
+    private static final class RealChain implements AnnoHttpInterceptor.Chain {
+
+        private final AnnoHttpInterceptor[] interceptors;
+        private final int index;
+        private final HttpClientMetadata metadata;
+        private final HttpUriRequestBase request;
+        private final Exchange exchange;
+
+        private RealChain(AnnoHttpInterceptor[] interceptors, int index, HttpClientMetadata metadata, HttpUriRequestBase request, Exchange exchange) {
+            this.interceptors = interceptors;
+            this.index = index;
+            this.metadata = metadata;
+            this.request = request;
+            this.exchange = exchange;
+        }
+
+        @Override
+        public HttpClientMetadata getMetadata() {
+            return metadata;
+        }
+
+        @Override
+        public HttpUriRequestBase getRequest() {
+            return request;
+        }
+
+        @Override
+        public ClassicHttpResponse proceed(HttpUriRequestBase request) throws IOException {
+            if (request == null) {
+                throw new IllegalArgumentException("Request cannot be null");
+            }
+            if (index == interceptors.length) {
+                return exchange.exchange(request);
+            }
+            AnnoHttpInterceptor interceptor = interceptors[index];
+            ClassicHttpResponse response = interceptor.intercept(new RealChain(interceptors, index + 1, metadata, request, exchange));
+            if (response == null) {
+                throw new IllegalStateException("Interceptor '" + interceptor + "' returned null response");
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.mara.zoic.annohttp.http.limit;
+
+import com.mara.zoic.annohttp.http.exception.ConcurrencyLimitExceededException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于响应时间梯度（gradient）的自适应并发限制器。
+ * <p>算法：</p>
+ * <ul>
+ *     <li>长期 RTT 是所有样本的指数移动平均，代表下游在没有排队时的基准响应时间；短期 RTT 是本次样本。</li>
+ *     <li>梯度 = 容忍系数 × 长期 RTT / 短期 RTT，限定在 [0.5, 1] 之间。响应时间没有上升时梯度为1，上限按 sqrt(limit) 增长；
+ *     响应时间上升说明下游开始排队，梯度小于1，上限随之收缩。</li>
+ *     <li>新的上限经过平滑后限定在 [minLimit, maxLimit] 之间。进行中的请求数不足上限的一半时不调整上限，因为此时的样本说明不了上限是否合适。</li>
+ *     <li>请求失败（IO异常、超时）时上限直接乘以0.9。</li>
+ * </ul>
+ * <p>超出上限的请求按照先来后到排队，排队数与等待时间都有上限，超出时抛出 {@link ConcurrencyLimitExceededException}。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double RTT_TOLERANCE = 1.5D;
+
+    private static final double SMOOTHING = 0.2D;
+
+    private static final double BACKOFF_RATIO = 0.9D;
+
+    /**
+     * 长期 RTT 的平均窗口（样本数）。
+     */
+    private static final int LONG_WINDOW = 100;
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final int maxQueueSize;
+
+    private final long maxQueueWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    private final Condition available = lock.newCondition();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile double limit;
+
+    private volatile int inFlight;
+
+    private volatile int queued;
+
+    private double longRttNanos;
+
+    /**
+     * 构造限制器。
+     *
+     * @param name               名称，用于异常信息
+     * @param initialLimit       初始上限
+     * @param minLimit           上限的最小值，必须大于0
+     * @param maxLimit           上限的最大值，不能小于minLimit
+     * @param maxQueueSize       最多排队的请求数，0代表不排队
+     * @param maxQueueWaitMillis 排队等待的最长时间（毫秒）
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int maxQueueSize, long maxQueueWaitMillis) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Illegal concurrency limit range [" + minLimit + ", " + maxLimit + "] for '" + name + "'");
+        }
+        if (maxQueueSize < 0 || maxQueueWaitMillis < 0) {
+            throw new IllegalArgumentException("Queue size and queue wait time of concurrency limiter '" + name + "' cannot be negative");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMillis);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 获取执行许可。没有可用许可时排队等待，排队已满或者等待超时时抛出异常。
+     * <p>获取成功后必须调用且只能调用一次 {@link #release(long, boolean)}。</p>
+     *
+     * @throws ConcurrencyLimitExceededException 超出并发限制
+     */
+    public void acquire() {
+        acquire(-1L);
+    }
+
+    /**
+     * 获取执行许可，排队等待的时间不超过指定的时长（比如请求剩余的时间预算）。
+     *
+     * @param maxWaitNanos 最长等待时间（纳秒），小于0时只受 maxQueueWaitMillis 限制
+     * @throws ConcurrencyLimitExceededException 超出并发限制
+     * @see #acquire()
+     */
+    public void acquire(long maxWaitNanos) {
+        lock.lock();
+        try {
+            if (queued == 0 && inFlight < getLimit()) {
+                inFlight++;
+                return;
+            }
+            if (queued >= maxQueueSize) {
+                rejected.incrementAndGet();
+                throw new ConcurrencyLimitExceededException("Concurrency limit exceeded for '" + name + "': limit=" + getLimit()
+                        + ", inFlight=" + inFlight + ", queued=" + queued);
+            }
+            queued++;
+            try {
+                long nanos = maxWaitNanos < 0 ? maxQueueWaitNanos : Math.min(maxQueueWaitNanos, maxWaitNanos);
+                while (inFlight >= getLimit()) {
+                    if (nanos <= 0) {
+                        rejected.incrementAndGet();
+                        throw new ConcurrencyLimitExceededException("Concurrency limit exceeded for '" + name + "' after waiting in queue: limit="
+                                + getLimit() + ", inFlight=" + inFlight);
+                    }
+                    nanos = available.awaitNanos(nanos);
+                }
+                inFlight++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.incrementAndGet();
+                throw new ConcurrencyLimitExceededException("Interrupted while waiting for concurrency limiter '" + name + "'", e);
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 归还许可并提交样本。
+     *
+     * @param rttNanos 请求的响应时间（纳秒）
+     * @param dropped  请求是否失败（IO异常、超时等）
+     */
+    public void release(long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            int current = inFlight;
+            inFlight = current - 1;
+            if (dropped) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (rttNanos > 0) {
+                update(rttNanos, current);
+            }
+            int free = getLimit() - inFlight;
+            for (int i = 0; i < free && i < queued; i++) {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rttNanos, int inFlightAtSample) {
+        double rtt = rttNanos;
+        if (longRttNanos <= 0) {
+            longRttNanos = rtt;
+        } else {
+            longRttNanos += (rtt - longRttNanos) / LONG_WINDOW;
+            // 下游恢复后短期 RTT 会远低于长期 RTT，让长期 RTT 尽快回落，否则上限会在很长时间内保持偏高
+            if (longRttNanos > rtt * 2) {
+                longRttNanos *= 0.95D;
+            }
+        }
+        double current = limit;
+        if (inFlightAtSample < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5D, Math.min(1D, RTT_TOLERANCE * longRttNanos / rtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获得当前的并发上限。
+     *
+     * @return 并发上限
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * 获得进行中的请求数。
+     *
+     * @return 进行中的请求数
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * 获得排队等待中的请求数。
+     *
+     * @return 排队数
+     */
+    public int getQueueDepth() {
+        return queued;
+    }
+
+    /**
+     * 获得累计被拒绝的请求数。
+     *
+     * @return 被拒绝的请求数
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyLimiter{name='" + name + "', limit=" + getLimit() + ", inFlight=" + inFlight
+                + ", queued=" + queued + ", rejected=" + rejected.get() + "}";
+    }
+}
@@ -0,0 +1,58 @@
+package com.mara.zoic.annohttp.http.limit;
+
+import com.mara.zoic.annohttp.annotation.ConcurrencyLimit;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 自适应并发限制器的注册表。
+ * <p>限制器在首次使用时按照 {@link ConcurrencyLimit} 的设定创建，之后同一个键（服务或者目标地址）一直共享同一个实例。
+ * 范围为 {@link ConcurrencyLimit.Scope#HOST} 时，多个服务共享一个限制器，以先创建者的设定为准。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class ConcurrencyLimiters {
+
+    private static final Map<String, AdaptiveConcurrencyLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private ConcurrencyLimiters() {
+    }
+
+    /**
+     * 获得限制器，不存在时按照设定创建。
+     *
+     * @param key              限制器的键
+     * @param concurrencyLimit 设定
+     * @return 限制器
+     */
+    public static AdaptiveConcurrencyLimiter getOrCreate(String key, ConcurrencyLimit concurrencyLimit) {
+        AdaptiveConcurrencyLimiter limiter = LIMITERS.get(key);
+        if (limiter != null) {
+            return limiter;
+        }
+        return LIMITERS.computeIfAbsent(key, k -> new AdaptiveConcurrencyLimiter(k, concurrencyLimit.initialLimit(),
+                concurrencyLimit.minLimit(), concurrencyLimit.maxLimit(), concurrencyLimit.maxQueueSize(), concurrencyLimit.maxQueueWaitMillis()));
+    }
+
+    /**
+     * 获得限制器。
+     *
+     * @param key 限制器的键：范围为服务时是服务接口的全限定名，范围为目标地址时是 scheme://host:port
+     * @return 限制器；不存在时返回null
+     */
+    public static AdaptiveConcurrencyLimiter get(String key) {
+        return LIMITERS.get(key);
+    }
+
+    /**
+     * 获得所有的限制器，用于监控。
+     *
+     * @return 键与限制器的映射（不可修改）
+     */
+    public static Map<String, AdaptiveConcurrencyLimiter> getAll() {
+        return Collections.unmodifiableMap(LIMITERS);
+    }
+}
@@ -0,0 +1,356 @@
+package com.mara.zoic.annohttp.http.loadbalance;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 基于一致性哈希的 baseUri 提供器，相同路由键的请求总是发往同一个节点，以便提高下游服务本地缓存的命中率。
+ * <p>路由键由请求方法的参数提供，见 {@link com.mara.zoic.annohttp.annotation.RoutingKey} 以及
+ * {@link com.mara.zoic.annohttp.annotation.Request#routingKeySpel()}。没有路由键的请求在可用节点之间轮询。</p>
+ * <p>每个节点在哈希环上有若干个虚拟节点，使得键的分布更加均匀。为了避免热点键压垮单个节点，选择节点时使用有界负载
+ * （consistent hashing with bounded loads）：每个节点进行中的请求数不能超过平均值的 loadFactor 倍，超过时沿着环顺时针寻找下一个节点。
+ * 连续失败达到阈值的节点同样会被跳过，直到剔除到期。</p>
+ * <p>节点可以在运行时增减（{@link #addEndpoint(String)}、{@link #removeEndpoint(String)}、{@link #setEndpoints(Collection)}）。
+ * 每个节点的虚拟节点哈希只在加入时计算一次，增减节点时只合并或者过滤有序数组，其他节点的位置不变，
+ * 因此只有落在变化区间内的键会被重新分配。</p>
+ * <p>此类是线程安全的。哈希环是不可变的快照，选择节点时不加锁。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class ConsistentHashBaseUriProvider implements Function<HttpClientMetadata, String>, LoadBalanceFeedback {
+
+    /**
+     * 默认每个节点的虚拟节点数。
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    /**
+     * 默认的负载上限系数。
+     */
+    public static final double DEFAULT_LOAD_FACTOR = 1.25D;
+
+    private final int virtualNodes;
+
+    private final double loadFactor;
+
+    private final int failureThreshold;
+
+    private final long ejectionNanos;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private final Object mutationLock = new Object();
+
+    private volatile Ring ring = Ring.EMPTY;
+
+    public ConsistentHashBaseUriProvider(String... baseUris) {
+        this(baseUris == null ? null : Arrays.asList(baseUris), DEFAULT_VIRTUAL_NODES, DEFAULT_LOAD_FACTOR,
+                LoadBalancedBaseUriProvider.DEFAULT_FAILURE_THRESHOLD, LoadBalancedBaseUriProvider.DEFAULT_EJECTION_MILLIS);
+    }
+
+    /**
+     * 构造提供器。
+     *
+     * @param baseUris         节点的 baseUri，不能为空，不能重复
+     * @param virtualNodes     每个节点的虚拟节点数，必须大于0
+     * @param loadFactor       负载上限系数，必须大于等于1
+     * @param failureThreshold 连续失败多少次后剔除节点，必须大于0
+     * @param ejectionMillis   剔除的时长（毫秒），必须大于0
+     */
+    public ConsistentHashBaseUriProvider(Collection<String> baseUris, int virtualNodes, double loadFactor, int failureThreshold, long ejectionMillis) {
+        if (baseUris == null || baseUris.isEmpty()) {
+            throw new IllegalArgumentException("At least one base uri is required for consistent hash routing");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual nodes must be greater than 0");
+        }
+        if (!(loadFactor >= 1D)) {
+            throw new IllegalArgumentException("Load factor must be greater than or equal to 1");
+        }
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be greater than 0");
+        }
+        if (ejectionMillis <= 0) {
+            throw new IllegalArgumentException("Ejection duration must be greater than 0");
+        }
+        this.virtualNodes = virtualNodes;
+        this.loadFactor = loadFactor;
+        this.failureThreshold = failureThreshold;
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(ejectionMillis);
+        for (String baseUri : baseUris) {
+            if (!addEndpoint(baseUri)) {
+                throw new IllegalArgumentException("Duplicate base uri for consistent hash routing: " + baseUri);
+            }
+        }
+    }
+
+    @Override
+    public String apply(HttpClientMetadata metadata) {
+        return select(metadata == null ? null : metadata.getRoutingKey()).getBaseUri();
+    }
+
+    /**
+     * 为路由键选择节点。
+     *
+     * @param routingKey 路由键，null代表没有路由键
+     * @return 节点
+     */
+    public LoadBalancedEndpoint select(String routingKey) {
+        Ring r = ring;
+        LoadBalancedEndpoint[] endpoints = r.endpoints;
+        if (endpoints.length == 0) {
+            throw new IllegalStateException("No endpoint available for consistent hash routing");
+        }
+        if (endpoints.length == 1) {
+            return endpoints[0];
+        }
+        long now = System.nanoTime();
+        if (routingKey == null) {
+            int start = Math.floorMod(cursor.getAndIncrement(), endpoints.length);
+            for (int i = 0; i < endpoints.length; i++) {
+                LoadBalancedEndpoint endpoint = endpoints[(start + i) % endpoints.length];
+                if (!endpoint.isEjected(now)) {
+                    return endpoint;
+                }
+            }
+            return earliestRecovered(endpoints);
+        }
+
+        int totalInFlight = 0;
+        for (LoadBalancedEndpoint endpoint : endpoints) {
+            totalInFlight += endpoint.getInFlight();
+        }
+        // 加上本次请求之后的平均负载，乘以系数并向上取整
+        double capacity = Math.ceil(loadFactor * (totalInFlight + 1) / endpoints.length);
+
+        long[] hashes = r.hashes;
+        int start = Arrays.binarySearch(hashes, hash(routingKey));
+        if (start < 0) {
+            start = -start - 1;
+        }
+        LoadBalancedEndpoint overloaded = null;
+        for (int i = 0; i < hashes.length; i++) {
+            LoadBalancedEndpoint endpoint = r.owners[(start + i) % hashes.length];
+            if (endpoint.isEjected(now)) {
+                continue;
+            }
+            if (endpoint.getInFlight() + 1 <= capacity) {
+                return endpoint;
+            }
+            if (overloaded == null) {
+                overloaded = endpoint;
+            }
+        }
+        return overloaded != null ? overloaded : earliestRecovered(endpoints);
+    }
+
+    /**
+     * 加入节点。
+     *
+     * @param baseUri 节点的 baseUri
+     * @return 加入成功时返回true；节点已经存在时返回false
+     */
+    public boolean addEndpoint(String baseUri) {
+        if (baseUri == null || baseUri.isBlank()) {
+            throw new IllegalArgumentException("Base uri for consistent hash routing cannot be null or empty");
+        }
+        String trimmed = baseUri.trim();
+        synchronized (mutationLock) {
+            if (ring.nodes.containsKey(trimmed)) {
+                return false;
+            }
+            ring = ring.add(new Node(new LoadBalancedEndpoint(trimmed), virtualNodes));
+            return true;
+        }
+    }
+
+    /**
+     * 移除节点。
+     *
+     * @param baseUri 节点的 baseUri
+     * @return 移除成功时返回true；节点不存在时返回false
+     */
+    public boolean removeEndpoint(String baseUri) {
+        if (baseUri == null) {
+            return false;
+        }
+        synchronized (mutationLock) {
+            Node node = ring.nodes.get(baseUri.trim());
+            if (node == null) {
+                return false;
+            }
+            ring = ring.remove(node);
+            return true;
+        }
+    }
+
+    /**
+     * 将节点设定为指定的集合：移除不在集合中的节点，加入新的节点，已有节点及其统计数据保持不变。
+     *
+     * @param baseUris 节点的 baseUri
+     */
+    public void setEndpoints(Collection<String> baseUris) {
+        Objects.requireNonNull(baseUris);
+        Set<String> targets = new LinkedHashSet<>();
+        for (String baseUri : baseUris) {
+            if (baseUri == null || baseUri.isBlank()) {
+                throw new IllegalArgumentException("Base uri for consistent hash routing cannot be null or empty");
+            }
+            targets.add(baseUri.trim());
+        }
+        synchronized (mutationLock) {
+            for (String existing : new ArrayList<>(ring.nodes.keySet())) {
+                if (!targets.contains(existing)) {
+                    removeEndpoint(existing);
+                }
+            }
+            for (String target : targets) {
+                addEndpoint(target);
+            }
+        }
+    }
+
+    /**
+     * 获得所有的节点，可以用于观察各个节点的实时状态。
+     *
+     * @return 节点列表（不可修改）
+     */
+    public List<LoadBalancedEndpoint> getEndpoints() {
+        return List.of(ring.endpoints);
+    }
+
+    @Override
+    public void onRequestStarted(String baseUri) {
+        Node node = ring.nodes.get(baseUri);
+        if (node != null) {
+            node.endpoint.started();
+        }
+    }
+
+    @Override
+    public void onRequestCompleted(String baseUri, long elapsedNanos, boolean success) {
+        Node node = ring.nodes.get(baseUri);
+        if (node != null) {
+            node.endpoint.completed(elapsedNanos, success, failureThreshold, ejectionNanos);
+        }
+    }
+
+    private static LoadBalancedEndpoint earliestRecovered(LoadBalancedEndpoint[] endpoints) {
+        LoadBalancedEndpoint earliest = endpoints[0];
+        for (int i = 1; i < endpoints.length; i++) {
+            if (endpoints[i].getEjectedUntilNanos() - earliest.getEjectedUntilNanos() < 0) {
+                earliest = endpoints[i];
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * 64位哈希：对字符做 FNV-1a，再经过 MurmurHash3 的 fmix64 使其充分雪崩。直接处理字符，不需要编码为字节数组。
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 节点及其虚拟节点在环上的位置（有序）。
+     */
+    private static final class Node {
+
+        final LoadBalancedEndpoint endpoint;
+
+        final long[] hashes;
+
+        Node(LoadBalancedEndpoint endpoint, int virtualNodes) {
+            this.endpoint = endpoint;
+            this.hashes = new long[virtualNodes];
+            for (int i = 0; i < virtualNodes; i++) {
+                hashes[i] = hash(endpoint.getBaseUri() + "#" + i);
+            }
+            Arrays.sort(hashes);
+        }
+    }
+
+    /**
+     * 不可变的哈希环快照。
+     */
+    private static final class Ring {
+
+        static final Ring EMPTY = new Ring(new long[0], new LoadBalancedEndpoint[0], Collections.emptyMap());
+
+        final long[] hashes;
+
+        final LoadBalancedEndpoint[] owners;
+
+        final Map<String, Node> nodes;
+
+        final LoadBalancedEndpoint[] endpoints;
+
+        Ring(long[] hashes, LoadBalancedEndpoint[] owners, Map<String, Node> nodes) {
+            this.hashes = hashes;
+            this.owners = owners;
+            this.nodes = nodes;
+            this.endpoints = new LoadBalancedEndpoint[nodes.size()];
+            int i = 0;
+            for (Node node : nodes.values()) {
+                endpoints[i++] = node.endpoint;
+            }
+        }
+
+        /**
+         * 将新节点的有序位置与当前环归并，其他节点的位置不需要重新计算。
+         */
+        Ring add(Node node) {
+            int size = hashes.length + node.hashes.length;
+            long[] mergedHashes = new long[size];
+            LoadBalancedEndpoint[] mergedOwners = new LoadBalancedEndpoint[size];
+            int i = 0, j = 0, k = 0;
+            while (i < hashes.length || j < node.hashes.length) {
+                if (j >= node.hashes.length || (i < hashes.length && hashes[i] <= node.hashes[j])) {
+                    mergedHashes[k] = hashes[i];
+                    mergedOwners[k++] = owners[i++];
+                } else {
+                    mergedHashes[k] = node.hashes[j++];
+                    mergedOwners[k++] = node.endpoint;
+                }
+            }
+            Map<String, Node> newNodes = new LinkedHashMap<>(nodes);
+            newNodes.put(node.endpoint.getBaseUri(), node);
+            return new Ring(mergedHashes, mergedOwners, newNodes);
+        }
+
+        /**
+         * 过滤掉被移除节点的位置，剩余位置保持原有顺序。
+         */
+        Ring remove(Node node) {
+            int size = hashes.length - node.hashes.length;
+            long[] filteredHashes = new long[size];
+            LoadBalancedEndpoint[] filteredOwners = new LoadBalancedEndpoint[size];
+            int k = 0;
+            for (int i = 0; i < hashes.length; i++) {
+                if (owners[i] != node.endpoint) {
+                    filteredHashes[k] = hashes[i];
+                    filteredOwners[k++] = owners[i];
+                }
+            }
+            Map<String, Node> newNodes = new LinkedHashMap<>(nodes);
+            newNodes.remove(node.endpoint.getBaseUri());
+            return new Ring(filteredHashes, filteredOwners, newNodes);
+        }
+    }
+}
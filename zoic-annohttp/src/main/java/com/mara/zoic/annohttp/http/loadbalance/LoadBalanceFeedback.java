@@ -0,0 +1,29 @@
+package com.mara.zoic.annohttp.http.loadbalance;
+
+/**
+ * 请求结果的反馈接口。
+ * <p>如果 baseUri 提供器（{@link java.util.function.Function}&lt;HttpClientMetadata, String&gt;）同时实现了此接口，
+ * annohttp 会在使用其提供的 baseUri 发起请求时通知请求的开始与结束，提供器可以据此统计各个节点的负载与响应情况。</p>
+ * <p>请求从发送开始，到收到响应头（或者失败）为止，视为进行中。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public interface LoadBalanceFeedback {
+
+    /**
+     * 请求开始发送。
+     *
+     * @param baseUri 请求所使用的 baseUri（即提供器返回的值）
+     */
+    void onRequestStarted(String baseUri);
+
+    /**
+     * 请求结束。
+     *
+     * @param baseUri      请求所使用的 baseUri（即提供器返回的值）
+     * @param elapsedNanos 从开始发送到收到响应头（或者失败）的耗时，单位纳秒
+     * @param success      是否成功。发生IO异常或者响应码大于等于500时视为失败
+     */
+    void onRequestCompleted(String baseUri, long elapsedNanos, boolean success);
+}
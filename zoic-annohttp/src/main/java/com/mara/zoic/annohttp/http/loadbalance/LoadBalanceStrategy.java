@@ -0,0 +1,26 @@
+package com.mara.zoic.annohttp.http.loadbalance;
+
+/**
+ * 负载均衡的节点选择策略。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public enum LoadBalanceStrategy {
+
+    /**
+     * 轮询。依次选择每个可用节点。
+     */
+    ROUND_ROBIN,
+
+    /**
+     * 最少进行中请求。选择进行中请求数最少的节点，相同时选择平均响应时间（EWMA）更短的节点。
+     */
+    LEAST_OUTSTANDING,
+
+    /**
+     * 二选一（power of two choices）。随机选择两个可用节点，再选择其中负载（进行中请求数与平均响应时间的乘积）较低的一个。
+     * <p>选择的开销与节点数量无关，并且不会像 {@link #LEAST_OUTSTANDING} 那样让所有调用方同时涌向同一个节点。</p>
+     */
+    POWER_OF_TWO_CHOICES
+}
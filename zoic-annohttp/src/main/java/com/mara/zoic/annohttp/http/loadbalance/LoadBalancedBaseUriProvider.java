@@ -0,0 +1,200 @@
+package com.mara.zoic.annohttp.http.loadbalance;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 在多个节点之间进行客户端负载均衡的 baseUri 提供器。
+ * <p>可以直接传入 {@link com.mara.zoic.annohttp.http.AnnoHttpClients#create(Class, Function)}；
+ * 在 spring 中使用时，可以继承此类并提供无参构造器，然后设定到 {@link com.mara.zoic.annohttp.annotation.AnnoHttpService#baseUriFunctionClass()} 上。</p>
+ * <p>每个节点的进行中请求数、平均响应时间（EWMA）以及连续失败次数由 annohttp 在请求时实时反馈（见 {@link LoadBalanceFeedback}），
+ * 节点的选择方式见 {@link LoadBalanceStrategy}。连续失败达到阈值的节点会被暂时剔除，到期后自动恢复；所有节点都被剔除时，
+ * 选择最早恢复的节点，而不是直接拒绝请求。</p>
+ * <p>此类是线程安全的，选择节点时不加锁，也不产生对象。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class LoadBalancedBaseUriProvider implements Function<HttpClientMetadata, String>, LoadBalanceFeedback {
+
+    /**
+     * 默认的连续失败阈值。
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /**
+     * 默认的剔除时长（毫秒）。
+     */
+    public static final long DEFAULT_EJECTION_MILLIS = 30_000L;
+
+    private final LoadBalanceStrategy strategy;
+
+    private final LoadBalancedEndpoint[] endpoints;
+
+    private final Map<String, LoadBalancedEndpoint> endpointMap;
+
+    private final int failureThreshold;
+
+    private final long ejectionNanos;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public LoadBalancedBaseUriProvider(LoadBalanceStrategy strategy, String... baseUris) {
+        this(strategy, baseUris == null ? null : Arrays.asList(baseUris), DEFAULT_FAILURE_THRESHOLD, DEFAULT_EJECTION_MILLIS);
+    }
+
+    /**
+     * 构造提供器。
+     *
+     * @param strategy         节点选择策略
+     * @param baseUris         节点的 baseUri，不能为空，不能重复
+     * @param failureThreshold 连续失败多少次后剔除节点，必须大于0
+     * @param ejectionMillis   剔除的时长（毫秒），必须大于0
+     */
+    public LoadBalancedBaseUriProvider(LoadBalanceStrategy strategy, List<String> baseUris, int failureThreshold, long ejectionMillis) {
+        Objects.requireNonNull(strategy, "Load balance strategy cannot be null");
+        if (baseUris == null || baseUris.isEmpty()) {
+            throw new IllegalArgumentException("At least one base uri is required for load balancing");
+        }
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be greater than 0");
+        }
+        if (ejectionMillis <= 0) {
+            throw new IllegalArgumentException("Ejection duration must be greater than 0");
+        }
+        this.strategy = strategy;
+        this.failureThreshold = failureThreshold;
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(ejectionMillis);
+        this.endpoints = new LoadBalancedEndpoint[baseUris.size()];
+        Map<String, LoadBalancedEndpoint> map = new HashMap<>();
+        for (int i = 0; i < endpoints.length; i++) {
+            String baseUri = baseUris.get(i);
+            if (baseUri == null || baseUri.isBlank()) {
+                throw new IllegalArgumentException("Base uri for load balancing cannot be null or empty");
+            }
+            endpoints[i] = new LoadBalancedEndpoint(baseUri.trim());
+            if (map.put(endpoints[i].getBaseUri(), endpoints[i]) != null) {
+                throw new IllegalArgumentException("Duplicate base uri for load balancing: " + baseUri);
+            }
+        }
+        this.endpointMap = map;
+    }
+
+    @Override
+    public String apply(HttpClientMetadata metadata) {
+        return select().getBaseUri();
+    }
+
+    /**
+     * 按照策略选择一个节点。
+     *
+     * @return 节点
+     */
+    public LoadBalancedEndpoint select() {
+        if (endpoints.length == 1) {
+            return endpoints[0];
+        }
+        long now = System.nanoTime();
+        return switch (strategy) {
+            case ROUND_ROBIN -> selectRoundRobin(now);
+            case LEAST_OUTSTANDING -> selectLeastOutstanding(now);
+            case POWER_OF_TWO_CHOICES -> selectPowerOfTwoChoices(now);
+        };
+    }
+
+    /**
+     * 获得所有的节点，可以用于观察各个节点的实时状态。
+     *
+     * @return 节点列表（不可修改）
+     */
+    public List<LoadBalancedEndpoint> getEndpoints() {
+        return List.of(endpoints);
+    }
+
+    public LoadBalanceStrategy getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    public void onRequestStarted(String baseUri) {
+        LoadBalancedEndpoint endpoint = endpointMap.get(baseUri);
+        if (endpoint != null) {
+            endpoint.started();
+        }
+    }
+
+    @Override
+    public void onRequestCompleted(String baseUri, long elapsedNanos, boolean success) {
+        LoadBalancedEndpoint endpoint = endpointMap.get(baseUri);
+        if (endpoint != null) {
+            endpoint.completed(elapsedNanos, success, failureThreshold, ejectionNanos);
+        }
+    }
+
+    private LoadBalancedEndpoint selectRoundRobin(long now) {
+        int start = Math.floorMod(cursor.getAndIncrement(), endpoints.length);
+        for (int i = 0; i < endpoints.length; i++) {
+            LoadBalancedEndpoint endpoint = endpoints[(start + i) % endpoints.length];
+            if (!endpoint.isEjected(now)) {
+                return endpoint;
+            }
+        }
+        return earliestRecovered();
+    }
+
+    private LoadBalancedEndpoint selectLeastOutstanding(long now) {
+        // 每次从不同的位置开始比较，进行中请求数相同的节点之间也能均匀分布
+        int start = Math.floorMod(cursor.getAndIncrement(), endpoints.length);
+        LoadBalancedEndpoint best = null;
+        for (int i = 0; i < endpoints.length; i++) {
+            LoadBalancedEndpoint endpoint = endpoints[(start + i) % endpoints.length];
+            if (endpoint.isEjected(now)) {
+                continue;
+            }
+            if (best == null || endpoint.getInFlight() < best.getInFlight()
+                    || (endpoint.getInFlight() == best.getInFlight() && endpoint.getLatencyEwmaNanos() < best.getLatencyEwmaNanos())) {
+                best = endpoint;
+            }
+        }
+        return best == null ? earliestRecovered() : best;
+    }
+
+    private LoadBalancedEndpoint selectPowerOfTwoChoices(long now) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(endpoints.length);
+        int j = random.nextInt(endpoints.length - 1);
+        if (j >= i) {
+            j++;
+        }
+        LoadBalancedEndpoint a = endpoints[i];
+        LoadBalancedEndpoint b = endpoints[j];
+        boolean aEjected = a.isEjected(now);
+        boolean bEjected = b.isEjected(now);
+        if (aEjected && bEjected) {
+            // 两个都不可用时退化为完整扫描
+            return selectLeastOutstanding(now);
+        }
+        if (aEjected) {
+            return b;
+        }
+        if (bEjected) {
+            return a;
+        }
+        return a.score() <= b.score() ? a : b;
+    }
+
+    private LoadBalancedEndpoint earliestRecovered() {
+        LoadBalancedEndpoint earliest = endpoints[0];
+        for (int i = 1; i < endpoints.length; i++) {
+            if (endpoints[i].getEjectedUntilNanos() - earliest.getEjectedUntilNanos() < 0) {
+                earliest = endpoints[i];
+            }
+        }
+        return earliest;
+    }
+}
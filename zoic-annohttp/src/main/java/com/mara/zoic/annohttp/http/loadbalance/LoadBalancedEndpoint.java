@@ -0,0 +1,131 @@
+package com.mara.zoic.annohttp.http.loadbalance;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 参与负载均衡的节点及其实时统计数据。
+ * <p>所有的统计数据都是无锁更新的，读取到的值是近似的瞬时值。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class LoadBalancedEndpoint {
+
+    /**
+     * EWMA 的平滑系数，新样本所占的权重。
+     */
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final String baseUri;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 平均响应时间（纳秒）的 EWMA，以 double 的位模式存储。0 代表尚无样本。
+     */
+    private final AtomicLong latencyEwmaBits = new AtomicLong(Double.doubleToRawLongBits(0D));
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private volatile long ejectedUntilNanos;
+
+    private volatile boolean ejected;
+
+    LoadBalancedEndpoint(String baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    public String getBaseUri() {
+        return baseUri;
+    }
+
+    /**
+     * 获得进行中的请求数。
+     *
+     * @return 进行中的请求数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 获得平均响应时间（EWMA）。
+     *
+     * @return 平均响应时间，单位纳秒；尚无样本时返回0
+     */
+    public double getLatencyEwmaNanos() {
+        return Double.longBitsToDouble(latencyEwmaBits.get());
+    }
+
+    /**
+     * 获得连续失败的次数。
+     *
+     * @return 连续失败的次数
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    /**
+     * 是否处于被剔除的状态。
+     *
+     * @return 被剔除时返回true
+     */
+    public boolean isEjected() {
+        return isEjected(System.nanoTime());
+    }
+
+    boolean isEjected(long nowNanos) {
+        // 绝大多数时候节点都是可用的，先检查标记，避免比较时间
+        return ejected && nowNanos - ejectedUntilNanos < 0;
+    }
+
+    long getEjectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    /**
+     * 计算负载分数，越小越好。没有样本时只考虑进行中的请求数。
+     */
+    double score() {
+        double ewma = getLatencyEwmaNanos();
+        return (inFlight.get() + 1) * (ewma <= 0 ? 1D : ewma);
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    void completed(long elapsedNanos, boolean success, int failureThreshold, long ejectionNanos) {
+        inFlight.decrementAndGet();
+        updateLatency(elapsedNanos);
+        if (success) {
+            if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+            ejected = false;
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            consecutiveFailures.set(0);
+            ejectedUntilNanos = System.nanoTime() + ejectionNanos;
+            ejected = true;
+        }
+    }
+
+    private void updateLatency(long elapsedNanos) {
+        while (true) {
+            long bits = latencyEwmaBits.get();
+            double current = Double.longBitsToDouble(bits);
+            double next = current <= 0 ? elapsedNanos : current + EWMA_ALPHA * (elapsedNanos - current);
+            if (latencyEwmaBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancedEndpoint{baseUri='" + baseUri + "', inFlight=" + getInFlight()
+                + ", latencyEwmaNanos=" + (long) getLatencyEwmaNanos() + ", ejected=" + isEjected() + "}";
+    }
+}
@@ -0,0 +1,166 @@
+package com.mara.zoic.annohttp.http.pool;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接池监视器：定时关闭过期与空闲的连接，并提供连接池的统计。
+ * <p>服务端通常会关闭长时间空闲的 keep-alive 连接，如果客户端不及时清理，安静一段时间之后的第一个请求可能拿到已经失效的连接而失败或者重试。
+ * 所有被监视的连接池共享一个守护线程，每个连接池按照自己的间隔清理。</p>
+ * <p>连接池只被弱引用，未被关闭但已经不再使用的连接池会在被回收后自动移除；
+ * {@link com.mara.zoic.annohttp.http.proxy.ProxyAwareConnectionManager} 在关闭时会立即移除自己。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class ConnectionPoolMonitor {
+
+    /**
+     * 默认的清理间隔（秒）。
+     */
+    public static final int DEFAULT_EVICTION_INTERVAL_SECONDS = 5;
+
+    /**
+     * 默认的最长空闲时间（秒），空闲超过此时间的连接会被关闭。
+     */
+    public static final int DEFAULT_MAX_IDLE_SECONDS = 10;
+
+    /**
+     * 默认的空闲校验时间（秒），连接空闲超过此时间后再次使用前会先检查是否仍然可用。
+     */
+    public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY_SECONDS = 2;
+
+    private static final Map<PoolingHttpClientConnectionManager, Monitored> POOLS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER;
+
+    static {
+        SCHEDULER = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "annohttp-pool-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    private ConnectionPoolMonitor() {
+    }
+
+    /**
+     * 开始监视连接池。重复监视同一个连接池时以最后一次的设定为准。
+     *
+     * @param name              名称，用于区分统计
+     * @param connectionManager 连接池
+     * @param evictionInterval  清理间隔
+     * @param maxIdle           最长空闲时间
+     */
+    public static void monitor(String name, PoolingHttpClientConnectionManager connectionManager, TimeValue evictionInterval, TimeValue maxIdle) {
+        if (connectionManager == null) {
+            throw new IllegalArgumentException("Connection manager cannot be null");
+        }
+        if (!TimeValue.isPositive(evictionInterval)) {
+            throw new IllegalArgumentException("Eviction interval must be positive");
+        }
+        if (maxIdle == null || maxIdle.getDuration() < 0) {
+            throw new IllegalArgumentException("Max idle time cannot be null or negative");
+        }
+        Monitored monitored = new Monitored(name, connectionManager, maxIdle);
+        monitored.future = SCHEDULER.scheduleWithFixedDelay(monitored::evict, evictionInterval.toMilliseconds(),
+                evictionInterval.toMilliseconds(), TimeUnit.MILLISECONDS);
+        Monitored previous = POOLS.put(connectionManager, monitored);
+        if (previous != null) {
+            previous.future.cancel(false);
+        }
+    }
+
+    /**
+     * 停止监视连接池。
+     *
+     * @param connectionManager 连接池
+     */
+    public static void unmonitor(PoolingHttpClientConnectionManager connectionManager) {
+        Monitored monitored = POOLS.remove(connectionManager);
+        if (monitored != null) {
+            monitored.future.cancel(false);
+        }
+    }
+
+    /**
+     * 立即清理所有被监视的连接池。
+     */
+    public static void evictAll() {
+        List<Monitored> monitoredList;
+        synchronized (POOLS) {
+            monitoredList = new ArrayList<>(POOLS.values());
+        }
+        monitoredList.forEach(Monitored::evict);
+    }
+
+    /**
+     * 获得所有被监视的连接池的统计。
+     *
+     * @return 统计的快照
+     */
+    public static List<ConnectionPoolStats> getStats() {
+        Map<PoolingHttpClientConnectionManager, Monitored> pools;
+        synchronized (POOLS) {
+            pools = new LinkedHashMap<>(POOLS);
+        }
+        List<ConnectionPoolStats> result = new ArrayList<>(pools.size());
+        pools.forEach((connectionManager, monitored) -> result.add(getStats(monitored.name, connectionManager)));
+        return result;
+    }
+
+    /**
+     * 获得指定连接池的统计，连接池可以未被监视。
+     *
+     * @param name              名称
+     * @param connectionManager 连接池
+     * @return 统计的快照
+     */
+    public static ConnectionPoolStats getStats(String name, PoolingHttpClientConnectionManager connectionManager) {
+        Map<String, PoolStats> routes = new LinkedHashMap<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            routes.put(route.toString(), connectionManager.getStats(route));
+        }
+        return new ConnectionPoolStats(name, connectionManager.getTotalStats(), routes);
+    }
+
+    private static final class Monitored {
+
+        private final String name;
+        // 弱引用，避免定时任务阻止连接池被回收
+        private final WeakReference<PoolingHttpClientConnectionManager> connectionManager;
+        private final TimeValue maxIdle;
+        private volatile ScheduledFuture<?> future;
+
+        private Monitored(String name, PoolingHttpClientConnectionManager connectionManager, TimeValue maxIdle) {
+            this.name = name;
+            this.connectionManager = new WeakReference<>(connectionManager);
+            this.maxIdle = maxIdle;
+        }
+
+        private void evict() {
+            PoolingHttpClientConnectionManager cm = connectionManager.get();
+            if (cm == null) {
+                future.cancel(false);
+                return;
+            }
+            cm.closeExpired();
+            cm.closeIdle(maxIdle);
+        }
+    }
+}
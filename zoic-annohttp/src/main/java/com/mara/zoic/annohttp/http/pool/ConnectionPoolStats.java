@@ -0,0 +1,71 @@
+package com.mara.zoic.annohttp.http.pool;
+
+import org.apache.hc.core5.pool.PoolStats;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 连接池统计的快照：整个连接池以及每个路由的租用中、等待中与可用的连接数。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class ConnectionPoolStats {
+
+    private final String name;
+    private final PoolStats total;
+    private final Map<String, PoolStats> routes;
+
+    ConnectionPoolStats(String name, PoolStats total, Map<String, PoolStats> routes) {
+        this.name = name;
+        this.total = total;
+        this.routes = Collections.unmodifiableMap(routes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获得租用中的连接数。
+     */
+    public int getLeased() {
+        return total.getLeased();
+    }
+
+    /**
+     * 获得等待连接的请求数。
+     */
+    public int getPending() {
+        return total.getPending();
+    }
+
+    /**
+     * 获得池中可用（空闲）的连接数。
+     */
+    public int getAvailable() {
+        return total.getAvailable();
+    }
+
+    /**
+     * 获得最大连接数。
+     */
+    public int getMax() {
+        return total.getMax();
+    }
+
+    /**
+     * 获得每个路由的统计。
+     *
+     * @return 以路由的字符串形式为键的只读统计
+     */
+    public Map<String, PoolStats> getRoutes() {
+        return routes;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{total=" + total + ", routes=" + routes + "}";
+    }
+}
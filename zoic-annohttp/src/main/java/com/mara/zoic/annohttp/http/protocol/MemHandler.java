@@ -0,0 +1,29 @@
+package com.mara.zoic.annohttp.http.protocol;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+
+/**
+ * 进程内（mem://）服务的请求处理器。
+ * <p>处理器在调用方的线程上直接执行，请求不经过套接字，请求头以对象的形式传递。需要原始的请求参数对象时，
+ * 可以通过 {@link HttpClientMetadata#getRequestMethodArguments()} 直接获得，不需要反序列化请求体；
+ * 响应可以使用 {@link MemTransport#objectResponse(int, Object)} 直接携带 Java 对象，返回类型匹配时不会经过序列化。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see MemTransport#register(String, MemHandler)
+ */
+@FunctionalInterface
+public interface MemHandler {
+
+    /**
+     * 处理请求。
+     *
+     * @param request  请求
+     * @param metadata 调用方的客户端元数据
+     * @return 响应，不能是null
+     * @throws Exception 处理失败，将被当作请求失败处理
+     */
+    ClassicHttpResponse handle(ClassicHttpRequest request, HttpClientMetadata metadata) throws Exception;
+}
@@ -0,0 +1,28 @@
+package com.mara.zoic.annohttp.http.protocol;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import com.mara.zoic.annohttp.http.PreparingRequest;
+
+/**
+ * 进程内协议（mem://）的处理器，请求交由 {@link MemTransport} 在本进程内分发。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class MemProtocolHandler implements ProtocolHandler {
+
+    @Override
+    public String protocol() {
+        return MemTransport.SCHEME;
+    }
+
+    @Override
+    public void handle(HttpClientMetadata metadata, PreparingRequest<?> preparingRequest) {
+
+    }
+
+    @Override
+    public Transport transport() {
+        return MemTransport.INSTANCE;
+    }
+}
@@ -0,0 +1,96 @@
+package com.mara.zoic.annohttp.http.protocol;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.net.URIAuthority;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内传输：<code>mem://{service}/path</code> 形式的请求被直接分发给以 service 为名注册的 {@link MemHandler}，
+ * 不经过套接字与连接池，也不需要序列化请求头。
+ * <p>适用于同一个进程内部署的多个模块之间的调用（调用方仍然使用同样的注解接口，部署方式改变时只需要修改 baseUri），
+ * 以及在排除网络开销的情况下测量 annohttp 本身的开销。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class MemTransport implements Transport {
+
+    public static final String SCHEME = "mem";
+
+    static final MemTransport INSTANCE = new MemTransport();
+
+    private static final Map<String, MemHandler> HANDLERS = new ConcurrentHashMap<>();
+
+    private MemTransport() {
+    }
+
+    /**
+     * 注册进程内服务。
+     *
+     * @param service 服务名，即 mem:// 之后的主机部分
+     * @param handler 处理器
+     * @throws IllegalArgumentException 服务名已经被注册
+     */
+    public static void register(String service, MemHandler handler) {
+        Objects.requireNonNull(service);
+        Objects.requireNonNull(handler);
+        if (HANDLERS.putIfAbsent(service, handler) != null) {
+            throw new IllegalArgumentException("In-process service `" + service + "` is already registered");
+        }
+    }
+
+    /**
+     * 注销进程内服务。
+     *
+     * @param service 服务名
+     * @return 被注销的处理器；不存在时返回null
+     */
+    public static MemHandler unregister(String service) {
+        return HANDLERS.remove(service);
+    }
+
+    /**
+     * 创建直接携带对象的响应。
+     *
+     * @param statusCode 响应码
+     * @param body       响应体对象，可以是null（代表没有响应体）
+     * @return 响应
+     * @see ObjectEntity
+     */
+    public static ClassicHttpResponse objectResponse(int statusCode, Object body) {
+        BasicClassicHttpResponse response = new BasicClassicHttpResponse(statusCode);
+        if (body != null) {
+            response.setEntity(new ObjectEntity(body));
+        }
+        return response;
+    }
+
+    @Override
+    public ClassicHttpResponse execute(ClassicHttpRequest request, HttpClientMetadata metadata) throws IOException {
+        URIAuthority authority = request.getAuthority();
+        String service = authority == null ? null : authority.getHostName();
+        MemHandler handler = service == null ? null : HANDLERS.get(service);
+        if (handler == null) {
+            throw new IOException("No in-process service registered for " + SCHEME + "://" + service);
+        }
+        ClassicHttpResponse response;
+        try {
+            response = handler.handle(request, metadata);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("In-process service `" + service + "` failed", e);
+        }
+        if (response == null) {
+            throw new IOException("In-process service `" + service + "` returned no response");
+        }
+        return response;
+    }
+}
@@ -0,0 +1,96 @@
+package com.mara.zoic.annohttp.http.protocol;
+
+import com.mara.zoic.annohttp.http.JacksonComponentHolder;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 直接携带 Java 对象的实体，用于进程内传输。
+ * <p>返回类型是非泛型的类、可以直接接收所携带的对象并且没有指定响应转换器时，annohttp 直接返回该对象，不经过序列化与反序列化；
+ * 否则在第一次读取时将对象序列化（字符串按照 UTF-8 编码，字节数组原样输出，其余对象序列化为 JSON）。请求结束时不会消费该实体。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class ObjectEntity extends AbstractHttpEntity {
+
+    private final Object object;
+
+    private byte[] serialized;
+
+    public ObjectEntity(Object object) {
+        super(contentTypeOf(object), null);
+        this.object = object;
+    }
+
+    /**
+     * 获得所携带的对象。
+     *
+     * @return 对象，可以是null
+     */
+    public Object getObject() {
+        return object;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new ByteArrayInputStream(serialize());
+    }
+
+    @Override
+    public long getContentLength() {
+        try {
+            return serialize().length;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    /**
+     * 内置的响应体转换器只处理流式的实体，这里与网络响应保持一致。
+     */
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private byte[] serialize() throws IOException {
+        byte[] bytes = serialized;
+        if (bytes == null) {
+            if (object instanceof byte[] b) {
+                bytes = b;
+            } else if (object instanceof CharSequence s) {
+                bytes = s.toString().getBytes(StandardCharsets.UTF_8);
+            } else {
+                bytes = JacksonComponentHolder.writeValueAsBytes(JacksonComponentHolder.getJsonMapper(false, true, false, false), object);
+            }
+            serialized = bytes;
+        }
+        return bytes;
+    }
+
+    private static ContentType contentTypeOf(Object object) {
+        if (object instanceof byte[]) {
+            return ContentType.APPLICATION_OCTET_STREAM;
+        }
+        if (object instanceof CharSequence) {
+            return ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8);
+        }
+        return ContentType.APPLICATION_JSON;
+    }
+}
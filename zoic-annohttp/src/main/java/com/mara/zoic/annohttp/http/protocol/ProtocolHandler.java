@@ -2,6 +2,8 @@ package com.mara.zoic.annohttp.http.protocol;
 
 import com.mara.zoic.annohttp.http.HttpClientMetadata;
 import com.mara.zoic.annohttp.http.PreparingRequest;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpHost;
 
 public interface ProtocolHandler {
 
@@ -19,4 +21,25 @@ public interface ProtocolHandler {
      * @param preparingRequest 已经生成好的 {@link PreparingRequest} 对象，在其上面可以进行很多自定义的操作
      */
     void handle(HttpClientMetadata metadata, PreparingRequest<?> preparingRequest);
+
+    /**
+     * 返回此协议使用的传输层。
+     * <p>返回null时请求经由基于套接字的 HttpClient 发送（HTTP/HTTPS）；否则请求直接交给返回的 {@link Transport} 执行。</p>
+     *
+     * @return 传输层，默认是null
+     */
+    default Transport transport() {
+        return null;
+    }
+
+    /**
+     * 返回请求实际要连接的目标主机，在请求即将经由 HttpClient 发送时调用。
+     * <p>返回null时由 HttpClient 按照请求的URI决定；协议可以借此改写请求并指定专用的路由（例如 unix:// 将套接字文件的路径从URI中移出）。</p>
+     *
+     * @param request 即将发送的请求
+     * @return 目标主机，默认是null
+     */
+    default HttpHost target(ClassicHttpRequest request) {
+        return null;
+    }
 }
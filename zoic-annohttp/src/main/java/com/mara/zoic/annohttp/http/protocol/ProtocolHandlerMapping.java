@@ -8,7 +8,7 @@ public class ProtocolHandlerMapping {
     private static final Map<String, ProtocolHandler> MAPPINGS = new ConcurrentHashMap<>();
 
     static {
-        addMappings(new HttpProtocolHandler());
+        addMappings(new HttpProtocolHandler(), new MemProtocolHandler(), new UnixProtocolHandler());
     }
 
     public static void addMappings(ProtocolHandler... protocolHandler) {
@@ -0,0 +1,28 @@
+package com.mara.zoic.annohttp.http.protocol;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * 传输层，负责将已经构建好的请求发送出去并获得响应。由 {@link ProtocolHandler#transport()} 提供。
+ * <p>请求头、请求体、请求配置等已经全部填充到请求中；返回的响应会经过与 HTTP 相同的处理流程（visitor、successCondition、响应转换等）。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+@FunctionalInterface
+public interface Transport {
+
+    /**
+     * 执行请求。
+     *
+     * @param request  请求
+     * @param metadata 客户端元数据
+     * @return 响应，响应体在使用完毕后会被关闭
+     * @throws IOException 请求失败
+     */
+    ClassicHttpResponse execute(ClassicHttpRequest request, HttpClientMetadata metadata) throws IOException;
+}
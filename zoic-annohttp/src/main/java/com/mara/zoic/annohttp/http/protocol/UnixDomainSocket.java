@@ -0,0 +1,320 @@
+package com.mara.zoic.annohttp.http.protocol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * 将 Unix 域套接字（JDK 16+ 的 {@link SocketChannel}）适配为 {@link java.net.Socket}，供 HttpClient 的连接使用。
+ * <p>Unix 域套接字的通道不支持 {@link SocketChannel#socket()}，因此这里自行实现流与超时：通道连接后处于非阻塞模式，
+ * 读写在没有数据（或者缓冲区已满）时通过 {@link Selector} 等待，读取的等待时间受 {@link #setSoTimeout(int)} 限制，
+ * 这也是 HttpClient 检测连接是否失效所依赖的行为。</p>
+ * <p>TCP 相关的选项（TCP_NODELAY、SO_LINGER 等）对 Unix 域套接字没有意义，设置时会被忽略。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+final class UnixDomainSocket extends java.net.Socket {
+
+    private SocketChannel channel;
+    private Selector selector;
+    private SelectionKey key;
+    private UnixDomainSocketAddress remoteAddress;
+    private volatile int soTimeout;
+    private volatile boolean closed;
+    private InputStream inputStream;
+    private OutputStream outputStream;
+
+    @Override
+    public void connect(SocketAddress endpoint) throws IOException {
+        connect(endpoint, 0);
+    }
+
+    @Override
+    public synchronized void connect(SocketAddress endpoint, int timeout) throws IOException {
+        if (!(endpoint instanceof UnixDomainSocketAddress address)) {
+            throw new IllegalArgumentException("Unsupported address type: " + endpoint);
+        }
+        if (closed) {
+            throw new SocketException("Socket is closed");
+        }
+        if (channel != null) {
+            throw new SocketException("Already connected");
+        }
+        // 本地套接字的连接是立即完成的（或者立即失败），不需要处理连接超时
+        SocketChannel ch = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            ch.connect(address);
+            ch.configureBlocking(false);
+            selector = Selector.open();
+            key = ch.register(selector, 0);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            if (selector != null) {
+                selector.close();
+            }
+            throw e;
+        }
+        channel = ch;
+        remoteAddress = address;
+        inputStream = new ChannelInputStream();
+        outputStream = new ChannelOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        checkConnected();
+        return inputStream;
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        checkConnected();
+        return outputStream;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            if (selector != null) {
+                selector.close();
+            }
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return channel != null;
+    }
+
+    @Override
+    public boolean isBound() {
+        return channel != null;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean isInputShutdown() {
+        return closed;
+    }
+
+    @Override
+    public boolean isOutputShutdown() {
+        return closed;
+    }
+
+    @Override
+    public void shutdownInput() throws IOException {
+        checkConnected();
+        channel.shutdownInput();
+    }
+
+    @Override
+    public void shutdownOutput() throws IOException {
+        checkConnected();
+        channel.shutdownOutput();
+    }
+
+    @Override
+    public SocketAddress getRemoteSocketAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        return null;
+    }
+
+    @Override
+    public void setSoTimeout(int timeout) throws SocketException {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout can't be negative");
+        }
+        soTimeout = timeout;
+    }
+
+    @Override
+    public int getSoTimeout() {
+        return soTimeout;
+    }
+
+    @Override
+    public void setTcpNoDelay(boolean on) {
+    }
+
+    @Override
+    public boolean getTcpNoDelay() {
+        return false;
+    }
+
+    @Override
+    public void setSoLinger(boolean on, int linger) {
+    }
+
+    @Override
+    public int getSoLinger() {
+        return -1;
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) {
+    }
+
+    @Override
+    public boolean getKeepAlive() {
+        return false;
+    }
+
+    @Override
+    public void setReuseAddress(boolean on) {
+    }
+
+    @Override
+    public boolean getReuseAddress() {
+        return false;
+    }
+
+    @Override
+    public void setSendBufferSize(int size) {
+    }
+
+    @Override
+    public void setReceiveBufferSize(int size) {
+    }
+
+    @Override
+    public String toString() {
+        return "UnixDomainSocket[" + (remoteAddress == null ? "unconnected" : remoteAddress.getPath()) + "]";
+    }
+
+    private void checkConnected() throws SocketException {
+        if (closed) {
+            throw new SocketException("Socket is closed");
+        }
+        if (channel == null) {
+            throw new SocketException("Socket is not connected");
+        }
+    }
+
+    /**
+     * 等待通道就绪。
+     *
+     * @param ops     等待的事件
+     * @param timeout 最长等待时间（毫秒），0表示一直等待
+     * @return 超时时返回false
+     */
+    private boolean await(int ops, int timeout) throws IOException {
+        // 被其他线程关闭（例如截止时间到达时取消请求）时，选择器会被唤醒，之后的操作以 SocketException 结束
+        try {
+            synchronized (selector) {
+                key.interestOps(ops);
+                try {
+                    int selected = timeout > 0 ? selector.select(timeout) : selector.select();
+                    selector.selectedKeys().clear();
+                    return selected > 0;
+                } finally {
+                    if (key.isValid()) {
+                        key.interestOps(0);
+                    }
+                }
+            }
+        } catch (ClosedSelectorException | CancelledKeyException e) {
+            throw new SocketException("Socket is closed");
+        }
+    }
+
+    private final class ChannelInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            checkConnected();
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            int timeout = soTimeout;
+            long deadline = timeout > 0 ? System.nanoTime() + timeout * 1_000_000L : 0L;
+            while (true) {
+                int n = channel.read(buffer);
+                if (n != 0) {
+                    return n;
+                }
+                int wait = timeout;
+                if (timeout > 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException("Read timed out");
+                    }
+                    wait = (int) Math.max(1L, remaining / 1_000_000L);
+                }
+                if (!await(SelectionKey.OP_READ, wait) && timeout > 0 && deadline - System.nanoTime() <= 0) {
+                    throw new SocketTimeoutException("Read timed out");
+                }
+            }
+        }
+
+        @Override
+        public int available() throws IOException {
+            return 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            UnixDomainSocket.this.close();
+        }
+    }
+
+    private final class ChannelOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkConnected();
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    await(SelectionKey.OP_WRITE, 0);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            UnixDomainSocket.this.close();
+        }
+    }
+}
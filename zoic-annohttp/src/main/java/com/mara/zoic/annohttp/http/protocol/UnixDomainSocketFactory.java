@@ -0,0 +1,44 @@
+package com.mara.zoic.annohttp.http.protocol;
+
+import com.mara.zoic.annohttp.http.trace.SpanPhase;
+import com.mara.zoic.annohttp.http.trace.Tracing;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnixDomainSocketAddress;
+
+/**
+ * 用于 Unix 域套接字（unix://）的连接套接字工厂，以 {@link UnixProtocolHandler#SCHEME} 注册到连接管理器中。
+ * <p>目标主机的主机名就是套接字文件的路径（由 {@link UnixProtocolHandler} 设定），因此连接池会按照套接字文件区分路由，
+ * 连接的复用、空闲回收等与普通的 HTTP 连接完全相同。</p>
+ * <p>使用自定义的 HttpClientBuilder 时，如果需要支持 unix://，请在其连接管理器中注册此工厂。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class UnixDomainSocketFactory implements ConnectionSocketFactory {
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+        return new UnixDomainSocket();
+    }
+
+    @Override
+    public Socket connectSocket(TimeValue connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                InetSocketAddress localAddress, HttpContext context) throws IOException {
+        Socket sock = socket instanceof UnixDomainSocket ? socket : new UnixDomainSocket();
+        try {
+            sock.connect(UnixDomainSocketAddress.of(host.getHostName()));
+        } catch (IOException e) {
+            sock.close();
+            throw e;
+        }
+        Tracing.event(context, SpanPhase.CONNECT);
+        return sock;
+    }
+}
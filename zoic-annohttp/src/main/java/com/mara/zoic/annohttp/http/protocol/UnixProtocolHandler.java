@@ -0,0 +1,82 @@
+package com.mara.zoic.annohttp.http.protocol;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import com.mara.zoic.annohttp.http.PreparingRequest;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.net.URIAuthority;
+
+import java.net.InetAddress;
+
+/**
+ * Unix 域套接字协议（unix://）的处理器，用于和本机的 sidecar 等进程通信，省去 TCP 协议栈的开销。
+ * <p>URI 的路径中同时包含套接字文件的路径与请求的路径，按照以下规则拆分：</p>
+ * <ol>
+ *     <li>包含 <code>:</code> 时，之前的部分是套接字文件，之后的部分是请求路径，例如 <code>unix:///var/run/sidecar:/api/users</code>；</li>
+ *     <li>否则以第一个以 <code>.sock</code> 或者 <code>.socket</code> 结尾的路径段为套接字文件，例如 <code>unix:///var/run/sidecar.sock/api/users</code>；</li>
+ *     <li>否则整个路径都是套接字文件，请求路径为 <code>/</code>。</li>
+ * </ol>
+ * <p>请求以 HTTP/1.1 发送，Host 请求头为 <code>localhost</code>；连接由 {@link UnixDomainSocketFactory} 建立，与普通的路由一样被池化。
+ * 代理与 HTTP/2 的设置对此协议无效。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class UnixProtocolHandler implements ProtocolHandler {
+
+    public static final String SCHEME = "unix";
+
+    private static final String[] SOCKET_SUFFIXES = {".sock", ".socket"};
+
+    private static final URIAuthority LOCALHOST = new URIAuthority("localhost");
+
+    @Override
+    public String protocol() {
+        return SCHEME;
+    }
+
+    @Override
+    public void handle(HttpClientMetadata metadata, PreparingRequest<?> preparingRequest) {
+
+    }
+
+    @Override
+    public HttpHost target(ClassicHttpRequest request) {
+        // 对于 unix:///a/b，请求的 path 中包含路径与查询参数（原始的、未解码的形式）
+        String rawPath = request.getPath();
+        int queryStart = rawPath.indexOf('?');
+        String path = queryStart < 0 ? rawPath : rawPath.substring(0, queryStart);
+        int split = splitIndex(path);
+        String socketPath = path.substring(0, split);
+        if (socketPath.isEmpty() || "/".equals(socketPath)) {
+            throw new IllegalArgumentException("No unix domain socket path in uri: " + SCHEME + "://" + rawPath);
+        }
+        String requestPath = split < path.length() && path.charAt(split) == ':' ? path.substring(split + 1) : path.substring(split);
+        if (!requestPath.startsWith("/")) {
+            requestPath = "/" + requestPath;
+        }
+        request.setScheme("http");
+        request.setAuthority(LOCALHOST);
+        request.setPath(queryStart < 0 ? requestPath : requestPath + rawPath.substring(queryStart));
+        // 指定地址以跳过 DNS 解析，指定端口以跳过默认端口的解析，实际连接时只使用主机名（套接字文件的路径）
+        return new HttpHost(SCHEME, InetAddress.getLoopbackAddress(), socketPath, 80);
+    }
+
+    private static int splitIndex(String path) {
+        int colon = path.indexOf(':');
+        if (colon >= 0) {
+            return colon;
+        }
+        int segmentEnd = 0;
+        while (segmentEnd < path.length()) {
+            int next = path.indexOf('/', segmentEnd + 1);
+            segmentEnd = next < 0 ? path.length() : next;
+            for (String suffix : SOCKET_SUFFIXES) {
+                if (path.startsWith(suffix, segmentEnd - suffix.length())) {
+                    return segmentEnd;
+                }
+            }
+        }
+        return path.length();
+    }
+}
@@ -71,6 +71,7 @@ class DefaultRequestProxy implements RequestProxy {
         this.domain = domain;
         this.workstation = workstation;
         this.proxyCredentialType = proxyCredentialType;
+        this.bearerToken = bearerToken;
     }
 
     @Override
@@ -1,19 +1,23 @@
 package com.mara.zoic.annohttp.http.proxy;
 
 import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
 
 /**
  * 带有代理设置的HTTP客户端上下文。
  * <p>这个类需要配合HttpConnectionSocketFactory和HttpsConnectionSocketFactory使用。</p>
+ * <p>上下文的 user token 会被设定为代理的标识（{@link RequestProxyKey}），连接池据此为每个代理单独复用连接。</p>
  *
  * @author Mara.X.Ma
  * @since 1.0.0 2022-07-08
  */
 public class HttpClientProxyContext extends HttpClientContext {
 
+    private static final String REQUEST_PROXY_ID = RequestProxy.class.getName();
+
     public HttpClientProxyContext(RequestProxy requestProxy) {
         super();
-        this.requestProxy = requestProxy;
+        setRequestProxy(requestProxy);
     }
 
     private RequestProxy requestProxy;
@@ -24,6 +28,24 @@ public class HttpClientProxyContext extends HttpClientContext {
 
     public void setRequestProxy(RequestProxy requestProxy) {
         this.requestProxy = requestProxy;
+        setUserToken(RequestProxyKey.of(requestProxy));
+    }
+
+    /**
+     * 获得上下文中的代理：优先使用 {@link HttpClientProxyContext} 中的代理，其次使用以 {@link RequestProxy} 的类名为键的属性。
+     *
+     * @param context 上下文
+     * @return 代理；不存在时返回null
+     */
+    public static RequestProxy getRequestProxy(HttpContext context) {
+        RequestProxy requestProxy = null;
+        if (context instanceof HttpClientProxyContext) {
+            requestProxy = ((HttpClientProxyContext) context).getRequestProxy();
+        }
+        if (requestProxy == null && context != null) {
+            requestProxy = (RequestProxy) context.getAttribute(REQUEST_PROXY_ID);
+        }
+        return requestProxy;
     }
 
 }
@@ -6,11 +6,8 @@ import java.net.InetSocketAddress;
 import java.net.Proxy;
 import java.net.Socket;
 
-import org.apache.hc.client5.http.auth.AuthScope;
-import org.apache.hc.client5.http.auth.BearerToken;
-import org.apache.hc.client5.http.auth.NTCredentials;
-import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
-import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+import com.mara.zoic.annohttp.http.trace.SpanPhase;
+import com.mara.zoic.annohttp.http.trace.Tracing;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
 import org.apache.hc.core5.http.HttpHost;
@@ -28,13 +25,12 @@ import org.slf4j.LoggerFactory;
 @SuppressWarnings("deprecation")
 public class HttpConnectionSocketFactory extends PlainConnectionSocketFactory {
 
-    private static final String REQUEST_PROXY_ID = RequestProxy.class.getName();
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpConnectionSocketFactory.class);
 
 	@Override
     public Socket createSocket(HttpContext context) throws IOException {
         Socket socket;
-        RequestProxy requestProxy = getRequestProxy(context);
+        RequestProxy requestProxy = HttpClientProxyContext.getRequestProxy(context);
         if (requestProxy != null && requestProxy.getProxyType() == RequestProxy.ProxyType.SOCKS) {
             // 这里指只处理SOCKS类型的代理
             // 关于HTTP类型的代理由RequestRoutePlanner处理
@@ -42,19 +38,8 @@ public class HttpConnectionSocketFactory extends PlainConnectionSocketFactory {
                 LOGGER.debug("Using proxy: " + requestProxy);
             }
             if (requestProxy.withCredential()) {
-                HttpClientContext httpClientContext = (HttpClientContext) context;
-                BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-                if (requestProxy.getProxyCredentialType() == RequestProxy.ProxyCredentialType.USERNAME_PASSWORD) {
-                    credentialsProvider.setCredentials(new AuthScope(requestProxy.getHost(), requestProxy.getPort()),
-                            new UsernamePasswordCredentials(requestProxy.getUserName(), requestProxy.getPassword().toCharArray()));
-                } else if (requestProxy.getProxyCredentialType() == RequestProxy.ProxyCredentialType.WINDOWS_NT) {
-                    credentialsProvider.setCredentials(new AuthScope(requestProxy.getHost(), requestProxy.getPort()),
-                            new NTCredentials(requestProxy.getUserName(), requestProxy.getPassword().toCharArray(), requestProxy.getWorkstation(), requestProxy.getDomain()));
-                } else if (requestProxy.getProxyCredentialType() == RequestProxy.ProxyCredentialType.BEARER_TOKEN) {
-                    credentialsProvider.setCredentials(new AuthScope(requestProxy.getHost(), requestProxy.getPort()),
-                            new BearerToken(requestProxy.getBearerToken()));
-                }
-                httpClientContext.setCredentialsProvider(credentialsProvider);
+                // 凭据提供者按照代理缓存，不会每次请求都重新创建
+                ((HttpClientContext) context).setCredentialsProvider(RequestProxyKey.credentialsProvider(requestProxy));
             }
             socket = new Socket(new Proxy(Proxy.Type.SOCKS, new InetSocketAddress(requestProxy.getHost(), requestProxy.getPort())));
         } else {
@@ -66,23 +51,14 @@ public class HttpConnectionSocketFactory extends PlainConnectionSocketFactory {
     @Override
     public Socket connectSocket(TimeValue connectTimeout, Socket sock, HttpHost host, InetSocketAddress remoteAddress, InetSocketAddress localAddress, HttpContext context)
             throws IOException {
-        RequestProxy requestProxy = getRequestProxy(context);
+        RequestProxy requestProxy = HttpClientProxyContext.getRequestProxy(context);
         if (requestProxy != null && requestProxy.getProxyType() == RequestProxy.ProxyType.SOCKS) {
             // 如果代理存在的话，让代理服务器去解析主机
             remoteAddress = InetSocketAddress.createUnresolved(host.getHostName(), host.getPort());
         }
-        return super.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
-    }
-
-    private RequestProxy getRequestProxy(HttpContext context) {
-        RequestProxy requestProxy = null;
-        if (context instanceof HttpClientProxyContext) {
-            requestProxy = ((HttpClientProxyContext) context).getRequestProxy();
-        }
-        if (requestProxy == null) {
-            requestProxy = (RequestProxy) context.getAttribute(REQUEST_PROXY_ID);
-        }
-        return requestProxy;
+        Socket connected = super.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
+        Tracing.event(context, SpanPhase.CONNECT);
+        return connected;
     }
 
 }
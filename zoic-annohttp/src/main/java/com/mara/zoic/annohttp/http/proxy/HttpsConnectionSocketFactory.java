@@ -1,21 +1,21 @@
 package com.mara.zoic.annohttp.http.proxy;
 
-import org.apache.hc.client5.http.auth.AuthScope;
-import org.apache.hc.client5.http.auth.BearerToken;
-import org.apache.hc.client5.http.auth.NTCredentials;
-import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
-import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+import com.mara.zoic.annohttp.http.tls.TlsHandshakeMetrics;
+import com.mara.zoic.annohttp.http.trace.SpanPhase;
+import com.mara.zoic.annohttp.http.trace.Tracing;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.protocol.HttpContext;
 import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.net.SocketFactory;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -31,7 +31,6 @@ import java.net.Socket;
 @SuppressWarnings("deprecation")
 public class HttpsConnectionSocketFactory extends SSLConnectionSocketFactory {
 
-    private static final String REQUEST_PROXY_ID = RequestProxy.class.getName();
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpsConnectionSocketFactory.class);
 
     public HttpsConnectionSocketFactory(SSLContext sslContext, HostnameVerifier hostnameVerifier) {
@@ -57,7 +56,7 @@ public class HttpsConnectionSocketFactory extends SSLConnectionSocketFactory {
     @Override
     public Socket createSocket(HttpContext context) throws IOException {
         Socket socket = null;
-        RequestProxy requestProxy = getRequestProxy(context);
+        RequestProxy requestProxy = HttpClientProxyContext.getRequestProxy(context);
         if (requestProxy != null && requestProxy.getProxyType() == RequestProxy.ProxyType.SOCKS) {
             // 这里指只处理SOCKS类型的代理
             // 关于HTTP类型的代理由RequestRoutePlanner处理
@@ -65,19 +64,8 @@ public class HttpsConnectionSocketFactory extends SSLConnectionSocketFactory {
                 LOGGER.debug("Using proxy: " + requestProxy);
             }
             if (requestProxy.withCredential()) {
-                HttpClientContext httpClientContext = (HttpClientContext) context;
-                BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-                if (requestProxy.getProxyCredentialType() == RequestProxy.ProxyCredentialType.USERNAME_PASSWORD) {
-                    credentialsProvider.setCredentials(new AuthScope(requestProxy.getHost(), requestProxy.getPort()),
-                            new UsernamePasswordCredentials(requestProxy.getUserName(), requestProxy.getPassword().toCharArray()));
-                } else if (requestProxy.getProxyCredentialType() == RequestProxy.ProxyCredentialType.WINDOWS_NT) {
-                    credentialsProvider.setCredentials(new AuthScope(requestProxy.getHost(), requestProxy.getPort()),
-                            new NTCredentials(requestProxy.getUserName(), requestProxy.getPassword().toCharArray(), requestProxy.getWorkstation(), requestProxy.getDomain()));
-                } else if (requestProxy.getProxyCredentialType() == RequestProxy.ProxyCredentialType.BEARER_TOKEN) {
-                    credentialsProvider.setCredentials(new AuthScope(requestProxy.getHost(), requestProxy.getPort()),
-                            new BearerToken(requestProxy.getBearerToken()));
-                }
-                httpClientContext.setCredentialsProvider(credentialsProvider);
+                // 凭据提供者按照代理缓存，不会每次请求都重新创建
+                ((HttpClientContext) context).setCredentialsProvider(RequestProxyKey.credentialsProvider(requestProxy));
             }
             socket = new Socket(new Proxy(Proxy.Type.SOCKS, new InetSocketAddress(requestProxy.getHost(), requestProxy.getPort())));
         } else {
@@ -89,21 +77,29 @@ public class HttpsConnectionSocketFactory extends SSLConnectionSocketFactory {
     @Override
     public Socket connectSocket(TimeValue connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress, InetSocketAddress localAddress, HttpContext context)
             throws IOException {
-        if (getRequestProxy(context) != null) {
+        if (HttpClientProxyContext.getRequestProxy(context) != null) {
             // 如果代理存在的话，让代理服务器去解析主机
             remoteAddress = InetSocketAddress.createUnresolved(host.getHostName(), host.getPort());
         }
         return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
     }
 
-    private RequestProxy getRequestProxy(HttpContext context) {
-        RequestProxy requestProxy = null;
-        if (context instanceof HttpClientProxyContext) {
-            requestProxy = ((HttpClientProxyContext) context).getRequestProxy();
-        }
-        if (requestProxy == null) {
-            requestProxy = (RequestProxy) context.getAttribute(REQUEST_PROXY_ID);
+    @Override
+    protected void connectSocket(Socket sock, InetSocketAddress remoteAddress, Timeout connectTimeout, HttpContext context) throws IOException {
+        super.connectSocket(sock, remoteAddress, connectTimeout, context);
+        Tracing.event(context, SpanPhase.CONNECT);
+    }
+
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port, Object attachment, HttpContext context) throws IOException {
+        long startNanos = System.nanoTime();
+        Socket layered = super.createLayeredSocket(socket, target, port, attachment, context);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (layered instanceof SSLSocket) {
+            TlsHandshakeMetrics.record(target + ":" + port, elapsedNanos);
         }
-        return requestProxy;
+        Tracing.event(context, SpanPhase.TLS);
+        return layered;
     }
+
 }
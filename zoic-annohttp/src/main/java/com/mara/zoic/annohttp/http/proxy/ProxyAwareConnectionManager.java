@@ -0,0 +1,50 @@
+package com.mara.zoic.annohttp.http.proxy;
+
+import com.mara.zoic.annohttp.http.pool.ConnectionPoolMonitor;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.core5.http.config.Registry;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * 按照代理区分连接的连接池。
+ * <p>SOCKS 代理是在创建套接字时决定的，不体现在路由中；{@link HttpClientProxyContext} 会将代理的标识（{@link RequestProxyKey}）
+ * 设定为请求的 user token，连接池借此只把经由同一个代理建立的连接交给同一个代理的请求。</p>
+ * <p>HttpClient 的连接池在找不到状态相同的连接时会退而使用没有状态的连接，这会让使用代理的请求拿到直连的连接。
+ * 因此此连接池将没有状态的租用与归还都视为 {@link RequestProxyKey#DIRECT}，池中的每个连接都带有明确的代理标识。</p>
+ * <p>关闭时会停止 {@link ConnectionPoolMonitor} 对自己的监视。</p>
+ * <p>通过上下文属性（以 {@link RequestProxy} 的类名为键）指定代理时，请同时将上下文的 user token 设定为 {@link RequestProxyKey#of(RequestProxy)}。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class ProxyAwareConnectionManager extends PoolingHttpClientConnectionManager {
+
+    public ProxyAwareConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry, PoolConcurrencyPolicy poolConcurrencyPolicy,
+                                       PoolReusePolicy poolReusePolicy, TimeValue timeToLive) {
+        super(socketFactoryRegistry, poolConcurrencyPolicy, poolReusePolicy, timeToLive);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        return super.lease(id, route, requestTimeout, state == null ? RequestProxyKey.DIRECT : state);
+    }
+
+    @Override
+    public void release(ConnectionEndpoint endpoint, Object state, TimeValue keepAlive) {
+        super.release(endpoint, state == null ? RequestProxyKey.DIRECT : state, keepAlive);
+    }
+
+    @Override
+    public void close(CloseMode closeMode) {
+        ConnectionPoolMonitor.unmonitor(this);
+        super.close(closeMode);
+    }
+}
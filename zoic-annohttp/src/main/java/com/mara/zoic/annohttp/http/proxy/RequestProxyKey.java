@@ -0,0 +1,145 @@
+package com.mara.zoic.annohttp.http.proxy;
+
+import org.apache.hc.client5.http.auth.AuthScope;
+import org.apache.hc.client5.http.auth.BearerToken;
+import org.apache.hc.client5.http.auth.CredentialsProvider;
+import org.apache.hc.client5.http.auth.NTCredentials;
+import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
+import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 代理的标识，由代理的类型、地址与验证信息组成，内容相同的 {@link RequestProxy} 得到相等的标识。
+ * <p>标识被用作连接池中连接的状态（user token）：SOCKS 代理不体现在路由（HttpRoute）中，连接池按照此状态区分经由不同代理建立的连接，
+ * 因此同一个代理的连接可以被复用，而不会被没有代理或者使用其他代理的请求复用。没有代理的请求使用 {@link #DIRECT}。</p>
+ * <p>此类是不可变的。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class RequestProxyKey {
+
+    /**
+     * 不使用代理。
+     */
+    public static final RequestProxyKey DIRECT = new RequestProxyKey(null, null, -1, null, null, null, null, null, null);
+
+    private static final int MAX_CACHED_CREDENTIALS = 1024;
+
+    private static final Map<RequestProxyKey, CredentialsProvider> CREDENTIALS_PROVIDERS = new ConcurrentHashMap<>();
+
+    private final RequestProxy.ProxyType proxyType;
+    private final String host;
+    private final int port;
+    private final RequestProxy.ProxyCredentialType credentialType;
+    private final String userName;
+    private final String password;
+    private final String domain;
+    private final String workstation;
+    private final String bearerToken;
+    private final int hash;
+
+    private RequestProxyKey(RequestProxy.ProxyType proxyType, String host, int port, RequestProxy.ProxyCredentialType credentialType,
+                            String userName, String password, String domain, String workstation, String bearerToken) {
+        this.proxyType = proxyType;
+        this.host = host;
+        this.port = port;
+        this.credentialType = credentialType;
+        this.userName = userName;
+        this.password = password;
+        this.domain = domain;
+        this.workstation = workstation;
+        this.bearerToken = bearerToken;
+        this.hash = Objects.hash(proxyType, host, port, credentialType, userName, password, domain, workstation, bearerToken);
+    }
+
+    /**
+     * 获得代理的标识。
+     *
+     * @param requestProxy 代理，可以是null
+     * @return 标识；代理为null时返回 {@link #DIRECT}
+     */
+    public static RequestProxyKey of(RequestProxy requestProxy) {
+        if (requestProxy == null) {
+            return DIRECT;
+        }
+        if (!requestProxy.withCredential()) {
+            return new RequestProxyKey(requestProxy.getProxyType(), requestProxy.getHost(), requestProxy.getPort(),
+                    RequestProxy.ProxyCredentialType.NONE, null, null, null, null, null);
+        }
+        return new RequestProxyKey(requestProxy.getProxyType(), requestProxy.getHost(), requestProxy.getPort(),
+                requestProxy.getProxyCredentialType(), requestProxy.getUserName(), requestProxy.getPassword(),
+                requestProxy.getDomain(), requestProxy.getWorkstation(), requestProxy.getBearerToken());
+    }
+
+    /**
+     * 获得代理验证使用的凭据提供者，相同的代理共享同一个实例。
+     *
+     * @param requestProxy 代理
+     * @return 凭据提供者；代理不需要验证时返回null
+     */
+    @SuppressWarnings("deprecation")
+    static CredentialsProvider credentialsProvider(RequestProxy requestProxy) {
+        if (requestProxy == null || !requestProxy.withCredential()) {
+            return null;
+        }
+        RequestProxyKey key = of(requestProxy);
+        CredentialsProvider provider = CREDENTIALS_PROVIDERS.get(key);
+        if (provider != null) {
+            return provider;
+        }
+        BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        AuthScope authScope = new AuthScope(key.host, key.port);
+        if (key.credentialType == RequestProxy.ProxyCredentialType.USERNAME_PASSWORD) {
+            credentialsProvider.setCredentials(authScope, new UsernamePasswordCredentials(key.userName, key.password.toCharArray()));
+        } else if (key.credentialType == RequestProxy.ProxyCredentialType.WINDOWS_NT) {
+            credentialsProvider.setCredentials(authScope, new NTCredentials(key.userName, key.password.toCharArray(), key.workstation, key.domain));
+        } else if (key.credentialType == RequestProxy.ProxyCredentialType.BEARER_TOKEN) {
+            credentialsProvider.setCredentials(authScope, new BearerToken(key.bearerToken));
+        }
+        // 代理通常只有少数几个，这里只是防止动态生成的凭据无限制地占用内存
+        if (CREDENTIALS_PROVIDERS.size() >= MAX_CACHED_CREDENTIALS) {
+            CREDENTIALS_PROVIDERS.clear();
+        }
+        provider = CREDENTIALS_PROVIDERS.putIfAbsent(key, credentialsProvider);
+        return provider == null ? credentialsProvider : provider;
+    }
+
+    public RequestProxy.ProxyType getProxyType() {
+        return proxyType;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof RequestProxyKey k && k.hash == hash && k.port == port && k.proxyType == proxyType
+                && k.credentialType == credentialType && Objects.equals(k.host, host) && Objects.equals(k.userName, userName)
+                && Objects.equals(k.password, password) && Objects.equals(k.domain, domain)
+                && Objects.equals(k.workstation, workstation) && Objects.equals(k.bearerToken, bearerToken);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        if (this == DIRECT) {
+            return "DIRECT";
+        }
+        // 不输出密码等敏感信息
+        String scheme = proxyType == RequestProxy.ProxyType.SOCKS ? "socks://" : "http://";
+        return userName == null ? scheme + host + ":" + port : scheme + userName + "@" + host + ":" + port;
+    }
+}
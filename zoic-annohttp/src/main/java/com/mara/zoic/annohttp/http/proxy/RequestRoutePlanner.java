@@ -1,11 +1,6 @@
 package com.mara.zoic.annohttp.http.proxy;
 
 
-import org.apache.hc.client5.http.auth.AuthScope;
-import org.apache.hc.client5.http.auth.BearerToken;
-import org.apache.hc.client5.http.auth.NTCredentials;
-import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
-import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.routing.SystemDefaultRoutePlanner;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.core5.http.HttpException;
@@ -25,7 +20,6 @@ import java.net.ProxySelector;
 @SuppressWarnings("deprecation")
 public class RequestRoutePlanner extends SystemDefaultRoutePlanner {
 
-    private static final String REQUEST_PROXY_ID = RequestProxy.class.getName();
     private static final Logger LOGGER = LoggerFactory.getLogger(RequestRoutePlanner.class);
 
     public RequestRoutePlanner(ProxySelector proxySelector) {
@@ -34,32 +28,15 @@ public class RequestRoutePlanner extends SystemDefaultRoutePlanner {
 
     @Override
     protected HttpHost determineProxy(HttpHost target, HttpContext context) throws HttpException {
-        RequestProxy requestProxy = null;
-        if (context instanceof HttpClientProxyContext) {
-            requestProxy = ((HttpClientProxyContext) context).getRequestProxy();
-        }
-        if (requestProxy == null) {
-            requestProxy = (RequestProxy) context.getAttribute(REQUEST_PROXY_ID);
-        }
+        RequestProxy requestProxy = HttpClientProxyContext.getRequestProxy(context);
         if (requestProxy != null && requestProxy.getProxyType() == RequestProxy.ProxyType.HTTP) {
             // 这里只处理HTTP类型的代理
         	if (LOGGER.isDebugEnabled()) {
         		LOGGER.debug("Using proxy: " + requestProxy);
         	}
             if (requestProxy.withCredential()) {
-                HttpClientContext httpClientContext = (HttpClientContext) context;
-                BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-                if (requestProxy.getProxyCredentialType() == RequestProxy.ProxyCredentialType.USERNAME_PASSWORD) {
-                    credentialsProvider.setCredentials(new AuthScope(requestProxy.getHost(), requestProxy.getPort()),
-                            new UsernamePasswordCredentials(requestProxy.getUserName(), requestProxy.getPassword().toCharArray()));
-                } else if (requestProxy.getProxyCredentialType() == RequestProxy.ProxyCredentialType.WINDOWS_NT) {
-                    credentialsProvider.setCredentials(new AuthScope(requestProxy.getHost(), requestProxy.getPort()),
-                            new NTCredentials(requestProxy.getUserName(), requestProxy.getPassword().toCharArray(), requestProxy.getWorkstation(), requestProxy.getDomain()));
-                } else if (requestProxy.getProxyCredentialType() == RequestProxy.ProxyCredentialType.BEARER_TOKEN) {
-                    credentialsProvider.setCredentials(new AuthScope(requestProxy.getHost(), requestProxy.getPort()),
-                            new BearerToken(requestProxy.getBearerToken()));
-                }
-                httpClientContext.setCredentialsProvider(credentialsProvider);
+                // 凭据提供者按照代理缓存，不会每次请求都重新创建
+                ((HttpClientContext) context).setCredentialsProvider(RequestProxyKey.credentialsProvider(requestProxy));
             }
             // 构造HttpHost返回
             return new HttpHost(requestProxy.getHost(), requestProxy.getPort());
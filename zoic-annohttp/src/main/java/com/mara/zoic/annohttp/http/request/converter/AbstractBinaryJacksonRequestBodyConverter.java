@@ -0,0 +1,50 @@
+package com.mara.zoic.annohttp.http.request.converter;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import com.mara.zoic.annohttp.http.JacksonComponentHolder;
+import com.mara.zoic.annohttp.http.exception.ConversionException;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * 使用 Jackson 二进制格式（Smile、CBOR 等）序列化请求体的转换器。
+ * <p>只有当请求的 Content-Type 是对应的二进制类型时才会生效，字符串、字节数组、文件以及输入流仍由各自的转换器处理。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public abstract class AbstractBinaryJacksonRequestBodyConverter implements RequestBodyConverter {
+
+    protected ObjectMapper objectMapper;
+    protected Set<String> acceptableMimeTypes;
+    protected String name;
+
+    @Override
+    public HttpEntity convert(Object source, ContentType contentType,
+                              HttpClientMetadata annoHttpClientMetadata, String formFieldName) {
+        try {
+            // 二进制格式不需要字符集
+            return new ByteArrayEntity(JacksonComponentHolder.writeValueAsBytes(objectMapper, source), ContentType.create(contentType.getMimeType()));
+        } catch (Exception e) {
+            throw new ConversionException(this, "Cannot convert object to " + name, e);
+        }
+    }
+
+    @Override
+    public boolean canConvert(Object source, ContentType contentType,
+                              HttpClientMetadata annoHttpClientMetadata, String formFieldName) {
+        return contentType != null
+                && acceptableMimeTypes.stream().anyMatch(e -> e.equalsIgnoreCase(contentType.getMimeType()))
+                && !(source instanceof CharSequence)
+                && !(source instanceof byte[])
+                && !(source instanceof File)
+                && !(source instanceof InputStream);
+    }
+}
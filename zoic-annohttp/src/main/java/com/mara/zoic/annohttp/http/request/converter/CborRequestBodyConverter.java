@@ -0,0 +1,17 @@
+package com.mara.zoic.annohttp.http.request.converter;
+
+
+import com.mara.zoic.annohttp.http.Converter;
+import com.mara.zoic.annohttp.http.JacksonComponentHolder;
+
+import java.util.Set;
+
+public class CborRequestBodyConverter extends AbstractBinaryJacksonRequestBodyConverter {
+
+    public CborRequestBodyConverter() {
+        super();
+        objectMapper = JacksonComponentHolder.getCborMapper(false, true, true, false);
+        acceptableMimeTypes = Set.of(Converter.CONTENT_TYPE_APPLICATION_CBOR);
+        name = "cbor";
+    }
+}
@@ -33,23 +33,23 @@ public class CommonJavaObjectRequestBodyConverter implements RequestBodyConverte
         try {
             if (contentType == null) {
                 tag = "json";
-                httpEntity = new StringEntity(jsonMapper.writeValueAsString(source), ContentType.APPLICATION_JSON);
+                httpEntity = new StringEntity(JacksonComponentHolder.writeValueAsString(jsonMapper, source), ContentType.APPLICATION_JSON);
             } else {
                 final Charset charset = contentType.getCharset() == null ? DEFAULT_STRING_CHARSET : contentType.getCharset();
                 String userMimeType = contentType.getMimeType();
                 if (ContentType.APPLICATION_JSON.getMimeType().equalsIgnoreCase(userMimeType)) {
                     tag = "json";
-                    httpEntity = new StringEntity(jsonMapper.writeValueAsString(source), contentType.withCharset(charset));
+                    httpEntity = new StringEntity(JacksonComponentHolder.writeValueAsString(jsonMapper, source), contentType.withCharset(charset));
                 } else if (ContentType.APPLICATION_XML.getMimeType().equalsIgnoreCase(userMimeType)
                         || ContentType.TEXT_XML.getMimeType().equalsIgnoreCase(userMimeType)) {
                     tag = "xml";
-                    httpEntity = new StringEntity(xmlMapper.writeValueAsString(source), contentType.withCharset(charset));
+                    httpEntity = new StringEntity(JacksonComponentHolder.writeValueAsString(xmlMapper, source), contentType.withCharset(charset));
                 } else if (CONTENT_TYPE_APPLICATION_YAML.equalsIgnoreCase(userMimeType)
                         || CONTENT_TYPE_APPLICATION_YML.equalsIgnoreCase(userMimeType)
                         || CONTENT_TYPE_TEXT_YAML.equalsIgnoreCase(userMimeType)
                         || CONTENT_TYPE_TEXT_YML.equalsIgnoreCase(userMimeType)) {
                     tag = "yaml";
-                    httpEntity = new StringEntity(yamlMapper.writeValueAsString(source), contentType.withCharset(charset));
+                    httpEntity = new StringEntity(JacksonComponentHolder.writeValueAsString(yamlMapper, source), contentType.withCharset(charset));
                 } else if (ContentType.TEXT_PLAIN.getMimeType().equalsIgnoreCase(userMimeType)) {
                     tag = "text";
                     httpEntity = new StringEntity(String.valueOf(source), contentType.withCharset(charset));
@@ -35,22 +35,22 @@ public class MapRequestBodyConverter implements RequestBodyConverter {
         try {
             if (contentType == null) {
                 tag = "json";
-                httpEntity = new StringEntity(jsonMapper.writeValueAsString(source), ContentType.APPLICATION_JSON);
+                httpEntity = new StringEntity(JacksonComponentHolder.writeValueAsString(jsonMapper, source), ContentType.APPLICATION_JSON);
             } else {
                 final Charset charset = contentType.getCharset() == null ? Converter.DEFAULT_STRING_CHARSET : contentType.getCharset();
                 String userMimeType = contentType.getMimeType();
                 if (ContentType.APPLICATION_JSON.getMimeType().equalsIgnoreCase(userMimeType)) {
-                	httpEntity = new StringEntity(jsonMapper.writeValueAsString(source), contentType.withCharset(charset));
+                	httpEntity = new StringEntity(JacksonComponentHolder.writeValueAsString(jsonMapper, source), contentType.withCharset(charset));
                 } else if (ContentType.APPLICATION_XML.getMimeType().equalsIgnoreCase(userMimeType)
                         || ContentType.TEXT_XML.getMimeType().equalsIgnoreCase(userMimeType)) {
                     tag = "xml";
-                    httpEntity = new StringEntity(xmlMapper.writeValueAsString(source), contentType.withCharset(charset));
+                    httpEntity = new StringEntity(JacksonComponentHolder.writeValueAsString(xmlMapper, source), contentType.withCharset(charset));
                 } else if (Converter.CONTENT_TYPE_APPLICATION_YAML.equalsIgnoreCase(userMimeType)
                         || Converter.CONTENT_TYPE_APPLICATION_YML.equalsIgnoreCase(userMimeType)
                         || Converter.CONTENT_TYPE_TEXT_YAML.equalsIgnoreCase(userMimeType)
                         || Converter.CONTENT_TYPE_TEXT_YML.equalsIgnoreCase(userMimeType)) {
                     tag = "yaml";
-                    httpEntity = new StringEntity(yamlMapper.writeValueAsString(source), contentType.withCharset(charset));
+                    httpEntity = new StringEntity(JacksonComponentHolder.writeValueAsString(yamlMapper, source), contentType.withCharset(charset));
                 } else if (ContentType.APPLICATION_FORM_URLENCODED.getMimeType().equalsIgnoreCase(userMimeType)) {
                     tag = "urlencoded";
                     httpEntity = new UrlEncodedFormEntity(((Map<String, Object>) source)
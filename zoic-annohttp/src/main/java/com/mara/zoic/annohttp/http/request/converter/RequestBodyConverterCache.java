@@ -1,5 +1,7 @@
 package com.mara.zoic.annohttp.http.request.converter;
 
+import com.mara.zoic.annohttp.http.JacksonComponentHolder;
+
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -19,6 +21,13 @@ public class RequestBodyConverterCache {
 
     static {
         LinkedHashMap<Class<? extends RequestBodyConverter>, RequestBodyConverter> map = new LinkedHashMap<>();
+        // 二进制格式是可选依赖，只有类路径上存在时才注册；它们只处理对应的 Content-Type，因此需要排在 Map 与普通对象的转换器之前
+        if (JacksonComponentHolder.SMILE_PRESENT) {
+            map.put(SmileRequestBodyConverter.class, new SmileRequestBodyConverter());
+        }
+        if (JacksonComponentHolder.CBOR_PRESENT) {
+            map.put(CborRequestBodyConverter.class, new CborRequestBodyConverter());
+        }
         map.put(StringRequestBodyConverter.class, new StringRequestBodyConverter());
         map.put(MapRequestBodyConverter.class, new MapRequestBodyConverter());
         map.put(ByteArrayRequestBodyConverter.class, new ByteArrayRequestBodyConverter());
@@ -1,21 +1,40 @@
 package com.mara.zoic.annohttp.http.response.converter;
 
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mara.zoic.annohttp.http.EntityBufferPool;
 import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import com.mara.zoic.annohttp.http.JacksonComponentHolder;
 import com.mara.zoic.annohttp.http.exception.ConversionException;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class AbstractJackson2BeanResponseBodyConverter extends AbstractAutoCloseEntityResponseBodyConverter {
 
     protected ObjectMapper objectMapper;
     protected Set<ContentType> acceptableContentTypes;
     protected String name;
+    /**
+     * 是否是二进制格式（Smile、CBOR 等）。二进制格式直接从响应流中解析，不经过字符串。
+     */
+    protected boolean binary;
 
     @Override
     public boolean canConvert(ClassicHttpResponse httpResponse, HttpClientMetadata metadata,
@@ -25,15 +44,84 @@ public abstract class AbstractJackson2BeanResponseBodyConverter extends Abstract
                 && acceptableContentTypes.stream().anyMatch(e -> e.getMimeType().equalsIgnoreCase(computedResponseContentType.getMimeType()));
     }
 
+    /**
+     * 判断返回类型是否是逐个返回数组元素的流式类型（{@link Stream}、{@link Iterator}）。
+     *
+     * @param type 返回类型
+     * @return 是则返回true
+     */
+    public static boolean isElementStreamingType(Type type) {
+        Type rawType = type instanceof ParameterizedType parameterizedType ? parameterizedType.getRawType() : type;
+        return rawType == Stream.class || rawType == Iterator.class;
+    }
+
+    @Override
+    public Object convert(ClassicHttpResponse httpResponse, HttpClientMetadata metadata, ContentType computedResponseContentType, Charset computedResponseCharset) {
+        Type type = metadata.getRequestMethodActualType();
+        if (isElementStreamingType(type)) {
+            // 流式返回时由迭代器负责关闭响应，这里不能自动关闭
+            return convertToElementStream(httpResponse, metadata, type, computedResponseCharset);
+        }
+        return super.convert(httpResponse, metadata, computedResponseContentType, computedResponseCharset);
+    }
+
     @Override
     public Object doConvert(ClassicHttpResponse httpResponse, HttpClientMetadata metadata,
                           ContentType computedResponseContentType, Charset computedResponseCharset) {
         try {
-            String jsonString = EntityUtils.toString(httpResponse.getEntity(), computedResponseCharset);
-            return objectMapper.readValue(jsonString, objectMapper.constructType(metadata.getRequestMethodActualType()));
+            ObjectReader reader = JacksonComponentHolder.getReader(objectMapper, metadata.getRequestMethodActualType());
+            JsonPointer pointer = ResponsePathSupport.getPointer(metadata);
+            if (pointer != null) {
+                // 只绑定路径指向的子树，路径之外的内容在解析时直接跳过
+                try (JsonParser parser = ResponsePathSupport.createParser(objectMapper, httpResponse.getEntity(), computedResponseCharset, binary, pointer)) {
+                    return parser.nextToken() == null ? null : reader.readValue(parser);
+                }
+            }
+            if (binary) {
+                return reader.readValue(httpResponse.getEntity().getContent());
+            }
+            if (StandardCharsets.UTF_8.equals(computedResponseCharset)) {
+                // UTF-8 直接从池化的缓冲区解析，不需要中间的字符串；转存到临时文件的响应体流式解析
+                return EntityBufferPool.read(httpResponse.getEntity(), (buffer, length) -> reader.readValue(buffer, 0, length), content -> {
+                    try (InputStream in = content.openStream()) {
+                        return reader.readValue(in);
+                    }
+                });
+            }
+            return reader.readValue(EntityBufferPool.toString(httpResponse.getEntity(), computedResponseCharset));
         } catch (Exception e) {
             throw new ConversionException(this, "Cannot convert response body to " + name, e);
         }
     }
 
+    private Object convertToElementStream(ClassicHttpResponse httpResponse, HttpClientMetadata metadata, Type type, Charset computedResponseCharset) {
+        Type elementType = type instanceof ParameterizedType parameterizedType ? parameterizedType.getActualTypeArguments()[0] : Object.class;
+        JacksonArrayElementIterator<Object> iterator;
+        try {
+            JsonParser parser = ResponsePathSupport.createParser(objectMapper, httpResponse.getEntity(), computedResponseCharset, binary, ResponsePathSupport.getPointer(metadata));
+            iterator = new JacksonArrayElementIterator<>(parser, JacksonComponentHolder.getReader(objectMapper, elementType), httpResponse);
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                // 路径不存在或者响应体为空
+                iterator.close();
+            } else if (token != JsonToken.START_ARRAY) {
+                iterator.close();
+                throw new ConversionException(this, "Cannot convert response body to " + type + ", the target is not an array", null);
+            }
+        } catch (IOException e) {
+            try {
+                httpResponse.close();
+            } catch (IOException ex) {
+                // Ignore
+            }
+            throw new ConversionException(this, "Cannot convert response body to " + type, e);
+        }
+        // 由迭代器在遍历完成或者关闭时释放连接
+        ClaimedEntity.claim(httpResponse);
+        if (type == Iterator.class || type instanceof ParameterizedType parameterizedType && parameterizedType.getRawType() == Iterator.class) {
+            return iterator;
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::close);
+    }
 }
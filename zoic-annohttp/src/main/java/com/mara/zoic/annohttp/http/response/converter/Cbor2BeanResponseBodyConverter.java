@@ -0,0 +1,19 @@
+package com.mara.zoic.annohttp.http.response.converter;
+
+
+import com.mara.zoic.annohttp.http.Converter;
+import com.mara.zoic.annohttp.http.JacksonComponentHolder;
+import org.apache.hc.core5.http.ContentType;
+
+import java.util.Set;
+
+public class Cbor2BeanResponseBodyConverter extends AbstractJackson2BeanResponseBodyConverter {
+
+    public Cbor2BeanResponseBodyConverter() {
+        super();
+        objectMapper = JacksonComponentHolder.getCborMapper(false, true, true, false);
+        acceptableContentTypes = Set.of(ContentType.create(Converter.CONTENT_TYPE_APPLICATION_CBOR));
+        binary = true;
+        name = "cbor";
+    }
+}
@@ -0,0 +1,42 @@
+package com.mara.zoic.annohttp.http.response.converter;
+
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+/**
+ * 标记响应体已经被转换结果接管。
+ * <p>转换器返回惰性读取响应体的结果（比如逐个返回数组元素的 Stream/Iterator）时，应当调用 {@link #claim(ClassicHttpResponse)}，
+ * 由结果在遍历完成或者关闭时释放连接，请求结束时不再消费响应体。没有被接管的响应体总会在请求结束时被消费，连接随之释放。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class ClaimedEntity extends HttpEntityWrapper {
+
+    private ClaimedEntity(HttpEntity wrappedEntity) {
+        super(wrappedEntity);
+    }
+
+    /**
+     * 标记响应体已经被接管。
+     *
+     * @param httpResponse 响应
+     */
+    public static void claim(ClassicHttpResponse httpResponse) {
+        HttpEntity entity = httpResponse.getEntity();
+        if (entity != null && !(entity instanceof ClaimedEntity)) {
+            httpResponse.setEntity(new ClaimedEntity(entity));
+        }
+    }
+
+    /**
+     * 判断响应体是否已经被接管。
+     *
+     * @param entity 响应体
+     * @return 被接管时返回true
+     */
+    public static boolean isClaimed(HttpEntity entity) {
+        return entity instanceof ClaimedEntity;
+    }
+}
@@ -0,0 +1,88 @@
+package com.mara.zoic.annohttp.http.response.converter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mara.zoic.annohttp.http.exception.ConversionException;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 逐个解析数组元素的迭代器。
+ * <p>解析器应当已经位于数组的开始（{@link JsonToken#START_ARRAY}）。遍历完成、解析失败或者调用 {@link #close()} 时关闭解析器与响应，释放连接。</p>
+ *
+ * @param <T> 元素类型
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+final class JacksonArrayElementIterator<T> implements Iterator<T>, Closeable {
+
+    private final JsonParser parser;
+    private final ObjectReader elementReader;
+    private final ClassicHttpResponse httpResponse;
+
+    private JsonToken nextToken;
+    private boolean closed;
+
+    JacksonArrayElementIterator(JsonParser parser, ObjectReader elementReader, ClassicHttpResponse httpResponse) {
+        this.parser = parser;
+        this.elementReader = elementReader;
+        this.httpResponse = httpResponse;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (nextToken == null) {
+            try {
+                nextToken = parser.nextToken();
+            } catch (IOException e) {
+                close();
+                throw new ConversionException("Cannot read next array element from response", e);
+            }
+            if (nextToken == null || nextToken == JsonToken.END_ARRAY) {
+                close();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        nextToken = null;
+        try {
+            return elementReader.readValue(parser);
+        } catch (IOException e) {
+            close();
+            throw new ConversionException("Cannot convert array element from response", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+        try {
+            httpResponse.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+}
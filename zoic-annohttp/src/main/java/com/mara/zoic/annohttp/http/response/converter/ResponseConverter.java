@@ -12,6 +12,7 @@ import java.nio.charset.Charset;
  * 响应转换器。负责将响应转换为期望的实例。
  * <p>适用于 {@link Request#responseConverter()} ，如果直接在上面指定除 {@link AutoResponseConverter} 以外的其他 {@link ResponseConverter}，
  * 那么将不会调用 {@link ResponseConverter#canConvert(ClassicHttpResponse, HttpClientMetadata, ContentType, Charset)}  而是直接开始转换。
+ * <p>转换结果如果在返回之后才读取响应体，需要调用 {@link ClaimedEntity#claim(ClassicHttpResponse)} 并自行释放连接，否则响应体会在转换结束时被消费。</p>
  *
  * @author Mara.X.Ma
  * @see Request#responseConverter()
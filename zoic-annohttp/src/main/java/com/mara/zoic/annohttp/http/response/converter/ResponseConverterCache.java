@@ -1,5 +1,7 @@
 package com.mara.zoic.annohttp.http.response.converter;
 
+import com.mara.zoic.annohttp.http.JacksonComponentHolder;
+
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -28,6 +30,13 @@ public class ResponseConverterCache {
         map.put(Json2BeanResponseBodyConverter.class, new Json2BeanResponseBodyConverter());
         map.put(Xml2BeanResponseBodyConverter.class, new Xml2BeanResponseBodyConverter());
         map.put(Yaml2BeanResponseBodyConverter.class, new Yaml2BeanResponseBodyConverter());
+        // 二进制格式是可选依赖，只有类路径上存在时才注册
+        if (JacksonComponentHolder.SMILE_PRESENT) {
+            map.put(Smile2BeanResponseBodyConverter.class, new Smile2BeanResponseBodyConverter());
+        }
+        if (JacksonComponentHolder.CBOR_PRESENT) {
+            map.put(Cbor2BeanResponseBodyConverter.class, new Cbor2BeanResponseBodyConverter());
+        }
         map.put(InputStream2JavaObjectResponseBodyConverter.class, new InputStream2JavaObjectResponseBodyConverter());
         map.put(VoidResponseConverter.class, new VoidResponseConverter());
         DEFAULT_REG_MAP = Collections.unmodifiableMap(map);
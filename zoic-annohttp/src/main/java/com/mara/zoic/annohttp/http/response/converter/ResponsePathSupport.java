@@ -0,0 +1,111 @@
+package com.mara.zoic.annohttp.http.response.converter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.JsonPointerBasedFilter;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mara.zoic.annohttp.annotation.ResponsePath;
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import org.apache.hc.core5.http.HttpEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ResponsePath} 的支持类。负责编译路径以及创建只输出目标子树的解析器。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+final class ResponsePathSupport {
+
+    private static final ConcurrentHashMap<String, JsonPointer> POINTER_CACHE = new ConcurrentHashMap<>();
+
+    private ResponsePathSupport() {
+    }
+
+    /**
+     * 获得请求方法上 {@link ResponsePath} 指定的路径。
+     *
+     * @param metadata 元数据
+     * @return 编译后的路径；没有标注 {@link ResponsePath} 时返回null
+     */
+    static JsonPointer getPointer(HttpClientMetadata metadata) {
+        if (metadata.getRequestMethod() == null) {
+            return null;
+        }
+        ResponsePath responsePath = metadata.getRequestMethod().getAnnotation(ResponsePath.class);
+        if (responsePath == null) {
+            return null;
+        }
+        return POINTER_CACHE.computeIfAbsent(responsePath.value(), ResponsePathSupport::compile);
+    }
+
+    /**
+     * 将 JSON Pointer 或者简单路径编译为 {@link JsonPointer}。
+     *
+     * @param path 路径
+     * @return 编译后的路径
+     */
+    static JsonPointer compile(String path) {
+        String p = path.trim();
+        if (p.isEmpty() || p.startsWith("/")) {
+            return JsonPointer.compile(p);
+        }
+        if (p.startsWith("$")) {
+            p = p.substring(1);
+        }
+        StringBuilder sb = new StringBuilder(p.length() + 8);
+        for (int i = 0; i < p.length(); i++) {
+            char c = p.charAt(i);
+            switch (c) {
+                case '.' -> {
+                    if (i != 0) {
+                        sb.append('/');
+                    }
+                }
+                case '[' -> {
+                    int end = p.indexOf(']', i);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Invalid @ResponsePath '" + path + "', missing ']'");
+                    }
+                    sb.append('/').append(p, i + 1, end);
+                    i = end;
+                }
+                case '~' -> sb.append("~0");
+                case '/' -> sb.append("~1");
+                default -> sb.append(c);
+            }
+        }
+        String pointer = sb.toString();
+        return JsonPointer.compile(pointer.startsWith("/") ? pointer : "/" + pointer);
+    }
+
+    /**
+     * 创建解析器。如果指定了路径，那么解析器只会输出路径指向的子树，其余的内容在解析时直接跳过。
+     *
+     * @param objectMapper Mapper
+     * @param entity       响应体
+     * @param charset      字符编码，只对文本格式有效
+     * @param binary       是否是二进制格式
+     * @param pointer      路径，可以是null
+     * @return 解析器
+     * @throws IOException 创建失败
+     */
+    static JsonParser createParser(ObjectMapper objectMapper, HttpEntity entity, Charset charset, boolean binary, JsonPointer pointer) throws IOException {
+        InputStream inputStream = entity.getContent();
+        JsonParser parser = binary || charset == null || StandardCharsets.UTF_8.equals(charset)
+                ? objectMapper.createParser(inputStream)
+                : objectMapper.createParser(new InputStreamReader(inputStream, charset));
+        if (pointer == null || pointer.matches()) {
+            return parser;
+        }
+        return new FilteringParserDelegate(parser, new JsonPointerBasedFilter(pointer), TokenFilter.Inclusion.ONLY_INCLUDE_ALL, false);
+    }
+}
@@ -0,0 +1,19 @@
+package com.mara.zoic.annohttp.http.response.converter;
+
+
+import com.mara.zoic.annohttp.http.Converter;
+import com.mara.zoic.annohttp.http.JacksonComponentHolder;
+import org.apache.hc.core5.http.ContentType;
+
+import java.util.Set;
+
+public class Smile2BeanResponseBodyConverter extends AbstractJackson2BeanResponseBodyConverter {
+
+    public Smile2BeanResponseBodyConverter() {
+        super();
+        objectMapper = JacksonComponentHolder.getSmileMapper(false, true, true, false);
+        acceptableContentTypes = Set.of(ContentType.create(Converter.CONTENT_TYPE_APPLICATION_SMILE));
+        binary = true;
+        name = "smile";
+    }
+}
@@ -1,11 +1,11 @@
 package com.mara.zoic.annohttp.http.response.converter;
 
 
+import com.mara.zoic.annohttp.http.EntityBufferPool;
 import com.mara.zoic.annohttp.http.HttpClientMetadata;
 import com.mara.zoic.annohttp.http.exception.ConversionException;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
 
 import java.nio.charset.Charset;
 
@@ -14,12 +14,8 @@ public class StringResponseBodyConverter extends AbstractAutoCloseEntityResponse
     @Override
     public Object doConvert(ClassicHttpResponse httpResponse, HttpClientMetadata metadata, ContentType computedResponseContentType, Charset computedResponseCharset) {
         try {
-            // 这个方法会自动关闭流
-            byte[] bytes = EntityUtils.toByteArray(httpResponse.getEntity());
-            if (bytes == null) {
-                return null;
-            }
-            return new String(bytes, computedResponseCharset);
+            // 这个方法会自动关闭流，并且直接从池化的缓冲区解码
+            return EntityBufferPool.toString(httpResponse.getEntity(), computedResponseCharset);
         } catch (Exception e) {
             throw new ConversionException(this, "Cannot convert response body to String with charset '" + computedResponseCharset + "'", e);
         }
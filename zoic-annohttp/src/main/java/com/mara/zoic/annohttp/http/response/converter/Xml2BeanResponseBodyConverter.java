@@ -10,7 +10,7 @@ public class Xml2BeanResponseBodyConverter extends AbstractJackson2BeanResponseB
 
     public Xml2BeanResponseBodyConverter() {
         super();
-        objectMapper = JacksonComponentHolder.getJsonMapper(false, true, true, false);
+        objectMapper = JacksonComponentHolder.getXmlMapper(false, true, true, false);
         acceptableContentTypes = Set.of(ContentType.APPLICATION_XML, ContentType.TEXT_XML);
         name = "xml";
     }
@@ -10,7 +10,7 @@ public class Yaml2BeanResponseBodyConverter extends AbstractJackson2BeanResponse
 
     public Yaml2BeanResponseBodyConverter() {
         super();
-        objectMapper = JacksonComponentHolder.getJsonMapper(false, true, true, false);
+        objectMapper = JacksonComponentHolder.getYamlMapper(false, true, true, false);
         acceptableContentTypes = Set.of(ContentType.create("application/yml"), ContentType.create("application/yaml"),
                 ContentType.create("text/yml"), ContentType.create("text/yaml"));
         name = "yaml";
@@ -21,6 +21,20 @@ public class SpelUtils {
         return ctx;
     }
 
+    /**
+     * 解析 SpEL 表达式，需要反复求值的表达式应当只解析一次。
+     *
+     * @param spel 表达式
+     * @return 解析后的表达式
+     */
+    public static Expression parseSpel(String spel) {
+        try {
+            return SPEL_PARSER.parseExpression(spel);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Illegal SpEL expression: " + spel, e);
+        }
+    }
+
     public static <T> T executeSpel(String spel, EvaluationContext ctx, Class<T> clazz) {
         try {
             Expression exp = SPEL_PARSER.parseExpression(spel);
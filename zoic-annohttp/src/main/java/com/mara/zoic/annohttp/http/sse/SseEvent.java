@@ -0,0 +1,65 @@
+package com.mara.zoic.annohttp.http.sse;
+
+/**
+ * 一个 Server-Sent Event。
+ *
+ * @param <T> 数据的类型
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class SseEvent<T> {
+
+    /**
+     * 没有指定 <code>event</code> 字段时的事件类型。
+     */
+    public static final String DEFAULT_EVENT = "message";
+
+    private final String id;
+    private final String event;
+    private final T data;
+    private final long retry;
+
+    public SseEvent(String id, String event, T data, long retry) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+        this.retry = retry;
+    }
+
+    /**
+     * 获得事件的 ID（即最后的 <code>id</code> 字段），重连时作为 <code>Last-Event-ID</code> 发送。
+     *
+     * @return ID，服务端从未发送过时返回null
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 获得事件类型，默认是 {@link #DEFAULT_EVENT}。
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * 获得反序列化后的数据。
+     */
+    public T getData() {
+        return data;
+    }
+
+    /**
+     * 获得事件中的 <code>retry</code> 字段。
+     *
+     * @return 重连等待的毫秒数，事件中没有此字段时返回-1
+     */
+    public long getRetry() {
+        return retry;
+    }
+
+    @Override
+    public String toString() {
+        return "SseEvent{id=" + id + ", event=" + event + ", data=" + data + (retry < 0 ? "" : ", retry=" + retry) + "}";
+    }
+}
@@ -0,0 +1,194 @@
+package com.mara.zoic.annohttp.http.sse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <code>text/event-stream</code> 的增量解析器，按照 HTML 标准中的事件流解析规则实现。
+ * <p>读取缓冲区与行缓冲区在整个连接中重复使用，每次只读取产生下一个事件所需的数据，不会缓冲整个响应。
+ * 字段名按照字节比较，只有字段值需要解码。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+final class SseParser {
+
+    private static final byte[] DATA = "data".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EVENT = "event".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ID = "id".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RETRY = "retry".getBytes(StandardCharsets.US_ASCII);
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[4096];
+    private int position;
+    private int limit;
+
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private boolean lastWasCarriageReturn;
+    private boolean firstLine = true;
+
+    private final StringBuilder data = new StringBuilder();
+    private String eventType;
+    private long retry = -1;
+    /**
+     * 最后的事件 ID，在事件被分发时更新，在重连之间保留。
+     */
+    private String lastEventId;
+    /**
+     * 读到的 <code>id</code> 字段，事件未完成时不影响 {@link #lastEventId}。
+     */
+    private String idBuffer;
+    /**
+     * 服务端最后设定的重连等待时间，不论所在的事件是否被分发。
+     */
+    private long reconnectionTime = -1;
+
+    SseParser(InputStream in, String lastEventId) {
+        this.in = in;
+        this.lastEventId = lastEventId;
+        this.idBuffer = lastEventId;
+    }
+
+    /**
+     * 读取下一个事件。
+     *
+     * @return 数据尚未反序列化的事件；流结束时返回null（未完成的事件被丢弃）
+     * @throws IOException 读取失败
+     */
+    SseEvent<String> next() throws IOException {
+        while (true) {
+            if (position >= limit) {
+                limit = in.read(buffer);
+                position = 0;
+                if (limit < 0) {
+                    limit = 0;
+                    return null;
+                }
+            }
+            while (position < limit) {
+                byte b = buffer[position++];
+                if (b == '\n' && lastWasCarriageReturn) {
+                    // CRLF 的后半部分
+                    lastWasCarriageReturn = false;
+                    continue;
+                }
+                lastWasCarriageReturn = b == '\r';
+                if (b == '\n' || b == '\r') {
+                    SseEvent<String> event = processLine();
+                    lineLength = 0;
+                    if (event != null) {
+                        return event;
+                    }
+                } else {
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length << 1);
+                    }
+                    line[lineLength++] = b;
+                }
+            }
+        }
+    }
+
+    String getLastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * 获得服务端设定的重连等待时间。
+     *
+     * @return 毫秒数，未设定时返回-1
+     */
+    long getReconnectionTime() {
+        return reconnectionTime;
+    }
+
+    private SseEvent<String> processLine() {
+        int start = 0;
+        if (firstLine) {
+            firstLine = false;
+            // 忽略 UTF-8 BOM
+            if (lineLength >= 3 && line[0] == (byte) 0xEF && line[1] == (byte) 0xBB && line[2] == (byte) 0xBF) {
+                start = 3;
+            }
+        }
+        if (lineLength == start) {
+            return dispatch();
+        }
+        if (line[start] == ':') {
+            // 注释，通常是服务端的心跳
+            return null;
+        }
+        int colon = -1;
+        for (int i = start; i < lineLength; i++) {
+            if (line[i] == ':') {
+                colon = i;
+                break;
+            }
+        }
+        int nameEnd = colon < 0 ? lineLength : colon;
+        int valueStart = colon < 0 ? lineLength : colon + 1;
+        if (valueStart < lineLength && line[valueStart] == ' ') {
+            valueStart++;
+        }
+        if (fieldIs(DATA, start, nameEnd)) {
+            data.append(value(valueStart)).append('\n');
+        } else if (fieldIs(EVENT, start, nameEnd)) {
+            eventType = value(valueStart);
+        } else if (fieldIs(ID, start, nameEnd)) {
+            String id = value(valueStart);
+            if (id.indexOf('\0') < 0) {
+                idBuffer = id;
+            }
+        } else if (fieldIs(RETRY, start, nameEnd)) {
+            retry = parseRetry(valueStart);
+            if (retry >= 0) {
+                reconnectionTime = retry;
+            }
+        }
+        // 其余的字段被忽略
+        return null;
+    }
+
+    private SseEvent<String> dispatch() {
+        lastEventId = idBuffer;
+        if (data.isEmpty()) {
+            eventType = null;
+            retry = -1;
+            return null;
+        }
+        // 去掉最后一个换行
+        SseEvent<String> event = new SseEvent<>(lastEventId, eventType == null || eventType.isEmpty() ? SseEvent.DEFAULT_EVENT : eventType,
+                data.substring(0, data.length() - 1), retry);
+        data.setLength(0);
+        eventType = null;
+        retry = -1;
+        return event;
+    }
+
+    private boolean fieldIs(byte[] name, int start, int end) {
+        return Arrays.equals(line, start, end, name, 0, name.length);
+    }
+
+    private String value(int start) {
+        return new String(line, start, lineLength - start, StandardCharsets.UTF_8);
+    }
+
+    private long parseRetry(int start) {
+        if (start == lineLength) {
+            return retry;
+        }
+        long value = 0;
+        for (int i = start; i < lineLength; i++) {
+            byte b = line[i];
+            if (b < '0' || b > '9' || value > Long.MAX_VALUE / 10) {
+                // 不是纯数字时忽略
+                return retry;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,374 @@
+package com.mara.zoic.annohttp.http.sse;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mara.zoic.annohttp.annotation.EventStream;
+import com.mara.zoic.annohttp.http.AnnoHttpExecutors;
+import com.mara.zoic.annohttp.http.JacksonComponentHolder;
+import com.mara.zoic.annohttp.http.exception.UnexpectedResponseException;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serial;
+import java.lang.reflect.Type;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Server-Sent Events（<code>text/event-stream</code>）的事件流。服务方法的返回类型声明为 <code>SseStream&lt;T&gt;</code> 即可使用：
+ * <pre>
+ * &#64;Request(uri = "/feed")
+ * SseStream&lt;Quote&gt; quotes();
+ * </pre>
+ * <p>事件流是冷的：每次订阅（{@link #subscribe(Flow.Subscriber)}）建立一个新的连接，在 {@link AnnoHttpExecutors#getSubscriptionExecutor()} 的线程上增量地解析事件，
+ * 事件的数据按照 JSON 反序列化为 T（T 为 String 时不做转换）。订阅者按照请求的数量（背压）接收事件，取消订阅会立即关闭连接。</p>
+ * <p>连接断开后按照 {@link EventStream} 的设定带着 <code>Last-Event-ID</code> 重连，重连次数用尽后，
+ * 因为异常断开时以该异常结束订阅，否则正常结束。响应状态码为204时正常结束，不是200或者内容类型不是 <code>text/event-stream</code> 时以
+ * {@link UnexpectedResponseException} 结束，不会重连。</p>
+ *
+ * @param <T> 事件数据的类型
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class SseStream<T> implements Flow.Publisher<SseEvent<T>> {
+
+    private final Type dataType;
+    private final Connector connector;
+    private final long retryMillis;
+    private final int maxRetries;
+
+    /**
+     * 创建事件流。
+     *
+     * @param dataType    事件数据的类型
+     * @param eventStream 重连的设定，可以是null
+     * @param connector   发起请求
+     */
+    public SseStream(Type dataType, EventStream eventStream, Connector connector) {
+        this.dataType = dataType;
+        this.connector = connector;
+        this.retryMillis = eventStream == null ? 3000L : eventStream.retryMillis();
+        this.maxRetries = eventStream == null ? -1 : eventStream.maxRetries();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super SseEvent<T>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        Subscription subscription = new Subscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        try {
+            AnnoHttpExecutors.getSubscriptionExecutor().execute(subscription);
+        } catch (RuntimeException e) {
+            // 用户提供的执行器拒绝了任务，此时还没有其他线程向订阅者发送信号
+            subscription.cancelled = true;
+            Throwable pending = subscription.pendingError;
+            subscriber.onError(pending == null ? e : pending);
+        }
+    }
+
+    /**
+     * 以回调的方式订阅，不限制接收的数量。
+     *
+     * @param onEvent 事件回调，在后台线程上依次调用
+     * @param onError 出现错误时的回调，可以是null
+     * @return 订阅，可以用来取消
+     */
+    public Flow.Subscription subscribe(Consumer<? super SseEvent<T>> onEvent, Consumer<? super Throwable> onError) {
+        Objects.requireNonNull(onEvent, "onEvent");
+        Flow.Subscription[] holder = new Flow.Subscription[1];
+        subscribe(new Flow.Subscriber<SseEvent<T>>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                holder[0] = subscription;
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(SseEvent<T> item) {
+                onEvent.accept(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                if (onError != null) {
+                    onError.accept(throwable);
+                }
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return holder[0];
+    }
+
+    /**
+     * 建立事件流的连接。
+     */
+    @FunctionalInterface
+    public interface Connector {
+
+        /**
+         * 发起请求。
+         *
+         * @param lastEventId 最后的事件 ID，首次连接时是null
+         * @param abortHandle 接收用于中止请求的句柄，取消订阅时调用，应当在发起请求之前提供
+         * @return 尚未读取的响应
+         */
+        ClassicHttpResponse connect(String lastEventId, Consumer<Cancellable> abortHandle);
+    }
+
+    private final class Subscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super SseEvent<T>> subscriber;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition signal = lock.newCondition();
+        private long demand;
+        private volatile boolean cancelled;
+        /**
+         * 当前连接的中止句柄。关闭未读完的响应会尝试读完响应体以复用连接，对事件流来说会一直阻塞，因此只能中止。
+         */
+        private volatile Cancellable connection;
+        /**
+         * 由调用者的线程产生、需要由后台线程发送给订阅者的错误（比如请求的数量不是正数），保证对订阅者的调用是串行的。
+         */
+        private volatile Throwable pendingError;
+        /**
+         * 是否已经发送了结束信号（onComplete 或者 onError），只由后台线程访问。
+         */
+        private boolean terminated;
+
+        private Subscription(Flow.Subscriber<? super SseEvent<T>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // 后台线程可能正在调用 onNext，错误交给后台线程在停止时发送
+                if (pendingError == null) {
+                    pendingError = new IllegalArgumentException("Requested number of events must be positive");
+                }
+                cancel();
+                return;
+            }
+            lock.lock();
+            try {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                signal.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            lock.lock();
+            try {
+                signal.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            Cancellable current = connection;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        private void setConnection(Cancellable current) {
+            connection = current;
+            if (cancelled) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                receive();
+            } finally {
+                Throwable pending = pendingError;
+                if (pending != null && !terminated) {
+                    error(pending);
+                }
+            }
+        }
+
+        private void complete() {
+            terminated = true;
+            subscriber.onComplete();
+        }
+
+        private void error(Throwable throwable) {
+            terminated = true;
+            subscriber.onError(throwable);
+        }
+
+        private void receive() {
+            ObjectReader reader = dataType == String.class ? null
+                    : JacksonComponentHolder.getReader(JacksonComponentHolder.getJsonMapper(false, true, true, false), dataType);
+            String lastEventId = null;
+            long delay = retryMillis;
+            int retries = 0;
+            while (!cancelled) {
+                Throwable failure = null;
+                ClassicHttpResponse current = null;
+                boolean drained = false;
+                try {
+                    current = connector.connect(lastEventId, this::setConnection);
+                    if (cancelled) {
+                        return;
+                    }
+                    if (current.getCode() == HttpStatus.SC_NO_CONTENT) {
+                        // 服务端要求不再重连
+                        complete();
+                        return;
+                    }
+                    HttpEntity entity = current.getEntity();
+                    ContentType contentType = entity == null ? null : ContentType.parseLenient(entity.getContentType());
+                    if (current.getCode() != HttpStatus.SC_OK || contentType == null || !"text/event-stream".equalsIgnoreCase(contentType.getMimeType())) {
+                        throw new UnexpectedResponseException("Unexpected event stream response: " + current.getCode() + ", content type " + contentType);
+                    }
+                    InputStream content = entity.getContent();
+                    SseParser parser = new SseParser(content, lastEventId);
+                    SseEvent<String> raw;
+                    while ((raw = parser.next()) != null) {
+                        lastEventId = parser.getLastEventId();
+                        if (parser.getReconnectionTime() >= 0) {
+                            delay = parser.getReconnectionTime();
+                        }
+                        retries = 0;
+                        SseEvent<T> event = convert(raw, reader);
+                        if (!awaitDemand()) {
+                            return;
+                        }
+                        try {
+                            subscriber.onNext(event);
+                        } catch (RuntimeException e) {
+                            throw new Unrecoverable(e);
+                        }
+                    }
+                    drained = true;
+                    lastEventId = parser.getLastEventId();
+                    if (parser.getReconnectionTime() >= 0) {
+                        delay = parser.getReconnectionTime();
+                    }
+                } catch (UnexpectedResponseException | Unrecoverable e) {
+                    // 不可恢复，不再重连
+                    if (!cancelled) {
+                        cancelled = true;
+                        error(e instanceof Unrecoverable ? e.getCause() : e);
+                    }
+                    return;
+                } catch (Throwable e) {
+                    failure = e;
+                } finally {
+                    release(current, drained);
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (maxRetries >= 0 && ++retries > maxRetries) {
+                    cancelled = true;
+                    if (failure == null) {
+                        complete();
+                    } else {
+                        error(failure);
+                    }
+                    return;
+                }
+                sleep(delay);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private SseEvent<T> convert(SseEvent<String> raw, ObjectReader reader) {
+            if (reader == null) {
+                return (SseEvent<T>) raw;
+            }
+            try {
+                return new SseEvent<>(raw.getId(), raw.getEvent(), reader.readValue(raw.getData()), raw.getRetry());
+            } catch (IOException e) {
+                throw new Unrecoverable(e);
+            }
+        }
+
+        /**
+         * 等待订阅者请求更多的事件。
+         *
+         * @return 是否可以发送，已经取消时返回false
+         */
+        private boolean awaitDemand() throws InterruptedException {
+            lock.lock();
+            try {
+                while (demand == 0 && !cancelled) {
+                    signal.await();
+                }
+                if (cancelled) {
+                    return false;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void sleep(long millis) {
+            lock.lock();
+            try {
+                long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+                while (nanos > 0 && !cancelled) {
+                    nanos = signal.awaitNanos(nanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 释放连接：响应体已经读完时归还连接，否则中止连接。
+         */
+        private void release(ClassicHttpResponse current, boolean drained) {
+            Cancellable abort = connection;
+            connection = null;
+            if (!drained && abort != null) {
+                abort.cancel();
+            }
+            if (current != null) {
+                try {
+                    current.close();
+                } catch (IOException ignored) {
+                    // 连接已经中止或者归还
+                }
+            }
+        }
+    }
+
+    /**
+     * 事件数据反序列化失败或者订阅者抛出了异常，重连也无法恢复。
+     */
+    private static final class Unrecoverable extends RuntimeException {
+
+        @Serial
+        private static final long serialVersionUID = -2871650425186348011L;
+
+        private Unrecoverable(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.mara.zoic.annohttp.http.tls;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按主机统计的 TLS 握手次数与耗时。
+ * <p>握手由 {@link com.mara.zoic.annohttp.http.proxy.HttpsConnectionSocketFactory} 记录，平均耗时的下降可以用来判断会话缓存是否生效。
+ * 不区分完整的握手与恢复的会话：TLS 1.3 通过 PSK 恢复时 JDK 也会创建新的 {@link javax.net.ssl.SSLSession}，无法可靠地判断。
+ * 统计是无锁更新的，读取到的值是近似的瞬时值。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class TlsHandshakeMetrics {
+
+    private static final Map<String, HostStats> STATS = new ConcurrentHashMap<>();
+
+    private TlsHandshakeMetrics() {
+    }
+
+    /**
+     * 记录一次握手。
+     *
+     * @param host          主机（host:port）
+     * @param durationNanos 握手的耗时
+     */
+    public static void record(String host, long durationNanos) {
+        STATS.computeIfAbsent(host, HostStats::new).record(durationNanos);
+    }
+
+    /**
+     * 获得指定主机的握手统计。
+     *
+     * @param host 主机（host:port）
+     * @return 统计；尚无握手时返回null
+     */
+    public static HostStats get(String host) {
+        return STATS.get(host);
+    }
+
+    /**
+     * 获得所有主机的握手统计，按主机排序。
+     *
+     * @return 只读的统计
+     */
+    public static Map<String, HostStats> getAll() {
+        return Collections.unmodifiableMap(new TreeMap<>(STATS));
+    }
+
+    /**
+     * 清空所有的统计。
+     */
+    public static void reset() {
+        STATS.clear();
+    }
+
+    /**
+     * 单个主机的握手统计。
+     */
+    public static final class HostStats {
+
+        private final String host;
+        private final LongAdder handshakes = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private HostStats(String host) {
+            this.host = host;
+        }
+
+        private void record(long durationNanos) {
+            handshakes.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulateAndGet(durationNanos, Math::max);
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        /**
+         * 获得握手的总次数。
+         */
+        public long getCount() {
+            return handshakes.sum();
+        }
+
+        /**
+         * 获得握手的总耗时，单位纳秒。
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * 获得握手的平均耗时，单位纳秒；尚无握手时返回0。
+         */
+        public long getAverageNanos() {
+            long count = getCount();
+            return count == 0 ? 0 : getTotalNanos() / count;
+        }
+
+        /**
+         * 获得握手的最大耗时，单位纳秒。
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        @Override
+        public String toString() {
+            return host + "{count=" + getCount() + ", avgNanos=" + getAverageNanos()
+                    + ", maxNanos=" + getMaxNanos() + "}";
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.mara.zoic.annohttp.http.tls;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * TLS 设置：启用的协议与加密套件、是否信任任意证书，以及会话缓存的大小与有效期。
+ * <p>默认启用 TLSv1.3 与 TLSv1.2，加密套件使用 JDK 的默认值，信任任意证书（与以往的行为一致）。
+ * 会话缓存让到同一主机的新连接可以恢复之前的会话，省去完整的握手。</p>
+ * <p>此类是不可变的，<code>withXxx</code> 方法返回新的实例。设置相同的实例共享同一个 {@link javax.net.ssl.SSLContext}，
+ * 参见 {@link TlsSupport#sslContext(TlsSettings)}。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class TlsSettings {
+
+    public static final String[] DEFAULT_PROTOCOLS = {"TLSv1.3", "TLSv1.2"};
+
+    public static final int DEFAULT_SESSION_CACHE_SIZE = 2048;
+
+    public static final int DEFAULT_SESSION_TIMEOUT_SECONDS = 3600;
+
+    private static final TlsSettings DEFAULTS = new TlsSettings(DEFAULT_PROTOCOLS, null, true,
+            DEFAULT_SESSION_CACHE_SIZE, DEFAULT_SESSION_TIMEOUT_SECONDS);
+
+    private final String[] protocols;
+    private final String[] cipherSuites;
+    private final boolean trustAll;
+    private final int sessionCacheSize;
+    private final int sessionTimeoutSeconds;
+
+    private TlsSettings(String[] protocols, String[] cipherSuites, boolean trustAll, int sessionCacheSize, int sessionTimeoutSeconds) {
+        this.protocols = protocols;
+        this.cipherSuites = cipherSuites;
+        this.trustAll = trustAll;
+        this.sessionCacheSize = sessionCacheSize;
+        this.sessionTimeoutSeconds = sessionTimeoutSeconds;
+    }
+
+    /**
+     * 获得默认的设置。
+     *
+     * @return 默认的设置
+     */
+    public static TlsSettings defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * 设定启用的协议。JDK 不支持的协议会被忽略。
+     *
+     * @param protocols 协议，例如 TLSv1.3；为空时使用 JDK 的默认值
+     * @return 新的设置
+     */
+    public TlsSettings withProtocols(String... protocols) {
+        return new TlsSettings(normalize(protocols), cipherSuites, trustAll, sessionCacheSize, sessionTimeoutSeconds);
+    }
+
+    /**
+     * 设定启用的加密套件。JDK 不支持的加密套件会被忽略。
+     *
+     * @param cipherSuites 加密套件；为空时使用 JDK 的默认值
+     * @return 新的设置
+     */
+    public TlsSettings withCipherSuites(String... cipherSuites) {
+        return new TlsSettings(protocols, normalize(cipherSuites), trustAll, sessionCacheSize, sessionTimeoutSeconds);
+    }
+
+    /**
+     * 设定是否信任任意证书。信任任意证书时也不会校验主机名，否则使用 JDK 默认的信任库与主机名校验。
+     *
+     * @param trustAll 是否信任任意证书
+     * @return 新的设置
+     */
+    public TlsSettings withTrustAll(boolean trustAll) {
+        return new TlsSettings(protocols, cipherSuites, trustAll, sessionCacheSize, sessionTimeoutSeconds);
+    }
+
+    /**
+     * 设定客户端会话缓存的大小。
+     *
+     * @param sessionCacheSize 最多缓存的会话数，0表示不限制
+     * @return 新的设置
+     */
+    public TlsSettings withSessionCacheSize(int sessionCacheSize) {
+        if (sessionCacheSize < 0) {
+            throw new IllegalArgumentException("Session cache size can't be negative");
+        }
+        return new TlsSettings(protocols, cipherSuites, trustAll, sessionCacheSize, sessionTimeoutSeconds);
+    }
+
+    /**
+     * 设定客户端会话缓存的有效期。
+     *
+     * @param sessionTimeoutSeconds 有效期（秒），0表示不限制
+     * @return 新的设置
+     */
+    public TlsSettings withSessionTimeoutSeconds(int sessionTimeoutSeconds) {
+        if (sessionTimeoutSeconds < 0) {
+            throw new IllegalArgumentException("Session timeout can't be negative");
+        }
+        return new TlsSettings(protocols, cipherSuites, trustAll, sessionCacheSize, sessionTimeoutSeconds);
+    }
+
+    /**
+     * 获得启用的协议。
+     *
+     * @return 协议；使用 JDK 的默认值时返回null
+     */
+    public String[] getProtocols() {
+        return protocols == null ? null : protocols.clone();
+    }
+
+    /**
+     * 获得启用的加密套件。
+     *
+     * @return 加密套件；使用 JDK 的默认值时返回null
+     */
+    public String[] getCipherSuites() {
+        return cipherSuites == null ? null : cipherSuites.clone();
+    }
+
+    public boolean isTrustAll() {
+        return trustAll;
+    }
+
+    public int getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    public int getSessionTimeoutSeconds() {
+        return sessionTimeoutSeconds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TlsSettings s && s.trustAll == trustAll && s.sessionCacheSize == sessionCacheSize
+                && s.sessionTimeoutSeconds == sessionTimeoutSeconds && Arrays.equals(s.protocols, protocols)
+                && Arrays.equals(s.cipherSuites, cipherSuites);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(protocols), Arrays.hashCode(cipherSuites), trustAll, sessionCacheSize, sessionTimeoutSeconds);
+    }
+
+    @Override
+    public String toString() {
+        return "TlsSettings{protocols=" + Arrays.toString(protocols) + ", cipherSuites=" + Arrays.toString(cipherSuites)
+                + ", trustAll=" + trustAll + ", sessionCacheSize=" + sessionCacheSize
+                + ", sessionTimeoutSeconds=" + sessionTimeoutSeconds + "}";
+    }
+
+    private static String[] normalize(String[] values) {
+        if (values == null) {
+            return null;
+        }
+        String[] result = Arrays.stream(values).filter(Objects::nonNull).map(String::trim).filter(s -> !s.isEmpty()).distinct()
+                .toArray(String[]::new);
+        return result.length == 0 ? null : result;
+    }
+}
@@ -0,0 +1,113 @@
+package com.mara.zoic.annohttp.http.tls;
+
+import com.mara.zoic.annohttp.http.proxy.HttpsConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.apache.hc.core5.ssl.SSLContexts;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按照 {@link TlsSettings} 创建 TLS 相关的组件。
+ * <p>设置相同的组件共享同一个 {@link SSLContext}（以及其中的客户端会话缓存），因此不同的 HttpClient 到同一主机的连接也可以恢复会话。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class TlsSupport {
+
+    private static final Map<TlsSettings, SSLContext> CONTEXTS = new ConcurrentHashMap<>();
+
+    private TlsSupport() {
+    }
+
+    /**
+     * 获得共享的 {@link SSLContext}，会话缓存的大小与有效期已经按照设置调整。
+     *
+     * @param settings TLS 设置
+     * @return SSLContext
+     */
+    public static SSLContext sslContext(TlsSettings settings) {
+        // 协议与加密套件在套接字上设定，不影响 SSLContext 本身
+        TlsSettings key = settings.withProtocols().withCipherSuites();
+        return CONTEXTS.computeIfAbsent(key, TlsSupport::createSslContext);
+    }
+
+    /**
+     * 创建 HTTPS 的连接套接字工厂。
+     *
+     * @param settings TLS 设置
+     * @return 连接套接字工厂
+     */
+    public static HttpsConnectionSocketFactory socketFactory(TlsSettings settings) {
+        SSLContext sslContext = sslContext(settings);
+        return new HttpsConnectionSocketFactory(sslContext,
+                supported(settings.getProtocols(), sslContext.getSupportedSSLParameters().getProtocols()),
+                supported(settings.getCipherSuites(), sslContext.getSupportedSSLParameters().getCipherSuites()),
+                settings.isTrustAll() ? NoopHostnameVerifier.INSTANCE : null);
+    }
+
+    /**
+     * 创建异步（HTTP/2）客户端使用的 TLS 策略，与 {@link #socketFactory(TlsSettings)} 使用相同的 SSLContext、协议、加密套件与主机名校验。
+     *
+     * @param settings TLS 设置
+     * @return TLS 策略
+     */
+    public static TlsStrategy tlsStrategy(TlsSettings settings) {
+        SSLContext sslContext = sslContext(settings);
+        ClientTlsStrategyBuilder builder = ClientTlsStrategyBuilder.create().setSslContext(sslContext);
+        String[] protocols = supported(settings.getProtocols(), sslContext.getSupportedSSLParameters().getProtocols());
+        if (protocols != null) {
+            builder.setTlsVersions(protocols);
+        }
+        String[] cipherSuites = supported(settings.getCipherSuites(), sslContext.getSupportedSSLParameters().getCipherSuites());
+        if (cipherSuites != null) {
+            builder.setCiphers(cipherSuites);
+        }
+        if (settings.isTrustAll()) {
+            builder.setHostnameVerifier(NoopHostnameVerifier.INSTANCE);
+        }
+        return builder.build();
+    }
+
+    private static SSLContext createSslContext(TlsSettings settings) {
+        SSLContext sslContext;
+        try {
+            if (settings.isTrustAll()) {
+                // 全部信任 不做身份鉴定
+                sslContext = new SSLContextBuilder().loadTrustMaterial(null, (chain, authType) -> true).build();
+            } else {
+                // 使用默认的信任库，但不使用 JVM 全局的 SSLContext，以免修改其会话缓存
+                sslContext = SSLContexts.createDefault();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create SSLContext", e);
+        }
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        sessionContext.setSessionCacheSize(settings.getSessionCacheSize());
+        sessionContext.setSessionTimeout(settings.getSessionTimeoutSeconds());
+        return sslContext;
+    }
+
+    /**
+     * 去掉 JDK 不支持的值，避免在创建套接字时失败。
+     *
+     * @return 支持的值；没有设定或者全部都不支持时返回null，即使用 JDK 的默认值
+     */
+    private static String[] supported(String[] configured, String[] supported) {
+        if (configured == null) {
+            return null;
+        }
+        Set<String> supportedSet = new HashSet<>(Arrays.asList(supported));
+        String[] result = Arrays.stream(configured).filter(supportedSet::contains).toArray(String[]::new);
+        return result.length == 0 ? null : result;
+    }
+}
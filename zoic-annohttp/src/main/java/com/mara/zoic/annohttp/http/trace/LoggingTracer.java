@@ -0,0 +1,111 @@
+package com.mara.zoic.annohttp.http.trace;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 将跨度输出到日志的追踪器。每个请求结束时以 INFO 级别输出一行，包括追踪ID、跨度ID、耗时以及各个阶段相对于开始时间的偏移。
+ * <p>适合在没有接入追踪系统时定位请求的耗时分布。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class LoggingTracer implements Tracer {
+
+    private static final SpanPhase[] PHASES = SpanPhase.values();
+
+    private final Logger logger;
+
+    public LoggingTracer() {
+        this(LoggerFactory.getLogger("com.mara.zoic.annohttp.trace"));
+    }
+
+    public LoggingTracer(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public Span startSpan(HttpClientMetadata metadata, ClassicHttpRequest request) {
+        TraceContext parent = TraceContext.resolveParent(request);
+        TraceContext context = parent == null ? TraceContext.newRoot(true) : parent.newChild();
+        return new LoggingSpan(parent, context, request.getMethod() + " " + request.getRequestUri());
+    }
+
+    private final class LoggingSpan implements Span {
+
+        private final TraceContext parent;
+
+        private final TraceContext context;
+
+        private final String name;
+
+        private final long startNanos = System.nanoTime();
+
+        /**
+         * 各个阶段第一次完成时相对于开始时间的偏移（纳秒），0代表未发生。
+         */
+        private final long[] phaseNanos = new long[PHASES.length];
+
+        private boolean ended;
+
+        LoggingSpan(TraceContext parent, TraceContext context, String name) {
+            this.parent = parent;
+            this.context = context;
+            this.name = name;
+        }
+
+        @Override
+        public TraceContext getContext() {
+            return context;
+        }
+
+        @Override
+        public void event(SpanPhase phase) {
+            if (phaseNanos[phase.ordinal()] == 0) {
+                phaseNanos[phase.ordinal()] = Math.max(1L, System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public void end(int statusCode, Throwable error) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            if (!logger.isInfoEnabled()) {
+                return;
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            StringBuilder sb = new StringBuilder(160).append("trace=").append(context.getTraceId())
+                    .append(" span=").append(context.getSpanId());
+            if (parent != null) {
+                sb.append(" parent=").append(parent.getSpanId());
+            }
+            sb.append(' ').append(name).append(" -> ").append(statusCode).append(" in ").append(toMillis(elapsedNanos)).append("ms [");
+            boolean first = true;
+            for (SpanPhase phase : PHASES) {
+                long nanos = phaseNanos[phase.ordinal()];
+                if (nanos != 0) {
+                    if (!first) {
+                        sb.append(", ");
+                    }
+                    first = false;
+                    sb.append(phase.name().toLowerCase()).append('=').append(toMillis(nanos)).append("ms");
+                }
+            }
+            sb.append(']');
+            if (error != null) {
+                sb.append(" error=").append(error);
+            }
+            logger.info(sb.toString());
+        }
+
+        private static String toMillis(long nanos) {
+            return String.format("%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+}
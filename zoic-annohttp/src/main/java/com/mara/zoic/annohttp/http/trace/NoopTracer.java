@@ -0,0 +1,38 @@
+package com.mara.zoic.annohttp.http.trace;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+
+/**
+ * 什么都不做的追踪器，不会发送追踪相关的请求头。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class NoopTracer implements Tracer {
+
+    public static final NoopTracer INSTANCE = new NoopTracer();
+
+    private static final Span NOOP_SPAN = new Span() {
+        @Override
+        public TraceContext getContext() {
+            return null;
+        }
+
+        @Override
+        public void event(SpanPhase phase) {
+        }
+
+        @Override
+        public void end(int statusCode, Throwable error) {
+        }
+    };
+
+    private NoopTracer() {
+    }
+
+    @Override
+    public Span startSpan(HttpClientMetadata metadata, ClassicHttpRequest request) {
+        return NOOP_SPAN;
+    }
+}
@@ -0,0 +1,34 @@
+package com.mara.zoic.annohttp.http.trace;
+
+/**
+ * 代表一次请求的跨度（span）。
+ * <p>同一个跨度的方法可能在不同的线程上被调用，但是不会被并发调用。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see Tracer
+ */
+public interface Span {
+
+    /**
+     * 获得此跨度的追踪上下文，annohttp 会将其以 <code>traceparent</code> 与 <code>tracestate</code> 请求头的形式发送给下游。
+     *
+     * @return 追踪上下文；返回null时不发送
+     */
+    TraceContext getContext();
+
+    /**
+     * 某个阶段完成。同一个阶段可能被通知多次（比如重试、重定向），实现类可以自行决定如何处理。
+     *
+     * @param phase 阶段
+     */
+    void event(SpanPhase phase);
+
+    /**
+     * 结束跨度，只会被调用一次。
+     *
+     * @param statusCode 响应码，没有收到响应时是-1
+     * @param error      请求失败的原因，成功时是null
+     */
+    void end(int statusCode, Throwable error);
+}
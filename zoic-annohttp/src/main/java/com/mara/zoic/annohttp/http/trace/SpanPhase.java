@@ -0,0 +1,37 @@
+package com.mara.zoic.annohttp.http.trace;
+
+/**
+ * 请求过程中的阶段，每个阶段在完成时以事件的形式通知 {@link Span}。
+ * <p>复用连接池中已经建立的连接时没有 {@link #CONNECT} 与 {@link #TLS} 事件；使用自定义的 HttpClient 时只有
+ * {@link #TTFB} 与 {@link #CONVERT} 事件。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public enum SpanPhase {
+
+    /**
+     * 从连接池中获得了连接。
+     */
+    LEASE,
+
+    /**
+     * 新的连接建立完成（TCP）。
+     */
+    CONNECT,
+
+    /**
+     * TLS 握手完成。
+     */
+    TLS,
+
+    /**
+     * 收到了响应头（Time To First Byte）。
+     */
+    TTFB,
+
+    /**
+     * 响应转换完成。只有 {@link com.mara.zoic.annohttp.http.PreparingRequest#request()} 及其异步版本存在此阶段。
+     */
+    CONVERT
+}
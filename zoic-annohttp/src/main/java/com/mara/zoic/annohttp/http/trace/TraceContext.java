@@ -0,0 +1,248 @@
+package com.mara.zoic.annohttp.http.trace;
+
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.Header;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * W3C Trace Context（<a href="https://www.w3.org/TR/trace-context/">https://www.w3.org/TR/trace-context/</a>）中的追踪上下文。
+ * <p>与 {@link com.mara.zoic.annohttp.http.Deadline} 类似，可以通过 {@link #call(TraceContext, Supplier)} 在当前线程上设定上下文，
+ * 此期间创建的请求的跨度会以其为父跨度；请求中已经存在 <code>traceparent</code> 请求头时以请求头为准。</p>
+ * <p>此类是不可变的。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class TraceContext {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    public static final String TRACESTATE = "tracestate";
+
+    private static final ThreadLocal<TraceContext> CONTEXT = new ThreadLocal<>();
+
+    private static final String VERSION = "00";
+
+    private static final int FLAG_SAMPLED = 0x01;
+
+    private final String traceId;
+
+    private final String spanId;
+
+    private final int flags;
+
+    private final String traceState;
+
+    private TraceContext(String traceId, String spanId, int flags, String traceState) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.flags = flags;
+        this.traceState = traceState;
+    }
+
+    /**
+     * 创建一个新的追踪（根跨度）。
+     *
+     * @param sampled 是否被采样
+     * @return 追踪上下文
+     */
+    public static TraceContext newRoot(boolean sampled) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high;
+        long low;
+        do {
+            high = random.nextLong();
+            low = random.nextLong();
+        } while (high == 0 && low == 0);
+        return new TraceContext(toHex(high) + toHex(low), newSpanId(), sampled ? FLAG_SAMPLED : 0, null);
+    }
+
+    /**
+     * 解析 <code>traceparent</code> 与 <code>tracestate</code>。
+     *
+     * @param traceparent traceparent 的值
+     * @param tracestate  tracestate 的值，可以是null
+     * @return 追踪上下文；traceparent 不合法时返回null
+     */
+    public static TraceContext parse(String traceparent, String tracestate) {
+        if (traceparent == null) {
+            return null;
+        }
+        String value = traceparent.trim();
+        // version(2)-traceId(32)-spanId(16)-flags(2)，未来的版本可能在后面追加字段
+        if (value.length() < 55 || value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-'
+                || (value.length() > 55 && value.charAt(55) != '-') || value.startsWith("ff")) {
+            return null;
+        }
+        String traceId = value.substring(3, 35);
+        String spanId = value.substring(36, 52);
+        if (!isHex(value, 0, 2) || !isHex(traceId, 0, 32) || !isHex(spanId, 0, 16) || !isHex(value, 53, 55)
+                || isZero(traceId) || isZero(spanId)) {
+            return null;
+        }
+        String state = tracestate == null || tracestate.isBlank() ? null : tracestate.trim();
+        return new TraceContext(traceId, spanId, Integer.parseInt(value.substring(53, 55), 16), state);
+    }
+
+    /**
+     * 获得请求的父跨度：优先使用请求中已有的 <code>traceparent</code> 请求头，其次使用当前线程上的上下文。
+     *
+     * @param request 请求
+     * @return 父跨度的上下文；都不存在时返回null
+     */
+    public static TraceContext resolveParent(ClassicHttpRequest request) {
+        Header traceparent = request.getFirstHeader(TRACEPARENT);
+        if (traceparent != null) {
+            Header tracestate = request.getFirstHeader(TRACESTATE);
+            TraceContext parent = parse(traceparent.getValue(), tracestate == null ? null : tracestate.getValue());
+            if (parent != null) {
+                return parent;
+            }
+        }
+        return CONTEXT.get();
+    }
+
+    /**
+     * 获得当前线程上的追踪上下文。
+     *
+     * @return 追踪上下文；不存在时返回null
+     */
+    public static TraceContext current() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * 在指定的追踪上下文下执行，执行完毕后恢复原有的上下文。
+     *
+     * @param context  追踪上下文
+     * @param supplier 要执行的逻辑
+     * @return 逻辑的返回值
+     * @param <R> 返回值类型
+     */
+    public static <R> R call(TraceContext context, Supplier<R> supplier) {
+        Objects.requireNonNull(context);
+        TraceContext previous = CONTEXT.get();
+        CONTEXT.set(context);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                CONTEXT.remove();
+            } else {
+                CONTEXT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 在指定的追踪上下文下执行。
+     *
+     * @param context  追踪上下文
+     * @param runnable 要执行的逻辑
+     * @see #call(TraceContext, Supplier)
+     */
+    public static void run(TraceContext context, Runnable runnable) {
+        call(context, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * 创建子跨度的上下文：追踪ID、标志位与 tracestate 不变，跨度ID重新生成。
+     *
+     * @return 子跨度的上下文
+     */
+    public TraceContext newChild() {
+        return new TraceContext(traceId, newSpanId(), flags, traceState);
+    }
+
+    /**
+     * 转换为 <code>traceparent</code> 请求头的值。
+     *
+     * @return traceparent
+     */
+    public String toTraceparent() {
+        StringBuilder sb = new StringBuilder(55).append(VERSION).append('-').append(traceId).append('-').append(spanId).append('-');
+        if (flags < 0x10) {
+            sb.append('0');
+        }
+        return sb.append(Integer.toHexString(flags)).toString();
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public boolean isSampled() {
+        return (flags & FLAG_SAMPLED) != 0;
+    }
+
+    /**
+     * 获得 tracestate 的值。
+     *
+     * @return tracestate；不存在时返回null
+     */
+    public String getTraceState() {
+        return traceState;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TraceContext c && c.traceId.equals(traceId) && c.spanId.equals(spanId)
+                && c.flags == flags && Objects.equals(c.traceState, traceState);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(traceId, spanId, flags, traceState);
+    }
+
+    @Override
+    public String toString() {
+        return traceState == null ? toTraceparent() : toTraceparent() + " " + traceState;
+    }
+
+    private static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return toHex(id);
+    }
+
+    private static String toHex(long value) {
+        String hex = Long.toHexString(value);
+        return hex.length() == 16 ? hex : "0".repeat(16 - hex.length()) + hex;
+    }
+
+    private static boolean isHex(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,26 @@
+package com.mara.zoic.annohttp.http.trace;
+
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+
+/**
+ * 追踪器，为每个请求创建一个 {@link Span}。
+ * <p>通过 {@link Tracing#setTracer(Tracer)} 安装。没有安装追踪器时 annohttp 不会产生任何与追踪相关的对象。</p>
+ * <p>对接 OpenTelemetry 等追踪系统时，实现此接口并在 {@link Span} 中调用相应的 API 即可。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see NoopTracer
+ * @see LoggingTracer
+ */
+public interface Tracer {
+
+    /**
+     * 为即将发送的请求创建跨度。父跨度一般通过 {@link TraceContext#resolveParent(ClassicHttpRequest)} 获得。
+     *
+     * @param metadata 客户端元数据
+     * @param request  即将发送的请求（请求头已经填充完毕）
+     * @return 跨度，不能是null
+     */
+    Span startSpan(HttpClientMetadata metadata, ClassicHttpRequest request);
+}
@@ -0,0 +1,53 @@
+package com.mara.zoic.annohttp.http.trace;
+
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+/**
+ * 追踪器的全局入口。
+ * <p>默认没有安装追踪器，此时请求流程中只有一次 volatile 读取，不会产生任何对象。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class Tracing {
+
+    /**
+     * 请求执行期间，跨度在 {@link HttpContext} 中的属性名。
+     */
+    public static final String SPAN_ATTRIBUTE = Span.class.getName();
+
+    private static volatile Tracer tracer;
+
+    private Tracing() {
+    }
+
+    /**
+     * 安装追踪器。
+     *
+     * @param newTracer 追踪器，null代表卸载
+     */
+    public static void setTracer(Tracer newTracer) {
+        tracer = newTracer;
+    }
+
+    /**
+     * 获得已经安装的追踪器。
+     *
+     * @return 追踪器；没有安装时返回null
+     */
+    public static Tracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * 通知上下文中的跨度某个阶段完成。上下文中没有跨度时什么都不做。
+     *
+     * @param context HTTP上下文，可以是null
+     * @param phase   阶段
+     */
+    public static void event(HttpContext context, SpanPhase phase) {
+        if (context != null && context.getAttribute(SPAN_ATTRIBUTE) instanceof Span span) {
+            span.event(phase);
+        }
+    }
+}
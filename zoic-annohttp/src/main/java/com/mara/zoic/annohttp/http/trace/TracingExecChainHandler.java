@@ -0,0 +1,122 @@
+package com.mara.zoic.annohttp.http.trace;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.classic.ExecRuntime;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.CancellableDependency;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.util.TimeValue;
+
+import java.io.IOException;
+
+/**
+ * 位于执行链中建立连接（{@link org.apache.hc.client5.http.impl.ChainElement#CONNECT}）之前的处理器，在从连接池中获得连接之后通知 {@link SpanPhase#LEASE}。
+ * <p>这是通知 {@link SpanPhase#LEASE} 的唯一位置：无论连接是新建的还是复用的，都在获得连接之后、建立连接（{@link SpanPhase#CONNECT}、{@link SpanPhase#TLS}）之前通知一次。
+ * 上下文中没有跨度时直接执行，不产生任何对象。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class TracingExecChainHandler implements ExecChainHandler {
+
+    public static final String NAME = "annohttp-tracing";
+
+    @Override
+    public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain) throws IOException, HttpException {
+        if (!(scope.clientContext.getAttribute(Tracing.SPAN_ATTRIBUTE) instanceof Span span) || scope.execRuntime.isEndpointAcquired()) {
+            return chain.proceed(request, scope);
+        }
+        ExecChain.Scope tracedScope = new ExecChain.Scope(scope.exchangeId, scope.route, scope.originalRequest,
+                new LeaseTracingExecRuntime(scope.execRuntime, span), scope.clientContext);
+        return chain.proceed(request, tracedScope);
+    }
+
+    /**
+     * 在获得连接之后通知 {@link SpanPhase#LEASE} 的执行时，其余的方法直接委托。
+     */
+    private static final class LeaseTracingExecRuntime implements ExecRuntime {
+
+        private final ExecRuntime delegate;
+        private final Span span;
+
+        private LeaseTracingExecRuntime(ExecRuntime delegate, Span span) {
+            this.delegate = delegate;
+            this.span = span;
+        }
+
+        @Override
+        public void acquireEndpoint(String id, HttpRoute route, Object state, HttpClientContext context) throws IOException {
+            delegate.acquireEndpoint(id, route, state, context);
+            span.event(SpanPhase.LEASE);
+        }
+
+        @Override
+        public boolean isExecutionAborted() {
+            return delegate.isExecutionAborted();
+        }
+
+        @Override
+        public boolean isEndpointAcquired() {
+            return delegate.isEndpointAcquired();
+        }
+
+        @Override
+        public void releaseEndpoint() {
+            delegate.releaseEndpoint();
+        }
+
+        @Override
+        public void discardEndpoint() {
+            delegate.discardEndpoint();
+        }
+
+        @Override
+        public boolean isEndpointConnected() {
+            return delegate.isEndpointConnected();
+        }
+
+        @Override
+        public void disconnectEndpoint() throws IOException {
+            delegate.disconnectEndpoint();
+        }
+
+        @Override
+        public void connectEndpoint(HttpClientContext context) throws IOException {
+            delegate.connectEndpoint(context);
+        }
+
+        @Override
+        public void upgradeTls(HttpClientContext context) throws IOException {
+            delegate.upgradeTls(context);
+        }
+
+        @Override
+        public ClassicHttpResponse execute(String id, ClassicHttpRequest request, HttpClientContext context) throws IOException, HttpException {
+            return delegate.execute(id, request, context);
+        }
+
+        @Override
+        public boolean isConnectionReusable() {
+            return delegate.isConnectionReusable();
+        }
+
+        @Override
+        public void markConnectionReusable(Object state, TimeValue validityTime) {
+            delegate.markConnectionReusable(state, validityTime);
+        }
+
+        @Override
+        public void markConnectionNonReusable() {
+            delegate.markConnectionNonReusable();
+        }
+
+        @Override
+        public ExecRuntime fork(CancellableDependency cancellableAware) {
+            return new LeaseTracingExecRuntime(delegate.fork(cancellableAware), span);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.mara.zoic.annohttp.http.wirelog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 默认的输出目标：以 INFO 级别输出到名为 <code>com.mara.zoic.annohttp.wire</code> 的日志记录器。
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class Slf4jWireLogSink implements WireLogSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("com.mara.zoic.annohttp.wire");
+
+    @Override
+    public void accept(WireLogEntry entry) {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info(entry.toString());
+        }
+    }
+}
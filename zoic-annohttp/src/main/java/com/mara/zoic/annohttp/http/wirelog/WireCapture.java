@@ -0,0 +1,351 @@
+package com.mara.zoic.annohttp.http.wirelog;
+
+import com.mara.zoic.annohttp.annotation.WireLog;
+import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import org.apache.hc.core5.http.*;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.http.message.BasicHeader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 一次被抽中的请求的报文采集器。
+ * <p>通过 {@link #sample(HttpClientMetadata)} 获得，未启用或者未被抽中时返回null，此时请求流程中不会产生任何额外的对象。
+ * 请求发送前调用 {@link #onRequest(ClassicHttpRequest)}，收到响应头后调用 {@link #onResponse(ClassicHttpResponse, long)}
+ * （或者失败时调用 {@link #onFailure(Exception, long)}）。</p>
+ * <p>响应体在被读取的同时记录，读取完毕或者关闭后记录才会提交到 {@link WireLogger}。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class WireCapture {
+
+    private static final String REDACTED = "***";
+
+    private static final Map<WireLog, Redaction> REDACTIONS = new ConcurrentHashMap<>();
+
+    private final long timestampMillis = System.currentTimeMillis();
+    private final String service;
+    private final Redaction redaction;
+    private final int maxBodyBytes;
+
+    private String method;
+    private String uri;
+    private List<Header> requestHeaders = Collections.emptyList();
+    private String requestBody;
+    private boolean requestBodyTruncated;
+    private int statusCode = -1;
+    private List<Header> responseHeaders = Collections.emptyList();
+    private long elapsedNanos;
+    private boolean published;
+
+    private WireCapture(String service, Redaction redaction, int maxBodyBytes) {
+        this.service = service;
+        this.redaction = redaction;
+        this.maxBodyBytes = Math.max(0, maxBodyBytes);
+    }
+
+    /**
+     * 按照服务接口上的 {@link WireLog} 进行抽样。
+     *
+     * @param metadata 客户端元数据
+     * @return 采集器；未启用报文记录或者未被抽中时返回null
+     */
+    public static WireCapture sample(HttpClientMetadata metadata) {
+        WireLog wireLog = metadata.getWireLogAnnotation();
+        if (wireLog == null) {
+            return null;
+        }
+        double sampleRate = wireLog.sampleRate();
+        if (sampleRate < 1D && (sampleRate <= 0D || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return null;
+        }
+        Class<?> serviceClientClass = metadata.getServiceClientClass();
+        return new WireCapture(serviceClientClass == null ? "" : serviceClientClass.getName(),
+                REDACTIONS.computeIfAbsent(wireLog, Redaction::new), wireLog.maxBodyBytes());
+    }
+
+    /**
+     * 记录请求。请求体只有在可以重复读取时才会被记录。
+     *
+     * @param request 即将发送的请求
+     */
+    public void onRequest(ClassicHttpRequest request) {
+        method = request.getMethod();
+        String requestUri;
+        try {
+            requestUri = request.getUri().toString();
+        } catch (Exception e) {
+            requestUri = request.getRequestUri();
+        }
+        uri = redaction.redactUri(requestUri);
+        requestHeaders = redaction.redactHeaders(request.getHeaders());
+        HttpEntity entity = request.getEntity();
+        if (entity != null && maxBodyBytes > 0 && entity.isRepeatable()) {
+            try (InputStream in = entity.getContent()) {
+                byte[] bytes = in.readNBytes(maxBodyBytes + 1);
+                requestBodyTruncated = bytes.length > maxBodyBytes;
+                requestBody = redaction.redactBody(new String(bytes, 0, Math.min(bytes.length, maxBodyBytes), charsetOf(entity)), requestBodyTruncated);
+            } catch (IOException | RuntimeException e) {
+                requestBody = "<unreadable: " + e + ">";
+            }
+        }
+    }
+
+    /**
+     * 记录响应。如果需要记录响应体，那么响应中的实体会被替换为边读边记录的实体。
+     *
+     * @param response     响应
+     * @param elapsedNanos 从开始发送到收到响应头的耗时
+     */
+    public void onResponse(ClassicHttpResponse response, long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+        statusCode = response.getCode();
+        responseHeaders = redaction.redactHeaders(response.getHeaders());
+        HttpEntity entity = response.getEntity();
+        if (entity == null || maxBodyBytes == 0) {
+            publish(null, false, null);
+        } else {
+            response.setEntity(new CapturingEntity(entity));
+        }
+    }
+
+    /**
+     * 记录失败的请求。
+     *
+     * @param cause        失败的原因
+     * @param elapsedNanos 从开始发送到失败的耗时
+     */
+    public void onFailure(Exception cause, long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+        publish(null, false, String.valueOf(cause));
+    }
+
+    private void publish(String responseBody, boolean responseBodyTruncated, String failure) {
+        if (published) {
+            return;
+        }
+        published = true;
+        WireLogger.publish(new WireLogEntry(timestampMillis, service, method, uri, requestHeaders, requestBody, requestBodyTruncated,
+                statusCode, responseHeaders, responseBody, responseBodyTruncated, elapsedNanos, failure));
+    }
+
+    private static Charset charsetOf(HttpEntity entity) {
+        ContentType contentType = ContentType.parseLenient(entity.getContentType());
+        Charset charset = contentType == null ? null : contentType.getCharset();
+        return charset == null ? StandardCharsets.UTF_8 : charset;
+    }
+
+    /**
+     * 边读边记录的实体，最多记录 maxBodyBytes 个字节。
+     */
+    private final class CapturingEntity extends HttpEntityWrapper {
+
+        private InputStream content;
+
+        CapturingEntity(HttpEntity wrappedEntity) {
+            super(wrappedEntity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            // 可重复读取的实体每次返回新的流，只有第一次读取会被记录
+            if (content == null || isRepeatable()) {
+                content = new CapturingInputStream(super.getContent(), charsetOf(this));
+            }
+            return content;
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            try (InputStream in = getContent()) {
+                in.transferTo(outStream);
+            }
+        }
+    }
+
+    private final class CapturingInputStream extends FilterInputStream {
+
+        private final ByteArrayOutputStream captured = new ByteArrayOutputStream(Math.min(maxBodyBytes, 1024));
+
+        private final Charset charset;
+
+        private boolean truncated;
+
+        CapturingInputStream(InputStream in, Charset charset) {
+            super(in);
+            this.charset = charset;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) {
+                complete();
+            } else {
+                if (captured.size() < maxBodyBytes) {
+                    captured.write(b);
+                } else {
+                    truncated = true;
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n == -1) {
+                complete();
+            } else {
+                capture(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                complete();
+            }
+        }
+
+        private void capture(byte[] b, int off, int len) {
+            int remaining = maxBodyBytes - captured.size();
+            if (len > remaining) {
+                truncated = true;
+            }
+            if (remaining > 0) {
+                captured.write(b, off, Math.min(len, remaining));
+            }
+        }
+
+        private void complete() {
+            if (!published) {
+                publish(redaction.redactBody(captured.toString(charset), truncated), truncated, null);
+            }
+        }
+    }
+
+    /**
+     * 按照 {@link WireLog} 编译好的隐去规则，每个注解实例只编译一次。
+     */
+    private static final class Redaction {
+
+        private final Set<String> headers = new HashSet<>();
+
+        private final Set<String> queries;
+
+        private final Pattern[] bodyPatterns;
+
+        Redaction(WireLog wireLog) {
+            for (String header : wireLog.redactHeaders()) {
+                headers.add(header.toLowerCase(Locale.ROOT));
+            }
+            queries = new HashSet<>(Arrays.asList(wireLog.redactQueries()));
+            bodyPatterns = Arrays.stream(wireLog.redactBodyPatterns()).map(Pattern::compile).toArray(Pattern[]::new);
+        }
+
+        List<Header> redactHeaders(Header[] source) {
+            List<Header> result = new ArrayList<>(source.length);
+            for (Header header : source) {
+                result.add(headers.contains(header.getName().toLowerCase(Locale.ROOT))
+                        ? new BasicHeader(header.getName(), REDACTED) : new BasicHeader(header.getName(), header.getValue()));
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        String redactUri(String uri) {
+            int queryStart = uri.indexOf('?');
+            if (queries.isEmpty() || queryStart < 0) {
+                return uri;
+            }
+            int fragmentStart = uri.indexOf('#', queryStart);
+            String query = fragmentStart < 0 ? uri.substring(queryStart + 1) : uri.substring(queryStart + 1, fragmentStart);
+            StringBuilder sb = new StringBuilder(uri.length()).append(uri, 0, queryStart + 1);
+            String[] pairs = query.split("&", -1);
+            for (int i = 0; i < pairs.length; i++) {
+                if (i > 0) {
+                    sb.append('&');
+                }
+                int eq = pairs[i].indexOf('=');
+                if (eq > 0 && queries.contains(pairs[i].substring(0, eq))) {
+                    sb.append(pairs[i], 0, eq + 1).append(REDACTED);
+                } else {
+                    sb.append(pairs[i]);
+                }
+            }
+            if (fragmentStart >= 0) {
+                sb.append(uri, fragmentStart, uri.length());
+            }
+            return sb.toString();
+        }
+
+        /**
+         * 隐去报文体中的敏感内容。
+         *
+         * @param body      报文体（可能已经被截断）
+         * @param truncated 是否被截断
+         * @return 隐去之后的报文体
+         */
+        String redactBody(String body, boolean truncated) {
+            if (truncated) {
+                // 被截断的敏感内容（比如只剩下 "password":"p@s）不再匹配表达式，从可能匹配的位置开始全部隐去
+                int partialStart = partialMatchStart(body);
+                if (partialStart >= 0) {
+                    return redactBody(body.substring(0, partialStart), false) + REDACTED;
+                }
+            }
+            for (Pattern pattern : bodyPatterns) {
+                Matcher matcher = pattern.matcher(body);
+                if (!matcher.find()) {
+                    continue;
+                }
+                StringBuilder sb = new StringBuilder(body.length());
+                int last = 0;
+                do {
+                    int group = matcher.groupCount() > 0 && matcher.start(1) >= 0 ? 1 : 0;
+                    sb.append(body, last, matcher.start(group)).append(REDACTED);
+                    last = matcher.end(group);
+                } while (matcher.find());
+                body = sb.append(body, last, body.length()).toString();
+            }
+            return body;
+        }
+
+        /**
+         * 查找末尾不完整的匹配：从该位置开始不匹配，但是更多的输入可能会匹配。
+         *
+         * @param body 报文体
+         * @return 最早的不完整匹配的开始位置；不存在时返回-1
+         */
+        private int partialMatchStart(String body) {
+            int earliest = -1;
+            for (Pattern pattern : bodyPatterns) {
+                Matcher matcher = pattern.matcher(body);
+                int limit = earliest < 0 ? body.length() : earliest;
+                for (int i = 0; i < limit; i++) {
+                    matcher.region(i, body.length());
+                    if (!matcher.lookingAt() && matcher.hitEnd()) {
+                        earliest = i;
+                        break;
+                    }
+                }
+            }
+            return earliest;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.mara.zoic.annohttp.http.wirelog;
+
+import org.apache.hc.core5.http.Header;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次请求的报文记录，已经按照 {@link com.mara.zoic.annohttp.annotation.WireLog} 的设定隐去了敏感的内容。
+ * <p>此类是不可变的。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class WireLogEntry {
+
+    private final long timestampMillis;
+    private final String service;
+    private final String method;
+    private final String uri;
+    private final List<Header> requestHeaders;
+    private final String requestBody;
+    private final boolean requestBodyTruncated;
+    private final int statusCode;
+    private final List<Header> responseHeaders;
+    private final String responseBody;
+    private final boolean responseBodyTruncated;
+    private final long elapsedNanos;
+    private final String failure;
+
+    WireLogEntry(long timestampMillis, String service, String method, String uri, List<Header> requestHeaders,
+                 String requestBody, boolean requestBodyTruncated, int statusCode, List<Header> responseHeaders,
+                 String responseBody, boolean responseBodyTruncated, long elapsedNanos, String failure) {
+        this.timestampMillis = timestampMillis;
+        this.service = service;
+        this.method = method;
+        this.uri = uri;
+        this.requestHeaders = requestHeaders;
+        this.requestBody = requestBody;
+        this.requestBodyTruncated = requestBodyTruncated;
+        this.statusCode = statusCode;
+        this.responseHeaders = responseHeaders;
+        this.responseBody = responseBody;
+        this.responseBodyTruncated = responseBodyTruncated;
+        this.elapsedNanos = elapsedNanos;
+        this.failure = failure;
+    }
+
+    /**
+     * 请求开始的时间（毫秒时间戳）。
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * 服务接口的全限定名。
+     */
+    public String getService() {
+        return service;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public List<Header> getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    /**
+     * 请求体（可能被截断）。没有请求体、请求体不可重复读取或者不记录请求体时返回null。
+     */
+    public String getRequestBody() {
+        return requestBody;
+    }
+
+    public boolean isRequestBodyTruncated() {
+        return requestBodyTruncated;
+    }
+
+    /**
+     * 响应码，请求失败时是-1。
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public List<Header> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    /**
+     * 响应体（可能被截断）。没有响应体或者不记录响应体时返回null。
+     */
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public boolean isResponseBodyTruncated() {
+        return responseBodyTruncated;
+    }
+
+    /**
+     * 从开始发送请求到收到响应头（或者失败）的耗时，单位纳秒。
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 请求失败的原因，成功时返回null。
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(Instant.ofEpochMilli(timestampMillis)).append(' ').append(service).append(" (")
+                .append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append("ms)\n");
+        sb.append(">> ").append(method).append(' ').append(uri).append('\n');
+        appendHeaders(sb, ">> ", requestHeaders);
+        appendBody(sb, ">> ", requestBody, requestBodyTruncated);
+        if (failure != null) {
+            sb.append("<< failed: ").append(failure);
+            return sb.toString();
+        }
+        sb.append("<< ").append(statusCode).append('\n');
+        appendHeaders(sb, "<< ", responseHeaders);
+        appendBody(sb, "<< ", responseBody, responseBodyTruncated);
+        sb.setLength(sb.length() - 1);
+        return sb.toString();
+    }
+
+    private static void appendHeaders(StringBuilder sb, String prefix, List<Header> headers) {
+        for (Header header : headers) {
+            sb.append(prefix).append(header.getName()).append(": ").append(header.getValue()).append('\n');
+        }
+    }
+
+    private static void appendBody(StringBuilder sb, String prefix, String body, boolean truncated) {
+        if (body != null) {
+            sb.append(prefix).append(body);
+            if (truncated) {
+                sb.append("...(truncated)");
+            }
+            sb.append('\n');
+        }
+    }
+}
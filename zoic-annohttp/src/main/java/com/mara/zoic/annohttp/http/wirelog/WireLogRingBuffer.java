@@ -0,0 +1,92 @@
+package com.mara.zoic.annohttp.http.wirelog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 有界的多生产者、单消费者无锁环形缓冲区。
+ * <p>生产者通过 CAS 占用序号后写入对应的槽位；消费者按序号依次读取，遇到尚未写入完成的槽位时停止，下次再继续。
+ * 缓冲区已满时 {@link #offer(Object)} 直接返回false，不会等待。</p>
+ *
+ * @param <E> 元素类型
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+final class WireLogRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 构造缓冲区。
+     *
+     * @param capacity 容量，会被向上调整为2的幂
+     */
+    WireLogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 放入元素，可以被多个线程同时调用。
+     *
+     * @param element 元素
+     * @return 缓冲区已满时返回false
+     */
+    boolean offer(E element) {
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head.get() > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+        slots.lazySet((int) seq & mask, element);
+        return true;
+    }
+
+    /**
+     * 取出所有已经写入完成的元素，只能被一个线程调用。
+     *
+     * @param consumer 元素的消费者
+     * @return 取出的元素数量
+     */
+    int drain(Consumer<E> consumer) {
+        long seq = head.get();
+        int count = 0;
+        while (true) {
+            int index = (int) seq & mask;
+            E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            head.lazySet(++seq);
+            count++;
+            consumer.accept(element);
+        }
+        return count;
+    }
+
+    /**
+     * 是否为空（包括已经占用序号但尚未写入完成的元素）。
+     */
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
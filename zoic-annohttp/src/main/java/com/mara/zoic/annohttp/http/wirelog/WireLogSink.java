@@ -0,0 +1,20 @@
+package com.mara.zoic.annohttp.http.wirelog;
+
+/**
+ * 报文记录的输出目标。
+ * <p>此接口的实现只会在后台的输出线程上被调用，不需要是线程安全的，但是应当尽量避免长时间阻塞，否则缓冲区会被填满导致记录被丢弃。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see WireLogger#setSink(WireLogSink)
+ */
+@FunctionalInterface
+public interface WireLogSink {
+
+    /**
+     * 输出一条记录。
+     *
+     * @param entry 记录
+     */
+    void accept(WireLogEntry entry);
+}
@@ -0,0 +1,132 @@
+package com.mara.zoic.annohttp.http.wirelog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 报文记录的全局入口：持有环形缓冲区、后台输出线程以及输出目标。
+ * <p>输出线程在第一条记录提交时启动，是守护线程。缓冲区为空时输出线程会短暂休眠，因此记录的输出会有毫秒级的延迟。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ * @see com.mara.zoic.annohttp.annotation.WireLog
+ */
+public final class WireLogger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WireLogger.class);
+
+    private static final int BUFFER_CAPACITY = 4096;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final WireLogRingBuffer<WireLogEntry> BUFFER = new WireLogRingBuffer<>(BUFFER_CAPACITY);
+
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    private static final AtomicLong SINK_FAILURES = new AtomicLong();
+
+    private static volatile WireLogSink sink = new Slf4jWireLogSink();
+
+    private WireLogger() {
+    }
+
+    /**
+     * 设定输出目标，默认是 {@link Slf4jWireLogSink}。
+     *
+     * @param wireLogSink 输出目标
+     */
+    public static void setSink(WireLogSink wireLogSink) {
+        sink = Objects.requireNonNull(wireLogSink);
+    }
+
+    public static WireLogSink getSink() {
+        return sink;
+    }
+
+    /**
+     * 获得因为缓冲区已满而被丢弃的记录数。
+     *
+     * @return 被丢弃的记录数
+     */
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    /**
+     * 获得输出目标处理失败（抛出异常）的记录数。
+     *
+     * @return 处理失败的记录数
+     */
+    public static long getSinkFailureCount() {
+        return SINK_FAILURES.get();
+    }
+
+    /**
+     * 等待缓冲区中的记录全部交给输出目标。
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 在等待时间内全部输出时返回true
+     */
+    public static boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!BUFFER.isEmpty() || Drainer.busy) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 5);
+        }
+        return true;
+    }
+
+    static void publish(WireLogEntry entry) {
+        Drainer.ensureStarted();
+        if (!BUFFER.offer(entry)) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    /**
+     * 后台输出线程，以内部类的形式延迟到第一次提交记录时启动。
+     */
+    private static final class Drainer {
+
+        private static volatile boolean busy;
+
+        static {
+            Thread thread = new Thread(Drainer::run, "annohttp-wire-log-drainer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        static void ensureStarted() {
+            // 触发类的初始化
+        }
+
+        private static void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                busy = true;
+                int drained = BUFFER.drain(Drainer::deliver);
+                busy = false;
+                if (drained == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        private static void deliver(WireLogEntry entry) {
+            try {
+                sink.accept(entry);
+            } catch (Throwable e) {
+                if (SINK_FAILURES.getAndIncrement() == 0) {
+                    LOGGER.warn("Wire log sink '" + sink + "' failed, subsequent failures will only be counted", e);
+                }
+            }
+        }
+    }
+}
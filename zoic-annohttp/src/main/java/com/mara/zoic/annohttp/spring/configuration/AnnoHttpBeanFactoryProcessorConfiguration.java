@@ -10,6 +10,6 @@ public class AnnoHttpBeanFactoryProcessorConfiguration {
     @Bean
     public static AnnoHttpServiceBeanFactoryProcessor annotHttpServiceBeanFactoryProcessor(Environment environment) {
         AnnoHttpProperties annoHttpProperties = Binder.get(environment).bind(AnnoHttpProperties.NAMESPACE, Bindable.of(AnnoHttpProperties.class)).get();
-        return new AnnoHttpServiceBeanFactoryProcessor(annoHttpProperties.getServiceBasePackages());
+        return new AnnoHttpServiceBeanFactoryProcessor(annoHttpProperties.getServiceBasePackages(), annoHttpProperties.isServiceIndexEnabled());
     }
 }
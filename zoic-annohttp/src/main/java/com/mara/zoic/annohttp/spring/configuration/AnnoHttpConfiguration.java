@@ -1,25 +1,30 @@
 package com.mara.zoic.annohttp.spring.configuration;
 
+import com.mara.zoic.annohttp.http.HttpComponentHolder;
+import com.mara.zoic.annohttp.http.ResponseSizeLimits;
+import com.mara.zoic.annohttp.http.pool.ConnectionPoolMonitor;
+import com.mara.zoic.annohttp.http.protocol.UnixDomainSocketFactory;
+import com.mara.zoic.annohttp.http.protocol.UnixProtocolHandler;
 import com.mara.zoic.annohttp.http.proxy.HttpConnectionSocketFactory;
 import com.mara.zoic.annohttp.http.proxy.HttpsConnectionSocketFactory;
+import com.mara.zoic.annohttp.http.proxy.ProxyAwareConnectionManager;
 import com.mara.zoic.annohttp.http.proxy.RequestRoutePlanner;
+import com.mara.zoic.annohttp.http.tls.TlsSupport;
+import com.mara.zoic.annohttp.http.trace.TracingExecChainHandler;
 import org.apache.hc.client5.http.auth.StandardAuthScheme;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
 import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
-import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
-import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.config.Registry;
 import org.apache.hc.core5.http.config.RegistryBuilder;
 import org.apache.hc.core5.http.io.SocketConfig;
 import org.apache.hc.core5.http.message.BasicHeader;
 import org.apache.hc.core5.http.protocol.HttpContext;
-import org.apache.hc.core5.ssl.SSLContextBuilder;
 import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -34,29 +39,23 @@ public class AnnoHttpConfiguration {
 
     @Bean
     public HttpClientBuilder httpClientBuilder(AnnoHttpProperties properties) {
+        // 是否信任任意证书、协议、加密套件与会话缓存都由 TLS 设置决定，设置相同时共享同一个 SSLContext
+        HttpsConnectionSocketFactory sslsf = TlsSupport.socketFactory(properties.toTlsSettings());
         Registry<ConnectionSocketFactory> socketFactoryRegistry;
         if (properties.isTrustAnySsl()) {
-            HttpsConnectionSocketFactory sslsf = null;
-            try {
-                SSLContextBuilder builder = null;
-                builder = new SSLContextBuilder();
-                // 全部信任 不做身份鉴定
-                builder.loadTrustMaterial(null, (chain, authType) -> true);
-                sslsf = new HttpsConnectionSocketFactory(builder.build(), new String[] {"SSLv3", "TLSv1", "TLSv1.2"}, null, NoopHostnameVerifier.INSTANCE);
-            } catch (Exception e) {
-                throw new RuntimeException("Cannot create http client", e);
-            }
             socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
                     .register("http", new HttpConnectionSocketFactory())
                     .register("https", sslsf)
+                    .register(UnixProtocolHandler.SCHEME, new UnixDomainSocketFactory())
                     .build();
         } else {
             socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
                     .register("http", PlainConnectionSocketFactory.getSocketFactory())
-                    .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                    .register("https", sslsf)
+                    .register(UnixProtocolHandler.SCHEME, new UnixDomainSocketFactory())
                     .build();
         }
-        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry, null, null, TimeValue.of(properties.getConnectionIdleTimeoutInSeconds(), TimeUnit.SECONDS));
+        ProxyAwareConnectionManager connectionManager = new ProxyAwareConnectionManager(socketFactoryRegistry, null, null, TimeValue.of(properties.getConnectionIdleTimeoutInSeconds(), TimeUnit.SECONDS));
         connectionManager.setMaxTotal(properties.getMaxConnections());
         connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
         SocketConfig socketConfig = SocketConfig.custom()
@@ -65,10 +64,18 @@ public class AnnoHttpConfiguration {
         connectionManager.setDefaultSocketConfig(socketConfig);
         ConnectionConfig connectionConfig = ConnectionConfig.custom()
                 .setConnectTimeout(Timeout.of(properties.getConnectTimeoutInSeconds(), TimeUnit.SECONDS))
+                .setValidateAfterInactivity(TimeValue.of(properties.getConnectionValidateAfterInactivityInSeconds(), TimeUnit.SECONDS))
                 .build();
         connectionManager.setDefaultConnectionConfig(connectionConfig);
+        ConnectionPoolMonitor.monitor("spring", connectionManager,
+                TimeValue.of(properties.getConnectionEvictionIntervalInSeconds(), TimeUnit.SECONDS),
+                TimeValue.of(properties.getConnectionMaxIdleInSeconds(), TimeUnit.SECONDS));
+        HttpComponentHolder.setHttp2TlsSettings(properties.toTlsSettings());
+        ResponseSizeLimits.setMaxInMemoryBytes(properties.getResponseMaxInMemoryBytes());
+        ResponseSizeLimits.setMaxBytes(properties.getResponseMaxBytes());
         @SuppressWarnings("deprecation")
 		HttpClientBuilder clientBuilder = HttpClients.custom()
+                .addExecInterceptorBefore(ChainElement.CONNECT.name(), TracingExecChainHandler.NAME, new TracingExecChainHandler())
                 .setRoutePlanner(new RequestRoutePlanner(ProxySelector.getDefault()))
                 .setConnectionManager(connectionManager)
                 .setDefaultRequestConfig(RequestConfig.custom()
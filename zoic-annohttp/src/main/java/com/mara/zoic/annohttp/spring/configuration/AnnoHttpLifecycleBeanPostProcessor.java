@@ -6,6 +6,7 @@ import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
 import com.mara.zoic.annohttp.http.AnnoHttpClients;
+import com.mara.zoic.annohttp.http.interceptor.AnnoHttpInterceptor;
 import com.mara.zoic.annohttp.lifecycle.AnnoHttpLifecycle;
 
 public class AnnoHttpLifecycleBeanPostProcessor implements BeanPostProcessor {
@@ -16,6 +17,9 @@ public class AnnoHttpLifecycleBeanPostProcessor implements BeanPostProcessor {
 		if (AnnoHttpLifecycle.class.isAssignableFrom(bean.getClass())) {
 			AnnoHttpClients.addAnnoHttpLifecycleInstances((AnnoHttpLifecycle) bean);
 		}
+		if (bean instanceof AnnoHttpInterceptor interceptor) {
+			AnnoHttpClients.addInterceptors(interceptor);
+		}
 		return bean;
 	}
 
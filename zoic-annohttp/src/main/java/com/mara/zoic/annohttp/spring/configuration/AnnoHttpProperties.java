@@ -1,5 +1,8 @@
 package com.mara.zoic.annohttp.spring.configuration;
 
+import com.mara.zoic.annohttp.http.ResponseSizeLimits;
+import com.mara.zoic.annohttp.http.pool.ConnectionPoolMonitor;
+import com.mara.zoic.annohttp.http.tls.TlsSettings;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.Arrays;
@@ -14,6 +17,20 @@ public class AnnoHttpProperties {
     private int socketTimeoutInSeconds = 10;
     private int connectTimeoutInSeconds = 15;
     private int connectionIdleTimeoutInSeconds = 20;
+    /**
+     * 后台清理过期与空闲连接的间隔。
+     */
+    private int connectionEvictionIntervalInSeconds = ConnectionPoolMonitor.DEFAULT_EVICTION_INTERVAL_SECONDS;
+
+    /**
+     * 连接的最长空闲时间，空闲超过此时间的连接会被后台清理关闭。
+     */
+    private int connectionMaxIdleInSeconds = ConnectionPoolMonitor.DEFAULT_MAX_IDLE_SECONDS;
+
+    /**
+     * 连接空闲超过此时间后，再次使用前先检查是否仍然可用（负数表示不检查）。
+     */
+    private int connectionValidateAfterInactivityInSeconds = ConnectionPoolMonitor.DEFAULT_VALIDATE_AFTER_INACTIVITY_SECONDS;
     private int maxConnections = 80;
     private int maxConnectionsPerRoute = 40;
     private boolean keepAlive = true;
@@ -22,8 +39,43 @@ public class AnnoHttpProperties {
 
     private boolean trustAnySsl = true;
 
+    /**
+     * 启用的 TLS 协议，JDK 不支持的协议会被忽略。
+     */
+    private String[] tlsProtocols = TlsSettings.DEFAULT_PROTOCOLS.clone();
+
+    /**
+     * 启用的 TLS 加密套件，为空时使用 JDK 的默认值。
+     */
+    private String[] tlsCipherSuites = new String[0];
+
+    /**
+     * TLS 客户端会话缓存的大小（0表示不限制），用于恢复会话以省去完整的握手。
+     */
+    private int tlsSessionCacheSize = TlsSettings.DEFAULT_SESSION_CACHE_SIZE;
+
+    /**
+     * TLS 客户端会话缓存的有效期（0表示不限制）。
+     */
+    private int tlsSessionTimeoutInSeconds = TlsSettings.DEFAULT_SESSION_TIMEOUT_SECONDS;
+
+    /**
+     * 在内存中缓冲的响应体的最大字节数，超出时转存到临时文件（0表示不转存）。
+     */
+    private long responseMaxInMemoryBytes = ResponseSizeLimits.DEFAULT_MAX_IN_MEMORY_BYTES;
+
+    /**
+     * 响应体的最大字节数，超出时中止请求（0表示不限制）。
+     */
+    private long responseMaxBytes = 0L;
+
     private String[] serviceBasePackages = new String[] {"./"};
 
+    /**
+     * 是否使用编译期生成的服务索引（META-INF/annohttp.services）代替类路径扫描。索引不存在时回退到类路径扫描。
+     */
+    private boolean serviceIndexEnabled = false;
+
     public int getRequestTimeoutInSeconds() {
         return requestTimeoutInSeconds;
     }
@@ -96,6 +148,92 @@ public class AnnoHttpProperties {
         this.trustAnySsl = trustAnySsl;
     }
 
+    public int getConnectionEvictionIntervalInSeconds() {
+        return connectionEvictionIntervalInSeconds;
+    }
+
+    public void setConnectionEvictionIntervalInSeconds(int connectionEvictionIntervalInSeconds) {
+        this.connectionEvictionIntervalInSeconds = connectionEvictionIntervalInSeconds;
+    }
+
+    public int getConnectionMaxIdleInSeconds() {
+        return connectionMaxIdleInSeconds;
+    }
+
+    public void setConnectionMaxIdleInSeconds(int connectionMaxIdleInSeconds) {
+        this.connectionMaxIdleInSeconds = connectionMaxIdleInSeconds;
+    }
+
+    public int getConnectionValidateAfterInactivityInSeconds() {
+        return connectionValidateAfterInactivityInSeconds;
+    }
+
+    public void setConnectionValidateAfterInactivityInSeconds(int connectionValidateAfterInactivityInSeconds) {
+        this.connectionValidateAfterInactivityInSeconds = connectionValidateAfterInactivityInSeconds;
+    }
+
+    public String[] getTlsProtocols() {
+        return tlsProtocols;
+    }
+
+    public void setTlsProtocols(String[] tlsProtocols) {
+        this.tlsProtocols = tlsProtocols;
+    }
+
+    public String[] getTlsCipherSuites() {
+        return tlsCipherSuites;
+    }
+
+    public void setTlsCipherSuites(String[] tlsCipherSuites) {
+        this.tlsCipherSuites = tlsCipherSuites;
+    }
+
+    public int getTlsSessionCacheSize() {
+        return tlsSessionCacheSize;
+    }
+
+    public void setTlsSessionCacheSize(int tlsSessionCacheSize) {
+        this.tlsSessionCacheSize = tlsSessionCacheSize;
+    }
+
+    public int getTlsSessionTimeoutInSeconds() {
+        return tlsSessionTimeoutInSeconds;
+    }
+
+    public void setTlsSessionTimeoutInSeconds(int tlsSessionTimeoutInSeconds) {
+        this.tlsSessionTimeoutInSeconds = tlsSessionTimeoutInSeconds;
+    }
+
+    /**
+     * 按照配置生成 TLS 设置。
+     *
+     * @return TLS 设置
+     */
+    public TlsSettings toTlsSettings() {
+        return TlsSettings.defaults()
+                .withTrustAll(trustAnySsl)
+                .withProtocols(tlsProtocols)
+                .withCipherSuites(tlsCipherSuites)
+                .withSessionCacheSize(tlsSessionCacheSize)
+                .withSessionTimeoutSeconds(tlsSessionTimeoutInSeconds);
+    }
+
+    public long getResponseMaxInMemoryBytes() {
+        return responseMaxInMemoryBytes;
+    }
+
+    public void setResponseMaxInMemoryBytes(long responseMaxInMemoryBytes) {
+        this.responseMaxInMemoryBytes = responseMaxInMemoryBytes;
+    }
+
+    public long getResponseMaxBytes() {
+        return responseMaxBytes;
+    }
+
+    public void setResponseMaxBytes(long responseMaxBytes) {
+        this.responseMaxBytes = responseMaxBytes;
+    }
+
     public String[] getServiceBasePackages() {
         return serviceBasePackages;
     }
@@ -104,6 +242,14 @@ public class AnnoHttpProperties {
         this.serviceBasePackages = serviceBasePackages;
     }
 
+    public boolean isServiceIndexEnabled() {
+        return serviceIndexEnabled;
+    }
+
+    public void setServiceIndexEnabled(boolean serviceIndexEnabled) {
+        this.serviceIndexEnabled = serviceIndexEnabled;
+    }
+
     public int getSocketTimeoutInSeconds() {
         return socketTimeoutInSeconds;
     }
@@ -128,13 +274,23 @@ public class AnnoHttpProperties {
                 ", socketTimeoutInSeconds=" + socketTimeoutInSeconds +
                 ", connectTimeoutInSeconds=" + connectTimeoutInSeconds +
                 ", connectionIdleTimeoutInSeconds=" + connectionIdleTimeoutInSeconds +
+                ", connectionEvictionIntervalInSeconds=" + connectionEvictionIntervalInSeconds +
+                ", connectionMaxIdleInSeconds=" + connectionMaxIdleInSeconds +
+                ", connectionValidateAfterInactivityInSeconds=" + connectionValidateAfterInactivityInSeconds +
                 ", maxConnections=" + maxConnections +
                 ", maxConnectionsPerRoute=" + maxConnectionsPerRoute +
                 ", keepAlive=" + keepAlive +
                 ", keepAliveTimeInSeconds=" + keepAliveTimeInSeconds +
                 ", flowRedirect=" + flowRedirect +
                 ", trustAnySsl=" + trustAnySsl +
+                ", tlsProtocols=" + Arrays.toString(tlsProtocols) +
+                ", tlsCipherSuites=" + Arrays.toString(tlsCipherSuites) +
+                ", tlsSessionCacheSize=" + tlsSessionCacheSize +
+                ", tlsSessionTimeoutInSeconds=" + tlsSessionTimeoutInSeconds +
+                ", responseMaxInMemoryBytes=" + responseMaxInMemoryBytes +
+                ", responseMaxBytes=" + responseMaxBytes +
                 ", serviceBasePackages=" + Arrays.toString(serviceBasePackages) +
+                ", serviceIndexEnabled=" + serviceIndexEnabled +
                 '}';
     }
 }
@@ -4,6 +4,7 @@ package com.mara.zoic.annohttp.spring.configuration;
 import com.mara.zoic.annohttp.annotation.AnnoHttpService;
 import com.mara.zoic.annohttp.http.AnnoHttpClients;
 import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import com.mara.zoic.annohttp.spring.index.AnnoHttpServiceIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
@@ -11,6 +12,7 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.lang.NonNull;
 
@@ -19,16 +21,41 @@ import java.util.function.Function;
 
 public class AnnoHttpServiceBeanFactoryProcessor implements BeanFactoryPostProcessor {
 
+    static final String BEAN_NAME_PREFIX = "annohttp-client-";
+
     private final String[] basePackages;
 
+    private final boolean serviceIndexEnabled;
+
     private Logger logger = LoggerFactory.getLogger(AnnoHttpServiceBeanFactoryProcessor.class);
 
     public AnnoHttpServiceBeanFactoryProcessor(String[] basePackages) {
+        this(basePackages, false);
+    }
+
+    /**
+     * 构造处理器。
+     *
+     * @param basePackages        需要查找服务的基础包
+     * @param serviceIndexEnabled 是否优先使用编译期生成的服务索引（{@link AnnoHttpServiceIndex}），索引不存在时回退到类路径扫描
+     */
+    public AnnoHttpServiceBeanFactoryProcessor(String[] basePackages, boolean serviceIndexEnabled) {
         this.basePackages = basePackages;
+        this.serviceIndexEnabled = serviceIndexEnabled;
     }
 
     @Override
     public void postProcessBeanFactory(@NonNull ConfigurableListableBeanFactory configurableListableBeanFactory) throws BeansException {
+        if (serviceIndexEnabled) {
+            AnnoHttpServiceIndex index = AnnoHttpServiceIndex.load(configurableListableBeanFactory.getBeanClassLoader());
+            if (index != null) {
+                registerFromIndex(index, (BeanDefinitionRegistry) configurableListableBeanFactory);
+                return;
+            }
+            if (logger.isWarnEnabled()) {
+                logger.warn("No annohttp service index '{}' found in classpath, fallback to classpath scanning", AnnoHttpServiceIndex.INDEX_LOCATION);
+            }
+        }
         ClassPathAnnoHttpServiceBeanDefinitionScanner classPathAnnoHttpServiceBeanDefinitionScanner = new ClassPathAnnoHttpServiceBeanDefinitionScanner((BeanDefinitionRegistry) configurableListableBeanFactory, false);
         classPathAnnoHttpServiceBeanDefinitionScanner.addIncludeFilter(new AnnotationTypeFilter(AnnoHttpService.class));
         for (String basePackage : basePackages) {
@@ -37,27 +64,8 @@ public class AnnoHttpServiceBeanFactoryProcessor implements BeanFactoryPostProce
             for (BeanDefinition bd : found) {
                 try {
                     Class<?> clazz = Class.forName(bd.getBeanClassName());
-                    AnnoHttpService annoHttpServiceAnno = clazz.getAnnotation(AnnoHttpService.class);
-                    Object httpService;
-                    if (annoHttpServiceAnno != null) {
-                        Class<? extends Function<HttpClientMetadata, String>> baseUriFunctionClass = annoHttpServiceAnno.baseUriFunctionClass();
-                        if (baseUriFunctionClass != AnnoHttpService.EmptyBaseUriFunction.class) {
-                            Function<HttpClientMetadata, String> baseUriFunction;
-                            try {
-                                baseUriFunction = baseUriFunctionClass.getDeclaredConstructor(new Class[]{}).newInstance();
-                                httpService = AnnoHttpClients.create(clazz, baseUriFunction);
-                            } catch (Exception e) {
-                                throw e;
-                            }
-                        } else {
-                            String baseUri = annoHttpServiceAnno.baseUri();
-                            if (!"".equals(baseUri)) {
-                                httpService = AnnoHttpClients.create(clazz, baseUri);
-                            } else {
-                                httpService = AnnoHttpClients.create(clazz);
-                            }
-                        }
-                        configurableListableBeanFactory.registerSingleton("annohttp-client-" + clazz.getName(), httpService);
+                    if (clazz.getAnnotation(AnnoHttpService.class) != null) {
+                        configurableListableBeanFactory.registerSingleton(BEAN_NAME_PREFIX + clazz.getName(), createHttpService(clazz));
                         scanned++;
                     }
                 } catch (Exception e) {
@@ -71,4 +79,58 @@ public class AnnoHttpServiceBeanFactoryProcessor implements BeanFactoryPostProce
             }
         }
     }
+
+    /**
+     * 根据索引注册服务。只注册 {@link AnnoHttpServiceFactoryBean} 定义，服务接口类与服务代理都在首次注入时才创建。
+     */
+    private void registerFromIndex(AnnoHttpServiceIndex index, BeanDefinitionRegistry registry) {
+        for (String basePackage : basePackages) {
+            int registered = 0;
+            for (String serviceClassName : index.getServiceClassNames(basePackage)) {
+                String beanName = BEAN_NAME_PREFIX + serviceClassName;
+                if (!registry.containsBeanDefinition(beanName)) {
+                    RootBeanDefinition beanDefinition = new RootBeanDefinition(AnnoHttpServiceFactoryBean.class);
+                    beanDefinition.getConstructorArgumentValues().addGenericArgumentValue(serviceClassName);
+                    beanDefinition.setLazyInit(true);
+                    registry.registerBeanDefinition(beanName, beanDefinition);
+                }
+                registered++;
+            }
+            if (registered == 0) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("No AnnoHttpService found in index for package: {}", basePackage);
+                }
+            }
+        }
+    }
+
+    /**
+     * 根据接口上的 {@link AnnoHttpService} 创建服务实例。
+     *
+     * @param clazz 服务接口
+     * @return 服务实例
+     */
+    static Object createHttpService(Class<?> clazz) {
+        AnnoHttpService annoHttpServiceAnno = clazz.getAnnotation(AnnoHttpService.class);
+        if (annoHttpServiceAnno == null) {
+            throw new IllegalArgumentException("Interface '" + clazz.getName() + "' is not decorated by @AnnoHttpService");
+        }
+        Class<? extends Function<HttpClientMetadata, String>> baseUriFunctionClass = annoHttpServiceAnno.baseUriFunctionClass();
+        if (baseUriFunctionClass != AnnoHttpService.EmptyBaseUriFunction.class) {
+            Function<HttpClientMetadata, String> baseUriFunction;
+            try {
+                baseUriFunction = baseUriFunctionClass.getDeclaredConstructor(new Class[]{}).newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create baseUriFunction '" + baseUriFunctionClass.getName() + "' for '" + clazz.getName() + "'", e);
+            }
+            return AnnoHttpClients.create(clazz, baseUriFunction);
+        } else {
+            String baseUri = annoHttpServiceAnno.baseUri();
+            if (!"".equals(baseUri)) {
+                return AnnoHttpClients.create(clazz, baseUri);
+            } else {
+                return AnnoHttpClients.create(clazz);
+            }
+        }
+    }
 }
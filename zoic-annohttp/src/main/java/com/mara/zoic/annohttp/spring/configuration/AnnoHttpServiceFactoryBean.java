@@ -0,0 +1,60 @@
+package com.mara.zoic.annohttp.spring.configuration;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.lang.NonNull;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 延迟创建 annohttp 服务实例的 {@link FactoryBean}。
+ * <p>由索引注册的服务使用此类包装，服务接口类在首次进行类型匹配时才被加载，服务代理在首次注入时才被创建。</p>
+ *
+ * @param <T> 服务接口类型
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class AnnoHttpServiceFactoryBean<T> implements FactoryBean<T>, BeanClassLoaderAware {
+
+    private final String serviceClassName;
+
+    private ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
+
+    private volatile Class<T> serviceClass;
+
+    public AnnoHttpServiceFactoryBean(String serviceClassName) {
+        this.serviceClassName = serviceClassName;
+    }
+
+    @Override
+    public void setBeanClassLoader(@NonNull ClassLoader classLoader) {
+        this.beanClassLoader = classLoader;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getObject() {
+        return (T) AnnoHttpServiceBeanFactoryProcessor.createHttpService(getObjectType());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Class<T> getObjectType() {
+        if (serviceClass == null) {
+            try {
+                serviceClass = (Class<T>) ClassUtils.forName(serviceClassName, beanClassLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new IllegalStateException("AnnoHttpService '" + serviceClassName + "' in index cannot be loaded, please rebuild the index", e);
+            }
+        }
+        return serviceClass;
+    }
+
+    @Override
+    public boolean isSingleton() {
+        return true;
+    }
+
+    public String getServiceClassName() {
+        return serviceClassName;
+    }
+}
@@ -0,0 +1,112 @@
+package com.mara.zoic.annohttp.spring.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * annohttp 服务索引。
+ * <p>索引文件位于 {@link #INDEX_LOCATION}，由 {@link AnnoHttpServiceIndexProcessor} 在编译期生成，每行一个标注了
+ * {@link com.mara.zoic.annohttp.annotation.AnnoHttpService} 的接口全限定名，以 # 开头的行为注释。</p>
+ * <p>读取索引时会合并类路径上所有同名资源（多个jar各自生成的索引），因此在启动时不再需要对类路径进行扫描。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public final class AnnoHttpServiceIndex {
+
+    /**
+     * 索引文件的位置。
+     */
+    public static final String INDEX_LOCATION = "META-INF/annohttp.services";
+
+    static final String COMMENT_PREFIX = "#";
+
+    private final Set<String> serviceClassNames;
+
+    private AnnoHttpServiceIndex(Set<String> serviceClassNames) {
+        this.serviceClassNames = serviceClassNames;
+    }
+
+    /**
+     * 从指定的类加载器中加载索引。
+     *
+     * @param classLoader 类加载器，可以是null，null代表使用当前线程的上下文类加载器
+     * @return 索引实例；如果类路径上不存在任何索引文件，那么返回null
+     */
+    public static AnnoHttpServiceIndex load(ClassLoader classLoader) {
+        ClassLoader cl = classLoader == null ? Thread.currentThread().getContextClassLoader() : classLoader;
+        if (cl == null) {
+            cl = AnnoHttpServiceIndex.class.getClassLoader();
+        }
+        try {
+            Enumeration<URL> urls = cl.getResources(INDEX_LOCATION);
+            if (!urls.hasMoreElements()) {
+                return null;
+            }
+            Set<String> names = new LinkedHashSet<>();
+            while (urls.hasMoreElements()) {
+                try (InputStream inputStream = urls.nextElement().openStream()) {
+                    names.addAll(read(inputStream));
+                }
+            }
+            return new AnnoHttpServiceIndex(Collections.unmodifiableSet(names));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load annohttp service index from '" + INDEX_LOCATION + "'", e);
+        }
+    }
+
+    static Set<String> read(InputStream inputStream) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith(COMMENT_PREFIX)) {
+                names.add(line);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 获得某个包（包含子包）下的所有服务接口的全限定名。
+     * <p>“./”、“.”以及空字符串代表所有的包，这与类路径扫描时的行为保持一致。</p>
+     *
+     * @param basePackage 基础包
+     * @return 服务接口的全限定名集合，不会是null
+     */
+    public Set<String> getServiceClassNames(String basePackage) {
+        if (basePackage == null || isWildcardPackage(basePackage.trim())) {
+            return serviceClassNames;
+        }
+        String prefix = basePackage.trim() + ".";
+        Set<String> found = new LinkedHashSet<>();
+        for (String serviceClassName : serviceClassNames) {
+            if (serviceClassName.startsWith(prefix)) {
+                found.add(serviceClassName);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 获得索引中所有服务接口的全限定名。
+     *
+     * @return 服务接口的全限定名集合，不会是null
+     */
+    public Set<String> getServiceClassNames() {
+        return serviceClassNames;
+    }
+
+    private static boolean isWildcardPackage(String basePackage) {
+        return basePackage.isEmpty() || ".".equals(basePackage) || "./".equals(basePackage);
+    }
+}
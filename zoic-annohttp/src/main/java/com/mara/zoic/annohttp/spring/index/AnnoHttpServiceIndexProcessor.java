@@ -0,0 +1,91 @@
+package com.mara.zoic.annohttp.spring.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 在编译期生成 annohttp 服务索引（{@link AnnoHttpServiceIndex#INDEX_LOCATION}）的注解处理器。
+ * <p>处理器会收集所有标注了 {@link com.mara.zoic.annohttp.annotation.AnnoHttpService} 的接口并写入索引文件，
+ * 之后在 spring 中开启 {@code annohttp.service-index-enabled} 即可跳过类路径扫描。</p>
+ * <p>此处理器通过 META-INF/services 自动注册，只要 annohttp 位于编译类路径上就会生效。
+ * 为了不对 spring 产生依赖，这里只通过注解的名称来识别注解。</p>
+ *
+ * @author Mara.X.Ma
+ * @since 1.0.0 2026-10-19
+ */
+public class AnnoHttpServiceIndexProcessor extends AbstractProcessor {
+
+    static final String ANNO_HTTP_SERVICE_ANNOTATION = "com.mara.zoic.annohttp.annotation.AnnoHttpService";
+
+    private final Set<String> serviceClassNames = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(ANNO_HTTP_SERVICE_ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.INTERFACE) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "@AnnoHttpService should be used on interface only, ignored in index", element);
+                    continue;
+                }
+                serviceClassNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+            }
+        }
+        if (roundEnv.processingOver() && !serviceClassNames.isEmpty()) {
+            writeIndex();
+        }
+        // 不独占此注解，其他处理器仍然可以处理
+        return false;
+    }
+
+    private void writeIndex() {
+        // 增量编译时只会处理变更的源文件，因此需要合并已经存在的索引
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", AnnoHttpServiceIndex.INDEX_LOCATION);
+            try (InputStream inputStream = existing.openInputStream()) {
+                for (String name : AnnoHttpServiceIndex.read(inputStream)) {
+                    if (processingEnv.getElementUtils().getTypeElement(name.replace('$', '.')) != null) {
+                        serviceClassNames.add(name);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 索引还不存在
+        }
+        try {
+            FileObject fileObject = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", AnnoHttpServiceIndex.INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(fileObject.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write(AnnoHttpServiceIndex.COMMENT_PREFIX + " Generated by " + getClass().getName() + ", DO NOT EDIT\n");
+                for (String serviceClassName : serviceClassNames) {
+                    writer.write(serviceClassName);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write annohttp service index: " + e.getMessage());
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.mara.zoic.annohttp;
 import com.mara.zoic.annohttp.httpservice.TestClient;
 import com.mara.zoic.annohttp.httpservice.TestClientWithBaseUriFunction;
 import com.mara.zoic.annohttp.httpservice.TestClientWithoutAnno;
+import com.mara.zoic.annohttp.spring.configuration.AnnoHttpServiceBeanFactoryProcessor;
+import com.mara.zoic.annohttp.spring.index.AnnoHttpServiceIndex;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServer;
 import io.vertx.ext.web.Router;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.Arrays;
@@ -81,6 +84,19 @@ public class CombineWithSpringTest {
         Assertions.assertNull(testClientWithoutAnno);
     }
 
+    @Test
+    void serviceIndexTest() {
+        AnnoHttpServiceIndex index = AnnoHttpServiceIndex.load(getClass().getClassLoader());
+        Assertions.assertNotNull(index);
+        Assertions.assertTrue(index.getServiceClassNames("com.mara.zoic.annohttp.httpservice").contains(TestClient.class.getName()));
+        Assertions.assertFalse(index.getServiceClassNames().contains(TestClientWithoutAnno.class.getName()));
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        new AnnoHttpServiceBeanFactoryProcessor(new String[] {"com.mara.zoic.annohttp.httpservice"}, true).postProcessBeanFactory(beanFactory);
+        Assertions.assertNotNull(beanFactory.getBean(TestClient.class));
+        Assertions.assertEquals(0, beanFactory.getBeanNamesForType(TestClientWithoutAnno.class).length);
+    }
+
     @Test
     void testBaseUri() {
     	Header[] headers = testClientWithBaseUriFunction.getItemName("123");
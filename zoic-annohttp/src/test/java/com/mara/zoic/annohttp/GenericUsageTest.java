@@ -1,25 +1,68 @@
 package com.mara.zoic.annohttp;
 
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.StandardProtocolFamily;
 import java.net.URI;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.entity.EntityBuilder;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.message.StatusLine;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -27,27 +70,85 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import com.mara.zoic.annohttp.annotation.Batched;
 import com.mara.zoic.annohttp.annotation.Body;
+import com.mara.zoic.annohttp.annotation.EventStream;
+import com.mara.zoic.annohttp.annotation.ConcurrencyLimit;
 import com.mara.zoic.annohttp.annotation.ContentTypeTextPlain;
 import com.mara.zoic.annohttp.annotation.FormField;
 import com.mara.zoic.annohttp.annotation.FormFields;
 import com.mara.zoic.annohttp.annotation.Header;
 import com.mara.zoic.annohttp.annotation.Headers;
+import com.mara.zoic.annohttp.annotation.Http2;
 import com.mara.zoic.annohttp.annotation.Method;
+import com.mara.zoic.annohttp.annotation.PathVars;
 import com.mara.zoic.annohttp.annotation.Queries;
 import com.mara.zoic.annohttp.annotation.Query;
 import com.mara.zoic.annohttp.annotation.Request;
+import com.mara.zoic.annohttp.annotation.ResponsePath;
+import com.mara.zoic.annohttp.annotation.ResponseSizeLimit;
+import com.mara.zoic.annohttp.annotation.RoutingKey;
 import com.mara.zoic.annohttp.annotation.Uri;
+import com.mara.zoic.annohttp.annotation.WireLog;
+import com.mara.zoic.annohttp.http.AbstractByteArrayBasedConvertible;
 import com.mara.zoic.annohttp.http.AnnoHttpClients;
+import com.mara.zoic.annohttp.http.AnnoHttpExecutors;
 import com.mara.zoic.annohttp.http.CoverableNameValuePair;
+import com.mara.zoic.annohttp.http.Deadline;
+import com.mara.zoic.annohttp.http.JsonConvertible;
+import com.mara.zoic.annohttp.http.HttpClientBuilderEnhancer;
 import com.mara.zoic.annohttp.http.HttpClientMetadata;
+import com.mara.zoic.annohttp.http.HttpClientRegistry;
 import com.mara.zoic.annohttp.http.HttpMethod;
+import com.mara.zoic.annohttp.http.exception.ConcurrencyLimitExceededException;
+import com.mara.zoic.annohttp.http.exception.DeadlineExceededException;
+import com.mara.zoic.annohttp.http.exception.FanOutFailedException;
+import com.mara.zoic.annohttp.http.exception.RequestFailedException;
+import com.mara.zoic.annohttp.http.exception.ResponseTooLargeException;
+import com.mara.zoic.annohttp.http.fanout.FanOutPolicy;
+import com.mara.zoic.annohttp.http.fanout.FanOutResult;
+import com.mara.zoic.annohttp.http.fanout.ScatterGather;
+import com.mara.zoic.annohttp.http.interceptor.AnnoHttpInterceptor;
+import com.mara.zoic.annohttp.http.interceptor.AnnoHttpInterceptors;
+import com.mara.zoic.annohttp.http.limit.AdaptiveConcurrencyLimiter;
+import com.mara.zoic.annohttp.http.limit.ConcurrencyLimiters;
+import com.mara.zoic.annohttp.http.loadbalance.ConsistentHashBaseUriProvider;
+import com.mara.zoic.annohttp.http.loadbalance.LoadBalanceStrategy;
+import com.mara.zoic.annohttp.http.loadbalance.LoadBalancedBaseUriProvider;
+import com.mara.zoic.annohttp.http.loadbalance.LoadBalancedEndpoint;
 import com.mara.zoic.annohttp.http.PreparingRequest;
+import com.mara.zoic.annohttp.http.ResponseSizeLimits;
+import com.mara.zoic.annohttp.http.SpilledContent;
+import com.mara.zoic.annohttp.http.pool.ConnectionPoolMonitor;
+import com.mara.zoic.annohttp.http.pool.ConnectionPoolStats;
+import com.mara.zoic.annohttp.http.protocol.MemTransport;
+import com.mara.zoic.annohttp.http.proxy.HttpClientProxyContext;
+import com.mara.zoic.annohttp.http.proxy.HttpConnectionSocketFactory;
+import com.mara.zoic.annohttp.http.proxy.ProxyAwareConnectionManager;
+import com.mara.zoic.annohttp.http.proxy.RequestProxy;
+import com.mara.zoic.annohttp.http.proxy.RequestProxyKey;
 import com.mara.zoic.annohttp.http.response.converter.ResponseConverter;
+import com.mara.zoic.annohttp.http.response.converter.ResponseConverterCache;
+import com.mara.zoic.annohttp.http.sse.SseEvent;
+import com.mara.zoic.annohttp.http.sse.SseStream;
+import com.mara.zoic.annohttp.http.tls.TlsHandshakeMetrics;
+import com.mara.zoic.annohttp.http.tls.TlsSettings;
+import com.mara.zoic.annohttp.http.tls.TlsSupport;
+import com.mara.zoic.annohttp.http.trace.Span;
+import com.mara.zoic.annohttp.http.trace.SpanPhase;
+import com.mara.zoic.annohttp.http.trace.TraceContext;
+import com.mara.zoic.annohttp.http.trace.Tracer;
+import com.mara.zoic.annohttp.http.trace.Tracing;
+import com.mara.zoic.annohttp.http.wirelog.Slf4jWireLogSink;
+import com.mara.zoic.annohttp.http.wirelog.WireLogEntry;
+import com.mara.zoic.annohttp.http.wirelog.WireLogger;
 import com.mara.zoic.annohttp.lifecycle.AnnoHttpLifecycle;
 
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.net.PfxOptions;
 import io.vertx.ext.web.Router;
 
 /**
@@ -672,4 +773,1396 @@ public class GenericUsageTest {
         Assertions.assertTrue(op.isPresent());
         Assertions.assertTrue(op.get().getValue().equals("Added"));
     }
+
+    @Test
+    @DisplayName("普通测试 -- POST方式，Smile/CBOR二进制格式的请求体与响应体，协商二进制格式")
+    void baseTest23() {
+        interface Client {
+            @Request(uri = "/test", method = HttpMethod.POST, contentType = "application/x-jackson-smile")
+            Map<String, Object> smileRequest(@Body Map<String, Object> body);
+
+            @Request(uri = "/test", method = HttpMethod.POST, contentType = "application/cbor")
+            Map<String, Object> cborRequest(@Body Map<String, Object> body);
+
+            @Request(uri = "/test", acceptBinary = true)
+            org.apache.hc.core5.http.Header[] acceptBinaryRequest();
+        }
+
+        Client c = AnnoHttpClients.create(Client.class, "http://localhost:8081/");
+        Map<String, Object> body = Map.of("Name", "Mara", "Age", 18);
+        Assertions.assertEquals(body, c.smileRequest(body));
+        Assertions.assertEquals(body, c.cborRequest(body));
+
+        Optional<org.apache.hc.core5.http.Header> accept = Stream.of(c.acceptBinaryRequest()).filter(e -> e.getName().equalsIgnoreCase("Accept")).findFirst();
+        Assertions.assertTrue(accept.isPresent());
+        Assertions.assertTrue(accept.get().getValue().startsWith("application/x-jackson-smile"));
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 默认GET方式，同一个可转换对象多次转换，流式可转换对象只能转换一次")
+    void baseTest24() throws Exception {
+
+        record Bean(String name) {
+
+        }
+
+        record Amount(BigDecimal amount) {
+
+        }
+
+        interface Client {
+            @Request(uri = "http://localhost:8081/test")
+            PreparingRequest<Bean> baseRequest(@Body String jsonBody);
+        }
+
+        Client c = AnnoHttpClients.create(Client.class);
+
+        String s =  """
+                {
+                    "name": "Mara"
+                }
+                """;
+
+        try (var operableHttpResponse = c.baseRequest(s).requestOperable()) {
+            var convertible = operableHttpResponse.asJsonConvertible();
+            Assertions.assertEquals("Mara", convertible.toBean(Bean.class).name);
+            Assertions.assertEquals("Mara", convertible.toMap(String.class, String.class).get("name"));
+            Assertions.assertEquals(s, convertible.toString());
+        }
+
+        // 转换直接从字节数组解析，小数不会经过 double 而丢失精度
+        try (var operableHttpResponse = c.baseRequest("{\"amount\": 0.12345678901234567890123}").requestOperable()) {
+            var convertible = operableHttpResponse.asJsonConvertible();
+            Assertions.assertEquals(new BigDecimal("0.12345678901234567890123"), convertible.toBean(Amount.class).amount());
+            Assertions.assertEquals(0.12345678901234567890123, convertible.toMap(String.class, Object.class).get("amount"));
+        }
+
+        // 字节数组只解析一次，之后的转换重放缓存的记号
+        try (var operableHttpResponse = c.baseRequest(s).requestOperable()) {
+            var convertible = operableHttpResponse.asJsonConvertible();
+            Assertions.assertEquals("Mara", convertible.toBean(Bean.class).name);
+            java.lang.reflect.Field bytesField = AbstractByteArrayBasedConvertible.class.getDeclaredField("bytes");
+            bytesField.setAccessible(true);
+            Arrays.fill((byte[]) bytesField.get(convertible), (byte) ' ');
+            Assertions.assertEquals("Mara", convertible.toMap(String.class, String.class).get("name"));
+            Assertions.assertEquals("Mara", ((JsonConvertible) convertible).toTree().get("name").asText());
+        }
+
+        try (var operableHttpResponse = c.baseRequest(s).requestOperable()) {
+            var convertible = operableHttpResponse.asJsonStreamingConvertible();
+            Assertions.assertEquals("Mara", convertible.toBean(Bean.class).name);
+            Assertions.assertThrows(IllegalStateException.class, () -> convertible.toBean(Bean.class));
+        }
+    }
+
+    @Test
+    @DisplayName("普通测试 -- POST方式，只转换响应体中的某一部分，数组可以逐个元素返回")
+    void baseTest25() {
+
+        record Bean(String name) {
+
+        }
+
+        interface Client {
+            @Request(uri = "/test", method = HttpMethod.POST)
+            @ResponsePath("data.items")
+            List<Bean> list(@Body String jsonBody);
+
+            @Request(uri = "/test", method = HttpMethod.POST)
+            @ResponsePath("$.data.items[1]")
+            Bean second(@Body String jsonBody);
+
+            @Request(uri = "/test", method = HttpMethod.POST)
+            @ResponsePath("/data/missing")
+            Bean missing(@Body String jsonBody);
+
+            @Request(uri = "/test", method = HttpMethod.POST)
+            @ResponsePath("/data/items")
+            Stream<Bean> stream(@Body String jsonBody);
+
+            @Request(uri = "/test", method = HttpMethod.POST)
+            @ResponsePath("/data/items")
+            Iterator<Bean> iterator(@Body String jsonBody);
+
+            @Request(uri = "/test", method = HttpMethod.POST, responseConverter = MaterializedStreamConverter.class)
+            Stream<String> materialized(@Body String jsonBody);
+        }
+
+        Client c = AnnoHttpClients.create(Client.class, "http://localhost:8081/");
+
+        String s =  """
+                {
+                    "meta": {"total": 2, "tags": ["a", "b"]},
+                    "data": {"items": [{"name": "Mara"}, {"name": "Ma"}]}
+                }
+                """;
+
+        Assertions.assertEquals(List.of(new Bean("Mara"), new Bean("Ma")), c.list(s));
+        Assertions.assertEquals(new Bean("Ma"), c.second(s));
+        Assertions.assertNull(c.missing(s));
+        // 多次请求以确认连接都被释放
+        for (int i = 0; i < 3; i++) {
+            try (Stream<Bean> stream = c.stream(s)) {
+                Assertions.assertEquals(List.of("Mara", "Ma"), stream.map(Bean::name).toList());
+            }
+            Iterator<Bean> iterator = c.iterator(s);
+            Assertions.assertEquals("Mara", iterator.next().name);
+            Assertions.assertEquals("Ma", iterator.next().name);
+            Assertions.assertFalse(iterator.hasNext());
+        }
+        // 没有接管响应体的转换器返回 Stream 时，连接在请求结束时释放（超过每个路由的连接数上限）
+        ResponseConverterCache.addUserConverters(new MaterializedStreamConverter());
+        for (int i = 0; i < 8; i++) {
+            Assertions.assertEquals(List.of("materialized"), c.materialized(s).toList());
+        }
+    }
+
+    public static class MaterializedStreamConverter implements ResponseConverter {
+
+        @Override
+        public boolean canConvert(ClassicHttpResponse httpResponse, HttpClientMetadata metadata, ContentType computedResponseContentType, Charset computedResponseCharset) {
+            // 只用于显式指定了它的方法，不影响自动选择转换器
+            return metadata.getRequestAnnotation().responseConverter() == MaterializedStreamConverter.class;
+        }
+
+        @Override
+        public Object convert(ClassicHttpResponse httpResponse, HttpClientMetadata metadata, ContentType computedResponseContentType, Charset computedResponseCharset) {
+            return Stream.of("materialized");
+        }
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 默认GET方式，路径参数按照所在位置编码，静态查询参数与动态查询参数")
+    void baseTest26() {
+
+        interface Client {
+            @Request(uri = "/{path}?fixed=1&q={q}", queries = "static=x&y")
+            org.apache.hc.core5.http.Header[] baseRequest(@PathVars Map<String, String> pathVars, @Query("dynamic") String dynamic);
+        }
+
+        Client c = AnnoHttpClients.create(Client.class, "http://localhost:8081/");
+        org.apache.hc.core5.http.Header[] headers = c.baseRequest(Map.of("path", "test", "q", "a b&c"), "1+1=2");
+        Map<String, String> headerMap = new HashMap<>();
+        for (org.apache.hc.core5.http.Header header : headers) {
+            headerMap.put(header.getName(), header.getValue());
+        }
+        Assertions.assertEquals("http://localhost:8081/test?fixed=1&q=a%20b%26c&dynamic=1%2B1%3D2&static=x%26y", headerMap.get("Request-URI"));
+        Assertions.assertEquals("a b&c", headerMap.get("Request-Param-q"));
+        Assertions.assertEquals("1+1=2", headerMap.get("Request-Param-dynamic"));
+        Assertions.assertEquals("x&y", headerMap.get("Request-Param-static"));
+    }
+
+    @Http2(maxConcurrentStreams = 4)
+    interface Http2Client {
+        @Request(uri = "http://localhost:8081/test", method = HttpMethod.POST, bodyString = "hello h2", contentType = "text/plain")
+        String post();
+
+        @Request(uri = "http://localhost:8081/test")
+        StatusLine status();
+    }
+
+    @Test
+    @DisplayName("普通测试 -- HTTP/2（h2c prior-knowledge）多路复用")
+    void baseTest27() throws Exception {
+        Http2Client c = AnnoHttpClients.create(Http2Client.class);
+        StatusLine statusLine = c.status();
+        Assertions.assertEquals(200, statusLine.getStatusCode());
+        Assertions.assertEquals(org.apache.hc.core5.http.HttpVersion.HTTP_2, statusLine.getProtocolVersion());
+        // 并发数超过 maxConcurrentStreams 时请求排队，全部都应正常完成
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(c::post));
+            }
+            for (Future<String> future : futures) {
+                Assertions.assertEquals("hello h2", future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // 全部流结束之后不再保留目标地址的可用流
+        java.lang.reflect.Field streamPermits = Class.forName("com.mara.zoic.annohttp.http.Http2Transport").getDeclaredField("STREAM_PERMITS");
+        streamPermits.setAccessible(true);
+        Map<?, ?> permits = (Map<?, ?>) streamPermits.get(null);
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!permits.isEmpty() && System.nanoTime() < deadlineNanos) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(permits.isEmpty());
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 多节点负载均衡，连续失败的节点被剔除")
+    void baseTest28() {
+
+        interface Client {
+            @Request(uri = "/test")
+            org.apache.hc.core5.http.Header[] baseRequest();
+        }
+
+        LoadBalancedBaseUriProvider provider = new LoadBalancedBaseUriProvider(LoadBalanceStrategy.ROUND_ROBIN,
+                List.of("http://127.0.0.1:1", "http://localhost:8081"), 1, 60_000L);
+        Client c = AnnoHttpClients.create(Client.class, provider);
+        // 轮询从第一个节点开始，该节点不可达，失败一次即被剔除
+        Assertions.assertThrows(RuntimeException.class, c::baseRequest);
+        for (int i = 0; i < 4; i++) {
+            Map<String, String> headerMap = new HashMap<>();
+            for (org.apache.hc.core5.http.Header header : c.baseRequest()) {
+                headerMap.put(header.getName(), header.getValue());
+            }
+            Assertions.assertEquals("http://localhost:8081/test", headerMap.get("Request-URI"));
+        }
+        LoadBalancedEndpoint bad = provider.getEndpoints().get(0);
+        LoadBalancedEndpoint good = provider.getEndpoints().get(1);
+        Assertions.assertTrue(bad.isEjected());
+        Assertions.assertFalse(good.isEjected());
+        Assertions.assertEquals(0, good.getInFlight());
+        Assertions.assertTrue(good.getLatencyEwmaNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 一致性哈希路由，相同路由键发往同一个节点")
+    void baseTest29() {
+
+        interface Client {
+            @Request(uri = "/test")
+            org.apache.hc.core5.http.Header[] byParameter(@RoutingKey String userId);
+
+            @Request(uri = "/test", routingKeySpel = "#arg0 + ':' + #arg1")
+            org.apache.hc.core5.http.Header[] bySpel(String tenant, String userId);
+        }
+
+        ConsistentHashBaseUriProvider provider = new ConsistentHashBaseUriProvider("http://localhost:8081", "http://127.0.0.1:8081");
+        Client c = AnnoHttpClients.create(Client.class, provider);
+        Function<org.apache.hc.core5.http.Header[], String> requestUri = headers -> {
+            for (org.apache.hc.core5.http.Header header : headers) {
+                if ("Request-URI".equals(header.getName())) {
+                    return header.getValue();
+                }
+            }
+            return null;
+        };
+        String first = requestUri.apply(c.byParameter("user-1"));
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(first, requestUri.apply(c.byParameter("user-1")));
+        }
+        String expected = provider.select("tenant-a:user-2").getBaseUri() + "/test";
+        Assertions.assertEquals(expected, requestUri.apply(c.bySpel("tenant-a", "user-2")));
+        // 移除节点后，路由键被分配到剩余的节点
+        provider.removeEndpoint(first.substring(0, first.length() - "/test".length()));
+        String remaining = provider.getEndpoints().get(0).getBaseUri() + "/test";
+        Assertions.assertEquals(remaining, requestUri.apply(c.byParameter("user-1")));
+    }
+
+    @ConcurrencyLimit(initialLimit = 4, maxLimit = 8)
+    interface LimitedClient {
+        @Request(uri = "http://localhost:8081/test")
+        StatusLine baseRequest();
+
+        @Request(uri = "http://localhost:8081/test", method = HttpMethod.POST, bodyString = "streamed", contentType = "text/plain")
+        InputStream stream();
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 自适应并发限制")
+    void baseTest30() throws Exception {
+        LimitedClient c = AnnoHttpClients.create(LimitedClient.class);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(200, c.baseRequest().getStatusCode());
+        }
+        AdaptiveConcurrencyLimiter limiter = ConcurrencyLimiters.get(LimitedClient.class.getName());
+        Assertions.assertNotNull(limiter);
+        Assertions.assertEquals(0, limiter.getInFlight());
+        Assertions.assertEquals(0, limiter.getQueueDepth());
+        Assertions.assertTrue(limiter.getLimit() >= 1 && limiter.getLimit() <= 8);
+        // 获得许可之后、发送之前的失败（比如追踪器抛出异常）同样归还许可
+        Tracer tracer = Tracing.getTracer();
+        Tracing.setTracer((metadata, request) -> {
+            throw new IllegalStateException("broken tracer");
+        });
+        try {
+            for (int i = 0; i < 10; i++) {
+                Assertions.assertThrows(RequestFailedException.class, c::baseRequest);
+            }
+        } finally {
+            Tracing.setTracer(tracer);
+        }
+        Assertions.assertEquals(0, limiter.getInFlight());
+        Assertions.assertEquals(200, c.baseRequest().getStatusCode());
+        // 响应体被读取期间请求仍然计入并发数，关闭后归还
+        try (InputStream in = c.stream()) {
+            Assertions.assertEquals(1, limiter.getInFlight());
+            Assertions.assertEquals("streamed", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            Assertions.assertEquals(1, limiter.getInFlight());
+        }
+        Assertions.assertEquals(0, limiter.getInFlight());
+
+        // 超出上限并且不允许排队时直接拒绝，归还后恢复
+        AdaptiveConcurrencyLimiter single = new AdaptiveConcurrencyLimiter("single", 1, 1, 1, 0, 0);
+        single.acquire();
+        Assertions.assertThrows(ConcurrencyLimitExceededException.class, single::acquire);
+        Assertions.assertEquals(1, single.getRejectedCount());
+        single.release(1_000_000L, false);
+        single.acquire();
+        single.release(1_000_000L, true);
+        Assertions.assertEquals(1, single.getLimit());
+    }
+
+    interface DeadlineClient {
+        @Request(uri = "http://localhost:8081/test", deadlineHeader = "X-Request-Timeout-Ms")
+        org.apache.hc.core5.http.Header[] baseRequest(Deadline deadline);
+
+        @Request(uri = "http://localhost:8081/test", deadlineHeader = "X-Request-Timeout-Ms")
+        org.apache.hc.core5.http.Header[] baseRequest();
+    }
+
+    @ConcurrencyLimit(initialLimit = 1, maxLimit = 1, maxQueueSize = 1, maxQueueWaitMillis = 10000L)
+    interface QueuedDeadlineClient {
+        @Request(uri = "http://localhost:8081/test")
+        StatusLine baseRequest(Deadline deadline);
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 截止时间")
+    void baseTest31() {
+        DeadlineClient c = AnnoHttpClients.create(DeadlineClient.class);
+        Function<org.apache.hc.core5.http.Header[], Long> budget = headers -> Arrays.stream(headers)
+                .filter(e -> "X-Request-Timeout-Ms".equalsIgnoreCase(e.getName())).findFirst()
+                .map(e -> Long.parseLong(e.getValue())).orElse(-1L);
+        // 剩余的预算以请求头的形式发送给下游
+        long sent = budget.apply(c.baseRequest(Deadline.afterMillis(5000)));
+        Assertions.assertTrue(sent > 0 && sent <= 5000);
+        // 没有截止时间时不发送
+        Assertions.assertEquals(-1L, budget.apply(c.baseRequest()));
+        // 上下文与参数同时存在时以较早的为准
+        long nested = Deadline.call(Deadline.afterMillis(3000), () -> budget.apply(c.baseRequest(Deadline.afterMillis(60000))));
+        Assertions.assertTrue(nested > 0 && nested <= 3000);
+        // 已经到期的截止时间不会发出请求
+        Assertions.assertThrows(DeadlineExceededException.class, () -> c.baseRequest(Deadline.afterMillis(0)));
+        // 在并发限制的队列中等待时到期
+        QueuedDeadlineClient q = AnnoHttpClients.create(QueuedDeadlineClient.class);
+        Assertions.assertEquals(200, q.baseRequest(Deadline.afterMillis(5000)).getStatusCode());
+        AdaptiveConcurrencyLimiter limiter = ConcurrencyLimiters.get(QueuedDeadlineClient.class.getName());
+        limiter.acquire();
+        try {
+            Assertions.assertThrows(DeadlineExceededException.class, () -> q.baseRequest(Deadline.afterMillis(200)));
+        } finally {
+            limiter.release(1_000_000L, false);
+        }
+    }
+
+    @WireLog(maxBodyBytes = 32, redactHeaders = "X-Secret", redactQueries = "token",
+            redactBodyPatterns = "\"password\"\\s*:\\s*\"([^\"]*)\"")
+    interface WireLogClient {
+        @Request(uri = "http://localhost:8081/test?token=abc&page=1", method = HttpMethod.POST, headers = "X-Secret: s3cr3t")
+        String baseRequest(@Body String body);
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 抽样报文记录")
+    void baseTest32() {
+        List<WireLogEntry> entries = new java.util.concurrent.CopyOnWriteArrayList<>();
+        WireLogger.setSink(entries::add);
+        try {
+            WireLogClient c = AnnoHttpClients.create(WireLogClient.class);
+            String body = "{\"password\": \"p@ss\", \"padding\": \"0123456789\"}";
+            Assertions.assertEquals(body, c.baseRequest(body));
+            Assertions.assertTrue(WireLogger.flush(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, entries.size());
+            WireLogEntry entry = entries.get(0);
+            Assertions.assertEquals("POST", entry.getMethod());
+            Assertions.assertEquals("http://localhost:8081/test?token=***&page=1", entry.getUri());
+            Assertions.assertEquals(200, entry.getStatusCode());
+            Assertions.assertTrue(entry.getRequestHeaders().stream().anyMatch(e -> "X-Secret".equals(e.getName()) && "***".equals(e.getValue())));
+            // 请求体与响应体都被截断到32个字节，并隐去了password的值
+            Assertions.assertTrue(entry.isRequestBodyTruncated());
+            Assertions.assertEquals("{\"password\": \"***\", \"padding\": ", entry.getRequestBody());
+            Assertions.assertTrue(entry.isResponseBodyTruncated());
+            Assertions.assertEquals(entry.getRequestBody(), entry.getResponseBody());
+            // 截断处的敏感内容不完整时同样被隐去
+            entries.clear();
+            String cut = "{\"pad\": \"01\", \"password\": \"p@ssw0rd\"}";
+            Assertions.assertEquals(cut, c.baseRequest(cut));
+            Assertions.assertTrue(WireLogger.flush(5, TimeUnit.SECONDS));
+            Assertions.assertEquals("{\"pad\": \"01\", ***", entries.get(0).getRequestBody());
+            Assertions.assertEquals(entries.get(0).getRequestBody(), entries.get(0).getResponseBody());
+        } finally {
+            WireLogger.setSink(new Slf4jWireLogSink());
+        }
+    }
+
+    interface TracedClient {
+        @Request(uri = "http://localhost:8081/test")
+        org.apache.hc.core5.http.Header[] baseRequest();
+
+        @Request(uri = "http://localhost:8081/test")
+        PreparingRequest<StatusLine> prepared();
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 追踪与traceparent传播")
+    void baseTest33() {
+        List<SpanPhase> events = new java.util.concurrent.CopyOnWriteArrayList<>();
+        int[] endedStatus = {0};
+        TraceContext[] started = new TraceContext[1];
+        Tracing.setTracer((metadata, request) -> {
+            TraceContext parent = TraceContext.resolveParent(request);
+            started[0] = parent == null ? TraceContext.newRoot(true) : parent.newChild();
+            return new Span() {
+                @Override
+                public TraceContext getContext() {
+                    return started[0];
+                }
+
+                @Override
+                public void event(SpanPhase phase) {
+                    events.add(phase);
+                }
+
+                @Override
+                public void end(int statusCode, Throwable error) {
+                    endedStatus[0] = statusCode;
+                }
+            };
+        });
+        try {
+            TracedClient c = AnnoHttpClients.create(TracedClient.class);
+            TraceContext parent = TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", "vendor=1");
+            Assertions.assertNotNull(parent);
+            org.apache.hc.core5.http.Header[] headers = TraceContext.call(parent, c::baseRequest);
+            String traceparent = Arrays.stream(headers).filter(e -> "traceparent".equalsIgnoreCase(e.getName())).findFirst()
+                    .map(org.apache.hc.core5.http.Header::getValue).orElse(null);
+            TraceContext sent = TraceContext.parse(traceparent, null);
+            Assertions.assertNotNull(sent);
+            Assertions.assertEquals(parent.getTraceId(), sent.getTraceId());
+            Assertions.assertNotEquals(parent.getSpanId(), sent.getSpanId());
+            Assertions.assertEquals(started[0].getSpanId(), sent.getSpanId());
+            Assertions.assertTrue(Arrays.stream(headers).anyMatch(e -> "tracestate".equalsIgnoreCase(e.getName()) && "vendor=1".equals(e.getValue())));
+            Assertions.assertTrue(events.containsAll(List.of(SpanPhase.LEASE, SpanPhase.TTFB, SpanPhase.CONVERT)));
+            Assertions.assertEquals(1, events.stream().filter(e -> e == SpanPhase.LEASE).count());
+            Assertions.assertTrue(events.indexOf(SpanPhase.LEASE) < events.indexOf(SpanPhase.TTFB));
+            Assertions.assertEquals(200, endedStatus[0]);
+        } finally {
+            Tracing.setTracer(null);
+        }
+        // 同一个 PreparingRequest 并发请求时，每次请求各自开始并结束自己的跨度
+        List<Integer> endedStatuses = new CopyOnWriteArrayList<>();
+        AtomicInteger ttfbCount = new AtomicInteger();
+        Tracing.setTracer((metadata, request) -> new Span() {
+            @Override
+            public TraceContext getContext() {
+                return TraceContext.newRoot(true);
+            }
+
+            @Override
+            public void event(SpanPhase phase) {
+                if (phase == SpanPhase.TTFB) {
+                    ttfbCount.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void end(int statusCode, Throwable error) {
+                endedStatuses.add(statusCode);
+            }
+        });
+        try {
+            PreparingRequest<StatusLine> prepared = AnnoHttpClients.create(TracedClient.class).prepared();
+            List<CompletableFuture<StatusLine>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(CompletableFuture.supplyAsync(prepared::request));
+            }
+            futures.forEach(CompletableFuture::join);
+            Assertions.assertEquals(8, ttfbCount.get());
+            Assertions.assertEquals(Collections.nCopies(8, 200), endedStatuses);
+        } finally {
+            Tracing.setTracer(null);
+        }
+        Assertions.assertNull(TraceContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01", null));
+    }
+
+    record MemOrder(String id) {
+
+        static final AtomicInteger SERIALIZATIONS = new AtomicInteger();
+
+        @Override
+        public String id() {
+            SERIALIZATIONS.incrementAndGet();
+            return id;
+        }
+    }
+
+    public static class MemOrderConverter implements ResponseConverter {
+
+        @Override
+        public boolean canConvert(ClassicHttpResponse httpResponse, HttpClientMetadata metadata, ContentType computedResponseContentType, Charset computedResponseCharset) {
+            // 只用于显式指定了它的方法，不影响自动选择转换器
+            return metadata.getRequestAnnotation().responseConverter() == MemOrderConverter.class;
+        }
+
+        @Override
+        public Object convert(ClassicHttpResponse httpResponse, HttpClientMetadata metadata, ContentType computedResponseContentType, Charset computedResponseCharset) {
+            return "converted";
+        }
+    }
+
+    interface MemClient {
+        @Request(uri = "mem://orders/orders/{id}")
+        MemOrder getOrder(@PathVars Map<String, String> pathVars);
+
+        @Request(uri = "mem://orders/orders/{id}")
+        Map<String, Object> getOrderAsMap(@PathVars Map<String, String> pathVars);
+
+        @Request(uri = "mem://orders/orders/{id}", responseConverter = MemOrderConverter.class)
+        Object getOrderConverted(@PathVars Map<String, String> pathVars);
+
+        @Request(uri = "mem://orders/orders", method = HttpMethod.POST)
+        String createOrder(@Body Map<String, Object> order);
+
+        @Request(uri = "mem://missing/orders")
+        StatusLine missing();
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 进程内传输")
+    void baseTest34() {
+        MemOrder stored = new MemOrder("42");
+        ResponseConverterCache.addUserConverters(new MemOrderConverter());
+        MemTransport.register("orders", (request, metadata) -> {
+            if ("GET".equals(request.getMethod())) {
+                return request.getPath().equals("/orders/42") ? MemTransport.objectResponse(200, stored) : MemTransport.objectResponse(404, null);
+            }
+            // 请求参数对象可以直接获得，不需要反序列化请求体
+            @SuppressWarnings("unchecked")
+            Map<String, Object> order = (Map<String, Object>) metadata.getRequestMethodArguments()[0];
+            return MemTransport.objectResponse(200, Map.of("created", order.get("name")));
+        });
+        try {
+            MemClient c = AnnoHttpClients.create(MemClient.class);
+            // 返回类型可以直接接收时返回的是同一个对象
+            MemOrder.SERIALIZATIONS.set(0);
+            Assertions.assertSame(stored, c.getOrder(Map.of("id", "42")));
+            // 直接返回的对象不会在请求结束时被序列化
+            Assertions.assertEquals(0, MemOrder.SERIALIZATIONS.get());
+            // 泛型返回类型无法校验类型参数，经过转换器
+            Assertions.assertEquals(Map.of("id", "42"), c.getOrderAsMap(Map.of("id", "42")));
+            // 用户指定的转换器总会被使用
+            Assertions.assertEquals("converted", c.getOrderConverted(Map.of("id", "42")));
+            // 否则按照 JSON 序列化后再转换
+            Assertions.assertEquals("{\"created\":\"book\"}", c.createOrder(Map.of("name", "book")));
+            Assertions.assertThrows(RequestFailedException.class, c::missing);
+        } finally {
+            MemTransport.unregister("orders");
+        }
+    }
+
+    interface UnixClient {
+        @Request(uri = "/echo")
+        String echo(@Query("name") String name);
+    }
+
+    @Test
+    @DisplayName("普通测试 -- Unix 域套接字")
+    void baseTest35() throws Exception {
+        Path socketFile = Files.createTempDirectory("annohttp").resolve("sidecar.sock");
+        AtomicInteger connections = new AtomicInteger();
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socketFile));
+            Thread acceptor = new Thread(() -> {
+                while (server.isOpen()) {
+                    try {
+                        SocketChannel channel = server.accept();
+                        int id = connections.incrementAndGet();
+                        Thread worker = new Thread(() -> serveUnixConnection(channel, id));
+                        worker.setDaemon(true);
+                        worker.start();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            UnixClient c = AnnoHttpClients.create(UnixClient.class, "unix://" + socketFile);
+            Assertions.assertEquals("conn=1 GET /echo?name=a host=localhost", c.echo("a"));
+            // 连接被池化，第二次请求复用同一个连接
+            Assertions.assertEquals("conn=1 GET /echo?name=b host=localhost", c.echo("b"));
+            Assertions.assertEquals(1, connections.get());
+        } finally {
+            Files.deleteIfExists(socketFile);
+            Files.deleteIfExists(socketFile.getParent());
+        }
+    }
+
+    /**
+     * 一个极简的 HTTP/1.1 服务端（只处理没有请求体的请求），回显请求行与 Host 请求头。
+     */
+    private static void serveUnixConnection(SocketChannel channel, int id) {
+        try (channel; InputStream in = Channels.newInputStream(channel); OutputStream out = Channels.newOutputStream(channel)) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+            String requestLine;
+            while ((requestLine = reader.readLine()) != null) {
+                String host = null;
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    if (line.regionMatches(true, 0, "Host:", 0, 5)) {
+                        host = line.substring(5).trim();
+                    }
+                }
+                String[] parts = requestLine.split(" ");
+                byte[] body = ("conn=" + id + " " + parts[0] + " " + parts[1] + " host=" + host).getBytes(StandardCharsets.UTF_8);
+                out.write(("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: " + body.length + "\r\n\r\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+                out.write(body);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // 连接被关闭
+        }
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 按照代理区分连接")
+    void baseTest36() throws Exception {
+        RequestProxy socks = RequestProxy.create("localhost", 1080, RequestProxy.ProxyType.SOCKS, true,
+                RequestProxy.ProxyCredentialType.USERNAME_PASSWORD, "user", "secret", null, null, null);
+        RequestProxyKey socksKey = RequestProxyKey.of(socks);
+        Assertions.assertEquals(socksKey, RequestProxyKey.of(RequestProxy.newCopy(socks)));
+        Assertions.assertNotEquals(socksKey, RequestProxyKey.of(RequestProxy.create("localhost", 1080, RequestProxy.ProxyType.SOCKS, true,
+                RequestProxy.ProxyCredentialType.USERNAME_PASSWORD, "user", "other", null, null, null)));
+        Assertions.assertSame(RequestProxyKey.DIRECT, RequestProxyKey.of(null));
+        Assertions.assertEquals(socksKey, new HttpClientProxyContext(socks).getUserToken());
+        Assertions.assertFalse(socksKey.toString().contains("secret"));
+
+        try (ProxyAwareConnectionManager manager = new ProxyAwareConnectionManager(RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new HttpConnectionSocketFactory()).build(), null, null, TimeValue.NEG_ONE_MILLISECOND)) {
+            HttpRoute route = new HttpRoute(new HttpHost("http", "localhost", 8081));
+            ConnectionEndpoint direct = manager.lease("direct", route, null).get(Timeout.ofSeconds(5));
+            manager.connect(direct, TimeValue.ofSeconds(5), HttpClientContext.create());
+            manager.release(direct, null, TimeValue.ofMinutes(1));
+            // 使用代理的请求不会拿到直连的连接
+            ConnectionEndpoint proxied = manager.lease("proxied", route, socksKey).get(Timeout.ofSeconds(5));
+            Assertions.assertFalse(proxied.isConnected());
+            manager.release(proxied, socksKey, TimeValue.ZERO_MILLISECONDS);
+            // 直连的请求仍然复用原有的连接
+            ConnectionEndpoint reused = manager.lease("reused", route, null).get(Timeout.ofSeconds(5));
+            Assertions.assertTrue(reused.isConnected());
+            manager.release(reused, null, TimeValue.ofMinutes(1));
+        }
+    }
+
+    @Http2
+    interface Https2Client {
+        @Request(uri = "https://localhost:8443/")
+        StatusLine status();
+    }
+
+    @Test
+    @DisplayName("普通测试 -- TLS 设置与握手统计")
+    void baseTest37() throws Exception {
+        Path keyStore = Files.createTempDirectory("annohttp").resolve("server.p12");
+        Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "server", "-keyalg", "RSA", "-keysize", "2048", "-dname", "CN=localhost",
+                "-validity", "1", "-storetype", "PKCS12", "-keystore", keyStore.toString(), "-storepass", "changeit")
+                .redirectErrorStream(true).start();
+        Assertions.assertEquals(0, keytool.waitFor());
+        Vertx vertx = Vertx.vertx();
+        try {
+            HttpServer httpsServer = vertx.createHttpServer(new HttpServerOptions().setSsl(true).setUseAlpn(true)
+                            .setKeyCertOptions(new PfxOptions().setPath(keyStore.toString()).setPassword("changeit")))
+                    .requestHandler(request -> {
+                        if (request.version() != io.vertx.core.http.HttpVersion.HTTP_2) {
+                            request.response().putHeader("Connection", "close");
+                        }
+                        request.response().end(request.sslSession().getProtocol());
+                    })
+                    .listen(8443).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+            TlsHandshakeMetrics.reset();
+            try (CloseableHttpClient client = HttpClientBuilderEnhancer.enhance(HttpClientBuilder.create(),
+                    TlsSettings.defaults().withProtocols("TLSv1.3", "TLSv1.2", "SSLv2").withSessionCacheSize(64)).build()) {
+                for (int i = 0; i < 3; i++) {
+                    // 服务端每次都关闭连接，因此每次请求都会重新握手
+                    String protocol = client.execute(new HttpGet("https://localhost:8443/"), r -> EntityUtils.toString(r.getEntity()));
+                    Assertions.assertEquals("TLSv1.3", protocol);
+                }
+            }
+            TlsHandshakeMetrics.HostStats stats = TlsHandshakeMetrics.get("localhost:8443");
+            Assertions.assertEquals(3, stats.getCount());
+            Assertions.assertTrue(stats.getMaxNanos() > 0 && stats.getAverageNanos() <= stats.getMaxNanos());
+            // HTTP/2 客户端使用相同的 TLS 设置，自签名的证书同样被信任
+            StatusLine h2Status = AnnoHttpClients.create(Https2Client.class).status();
+            Assertions.assertEquals(200, h2Status.getStatusCode());
+            Assertions.assertEquals(org.apache.hc.core5.http.HttpVersion.HTTP_2, h2Status.getProtocolVersion());
+            // 设置相同时共享同一个 SSLContext
+            Assertions.assertSame(TlsSupport.sslContext(TlsSettings.defaults()), TlsSupport.sslContext(TlsSettings.defaults().withProtocols("TLSv1.3")));
+            httpsServer.close();
+        } finally {
+            vertx.close();
+            Files.deleteIfExists(keyStore);
+            Files.deleteIfExists(keyStore.getParent());
+        }
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 自定义 HttpClient 的共享与空闲关闭")
+    void baseTest38() throws Exception {
+
+        interface Client {
+            @Request(uri = "http://localhost:8081/test")
+            PreparingRequest<Map<String, Object>> baseRequest(@Body String jsonBody);
+
+            @Request(uri = "http://localhost:8081/test")
+            PreparingRequest<InputStream> stream(@Body String jsonBody);
+        }
+
+        Client c = AnnoHttpClients.create(Client.class);
+        AtomicInteger built = new AtomicInteger();
+        Supplier<HttpClientBuilder> supplier = () -> {
+            built.incrementAndGet();
+            return HttpClientBuilderEnhancer.enhance(HttpClientBuilder.create());
+        };
+        Assertions.assertNotNull(c.baseRequest("{}").customHttpClient("baseTest38", supplier).request());
+        Assertions.assertNotNull(c.baseRequest("{}").customHttpClient("baseTest38", supplier).request());
+        // 同一个名称只建造一次，请求结束后全部归还
+        Assertions.assertEquals(1, built.get());
+        Assertions.assertEquals(0, HttpClientRegistry.getReferences("baseTest38"));
+
+        // 由用户读取响应体时，租约在响应体关闭时才归还
+        InputStream stream = c.stream("{}").customHttpClient("baseTest38", supplier).request();
+        Assertions.assertEquals(1, HttpClientRegistry.getReferences("baseTest38"));
+        stream.readAllBytes();
+        stream.close();
+        Assertions.assertEquals(0, HttpClientRegistry.getReferences("baseTest38"));
+        ClassicHttpResponse classicResponse = c.baseRequest("{}").customHttpClient("baseTest38", supplier).requestClassically();
+        Assertions.assertEquals(1, HttpClientRegistry.getReferences("baseTest38"));
+        classicResponse.close();
+        Assertions.assertEquals(0, HttpClientRegistry.getReferences("baseTest38"));
+
+        // 以提供器实例为键，提供器只调用一次
+        HttpClientBuilder builder = HttpClientBuilder.create();
+        AtomicInteger supplied = new AtomicInteger();
+        Supplier<HttpClientBuilder> builderSupplier = () -> {
+            supplied.incrementAndGet();
+            return builder;
+        };
+        c.baseRequest("{}").customHttpClient(builderSupplier).request();
+        c.baseRequest("{}").customHttpClient(builderSupplier).request();
+        Assertions.assertEquals(1, supplied.get());
+        Assertions.assertSame(builder, HttpClientRegistry.getBuilder(builderSupplier));
+        Assertions.assertEquals(0, HttpClientRegistry.getReferences(builderSupplier));
+
+        Duration idleTimeout = HttpClientRegistry.getIdleTimeout();
+        try {
+            HttpClientRegistry.setIdleTimeout(Duration.ZERO);
+            HttpClientRegistry.evictIdle();
+            Assertions.assertEquals(-1, HttpClientRegistry.getReferences("baseTest38"));
+            Assertions.assertNull(HttpClientRegistry.getBuilder(builderSupplier));
+        } finally {
+            HttpClientRegistry.setIdleTimeout(idleTimeout);
+        }
+        // 关闭后再次使用时重新建造
+        c.baseRequest("{}").customHttpClient("baseTest38", supplier).request();
+        Assertions.assertEquals(2, built.get());
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 连接池的定时清理与统计")
+    void baseTest39() throws Exception {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        ConnectionPoolMonitor.monitor("baseTest39", connectionManager, TimeValue.ofMilliseconds(100), TimeValue.ZERO_MILLISECONDS);
+        try (CloseableHttpClient client = HttpClientBuilder.create().setConnectionManager(connectionManager).build()) {
+            client.execute(new HttpGet("http://localhost:8081/test"), r -> EntityUtils.toString(r.getEntity()));
+            ConnectionPoolStats stats = ConnectionPoolMonitor.getStats().stream()
+                    .filter(s -> s.getName().equals("baseTest39")).findFirst().orElseThrow();
+            Assertions.assertEquals(0, stats.getLeased());
+            Assertions.assertTrue(stats.getRoutes().keySet().stream().anyMatch(route -> route.contains("localhost:8081")));
+            // 空闲的连接被后台清理
+            long deadline = System.currentTimeMillis() + 5000;
+            while (connectionManager.getTotalStats().getAvailable() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assertions.assertEquals(0, connectionManager.getTotalStats().getAvailable());
+        } finally {
+            ConnectionPoolMonitor.unmonitor(connectionManager);
+        }
+        Assertions.assertTrue(ConnectionPoolMonitor.getStats().stream().noneMatch(s -> s.getName().equals("baseTest39")));
+    }
+
+    interface BatchedUserClient {
+        @Batched(method = "getUsers", resultKey = "['id']", windowMillis = 50)
+        CompletableFuture<Map<String, Object>> getUser(Integer id);
+
+        @Batched(method = "getUsers", resultKey = "['id']", windowMillis = 50)
+        Map<String, Object> getUserBlocking(Integer id);
+
+        @Request(uri = "mem://users/users")
+        List<Map<String, Object>> getUsers(@Query("ids") String ids);
+
+        @Batched(method = "getSlowUsers", resultKey = "['id']", windowMillis = 0, timeoutMillis = 200)
+        Map<String, Object> getSlowUser(Integer id);
+
+        @Request(uri = "mem://users/slow")
+        List<Map<String, Object>> getSlowUsers(@Query("ids") String ids);
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 合并单个调用为批量调用")
+    void baseTest40() throws Exception {
+        List<String> batches = new CopyOnWriteArrayList<>();
+        MemTransport.register("users", (request, metadata) -> {
+            String ids = (String) metadata.getRequestMethodArguments()[0];
+            if (request.getPath().startsWith("/slow")) {
+                Thread.sleep(1000);
+            }
+            batches.add(ids);
+            // 不存在的用户（id 为 0）不在结果中，并且结果的顺序与请求的顺序无关
+            List<Map<String, Object>> users = new ArrayList<>();
+            for (String id : ids.split(",")) {
+                if (!id.equals("0")) {
+                    users.add(0, Map.of("id", Integer.valueOf(id), "name", "user" + id));
+                }
+            }
+            return MemTransport.objectResponse(200, users);
+        });
+        try {
+            BatchedUserClient c = AnnoHttpClients.create(BatchedUserClient.class);
+            List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+            for (int i = 1; i <= 20; i++) {
+                futures.add(c.getUser(i % 10));
+            }
+            for (int i = 1; i <= 20; i++) {
+                Map<String, Object> user = futures.get(i - 1).get(5, TimeUnit.SECONDS);
+                if (i % 10 == 0) {
+                    Assertions.assertNull(user);
+                } else {
+                    Assertions.assertEquals("user" + (i % 10), user.get("name"));
+                }
+            }
+            // 20 个调用合并为一次批量调用，重复的键只查询一次
+            Assertions.assertEquals(List.of("1,2,3,4,5,6,7,8,9,0"), batches);
+            Assertions.assertEquals("user7", c.getUserBlocking(7).get("name"));
+            Assertions.assertEquals(2, batches.size());
+            // 批量调用在用户提供的执行器中执行
+            AtomicInteger executed = new AtomicInteger();
+            AnnoHttpExecutors.setExecutor(command -> {
+                executed.incrementAndGet();
+                new Thread(command).start();
+            });
+            Assertions.assertEquals("user8", c.getUserBlocking(8).get("name"));
+            Assertions.assertEquals(1, executed.get());
+
+            // 后台线程上的阻塞调用直接执行批次，即使线程池已满也不会等待排在自己之后的批次
+            ExecutorService single = Executors.newSingleThreadExecutor();
+            try {
+                AnnoHttpExecutors.setExecutor(single);
+                CompletableFuture<Object> nested = new CompletableFuture<>();
+                AnnoHttpExecutors.execute(() -> {
+                    try {
+                        nested.complete(c.getUserBlocking(4).get("name"));
+                    } catch (Throwable e) {
+                        nested.completeExceptionally(e);
+                    }
+                });
+                Assertions.assertEquals("user4", nested.get(5, TimeUnit.SECONDS));
+            } finally {
+                AnnoHttpExecutors.setExecutor(null);
+                single.shutdown();
+            }
+
+            // 阻塞等待的时间有上限，上下文截止时间更早时以截止时间为准
+            RequestFailedException timedOut = Assertions.assertThrows(RequestFailedException.class, () -> c.getSlowUser(1));
+            Assertions.assertInstanceOf(java.util.concurrent.TimeoutException.class, timedOut.getCause());
+            Assertions.assertThrows(DeadlineExceededException.class, () -> Deadline.call(Deadline.afterMillis(50), () -> c.getSlowUser(2)));
+        } finally {
+            AnnoHttpExecutors.setExecutor(null);
+            MemTransport.unregister("users");
+        }
+    }
+
+    interface SseClient {
+        @Request(uri = "http://localhost:8444/events")
+        @EventStream(retryMillis = 50)
+        SseStream<Map<String, Object>> events();
+    }
+
+    @Test
+    @DisplayName("普通测试 -- Server-Sent Events 的解析与重连")
+    void baseTest41() throws Exception {
+        List<String> lastEventIds = new CopyOnWriteArrayList<>();
+        Vertx vertx = Vertx.vertx();
+        try {
+            vertx.createHttpServer().requestHandler(request -> {
+                String lastEventId = request.getHeader("Last-Event-ID");
+                lastEventIds.add(String.valueOf(lastEventId));
+                var response = request.response().setChunked(true).putHeader("Content-Type", "text/event-stream");
+                if (lastEventId == null) {
+                    // 第一个连接发送两个事件后断开，其中一个事件的数据跨越两行并且使用 CRLF 换行
+                    response.write("retry: 100\n\nid: 1\ndata: {\"n\": 1}\n\n: heartbeat\n");
+                    response.end("id: 2\r\nevent: tick\r\ndata: {\"n\":\r\ndata: 2}\r\n\r\nid: 9\ndata: {\"n\": ");
+                } else {
+                    response.write("id: 3\ndata: {\"n\": 3}\n\n");
+                }
+            }).listen(8444).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+            SseClient c = AnnoHttpClients.create(SseClient.class);
+            BlockingQueue<SseEvent<Map<String, Object>>> events = new LinkedBlockingQueue<>();
+            Flow.Subscription subscription = c.events().subscribe(events::add, null);
+            try {
+                SseEvent<Map<String, Object>> first = events.poll(5, TimeUnit.SECONDS);
+                SseEvent<Map<String, Object>> second = events.poll(5, TimeUnit.SECONDS);
+                SseEvent<Map<String, Object>> third = events.poll(5, TimeUnit.SECONDS);
+                Assertions.assertEquals("1", first.getId());
+                Assertions.assertEquals(SseEvent.DEFAULT_EVENT, first.getEvent());
+                Assertions.assertEquals(1, first.getData().get("n"));
+                Assertions.assertEquals("tick", second.getEvent());
+                Assertions.assertEquals(2, second.getData().get("n"));
+                Assertions.assertEquals(3, third.getData().get("n"));
+                // 未完成的事件（id 为 9）被丢弃，重连时带着最后一个完整事件的 ID
+                Assertions.assertEquals(List.of("null", "2"), lastEventIds);
+            } finally {
+                subscription.cancel();
+            }
+
+            // 非法的请求数量产生的错误由后台线程在 onNext 返回之后发送
+            CompletableFuture<Boolean> errorOverlapped = new CompletableFuture<>();
+            AtomicInteger signals = new AtomicInteger();
+            c.events().subscribe(new Flow.Subscriber<>() {
+                private volatile boolean inOnNext;
+                private Flow.Subscription s;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    s = subscription;
+                    s.request(1);
+                }
+
+                @Override
+                public void onNext(SseEvent<Map<String, Object>> item) {
+                    inOnNext = true;
+                    try {
+                        Thread other = new Thread(() -> s.request(0));
+                        other.start();
+                        other.join();
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inOnNext = false;
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    signals.incrementAndGet();
+                    errorOverlapped.complete(inOnNext || !(throwable instanceof IllegalArgumentException));
+                }
+
+                @Override
+                public void onComplete() {
+                    signals.incrementAndGet();
+                    errorOverlapped.complete(true);
+                }
+            });
+            Assertions.assertFalse(errorOverlapped.get(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            Assertions.assertEquals(1, signals.get());
+        } finally {
+            vertx.close();
+        }
+    }
+
+    @ResponseSizeLimit(maxInMemoryBytes = 1024, maxBytes = 1024 * 1024)
+    interface SizeLimitedClient {
+        @Request(uri = "http://localhost:8445/fixed")
+        String fixed(@Query("size") String size);
+
+        @Request(uri = "http://localhost:8445/chunked")
+        byte[] chunked(@Query("size") String size);
+
+        @Request(uri = "http://localhost:8445/json")
+        Map<String, Object> json(@Query("size") String size);
+
+        @Request(uri = "http://localhost:8445/chunked")
+        @ResponseSizeLimit(maxBytes = 0)
+        String unlimited(@Query("size") String size);
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 响应体大小限制与转存")
+    void baseTest42() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            vertx.createHttpServer().requestHandler(request -> {
+                int size = Integer.parseInt(request.getParam("size"));
+                var response = request.response();
+                switch (request.path()) {
+                    case "/fixed" -> response.end("a".repeat(size));
+                    case "/json" -> response.putHeader("Content-Type", "application/json").end("{\"data\":\"" + "a".repeat(size) + "\"}");
+                    default -> {
+                        response.setChunked(true);
+                        String chunk = "a".repeat(64 * 1024);
+                        for (int written = 0; written < size && !response.closed(); written += chunk.length()) {
+                            response.write(chunk.substring(0, Math.min(chunk.length(), size - written)));
+                        }
+                        if (!response.closed()) {
+                            response.end();
+                        }
+                    }
+                }
+            }).listen(8445).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+            SizeLimitedClient c = AnnoHttpClients.create(SizeLimitedClient.class);
+            long spilled = SpilledContent.getSpilledCount();
+            // 未超过阈值的响应体在内存中转换
+            Assertions.assertEquals("a".repeat(100), c.fixed("100"));
+            Assertions.assertEquals(spilled, SpilledContent.getSpilledCount());
+            // 超过阈值的响应体（Content-Length 已知或者分块传输）转存到临时文件后转换
+            Assertions.assertEquals(100000, c.fixed("100000").length());
+            Assertions.assertEquals(100000, c.chunked("100000").length);
+            Assertions.assertEquals(100000, ((String) c.json("100000").get("data")).length());
+            Assertions.assertEquals(spilled + 3, SpilledContent.getSpilledCount());
+            Assertions.assertEquals(0, SpilledContent.getActiveCount());
+
+            // Content-Length 超过上限时不读取响应体
+            Assertions.assertThrows(ResponseTooLargeException.class, () -> c.fixed("2000000"));
+            // 分块传输时读到上限即中止，连接不会被占用
+            Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                for (int i = 0; i < 60; i++) {
+                    Assertions.assertThrows(ResponseTooLargeException.class, () -> c.chunked("4000000"));
+                }
+            });
+            Assertions.assertEquals(0, SpilledContent.getActiveCount());
+            // 方法上的设定优先于服务接口上的设定
+            Assertions.assertEquals(2000000, c.unlimited("2000000").length());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ResponseSizeLimits.setMaxBytes(-1));
+        } finally {
+            vertx.close();
+        }
+    }
+
+    interface InterceptedClient {
+        @Request(uri = "mem://intercepted/profile")
+        Map<String, Object> profile();
+
+        @Request(uri = "mem://intercepted/cached")
+        Map<String, Object> cached();
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 拦截器链")
+    void baseTest43() {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        MemTransport.register("intercepted", (request, metadata) -> {
+            org.apache.hc.core5.http.Header authorization = request.getFirstHeader("Authorization");
+            calls.add(request.getPath() + " " + (authorization == null ? null : authorization.getValue()));
+            if (authorization == null || !authorization.getValue().equals("Bearer new")) {
+                return MemTransport.objectResponse(401, null);
+            }
+            return MemTransport.objectResponse(200, Map.of("name", "mara"));
+        });
+        List<String> order = new CopyOnWriteArrayList<>();
+        AnnoHttpInterceptor tracing = chain -> {
+            order.add("outer");
+            return chain.proceed(chain.getRequest());
+        };
+        AnnoHttpInterceptor cache = chain -> {
+            order.add("cache");
+            if (chain.getMetadata().getRequestMethod().getName().equals("cached")) {
+                // 不经过网络，直接返回合成的响应
+                return MemTransport.objectResponse(200, Map.of("name", "cached"));
+            }
+            return chain.proceed(chain.getRequest());
+        };
+        AnnoHttpInterceptor auth = chain -> {
+            chain.getRequest().setHeader("Authorization", "Bearer old");
+            ClassicHttpResponse response = chain.proceed(chain.getRequest());
+            if (response.getCode() == 401) {
+                // 刷新令牌后重新发送
+                response.close();
+                chain.getRequest().setHeader("Authorization", "Bearer new");
+                response = chain.proceed(chain.getRequest());
+            }
+            return response;
+        };
+        AnnoHttpClients.addInterceptors(tracing, cache, auth);
+        try {
+            InterceptedClient c = AnnoHttpClients.create(InterceptedClient.class);
+            Assertions.assertEquals("mara", c.profile().get("name"));
+            Assertions.assertEquals(List.of("/profile Bearer old", "/profile Bearer new"), calls);
+            Assertions.assertEquals(List.of("outer", "cache"), order);
+
+            Assertions.assertEquals("cached", c.cached().get("name"));
+            Assertions.assertEquals(2, calls.size());
+            Assertions.assertEquals(List.of(tracing, cache, auth), AnnoHttpInterceptors.getAll());
+        } finally {
+            AnnoHttpInterceptors.remove(tracing);
+            AnnoHttpInterceptors.remove(cache);
+            AnnoHttpInterceptors.remove(auth);
+            MemTransport.unregister("intercepted");
+        }
+        Assertions.assertTrue(AnnoHttpInterceptors.isEmpty());
+    }
+
+    interface ShardClient {
+        @Request(uri = "/item")
+        PreparingRequest<String> item(@Query("delay") String delayMillis);
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 扇出请求")
+    void baseTest44() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            vertx.createHttpServer().requestHandler(request -> {
+                String shard = request.path().split("/")[1];
+                switch (shard) {
+                    case "a" -> vertx.setTimer(50, id -> request.response().end("a"));
+                    case "b" -> vertx.setTimer(Long.parseLong(request.getParam("delay")), id -> {
+                        if (!request.response().closed()) {
+                            request.response().end("b");
+                        }
+                    });
+                    default -> request.response().setStatusCode(500).end("c");
+                }
+            }).listen(8446).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+            List<String> shards = List.of("http://localhost:8446/a", "http://localhost:8446/b", "http://localhost:8446/c");
+
+            // 第一个成功的请求胜出，慢的请求被取消
+            long start = System.nanoTime();
+            FanOutResult<String> first = ScatterGather.execute(ShardClient.class, shards, s -> s.item("5000"), FanOutPolicy.firstSuccess());
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000);
+            Assertions.assertEquals("a", first.getFirst());
+            Assertions.assertTrue(first.getCancelled().contains("http://localhost:8446/b"));
+
+            // 等待所有请求完成，失败的请求也在结果中
+            FanOutResult<String> all = ScatterGather.execute(ShardClient.class, shards, s -> s.item("200"), FanOutPolicy.all());
+            Assertions.assertTrue(all.isSatisfied());
+            Assertions.assertEquals(List.of("a", "b"), all.getResults());
+            Assertions.assertEquals(Set.of("http://localhost:8446/c"), all.getFailures().keySet());
+            Assertions.assertTrue(all.getCancelled().isEmpty());
+
+            // 无法达到要求的数量时立即失败，不等待慢的请求
+            start = System.nanoTime();
+            FanOutFailedException e = Assertions.assertThrows(FanOutFailedException.class,
+                    () -> ScatterGather.execute(ShardClient.class, shards, s -> s.item("5000"), FanOutPolicy.quorum(3)));
+            Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000);
+            Assertions.assertFalse(e.getResult().isSatisfied());
+            Assertions.assertTrue(e.getResult().getCancelled().contains("http://localhost:8446/b"));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> ScatterGather.execute(ShardClient.class, shards, s -> s.item("0"), FanOutPolicy.quorum(4)));
+            // 请求在共享的执行器中执行，执行器拒绝的请求记为失败
+            AnnoHttpExecutors.setExecutor(command -> {
+                throw new java.util.concurrent.RejectedExecutionException("full");
+            });
+            try {
+                FanOutFailedException rejected = Assertions.assertThrows(FanOutFailedException.class,
+                        () -> ScatterGather.execute(ShardClient.class, shards, s -> s.item("0"), FanOutPolicy.firstSuccess()));
+                Assertions.assertEquals(3, rejected.getResult().getFailures().size());
+            } finally {
+                AnnoHttpExecutors.setExecutor(null);
+            }
+
+            // 被取消的请求的连接立即被释放
+            long deadline = System.currentTimeMillis() + 2000;
+            int leased;
+            do {
+                leased = ConnectionPoolMonitor.getStats().stream()
+                        .flatMap(stats -> stats.getRoutes().entrySet().stream())
+                        .filter(route -> route.getKey().contains("localhost:8446"))
+                        .mapToInt(route -> route.getValue().getLeased()).sum();
+            } while (leased > 0 && System.currentTimeMillis() < deadline && sleep(50));
+            Assertions.assertEquals(0, leased);
+
+            // 服务实例按照服务接口与 baseUri 缓存，多次扇出不会重复创建
+            AtomicInteger created = new AtomicInteger();
+            AnnoHttpClients.addAnnoHttpLifecycleInstances(new AnnoHttpLifecycle() {
+                @Override
+                public void beforeClientCreating(Class<?> clientClass) {
+                }
+
+                @Override
+                public void afterClientCreated(Object client) {
+                    if (client instanceof ShardClient) {
+                        created.incrementAndGet();
+                    }
+                }
+
+                @Override
+                public void beforeClientRequesting(HttpClientMetadata httpClientMetadata, PreparingRequest<?> preparingRequest) {
+                }
+
+                @Override
+                public void afterClientRequested(HttpClientMetadata httpClientMetadata, ClassicHttpResponse httpResponse,
+                                                 ResponseConverter responseConverter) {
+                }
+            });
+            for (int i = 0; i < 2; i++) {
+                ScatterGather.execute(ShardClient.class, shards, s -> s.item("10"), FanOutPolicy.all());
+            }
+            Assertions.assertEquals(0, created.get());
+
+            // 结束之后才到达的结果不会交给调用者，可关闭的结果被关闭
+            TrackedResource late = new TrackedResource();
+            MemTransport.register("fast", (request, metadata) -> MemTransport.objectResponse(200, new TrackedResource()));
+            MemTransport.register("slow", (request, metadata) -> {
+                sleep(300);
+                return MemTransport.objectResponse(200, late);
+            });
+            try {
+                FanOutResult<TrackedResource> winner = ScatterGather.execute(ResourceClient.class, List.of("mem://fast", "mem://slow"),
+                        ResourceClient::resource, FanOutPolicy.firstSuccess());
+                Assertions.assertFalse(winner.getFirst().closed);
+                long closeDeadline = System.currentTimeMillis() + 3000;
+                while (!late.closed && System.currentTimeMillis() < closeDeadline && sleep(20)) {
+                }
+                Assertions.assertTrue(late.closed);
+            } finally {
+                MemTransport.unregister("fast");
+                MemTransport.unregister("slow");
+            }
+        } finally {
+            vertx.close();
+        }
+    }
+
+    interface ResourceClient {
+        @Request(uri = "/resource")
+        PreparingRequest<TrackedResource> resource();
+    }
+
+    static final class TrackedResource implements java.io.Closeable {
+        volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    interface IdleSseClient {
+        @Request(uri = "http://localhost:8447/idle")
+        SseStream<String> idle();
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 事件流的订阅不占用短任务的线程池")
+    void baseTest45() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        List<Flow.Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        MemTransport.register("users", (request, metadata) -> {
+            String ids = (String) metadata.getRequestMethodArguments()[0];
+            List<Map<String, Object>> users = new ArrayList<>();
+            for (String id : ids.split(",")) {
+                users.add(Map.of("id", Integer.valueOf(id), "name", "user" + id));
+            }
+            return MemTransport.objectResponse(200, users);
+        });
+        try {
+            // 发送一个事件后保持连接
+            vertx.createHttpServer().requestHandler(request -> request.response().setChunked(true)
+                    .putHeader("Content-Type", "text/event-stream").write("data: hello\n\n"))
+                    .listen(8447).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+            IdleSseClient sse = AnnoHttpClients.create(IdleSseClient.class);
+            int streams = AnnoHttpExecutors.DEFAULT_MAX_THREADS + 1;
+            for (int i = 0; i < streams; i++) {
+                // 订阅者从不请求事件，订阅一直占用其线程
+                sse.idle().subscribe(new Flow.Subscriber<>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscriptions.add(subscription);
+                    }
+
+                    @Override
+                    public void onNext(SseEvent<String> item) {
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                });
+            }
+            Assertions.assertTrue(Thread.getAllStackTraces().keySet().stream()
+                    .filter(t -> t.getName().startsWith("annohttp-sse-")).count() >= streams);
+            BatchedUserClient c = AnnoHttpClients.create(BatchedUserClient.class);
+            Map<String, Object> user = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> c.getUserBlocking(3));
+            Assertions.assertEquals("user3", user.get("name"));
+        } finally {
+            subscriptions.forEach(Flow.Subscription::cancel);
+            MemTransport.unregister("users");
+            vertx.close();
+        }
+    }
+
+    interface SlowClient {
+        @Request(uri = "http://localhost:8448/slowHead")
+        Map<String, Object> slowHead(Deadline deadline);
+
+        @Request(uri = "http://localhost:8448/slowHead")
+        PreparingRequest<Map<String, Object>> slowHeadPreparing();
+
+        @Request(uri = "http://localhost:8448/slowBody")
+        Map<String, Object> slowBody(Deadline deadline);
+    }
+
+    @Http2(maxConcurrentStreams = 1)
+    interface SlowHttp2Client {
+        @Request(uri = "http://localhost:8448/slowBody")
+        InputStream slowBody();
+
+        @Request(uri = "http://localhost:8448/slowBody")
+        Map<String, Object> slowBody(Deadline deadline);
+    }
+
+    @Test
+    @DisplayName("普通测试 -- 服务端仍在响应时截止时间到期")
+    void baseTest46() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            vertx.createHttpServer().requestHandler(request -> {
+                HttpServerResponse response = request.response().putHeader("Content-Type", "application/json");
+                if (request.path().equals("/slowHead")) {
+                    // 响应头迟迟不到达
+                    vertx.setTimer(2000, id -> response.end("{\"name\":\"Mara\"}"));
+                } else {
+                    // 响应头立即到达，响应体迟迟不结束
+                    response.setChunked(true).write("{\"name\":");
+                    vertx.setTimer(2000, id -> response.end("\"Mara\"}"));
+                }
+            }).listen(8448).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+            SlowClient c = AnnoHttpClients.create(SlowClient.class);
+            // 等待响应头时到期
+            Assertions.assertThrows(DeadlineExceededException.class, () -> c.slowHead(Deadline.afterMillis(300)));
+            Assertions.assertThrows(DeadlineExceededException.class,
+                    () -> c.slowHeadPreparing().withDeadline(Deadline.afterMillis(300)).requestClassically());
+            Assertions.assertThrows(DeadlineExceededException.class,
+                    () -> c.slowHeadPreparing().withDeadline(Deadline.afterMillis(300)).requestOperable());
+            // 读取响应体（转换）时到期
+            Assertions.assertThrows(DeadlineExceededException.class, () -> c.slowBody(Deadline.afterMillis(300)));
+            // 等待 HTTP/2 的可用流时到期，不必等到占用流的响应结束
+            SlowHttp2Client h2 = AnnoHttpClients.create(SlowHttp2Client.class);
+            try (InputStream ignored = h2.slowBody()) {
+                long start = System.nanoTime();
+                Assertions.assertThrows(DeadlineExceededException.class, () -> h2.slowBody(Deadline.afterMillis(300)));
+                Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+            }
+        } finally {
+            vertx.close();
+        }
+    }
 }